@@ -2,17 +2,14 @@ package com.mahal.sync;
 
 import com.mahal.subscription.model.Subscription;
 import com.mahal.subscription.repository.SubscriptionRepository;
+import com.mahal.util.SharedHttpClient;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -113,28 +110,16 @@ public class BidirectionalSyncService {
                 String fullUrl = supabaseUrl + "/rest/v1/subscriptions?select=*&order=updated_at.desc";
                 System.out.println("🔄 [SYNC] Attempting to fetch from Supabase (Attempt " + attempt + "): " + fullUrl);
 
-                URL url = new java.net.URI(fullUrl).toURL();
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setRequestProperty("apikey", apiKey);
-                conn.setRequestProperty("Authorization", "Bearer " + apiKey);
+                // Long timeout for large data sets or slow networks
+                SharedHttpClient.Response response = SharedHttpClient.getInstance().send(
+                        SharedHttpClient.request("GET", fullUrl)
+                                .header("apikey", apiKey)
+                                .header("Authorization", "Bearer " + apiKey)
+                                .timeout(Duration.ofSeconds(60)));
 
-                // Increase timeouts for large data sets or slow networks
-                conn.setConnectTimeout(60000); // 60 seconds
-                conn.setReadTimeout(60000); // 60 seconds
-
-                int responseCode = conn.getResponseCode();
+                int responseCode = response.getStatusCode();
                 if (responseCode == 200) {
-                    BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    reader.close();
-
-                    JSONArray jsonArray = new JSONArray(response.toString());
+                    JSONArray jsonArray = new JSONArray(response.getBody());
                     return parseSubscriptionsFromJson(jsonArray);
                 } else {
                     System.err.println("✗ Supabase sync attempt " + attempt + " failed: HTTP " + responseCode);
@@ -1,16 +1,13 @@
 package com.mahal.sync;
 
+import com.mahal.util.SharedHttpClient;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 /**
  * Service to sync data with Supabase using REST API.
@@ -98,6 +95,19 @@ public class SupabaseSyncService {
         }
     }
 
+    /**
+     * Request to the Supabase REST API with the API key headers set.
+     */
+    private SharedHttpClient.Request supabaseRequest(String method, String fullUrl) {
+        return SharedHttpClient.request(method, fullUrl)
+                .header("apikey", getSupabaseApiKey())
+                .header("Authorization", "Bearer " + getSupabaseApiKey());
+    }
+
+    private static SharedHttpClient.Response send(SharedHttpClient.Request request) throws java.io.IOException {
+        return SharedHttpClient.getInstance().send(request);
+    }
+
     /**
      * Insert a record into Supabase.
      */
@@ -120,22 +130,11 @@ public class SupabaseSyncService {
                 }
             }
 
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-            conn.setRequestProperty("Prefer", "return=representation,resolution=merge-duplicates");
-            conn.setConnectTimeout(30000);
-            conn.setReadTimeout(30000);
-            conn.setDoOutput(true);
-
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(finalJsonData.getBytes(StandardCharsets.UTF_8));
-            }
-
-            int code = conn.getResponseCode();
+            int code = send(supabaseRequest("POST", fullUrl)
+                    .header("Content-Type", "application/json")
+                    .header("Prefer", "return=representation,resolution=merge-duplicates")
+                    .timeout(Duration.ofSeconds(30))
+                    .body(finalJsonData)).getStatusCode();
             return code == 201 || code == 200;
         } catch (Exception e) {
             e.printStackTrace();
@@ -170,22 +169,10 @@ public class SupabaseSyncService {
             } catch (Exception e) {
             }
 
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("X-HTTP-Method-Override", "PATCH");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-            conn.setConnectTimeout(30000);
-            conn.setReadTimeout(30000);
-            conn.setDoOutput(true);
-
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(finalJsonData.getBytes(StandardCharsets.UTF_8));
-            }
-
-            int code = conn.getResponseCode();
+            int code = send(supabaseRequest("PATCH", fullUrl)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .body(finalJsonData)).getStatusCode();
             return code == 200 || code == 204;
         } catch (Exception e) {
             e.printStackTrace();
@@ -209,17 +196,122 @@ public class SupabaseSyncService {
             }
 
             String fullUrl = getSupabaseUrl() + "/rest/v1/" + tableName + "?" + filter;
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("DELETE");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-            return conn.getResponseCode() <= 204;
+            return send(supabaseRequest("DELETE", fullUrl)).getStatusCode() <= 204;
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Outcome of a bulk request: the HTTP status (0 when the request could
+     * not be sent) and the error returned, if any.
+     */
+    public static class BulkResponse {
+        private final int status;
+        private final String error;
+
+        BulkResponse(int status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * True if PostgREST rejected the rows themselves (4xx), as opposed to
+         * a network or server failure that would fail any subset as well.
+         */
+        public boolean isRejected() {
+            return status >= 400 && status < 500;
+        }
+    }
+
+    /**
+     * Insert or update many records of one table in a single request, as a
+     * JSON array upsert on {@code onConflict}. All rows should have the same
+     * keys. PostgREST applies the array atomically: if one row is rejected,
+     * none is written.
+     */
+    public BulkResponse upsertMany(String tableName, org.json.JSONArray rows, String onConflict) {
+        if (!isConfigured())
+            return new BulkResponse(0, "Supabase not configured");
+        try {
+            String fullUrl = getSupabaseUrl() + "/rest/v1/" + tableName + "?on_conflict="
+                    + URLEncoder.encode(onConflict, StandardCharsets.UTF_8);
+            return toBulkResponse(send(supabaseRequest("POST", fullUrl)
+                    .header("Content-Type", "application/json")
+                    .header("Prefer", "return=minimal,resolution=merge-duplicates")
+                    .body(rows.toString())));
+        } catch (Exception e) {
+            return new BulkResponse(0, e.toString());
+        }
+    }
+
+    /**
+     * Ids among {@code recordIds} that still exist in a table for
+     * {@code userId}, fetched in one request ({@code select=id&id=in.(...)}).
+     * Returns null if the request failed.
+     */
+    public java.util.Set<String> fetchExistingIds(String tableName, java.util.Collection<String> recordIds,
+            String userId) {
+        if (!isConfigured())
+            return null;
+        try {
+            String fullUrl = getSupabaseUrl() + "/rest/v1/" + tableName + "?select=id&id=in.("
+                    + String.join(",", recordIds) + ")&user_id=eq." + URLEncoder.encode(userId, StandardCharsets.UTF_8);
+            SharedHttpClient.Response response = send(supabaseRequest("GET", fullUrl));
+            if (response.getStatusCode() != 200) {
+                System.err.println("Error fetching existing ids of " + tableName + ": HTTP " + response.getStatusCode());
+                return null;
+            }
+            org.json.JSONArray rows = new org.json.JSONArray(response.getBody());
+            java.util.Set<String> ids = new java.util.HashSet<>();
+            for (int i = 0; i < rows.length(); i++) {
+                ids.add(String.valueOf(rows.getJSONObject(i).get("id")));
+            }
+            return ids;
+        } catch (Exception e) {
+            System.err.println("Error fetching existing ids of " + tableName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete many records of one table, owned by {@code userId}, in a single
+     * request ({@code id=in.(...)}).
+     */
+    public BulkResponse deleteMany(String tableName, java.util.Collection<String> recordIds, String userId) {
+        if (!isConfigured())
+            return new BulkResponse(0, "Supabase not configured");
+        try {
+            String fullUrl = getSupabaseUrl() + "/rest/v1/" + tableName + "?id=in.(" + String.join(",", recordIds)
+                    + ")&user_id=eq." + URLEncoder.encode(userId, StandardCharsets.UTF_8);
+            return toBulkResponse(send(supabaseRequest("DELETE", fullUrl)
+                    .header("Prefer", "return=minimal")));
+        } catch (Exception e) {
+            return new BulkResponse(0, e.toString());
+        }
+    }
+
+    private static BulkResponse toBulkResponse(SharedHttpClient.Response response) {
+        int code = response.getStatusCode();
+        if (response.isSuccess()) {
+            return new BulkResponse(code, null);
+        }
+        String body = response.getBody();
+        return new BulkResponse(code, body != null && !body.isEmpty() ? body : "HTTP " + code);
+    }
+
     /**
      * Fetch the full subscription record for a user from Supabase.
      */
@@ -233,22 +325,10 @@ public class SupabaseSyncService {
                     : "user_id.eq." + encodedId;
             String fullUrl = getSupabaseUrl() + "/rest/v1/subscriptions?" + filter + "&order=created_at.desc&limit=1";
 
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-
-            if (conn.getResponseCode() == 200) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder sb = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null)
-                        sb.append(line);
-                    org.json.JSONArray array = new org.json.JSONArray(sb.toString());
-                    return array.length() > 0 ? array.getJSONObject(0) : null;
-                }
+            SharedHttpClient.Response response = send(supabaseRequest("GET", fullUrl));
+            if (response.getStatusCode() == 200) {
+                org.json.JSONArray array = new org.json.JSONArray(response.getBody());
+                return array.length() > 0 ? array.getJSONObject(0) : null;
             }
         } catch (Exception e) {
             System.err.println("Error fetching subscription: " + e.getMessage());
@@ -274,21 +354,9 @@ public class SupabaseSyncService {
         }
         try {
             String fullUrl = getSupabaseUrl() + "/rest/v1/subscription_pricing?order=plan_duration.asc";
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-
-            if (conn.getResponseCode() == 200) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder sb = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null)
-                        sb.append(line);
-                    return new org.json.JSONArray(sb.toString());
-                }
+            SharedHttpClient.Response response = send(supabaseRequest("GET", fullUrl));
+            if (response.getStatusCode() == 200) {
+                return new org.json.JSONArray(response.getBody());
             }
         } catch (Exception e) {
             System.err.println("Error fetching pricing: " + e.getMessage());
@@ -305,21 +373,9 @@ public class SupabaseSyncService {
         try {
             String fullUrl = getSupabaseUrl() + "/rest/v1/" + tableName
                     + (filter != null && !filter.isEmpty() ? "?" + filter : "");
-            URL url = java.net.URI.create(fullUrl).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("apikey", getSupabaseApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + getSupabaseApiKey());
-
-            if (conn.getResponseCode() == 200) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder sb = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null)
-                        sb.append(line);
-                    return sb.toString();
-                }
+            SharedHttpClient.Response response = send(supabaseRequest("GET", fullUrl));
+            if (response.getStatusCode() == 200) {
+                return response.getBody();
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,252 @@
+package com.mahal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One {@link HttpClient} shared by every outgoing HTTP call (Supabase REST,
+ * edge functions, the local backend, connectivity checks).
+ *
+ * Connections are pooled and kept alive between calls, HTTP/2 is used where
+ * the server offers it (many requests then share one TLS connection), and
+ * responses are requested gzip-compressed. Request bodies are gzip-compressed
+ * too when enabled.
+ *
+ * Settings, as system properties or environment variables:
+ * <ul>
+ * <li>MAHAL_HTTP_CONNECT_TIMEOUT_MS: connect timeout (default 30000)</li>
+ * <li>MAHAL_HTTP_TIMEOUT_MS: default per-request timeout (default 60000)</li>
+ * <li>MAHAL_HTTP_GZIP_REQUESTS: compress request bodies of 1 KB and more
+ * (default false; the server must accept Content-Encoding: gzip)</li>
+ * </ul>
+ */
+public final class SharedHttpClient {
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private static SharedHttpClient instance;
+
+    private final HttpClient client;
+    private final Duration defaultTimeout;
+    private final boolean gzipRequests;
+
+    /**
+     * A request to send; headers and body are optional.
+     */
+    public static final class Request {
+        private final String method;
+        private final String url;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private String body;
+        private Duration timeout;
+        private Duration deadline;
+
+        private Request(String method, String url) {
+            this.method = method;
+            this.url = url;
+        }
+
+        public Request header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        public Request body(String body) {
+            this.body = body;
+            return this;
+        }
+
+        public Request timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Limit for the whole call, connecting included. The connect timeout
+         * is shared by all calls of the client; callers that must give up
+         * sooner on an unreachable host (e.g. login) set a deadline.
+         */
+        public Request deadline(Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+    }
+
+    /**
+     * Status code and decoded body of a response.
+     */
+    public static final class Response {
+        private final int statusCode;
+        private final String body;
+
+        Response(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+    }
+
+    private SharedHttpClient() {
+        this.defaultTimeout = Duration.ofMillis(setting("MAHAL_HTTP_TIMEOUT_MS", 60000));
+        this.gzipRequests = Boolean.parseBoolean(setting("MAHAL_HTTP_GZIP_REQUESTS", "false"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(setting("MAHAL_HTTP_CONNECT_TIMEOUT_MS", 30000)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public static synchronized SharedHttpClient getInstance() {
+        if (instance == null) {
+            instance = new SharedHttpClient();
+        }
+        return instance;
+    }
+
+    public static Request request(String method, String url) {
+        return new Request(method, url);
+    }
+
+    /**
+     * Send a request and wait for the response, at most until its deadline if
+     * one is set.
+     */
+    public Response send(Request request) throws IOException {
+        if (request.deadline != null) {
+            return sendWithin(request);
+        }
+        try {
+            return toResponse(client.send(build(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted: " + request.method + " " + request.url);
+        }
+    }
+
+    private Response sendWithin(Request request) throws IOException {
+        CompletableFuture<HttpResponse<byte[]>> exchange = client.sendAsync(build(request),
+                HttpResponse.BodyHandlers.ofByteArray());
+        try {
+            return toResponse(exchange.get(request.deadline.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException(request.method + " " + request.url + " timed out after "
+                    + request.deadline.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted: " + request.method + " " + request.url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Send a request without blocking; requests sent together are multiplexed
+     * over one connection where the server supports HTTP/2.
+     */
+    public CompletableFuture<Response> sendAsync(Request request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = build(request);
+        } catch (IOException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            try {
+                return toResponse(response);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        });
+    }
+
+    private HttpRequest build(Request request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url))
+                .timeout(request.timeout != null ? request.timeout : defaultTimeout)
+                .header("Accept-Encoding", "gzip");
+        request.headers.forEach(builder::header);
+
+        HttpRequest.BodyPublisher publisher;
+        if (request.body == null) {
+            publisher = HttpRequest.BodyPublishers.noBody();
+        } else {
+            byte[] bytes = request.body.getBytes(StandardCharsets.UTF_8);
+            if (gzipRequests && bytes.length >= GZIP_MIN_BYTES) {
+                bytes = gzip(bytes);
+                builder.header("Content-Encoding", "gzip");
+            }
+            publisher = HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+        return builder.method(request.method, publisher).build();
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        if (body != null && body.length > 0
+                && "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            }
+        }
+        return new Response(response.statusCode(), body != null ? new String(body, StandardCharsets.UTF_8) : "");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            value = System.getenv(name);
+        }
+        return value != null && !value.isEmpty() ? value.trim() : defaultValue;
+    }
+
+    private static long setting(String name, long defaultValue) {
+        try {
+            return Long.parseLong(setting(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
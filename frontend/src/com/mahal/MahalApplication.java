@@ -157,8 +157,11 @@ public class MahalApplication extends Application {
 
     @Override
     public void stop() {
+        System.out.println("Background tasks at exit: " + com.mahal.util.BackgroundTasks.getInstance());
         // Shutdown sync manager when application closes
         SyncManager.getInstance().shutdown();
+        // Checkpoint the WAL and release pooled SQLite connections
+        com.mahal.database.DatabaseService.getInstance().shutdown();
     }
 
     /**
@@ -2,6 +2,7 @@ package com.mahal.controller;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -25,6 +26,8 @@ import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
 import javafx.application.Platform;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DashboardController {
     private Stage stage;
@@ -34,6 +37,7 @@ public class DashboardController {
     private StackPane contentArea;
     private Button activeNavButton;
     private Timeline subscriptionGuard;
+    private final ViewCache viewCache = new ViewCache();
 
     // Color scheme matching the web app
     private static final String PRIMARY_800 = "#166534"; // Dark green
@@ -303,127 +307,71 @@ public class DashboardController {
     }
 
     private void showMasjidView() {
-        MasjidController controller = new MasjidController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("masjid", MasjidController::new, MasjidController::getView);
     }
 
     private void showStaffView() {
-        StaffController controller = new StaffController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("staff", StaffController::new, StaffController::getView);
     }
 
     private void showMembersView() {
-        MemberController controller = new MemberController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("members", MemberController::new, MemberController::getView);
     }
 
     private void showAccountsView() {
-        AccountsController controller = new AccountsController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("accounts", AccountsController::new, AccountsController::getView);
     }
 
     private void showCertificatesView() {
-        CertificateController controller = new CertificateController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("certificates", CertificateController::new, CertificateController::getView);
     }
 
     private void showEventsView() {
-        EventController controller = new EventController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("events", EventController::new, EventController::getView);
     }
 
     private void showInventoryView() {
-        InventoryController controller = new InventoryController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("inventory", InventoryController::new, InventoryController::getView);
     }
 
     private void showSettingsView() {
-        SettingsController controller = new SettingsController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("settings", SettingsController::new, SettingsController::getView);
     }
 
     private void showAboutView() {
-        AboutController controller = new AboutController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("about", AboutController::new, AboutController::getView);
     }
 
     private void showHomeDashboardView() {
-        HomeDashboardController controller = new HomeDashboardController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("home", HomeDashboardController::new, HomeDashboardController::getView);
     }
 
     private void showReportsView() {
-        ReportsController controller = new ReportsController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("reports", ReportsController::new, ReportsController::getView);
     }
 
     private void showStudentsView() {
-        StudentController controller = new StudentController();
-        contentArea.getChildren().clear();
-        ScrollPane scrollPane = new ScrollPane(controller.getView());
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
-        contentArea.getChildren().add(scrollPane);
+        showView("students", StudentController::new, StudentController::getView);
+    }
+
+    /**
+     * Show a section, reusing its cached view (and controller) when it has
+     * been visited before.
+     */
+    private <C> void showView(String key, Supplier<C> controllerFactory, Function<C, Node> viewOf) {
+        Node view = viewCache.get(key, controllerFactory, controller -> {
+            ScrollPane scrollPane = new ScrollPane(viewOf.apply(controller));
+            scrollPane.setFitToWidth(true);
+            scrollPane.setFitToHeight(true);
+            scrollPane.setStyle("-fx-background: " + BG_GRAY_50 + ";");
+            return scrollPane;
+        });
+        contentArea.getChildren().setAll(view);
     }
 
     private void logout() {
         stopSubscriptionGuard();
+        viewCache.clear();
         SessionManager.getInstance().logout();
         LoginController loginController = new LoginController();
         loginController.show(stage);
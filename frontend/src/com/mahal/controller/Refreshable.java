@@ -0,0 +1,10 @@
+package com.mahal.controller;
+
+/**
+ * A controller whose view can reload its data in place. {@link ViewCache}
+ * calls {@link #refresh()} on the JavaFX thread when a cached view is shown
+ * again; implementations should do their database work off that thread.
+ */
+public interface Refreshable {
+    void refresh();
+}
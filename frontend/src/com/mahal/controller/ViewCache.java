@@ -0,0 +1,141 @@
+package com.mahal.controller;
+
+import com.mahal.util.BackgroundTasks;
+import com.mahal.util.EventBus;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the dashboard's section views (and their controllers) alive between
+ * navigations, so returning to a section shows it as it was left instead of
+ * rebuilding it and reloading every table.
+ *
+ * A view shown again is displayed immediately with its last data; if its
+ * controller is {@link Refreshable} and was not revalidated recently, its
+ * refresh runs right after. Controllers stay current in between through
+ * their EventBus subscriptions, which must be registered with the
+ * controller as owner so an evicted controller can be released; its
+ * pending {@link BackgroundTasks} loads are cancelled as well.
+ *
+ * Views are evicted least recently used first once there are more than
+ * the maximum, and one idle view per navigation while heap use is over
+ * budget. The view being shown is never evicted.
+ */
+public class ViewCache {
+    /** Cached views older than this are revalidated when shown again. */
+    private static final long REVALIDATE_AFTER_MS = 30_000;
+    /** Share of the maximum heap above which idle views are evicted. */
+    private static final double HEAP_BUDGET = 0.75;
+    /** Rough heap allowance per cached view, used to size the cache. */
+    private static final long BYTES_PER_VIEW = 48L * 1024 * 1024;
+
+    private static final class Entry {
+        final Object controller;
+        final Node view;
+        long refreshedAt;
+
+        Entry(Object controller, Node view) {
+            this.controller = controller;
+            this.view = view;
+            this.refreshedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final int maxViews;
+    /** Access-ordered: iteration starts at the least recently shown view. */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ViewCache() {
+        this((int) Math.max(3, Math.min(12, Runtime.getRuntime().maxMemory() / BYTES_PER_VIEW)));
+    }
+
+    public ViewCache(int maxViews) {
+        this.maxViews = Math.max(1, maxViews);
+    }
+
+    /**
+     * The view for a section, built with the given controller factory and
+     * view builder on first use and reused afterwards. Call on the JavaFX
+     * thread.
+     */
+    public <C> Node get(String key, Supplier<C> controllerFactory, Function<C, Node> viewBuilder) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            revalidate(key, entry);
+        } else {
+            C controller = controllerFactory.get();
+            entry = new Entry(controller, viewBuilder.apply(controller));
+            entries.put(key, entry);
+        }
+        evictIdle(key);
+        return entry.view;
+    }
+
+    /**
+     * Drop a section's view so the next visit rebuilds it.
+     */
+    public void invalidate(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            dispose(entry);
+        }
+    }
+
+    /**
+     * Drop every view, e.g. on logout.
+     */
+    public void clear() {
+        for (Entry entry : entries.values()) {
+            dispose(entry);
+        }
+        entries.clear();
+    }
+
+    private void revalidate(String key, Entry entry) {
+        long now = System.currentTimeMillis();
+        if (!(entry.controller instanceof Refreshable) || now - entry.refreshedAt < REVALIDATE_AFTER_MS) {
+            return;
+        }
+        entry.refreshedAt = now;
+        // Let the cached view go on screen first
+        Platform.runLater(() -> {
+            try {
+                ((Refreshable) entry.controller).refresh();
+            } catch (Exception e) {
+                System.err.println("Error refreshing view '" + key + "': " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private void evictIdle(String currentKey) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        boolean overHeap = isOverHeapBudget();
+        while (it.hasNext() && (entries.size() > maxViews || overHeap)) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(currentKey)) {
+                continue;
+            }
+            System.out.println("ViewCache: evicting '" + eldest.getKey() + "'");
+            it.remove();
+            dispose(eldest.getValue());
+            overHeap = false;
+        }
+    }
+
+    private static boolean isOverHeapBudget() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return used > runtime.maxMemory() * HEAP_BUDGET;
+    }
+
+    private static void dispose(Entry entry) {
+        EventBus.getInstance().unsubscribeAll(entry.controller);
+        BackgroundTasks.getInstance().cancelAll(entry.controller);
+    }
+}
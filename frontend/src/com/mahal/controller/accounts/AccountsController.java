@@ -7,12 +7,15 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.*;
 import com.mahal.model.*;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
 import com.mahal.util.FormatUtil;
+import com.mahal.util.LazyTableLoader;
 import javafx.geometry.Pos;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,7 +24,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
-public class AccountsController {
+public class AccountsController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox incomeTypeViewPane;
@@ -38,16 +41,18 @@ public class AccountsController {
     private IncomeDAO incomeDAO;
     private DueTypeDAO dueTypeDAO;
     private DueCollectionDAO dueCollectionDAO;
+    private DueObligationDAO dueObligationDAO;
     private ExpenseDAO expenseDAO;
-    private MasjidDAO masjidDAO;
     private MemberDAO memberDAO;
 
     // Data lists
     private ObservableList<IncomeType> incomeTypeList;
     private ObservableList<Income> incomeList;
+    private LazyTableLoader<Income> incomeLoader;
     private ObservableList<DueType> dueTypeList;
     private ObservableList<DueCollection> dueCollectionList;
     private ObservableList<Expense> expenseList;
+    private LazyTableLoader<Expense> expenseLoader;
     private ObservableList<Masjid> masjidList;
     private ObservableList<Member> memberList;
     private ObservableList<java.util.Map<String, Object>> unpaidList;
@@ -77,8 +82,8 @@ public class AccountsController {
         this.incomeDAO = new IncomeDAO();
         this.dueTypeDAO = new DueTypeDAO();
         this.dueCollectionDAO = new DueCollectionDAO();
+        this.dueObligationDAO = new DueObligationDAO();
         this.expenseDAO = new ExpenseDAO();
-        this.masjidDAO = new MasjidDAO();
         this.memberDAO = new MemberDAO();
 
         this.incomeTypeList = FXCollections.observableArrayList();
@@ -94,19 +99,19 @@ public class AccountsController {
         loadAllData();
 
         // Subscribe to sync events
-        com.mahal.util.EventBus.getInstance().subscribe("income_types",
+        com.mahal.util.EventBus.getInstance().subscribe("income_types", this,
                 e -> javafx.application.Platform.runLater(this::loadIncomeTypes));
-        com.mahal.util.EventBus.getInstance().subscribe("incomes",
+        com.mahal.util.EventBus.getInstance().subscribe("incomes", this,
                 e -> javafx.application.Platform.runLater(this::loadIncomes));
-        com.mahal.util.EventBus.getInstance().subscribe("due_types",
+        com.mahal.util.EventBus.getInstance().subscribe("due_types", this,
                 e -> javafx.application.Platform.runLater(this::loadDueTypes));
-        com.mahal.util.EventBus.getInstance().subscribe("due_collections",
+        com.mahal.util.EventBus.getInstance().subscribe("due_collections", this,
                 e -> javafx.application.Platform.runLater(this::loadCollections));
-        com.mahal.util.EventBus.getInstance().subscribe("expenses",
+        com.mahal.util.EventBus.getInstance().subscribe("expenses", this,
                 e -> javafx.application.Platform.runLater(this::loadExpenses));
-        com.mahal.util.EventBus.getInstance().subscribe("members",
+        com.mahal.util.EventBus.getInstance().subscribe("members", this,
                 e -> javafx.application.Platform.runLater(this::loadMembers));
-        com.mahal.util.EventBus.getInstance().subscribe("masjids",
+        com.mahal.util.EventBus.getInstance().subscribe("masjids", this,
                 e -> javafx.application.Platform.runLater(this::loadMasjids));
     }
 
@@ -114,6 +119,12 @@ public class AccountsController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadAllData();
+        refreshUnpaidList();
+    }
+
     private void createView() {
         view = new VBox(20);
         view.setPadding(new Insets(24));
@@ -481,31 +492,17 @@ public class AccountsController {
         incomeTable.getColumns().addAll(dateCol, incomeTypeCol, masjidCol, memberCol,
                 amountCol, paymentModeCol, receiptNoCol, remarksCol, actionsCol);
 
-        // Real-time Search
-        FilteredList<Income> filteredData = new FilteredList<>(incomeList, p -> true);
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredData.setPredicate(income -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (income.getIncomeTypeName() != null
-                        && income.getIncomeTypeName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (income.getMasjidName() != null && income.getMasjidName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (income.getMemberName() != null && income.getMemberName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (income.getPaymentMode() != null && income.getPaymentMode().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (income.getReceiptNo() != null && income.getReceiptNo().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-        });
-        SortedList<Income> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(incomeTable.comparatorProperty());
-        incomeTable.setItems(sortedData);
+        // Rows are paged in from the database; search and sort run in SQL
+        incomeLoader = new LazyTableLoader<>(incomeTable, incomeList, LazyTableLoader.DEFAULT_PAGE_SIZE,
+                PageSort.desc(IncomeDAO.SortField.DATE), Income::getId, incomeDAO::getPage);
+        incomeLoader.mapSortColumn(dateCol, IncomeDAO.SortField.DATE);
+        incomeLoader.mapSortColumn(incomeTypeCol, IncomeDAO.SortField.INCOME_TYPE);
+        incomeLoader.mapSortColumn(masjidCol, IncomeDAO.SortField.MASJID);
+        incomeLoader.mapSortColumn(memberCol, IncomeDAO.SortField.MEMBER);
+        incomeLoader.mapSortColumn(amountCol, IncomeDAO.SortField.AMOUNT);
+        incomeLoader.mapSortColumn(paymentModeCol, IncomeDAO.SortField.PAYMENT_MODE);
+        incomeLoader.mapSortColumn(receiptNoCol, IncomeDAO.SortField.RECEIPT_NO);
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> incomeLoader.setFilter(newValue));
 
         view.getChildren().addAll(actionRow, incomeTable);
         return view;
@@ -806,26 +803,15 @@ public class AccountsController {
 
         expenseTable.getColumns().addAll(dateCol, typeCol, masjidCol, amountCol, notesCol, actionsCol);
 
-        // Real-time Search
-        FilteredList<Expense> filteredData = new FilteredList<>(expenseList, p -> true);
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredData.setPredicate(expense -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (expense.getExpenseType() != null
-                        && expense.getExpenseType().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (expense.getMasjidName() != null && expense.getMasjidName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (expense.getNotes() != null && expense.getNotes().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-        });
-        SortedList<Expense> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(expenseTable.comparatorProperty());
-        expenseTable.setItems(sortedData);
+        // Rows are paged in from the database; search and sort run in SQL
+        expenseLoader = new LazyTableLoader<>(expenseTable, expenseList, LazyTableLoader.DEFAULT_PAGE_SIZE,
+                PageSort.desc(ExpenseDAO.SortField.DATE), Expense::getId, expenseDAO::getPage);
+        expenseLoader.mapSortColumn(dateCol, ExpenseDAO.SortField.DATE);
+        expenseLoader.mapSortColumn(typeCol, ExpenseDAO.SortField.EXPENSE_TYPE);
+        expenseLoader.mapSortColumn(masjidCol, ExpenseDAO.SortField.MASJID);
+        expenseLoader.mapSortColumn(amountCol, ExpenseDAO.SortField.AMOUNT);
+        expenseLoader.mapSortColumn(notesCol, ExpenseDAO.SortField.NOTES);
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> expenseLoader.setFilter(newValue));
 
         view.getChildren().addAll(actionRow, expenseTable);
         return view;
@@ -851,7 +837,7 @@ public class AccountsController {
         for (Member member : memberList) {
             if (member.getAddress() != null && !member.getAddress().trim().isEmpty()) {
                 String display = member.getAddress().trim();
-                String canon = display.toLowerCase();
+                String canon = AddressKey.of(display);
                 addressMap.putIfAbsent(canon, display);
             }
         }
@@ -1156,78 +1142,38 @@ public class AccountsController {
     }
 
     private void loadIncomes() {
-        new Thread(() -> {
-            try {
-                java.util.List<Income> incomes = incomeDAO.getAll();
-                System.out.println("loadIncomes(): Retrieved " + incomes.size() + " incomes from database");
-                javafx.application.Platform.runLater(() -> {
-                    incomeList.clear();
-                    incomeList.addAll(incomes);
-                    System.out.println("loadIncomes(): Updated table with " + incomeList.size() + " incomes");
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading income data: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        incomeLoader.refresh();
     }
 
     private void loadIncomeTypes() {
-        new Thread(() -> {
-            java.util.List<IncomeType> types = incomeTypeDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                incomeTypeList.clear();
-                incomeTypeList.addAll(types);
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "incomeTypes",
+                () -> ReferenceDataCache.getInstance().getIncomeTypes(), types -> {
+                    incomeTypeList.clear();
+                    incomeTypeList.addAll(types);
+                });
     }
 
     private void loadDueTypes() {
-        new Thread(() -> {
-            java.util.List<DueType> types = dueTypeDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                dueTypeList.clear();
-                dueTypeList.addAll(types);
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "dueTypes",
+                () -> ReferenceDataCache.getInstance().getDueTypes(), types -> {
+                    dueTypeList.clear();
+                    dueTypeList.addAll(types);
+                });
     }
 
     private void loadCollections() {
-        new Thread(() -> {
-            try {
-                java.util.List<DueCollection> collections = dueCollectionDAO.getAll();
-                System.out.println("loadCollections(): Retrieved " + collections.size() + " collections from database");
-                javafx.application.Platform.runLater(() -> {
-                    dueCollectionList.clear();
-                    dueCollectionList.addAll(collections);
-                    System.out.println(
-                            "loadCollections(): Updated table with " + dueCollectionList.size() + " collections");
-                    updateDueReportSummary();
-                    refreshAddressFilters();
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading collection data: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "collections", () -> dueCollectionDAO.getAll(), collections -> {
+            dueCollectionList.clear();
+            dueCollectionList.addAll(collections);
+            System.out.println("loadCollections(): Updated table with " + dueCollectionList.size() + " collections");
+            updateDueReportSummary();
+            refreshAddressFilters();
+        });
     }
 
     private void loadExpenses() {
-        new Thread(() -> {
-            try {
-                java.util.List<Expense> expenses = expenseDAO.getAll();
-                System.out.println("loadExpenses(): Retrieved " + expenses.size() + " expenses from database");
-                javafx.application.Platform.runLater(() -> {
-                    expenseList.clear();
-                    expenseList.addAll(expenses);
-                    System.out.println("loadExpenses(): Updated table with " + expenseList.size() + " expenses");
-                    updateExpenseReportSummary();
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading expense data: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        expenseLoader.refresh();
+        updateExpenseReportSummary();
     }
 
     private void updateDueReportSummary() {
@@ -1241,36 +1187,34 @@ public class AccountsController {
         }
     }
 
+    /**
+     * Totals over all expenses. Computed in SQL because the expense table only
+     * holds the pages loaded so far.
+     */
     private void updateExpenseReportSummary() {
         if (expenseTotalLabel != null && expenseCountLabel != null) {
-            BigDecimal total = expenseList.stream()
-                    .map(Expense::getAmount)
-                    .filter(a -> a != null)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            expenseTotalLabel.setText("Total Expense: " + FormatUtil.formatCurrency(total));
-            expenseCountLabel.setText("Total Records: " + expenseList.size());
+            BackgroundTasks.getInstance().load(this, "expenseSummary",
+                    () -> new Object[] { expenseDAO.getTotalAmount(), expenseDAO.getCount() }, summary -> {
+                        expenseTotalLabel.setText("Total Expense: " + FormatUtil.formatCurrency((BigDecimal) summary[0]));
+                        expenseCountLabel.setText("Total Records: " + summary[1]);
+                    });
         }
     }
 
     private void loadMasjids() {
-        new Thread(() -> {
-            java.util.List<Masjid> masjids = masjidDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                masjidList.clear();
-                masjidList.addAll(masjids);
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "masjids",
+                () -> ReferenceDataCache.getInstance().getMasjids(), masjids -> {
+                    masjidList.clear();
+                    masjidList.addAll(masjids);
+                });
     }
 
     private void loadMembers() {
-        new Thread(() -> {
-            java.util.List<Member> members = memberDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                memberList.clear();
-                memberList.addAll(members);
-                refreshAddressFilters();
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "members", () -> memberDAO.getAll(), members -> {
+            memberList.clear();
+            memberList.addAll(members);
+            refreshAddressFilters();
+        });
     }
 
     /**
@@ -1282,7 +1226,7 @@ public class AccountsController {
         for (Member member : memberList) {
             if (member.getAddress() != null && !member.getAddress().trim().isEmpty()) {
                 String display = member.getAddress().trim();
-                String canon = display.toLowerCase();
+                String canon = AddressKey.of(display);
                 addressMap.putIfAbsent(canon, display);
             }
         }
@@ -1420,7 +1364,7 @@ public class AccountsController {
                 return;
             }
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 boolean success;
                 if (incomeType == null) {
                     Long newId = incomeTypeDAO.create(data);
@@ -1435,7 +1379,7 @@ public class AccountsController {
                         loadIncomeTypes();
                     }
                 });
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -1583,7 +1527,7 @@ public class AccountsController {
                 return;
             }
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 boolean success;
                 if (dueType == null) {
                     Long newId = dueTypeDAO.create(data);
@@ -1598,7 +1542,7 @@ public class AccountsController {
                         loadDueTypes();
                     }
                 });
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -1656,7 +1600,7 @@ public class AccountsController {
         for (Member member : memberList) {
             if (member.getAddress() != null && !member.getAddress().trim().isEmpty()) {
                 String display = member.getAddress().trim();
-                String canon = display.toLowerCase();
+                String canon = AddressKey.of(display);
                 addressMap.putIfAbsent(canon, display);
             }
         }
@@ -1842,7 +1786,7 @@ public class AccountsController {
             saveButton.setDisable(true);
             saveButton.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     // Find a member with the selected address to set member_id
                     // Query database directly to ensure we find the member
@@ -1897,7 +1841,7 @@ public class AccountsController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -2094,7 +2038,7 @@ public class AccountsController {
             saveButton.setDisable(true);
             saveButton.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     if (expense == null) {
@@ -2141,7 +2085,7 @@ public class AccountsController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -2171,14 +2115,14 @@ public class AccountsController {
         alert.setContentText("Are you sure you want to delete this income type?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = incomeTypeDAO.delete(incomeType.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
                             loadIncomeTypes();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -2189,14 +2133,14 @@ public class AccountsController {
         alert.setContentText("Are you sure you want to delete this due type?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = dueTypeDAO.delete(dueType.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
                             loadDueTypes();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -2207,7 +2151,7 @@ public class AccountsController {
         alert.setContentText("Are you sure you want to delete this collection?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = dueCollectionDAO.delete(collection.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -2215,7 +2159,7 @@ public class AccountsController {
                             refreshUnpaidList(); // Refresh unpaid list to update status and paid amount
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -2226,14 +2170,14 @@ public class AccountsController {
         alert.setContentText("Are you sure you want to delete this expense?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = expenseDAO.delete(expense.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
                             loadExpenses();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -2534,7 +2478,7 @@ public class AccountsController {
                 return;
             }
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     if (income == null) {
@@ -2577,7 +2521,7 @@ public class AccountsController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -2610,14 +2554,14 @@ public class AccountsController {
         alert.setContentText("Are you sure you want to delete this income record?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = incomeDAO.delete(income.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
                             loadIncomes();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -2632,142 +2576,82 @@ public class AccountsController {
     }
 
     private void loadUnpaidList(String addressFilter, DueType dueTypeFilter, String statusFilter) {
-        new Thread(() -> {
-            java.util.List<DueCollection> allCollections = dueCollectionDAO.getAll();
-            java.util.List<Member> members = memberDAO.getAll();
-            java.util.List<DueType> dueTypes = dueTypeDAO.getAll();
-
-            // Get unique addresses (no duplicates)
-            java.util.Set<String> uniqueAddresses = new java.util.HashSet<>();
-            for (Member member : members) {
-                if (member.getAddress() != null && !member.getAddress().trim().isEmpty()) {
-                    uniqueAddresses.add(member.getAddress().trim().toLowerCase());
-                }
-            }
+        BackgroundTasks.getInstance().load(this, "unpaid", BackgroundTasks.Priority.INTERACTIVE, () -> {
+            Long dueTypeIdFilter = dueTypeFilter != null ? dueTypeFilter.getId() : null;
 
-            // Filter by address (case-insensitive)
-            if (addressFilter != null && !addressFilter.trim().isEmpty()) {
-                final String addrFilter = addressFilter.trim().toLowerCase();
-                uniqueAddresses = uniqueAddresses.stream()
-                        .filter(addr -> addr != null && addr.trim().toLowerCase().equals(addrFilter))
-                        .collect(java.util.stream.Collectors.toSet());
-            }
+            // Unique addresses by normalized address key (no duplicates)
+            java.util.Map<String, String> uniqueAddresses = memberDAO.getDistinctAddresses();
 
             java.util.List<java.util.Map<String, Object>> unpaid = new java.util.ArrayList<>();
 
-            // Group by unique address (no duplication)
-            for (String address : uniqueAddresses) {
-                for (DueType dueType : dueTypes) {
-                    if (dueTypeFilter != null && !dueType.getId().equals(dueTypeFilter.getId())) {
-                        continue;
-                    }
-
-                    BigDecimal expectedAmount = dueType.getAmount() != null ? dueType.getAmount() : BigDecimal.ZERO;
-
-                    // Calculate total paid amount for this address and due type (no duplication)
-                    BigDecimal paidAmount = allCollections.stream()
-                            .filter(dc -> dc.getAddress() != null && dc.getAddress().trim().equalsIgnoreCase(address)
-                                    && dc.getDueTypeId() != null && dc.getDueTypeId().equals(dueType.getId()))
-                            .map(DueCollection::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Expected and paid totals per (address, due type) from the obligations ledger
+            for (DueObligationDAO.Balance dueBalance : dueObligationDAO.getBalances(addressFilter, dueTypeIdFilter)) {
+                String address = uniqueAddresses.get(dueBalance.getAddressKey());
+                if (address == null) {
+                    continue; // No member lives at this address any more
+                }
 
-                    // Expected amount shown once per address (no duplication)
-                    BigDecimal totalExpectedAmount = expectedAmount;
-                    BigDecimal balance = totalExpectedAmount.subtract(paidAmount);
+                BigDecimal totalExpectedAmount = dueBalance.getExpectedAmount();
+                BigDecimal paidAmount = dueBalance.getPaidAmount();
+                BigDecimal balance = dueBalance.getBalance();
 
-                    String status;
-                    if (paidAmount.compareTo(BigDecimal.ZERO) == 0) {
-                        status = "NOT_PAID";
-                    } else if (balance.compareTo(BigDecimal.ZERO) <= 0) {
-                        status = "PAID";
-                    } else {
-                        status = "PARTIALLY_PAID";
-                    }
+                String status;
+                if (paidAmount.compareTo(BigDecimal.ZERO) == 0) {
+                    status = "NOT_PAID";
+                } else if (balance.compareTo(BigDecimal.ZERO) <= 0) {
+                    status = "PAID";
+                } else {
+                    status = "PARTIALLY_PAID";
+                }
 
-                    if (statusFilter != null && !status.equals(statusFilter)) {
-                        continue;
-                    }
+                if (statusFilter != null && !status.equals(statusFilter)) {
+                    continue;
+                }
 
-                    String remarks = allCollections.stream()
-                            .filter(dc -> dc.getAddress() != null && dc.getAddress().trim().equalsIgnoreCase(address)
-                                    && dc.getDueTypeId() != null && dc.getDueTypeId().equals(dueType.getId()))
-                            .sorted((a, b) -> {
-                                if (a.getDate() == null)
-                                    return 1;
-                                if (b.getDate() == null)
-                                    return -1;
-                                return b.getDate().compareTo(a.getDate());
-                            })
-                            .findFirst()
-                            .map(DueCollection::getRemarks)
-                            .orElse(null);
-
-                    if (totalExpectedAmount.compareTo(BigDecimal.ZERO) > 0
-                            || paidAmount.compareTo(BigDecimal.ZERO) > 0) {
-                        java.util.Map<String, Object> item = new java.util.HashMap<>();
-                        item.put("address", address);
-                        item.put("dueTypeId", dueType.getId());
-                        item.put("dueTypeName", dueType.getDueName());
-                        item.put("dueTypeFrequency", dueType.getFrequency());
-                        item.put("expectedAmount", totalExpectedAmount);
-                        item.put("paidAmount", paidAmount);
-                        item.put("balance", balance);
-                        item.put("status", status);
-                        item.put("remarks", remarks);
-                        unpaid.add(item);
-                    }
+                if (totalExpectedAmount.compareTo(BigDecimal.ZERO) > 0
+                        || paidAmount.compareTo(BigDecimal.ZERO) > 0) {
+                    java.util.Map<String, Object> item = new java.util.HashMap<>();
+                    item.put("address", address);
+                    item.put("dueTypeId", dueBalance.getDueTypeId());
+                    item.put("dueTypeName", dueBalance.getDueTypeName());
+                    item.put("dueTypeFrequency", dueBalance.getFrequency());
+                    item.put("expectedAmount", totalExpectedAmount);
+                    item.put("paidAmount", paidAmount);
+                    item.put("balance", balance);
+                    item.put("status", status);
+                    item.put("remarks", dueBalance.getLatestRemarks());
+                    unpaid.add(item);
                 }
             }
-
-            javafx.application.Platform.runLater(() -> {
-                unpaidList.clear();
-                unpaidList.addAll(unpaid);
-            });
-        }).start();
+            return unpaid;
+        }, unpaid -> {
+            unpaidList.clear();
+            unpaidList.addAll(unpaid);
+        }, null);
     }
 
     private void loadDueReport(String addressFilter, DueType dueTypeFilter) {
-        new Thread(() -> {
-            java.util.List<DueCollection> collections = dueCollectionDAO.getAll();
-
-            // Apply filters
-            if (addressFilter != null && !addressFilter.trim().isEmpty()) {
-                final String address = addressFilter.trim().toLowerCase();
-                collections = collections.stream()
-                        .filter(dc -> dc.getAddress() != null && dc.getAddress().trim().toLowerCase().equals(address))
-                        .collect(java.util.stream.Collectors.toList());
-            }
-
-            if (dueTypeFilter != null) {
-                final Long dueTypeId = dueTypeFilter.getId();
-                collections = collections.stream()
-                        .filter(dc -> dc.getDueTypeId() != null && dc.getDueTypeId().equals(dueTypeId))
-                        .collect(java.util.stream.Collectors.toList());
-            }
-
-            final java.util.List<DueCollection> finalCollections = collections;
-            BigDecimal total = finalCollections.stream()
-                    .map(DueCollection::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            final BigDecimal finalTotal = total;
-            final int finalCount = finalCollections.size();
-
-            javafx.application.Platform.runLater(() -> {
-                dueCollectionList.clear();
-                dueCollectionList.addAll(finalCollections);
+        // Same key as loadCollections: both fill the collections table
+        BackgroundTasks.getInstance().load(this, "collections", BackgroundTasks.Priority.INTERACTIVE,
+                // Address matching goes through the indexed address key
+                () -> dueCollectionDAO.getFiltered(addressFilter, dueTypeFilter != null ? dueTypeFilter.getId() : null),
+                collections -> {
+                    BigDecimal total = collections.stream()
+                            .map(DueCollection::getAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    dueCollectionList.clear();
+                    dueCollectionList.addAll(collections);
 
-                // Update summary
-                if (dueTotalLabel != null)
-                    dueTotalLabel.setText("Total Collection: ₹" + finalTotal.toString());
-                if (dueCountLabel != null)
-                    dueCountLabel.setText("Total Records: " + finalCount);
-            });
-        }).start();
+                    // Update summary
+                    if (dueTotalLabel != null)
+                        dueTotalLabel.setText("Total Collection: ₹" + total.toString());
+                    if (dueCountLabel != null)
+                        dueCountLabel.setText("Total Records: " + collections.size());
+                }, null);
     }
 
     private void loadExpenseReport(Masjid masjidFilter, String expenseTypeFilter) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             java.util.List<Expense> expenses = expenseDAO.getAll();
 
             // Apply filters
@@ -2795,8 +2679,7 @@ public class AccountsController {
             final int finalCount = finalExpenses.size();
 
             javafx.application.Platform.runLater(() -> {
-                expenseList.clear();
-                expenseList.addAll(finalExpenses);
+                expenseLoader.showFixedList(finalExpenses);
 
                 // Update summary
                 if (expenseTotalLabel != null)
@@ -2804,7 +2687,7 @@ public class AccountsController {
                 if (expenseCountLabel != null)
                     expenseCountLabel.setText("Total Records: " + finalCount);
             });
-        }).start();
+        });
     }
 
 }
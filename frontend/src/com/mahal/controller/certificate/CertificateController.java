@@ -10,10 +10,14 @@ import javafx.stage.FileChooser;
 import javafx.stage.PopupWindow;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.CertificateDAO;
 import com.mahal.model.Certificate;
 import com.mahal.service.CertificateNumberService;
+import com.mahal.service.BulkCertificateService;
 import com.mahal.service.CertificatePDFService;
+import com.mahal.service.FontRegistry;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.TableStyler;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.FormStyler;
@@ -22,7 +26,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 
-public class CertificateController {
+public class CertificateController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox marriageFormViewPane;
@@ -53,14 +57,18 @@ public class CertificateController {
         this.certNumberService = new CertificateNumberService();
         createView();
 
+        // Parse the PDF fonts before the first certificate is printed
+        BackgroundTasks.getInstance().run(BackgroundTasks.Priority.BACKGROUND, "FontRegistry.preload",
+                FontRegistry.getInstance()::preload);
+
         // Subscribe to sync events
-        com.mahal.util.EventBus.getInstance().subscribe("marriage_certificates",
+        com.mahal.util.EventBus.getInstance().subscribe("marriage_certificates", this,
                 e -> javafx.application.Platform.runLater(this::loadMarriageList));
-        com.mahal.util.EventBus.getInstance().subscribe("death_certificates",
+        com.mahal.util.EventBus.getInstance().subscribe("death_certificates", this,
                 e -> javafx.application.Platform.runLater(this::loadDeathList));
-        com.mahal.util.EventBus.getInstance().subscribe("jamath_certificates",
+        com.mahal.util.EventBus.getInstance().subscribe("jamath_certificates", this,
                 e -> javafx.application.Platform.runLater(this::loadJamathList));
-        com.mahal.util.EventBus.getInstance().subscribe("custom_certificates",
+        com.mahal.util.EventBus.getInstance().subscribe("custom_certificates", this,
                 e -> javafx.application.Platform.runLater(this::loadCustomList));
     }
 
@@ -68,6 +76,14 @@ public class CertificateController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadMarriageList();
+        loadDeathList();
+        loadJamathList();
+        loadCustomList();
+    }
+
     private void styleSwitcherButton(Button btn, boolean active) {
         btn.setStyle(StyleHelper.getPillButtonStyle(active));
     }
@@ -261,7 +277,7 @@ public class CertificateController {
                 "-fx-background-color: #1d4ed8; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
         generateBtn.setOnMouseExited(e -> generateBtn.setStyle(
                 "-fx-background-color: #2563eb; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
-        generateBtn.setOnAction(e -> certNoField.setText(certNumberService.generateMarriageCertificateNumber()));
+        generateBtn.setOnAction(e -> previewCertificateNo(certNoField, "Marriage"));
         HBox certNoBox = new HBox(10, certNoField, generateBtn);
         certNoBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -403,11 +419,7 @@ public class CertificateController {
 
             Certificate c = new Certificate();
             c.setType("Marriage");
-            String certNo = certNoField.getText().trim();
-            if (certNo.isEmpty()) {
-                certNo = certNumberService.generateMarriageCertificateNumber();
-            }
-            c.setCertificateNo(certNo);
+            c.setCertificateNo(enteredCertificateNo(certNoField));
             c.setGroomName(groomField.getText());
             c.setBrideName(brideField.getText());
             c.setParentNameOfGroom(groomParentField.getText());
@@ -418,7 +430,6 @@ public class CertificateController {
             c.setMarriageStatus(statusCombo.getValue());
             c.setMarriageDate(marriageDatePicker.getValue());
             c.setAdditionalNotes(notesField.getText());
-            c.setQrCode("https://mahal.com/verify/" + certNo);
 
             // Save certificate - form will be cleared after successful save
             saveCertificate(c, null, null, certNoField, groomField, brideField, groomParentField,
@@ -508,7 +519,7 @@ public class CertificateController {
                 "-fx-background-color: #1d4ed8; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
         generateBtn.setOnMouseExited(e -> generateBtn.setStyle(
                 "-fx-background-color: #2563eb; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
-        generateBtn.setOnAction(e -> certNoField.setText(certNumberService.generateDeathCertificateNumber()));
+        generateBtn.setOnAction(e -> previewCertificateNo(certNoField, "Death"));
         HBox certNoBox = new HBox(10, certNoField, generateBtn);
         certNoBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -682,11 +693,7 @@ public class CertificateController {
 
             Certificate c = new Certificate();
             c.setType("Death");
-            String certNo = certNoField.getText().trim();
-            if (certNo.isEmpty()) {
-                certNo = certNumberService.generateDeathCertificateNumber();
-            }
-            c.setCertificateNo(certNo);
+            c.setCertificateNo(enteredCertificateNo(certNoField));
             c.setName(nameField.getText());
             c.setParentName(parentField.getText());
             c.setAddress(addressField.getText());
@@ -695,7 +702,6 @@ public class CertificateController {
             c.setCause(causeField.getText());
             c.setPlaceOfDeath(placeField.getText());
             c.setIssueDate(issueDatePicker.getValue());
-            c.setQrCode("https://mahal.com/verify/" + certNo);
 
             saveCertificate(c, null, null);
             // Clear form
@@ -788,7 +794,7 @@ public class CertificateController {
                 "-fx-background-color: #1d4ed8; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
         generateBtn.setOnMouseExited(e -> generateBtn.setStyle(
                 "-fx-background-color: #2563eb; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
-        generateBtn.setOnAction(e -> certNoField.setText(certNumberService.generateJamathCertificateNumber()));
+        generateBtn.setOnAction(e -> previewCertificateNo(certNoField, "Jamath"));
         HBox certNoBox = new HBox(10, certNoField, generateBtn);
         certNoBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -900,18 +906,13 @@ public class CertificateController {
 
             Certificate c = new Certificate();
             c.setType("Jamath");
-            String certNo = certNoField.getText().trim();
-            if (certNo.isEmpty()) {
-                certNo = certNumberService.generateJamathCertificateNumber();
-            }
-            c.setCertificateNo(certNo);
+            c.setCertificateNo(enteredCertificateNo(certNoField));
             c.setName(nameField.getText());
             c.setParentName(parentField.getText());
             c.setAddress(addressField.getText());
             c.setThalook(thalookField.getText());
             c.setIssueDate(datePicker.getValue());
             c.setRemarks(remarksField.getText());
-            c.setQrCode("https://mahal.com/verify/" + certNo);
 
             saveCertificate(c, null, null);
             // Clear form
@@ -998,7 +999,7 @@ public class CertificateController {
                 "-fx-background-color: #4b5563; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
         generateBtn.setOnMouseExited(e -> generateBtn.setStyle(
                 "-fx-background-color: #6b7280; -fx-text-fill: white; -fx-background-radius: 6; -fx-font-weight: 600; -fx-font-size: 12px; -fx-padding: 6 14; -fx-cursor: hand;"));
-        generateBtn.setOnAction(e -> certNoField.setText(certNumberService.generateCustomCertificateNumber()));
+        generateBtn.setOnAction(e -> previewCertificateNo(certNoField, "Custom"));
         HBox certNoBox = new HBox(10, certNoField, generateBtn);
         certNoBox.setAlignment(Pos.CENTER_LEFT);
 
@@ -1039,15 +1040,10 @@ public class CertificateController {
 
             Certificate c = new Certificate();
             c.setType("Custom");
-            String certNo = certNoField.getText().trim();
-            if (certNo.isEmpty()) {
-                certNo = certNumberService.generateCustomCertificateNumber();
-            }
-            c.setCertificateNo(certNo);
+            c.setCertificateNo(enteredCertificateNo(certNoField));
             c.setTemplateName(templateNameField.getText());
             c.setTemplateContent(templateContentField.getText());
             c.setIssueDate(issueDatePicker.getValue());
-            c.setQrCode("https://mahal.com/verify/" + certNo);
 
             saveCertificate(c, null, null);
             // Clear form
@@ -1159,6 +1155,8 @@ public class CertificateController {
         TableColumn<Certificate, String> actionsCol = createActionsColumn("Marriage", table);
         table.getColumns().addAll(certNoCol, groomCol, brideCol, dateCol, statusCol, actionsCol);
         table.setItems(marriageList);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        actionRow.getChildren().add(createBulkPrintButton("Marriage", table));
 
         box.getChildren().addAll(actionRow, table);
         loadMarriageList();
@@ -1166,18 +1164,10 @@ public class CertificateController {
     }
 
     private void loadMarriageList() {
-        new Thread(() -> {
-            try {
-                var data = certificateDAO.getByTypeWithFilters("Marriage",
-                        marriageSearch.getText(), null,
-                        null, null, null);
-                javafx.application.Platform.runLater(() -> {
-                    marriageList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading marriage certificates: " + e.getMessage());
-            }
-        }).start();
+        String searchText = marriageSearch.getText();
+        BackgroundTasks.getInstance().load(this, "marriage",
+                () -> certificateDAO.getByTypeWithFilters("Marriage", searchText, null, null, null, null),
+                marriageList::setAll);
     }
 
     // ========== DEATH LIST ==========
@@ -1256,6 +1246,8 @@ public class CertificateController {
         TableColumn<Certificate, String> actionsCol = createActionsColumn("Death", table);
         table.getColumns().addAll(certNoCol, nameCol, parentCol, dateCol, placeCol, issueDateCol, actionsCol);
         table.setItems(deathList);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        actionRow.getChildren().add(createBulkPrintButton("Death", table));
 
         box.getChildren().addAll(actionRow, table);
         loadDeathList();
@@ -1263,18 +1255,10 @@ public class CertificateController {
     }
 
     private void loadDeathList() {
-        new Thread(() -> {
-            try {
-                var data = certificateDAO.getByTypeWithFilters("Death",
-                        deathSearch.getText(), null,
-                        null, null, null);
-                javafx.application.Platform.runLater(() -> {
-                    deathList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading death certificates: " + e.getMessage());
-            }
-        }).start();
+        String searchText = deathSearch.getText();
+        BackgroundTasks.getInstance().load(this, "death",
+                () -> certificateDAO.getByTypeWithFilters("Death", searchText, null, null, null, null),
+                deathList::setAll);
     }
 
     // ========== JAMATH LIST ==========
@@ -1353,6 +1337,8 @@ public class CertificateController {
         TableColumn<Certificate, String> actionsCol = createActionsColumn("Jamath", table);
         table.getColumns().addAll(certNoCol, nameCol, parentCol, thalookCol, dateCol, remarksCol, actionsCol);
         table.setItems(jamathList);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        actionRow.getChildren().add(createBulkPrintButton("Jamath", table));
 
         box.getChildren().addAll(actionRow, table);
         loadJamathList();
@@ -1360,18 +1346,10 @@ public class CertificateController {
     }
 
     private void loadJamathList() {
-        new Thread(() -> {
-            try {
-                var data = certificateDAO.getByTypeWithFilters("Jamath",
-                        jamathSearch.getText(), null,
-                        null, null, null);
-                javafx.application.Platform.runLater(() -> {
-                    jamathList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading jamath certificates: " + e.getMessage());
-            }
-        }).start();
+        String searchText = jamathSearch.getText();
+        BackgroundTasks.getInstance().load(this, "jamath",
+                () -> certificateDAO.getByTypeWithFilters("Jamath", searchText, null, null, null, null),
+                jamathList::setAll);
     }
 
     // ========== CUSTOM LIST ==========
@@ -1442,6 +1420,8 @@ public class CertificateController {
         TableColumn<Certificate, String> actionsCol = createActionsColumn("Custom", table);
         table.getColumns().addAll(certNoCol, templateCol, contentCol, issueDateCol, actionsCol);
         table.setItems(customList);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        actionRow.getChildren().add(createBulkPrintButton("Custom", table));
 
         box.getChildren().addAll(actionRow, table);
         loadCustomList();
@@ -1449,22 +1429,13 @@ public class CertificateController {
     }
 
     private void loadCustomList() {
-        new Thread(() -> {
-            try {
-                String searchText = customSearch != null ? customSearch.getText() : null;
-                String certNoText = customCertNo != null ? customCertNo.getText() : null;
-                String templateNameText = customTemplateName != null ? customTemplateName.getText() : null;
-
-                var data = certificateDAO.getByTypeWithFilters("Custom",
-                        searchText, certNoText, templateNameText, null, null);
-                javafx.application.Platform.runLater(() -> {
-                    customList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading custom certificates: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        String searchText = customSearch != null ? customSearch.getText() : null;
+        String certNoText = customCertNo != null ? customCertNo.getText() : null;
+        String templateNameText = customTemplateName != null ? customTemplateName.getText() : null;
+        BackgroundTasks.getInstance().load(this, "custom",
+                () -> certificateDAO.getByTypeWithFilters("Custom", searchText, certNoText, templateNameText, null,
+                        null),
+                customList::setAll);
     }
 
     // ========== ACTIONS COLUMN ==========
@@ -1543,6 +1514,188 @@ public class CertificateController {
         return actionsCol;
     }
 
+    // ========== BULK PRINT ==========
+    private Button createBulkPrintButton(String type, TableView<Certificate> table) {
+        Button bulkBtn = new Button("Bulk Print");
+        bulkBtn.setStyle(StyleHelper.getPrimaryButtonStyle());
+        bulkBtn.setOnMouseEntered(e -> bulkBtn.setStyle(StyleHelper.getPrimaryButtonHoverStyle()));
+        bulkBtn.setOnMouseExited(e -> bulkBtn.setStyle(StyleHelper.getPrimaryButtonStyle()));
+        bulkBtn.setOnAction(e -> showBulkPrintDialog(type,
+                new java.util.ArrayList<>(table.getSelectionModel().getSelectedItems())));
+        return bulkBtn;
+    }
+
+    /**
+     * Generates the selected certificates, or all of a type in a date range,
+     * as separate files or one merged PDF, with progress.
+     */
+    private void showBulkPrintDialog(String type, java.util.List<Certificate> selected) {
+        Stage dialog = new Stage();
+        dialog.setTitle("Bulk Print " + type + " Certificates");
+
+        VBox root = new VBox(12);
+        styleFormContainer(root);
+
+        Label titleLabel = new Label("Bulk Print " + type + " Certificates");
+        titleLabel.setStyle(
+                "-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: " + StyleHelper.TEXT_GRAY_900 + ";");
+
+        ToggleGroup scopeGroup = new ToggleGroup();
+        RadioButton selectedRb = new RadioButton("Selected certificates (" + selected.size() + ")");
+        selectedRb.setToggleGroup(scopeGroup);
+        selectedRb.setDisable(selected.isEmpty());
+        RadioButton rangeRb = new RadioButton("All " + type.toLowerCase() + " certificates dated");
+        rangeRb.setToggleGroup(scopeGroup);
+        scopeGroup.selectToggle(selected.isEmpty() ? rangeRb : selectedRb);
+
+        DatePicker fromPicker = new DatePicker(LocalDate.now().withDayOfYear(1));
+        fromPicker.setPromptText("From");
+        DatePicker toPicker = new DatePicker(LocalDate.now());
+        toPicker.setPromptText("To");
+        HBox rangeRow = new HBox(8, fromPicker, new Label("to"), toPicker);
+        rangeRow.setAlignment(Pos.CENTER_LEFT);
+        rangeRow.disableProperty().bind(rangeRb.selectedProperty().not());
+
+        ToggleGroup outputGroup = new ToggleGroup();
+        RadioButton mergedRb = new RadioButton("One merged PDF for printing");
+        mergedRb.setToggleGroup(outputGroup);
+        RadioButton filesRb = new RadioButton("Separate PDF files in a folder");
+        filesRb.setToggleGroup(outputGroup);
+        outputGroup.selectToggle(mergedRb);
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.setVisible(false);
+        Label statusLabel = new Label();
+
+        Button generate = new Button("Generate");
+        generate.setStyle(StyleHelper.getPrimaryButtonStyle());
+        Button cancel = new Button("Close");
+        cancel.setStyle(StyleHelper.getSecondaryButtonStyle());
+        HBox buttons = new HBox(10, generate, cancel);
+        buttons.setAlignment(Pos.CENTER_RIGHT);
+
+        java.util.concurrent.atomic.AtomicBoolean cancelled = new java.util.concurrent.atomic.AtomicBoolean();
+        cancel.setOnAction(e -> dialog.close());
+        dialog.setOnHidden(e -> cancelled.set(true));
+
+        generate.setOnAction(e -> {
+            boolean merged = mergedRb.isSelected();
+            boolean inRange = rangeRb.isSelected();
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (inRange && from != null && to != null && from.isAfter(to)) {
+                new Alert(Alert.AlertType.WARNING, "The start date must not be after the end date.", ButtonType.OK)
+                        .showAndWait();
+                return;
+            }
+
+            File target;
+            if (merged) {
+                FileChooser fileChooser = new FileChooser();
+                fileChooser.setTitle("Save Merged Certificates PDF");
+                fileChooser.setInitialFileName(type.toLowerCase() + "_certificates.pdf");
+                fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
+                target = fileChooser.showSaveDialog(dialog);
+            } else {
+                javafx.stage.DirectoryChooser directoryChooser = new javafx.stage.DirectoryChooser();
+                directoryChooser.setTitle("Choose Folder for Certificate PDFs");
+                target = directoryChooser.showDialog(dialog);
+            }
+            if (target == null) {
+                return;
+            }
+
+            generate.setDisable(true);
+            selectedRb.setDisable(true);
+            rangeRb.setDisable(true);
+            fromPicker.setDisable(true);
+            toPicker.setDisable(true);
+            mergedRb.setDisable(true);
+            filesRb.setDisable(true);
+            cancel.setText("Cancel");
+            progressBar.setVisible(true);
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            statusLabel.setText("Preparing...");
+
+            BackgroundTasks.getInstance().run(BackgroundTasks.Priority.INTERACTIVE, "CertificateController.bulkPrint",
+                    () -> {
+                        try {
+                            java.util.List<Certificate> certificates = inRange
+                                    ? certificateDAO.getByTypeWithFilters(type, null, null, null, null, null, from, to)
+                                    : selected;
+                            if (certificates.isEmpty()) {
+                                javafx.application.Platform.runLater(() -> {
+                                    statusLabel.setText("No certificates found in that date range.");
+                                    progressBar.setVisible(false);
+                                    cancel.setText("Close");
+                                });
+                                return;
+                            }
+                            BulkCertificateService.ProgressListener listener = (done, total) -> javafx.application.Platform
+                                    .runLater(() -> {
+                                        progressBar.setProgress((double) done / total);
+                                        statusLabel.setText("Generated " + done + " of " + total + "...");
+                                    });
+                            BulkCertificateService service = new BulkCertificateService();
+                            BulkCertificateService.Result result = merged
+                                    ? service.generateMerged(certificates, target, listener, cancelled)
+                                    : service.generateFiles(certificates, target, listener, cancelled);
+                            javafx.application.Platform.runLater(() -> {
+                                progressBar.setProgress(1);
+                                cancel.setText("Close");
+                                if (result.isCancelled()) {
+                                    statusLabel.setText("Cancelled.");
+                                    return;
+                                }
+                                StringBuilder message = new StringBuilder("Generated " + result.getGenerated()
+                                        + " of " + certificates.size() + " certificates to:\n"
+                                        + target.getAbsolutePath());
+                                if (!result.getFailures().isEmpty()) {
+                                    message.append("\n\nFailed (").append(result.getFailures().size()).append("):");
+                                    result.getFailures().stream().limit(10)
+                                            .forEach(f -> message.append("\n").append(f));
+                                }
+                                if (!result.getRenamed().isEmpty()) {
+                                    message.append("\n\nDuplicate certificate numbers (")
+                                            .append(result.getRenamed().size()).append("):");
+                                    result.getRenamed().stream().limit(10)
+                                            .forEach(r -> message.append("\n").append(r));
+                                }
+                                statusLabel.setText("Done.");
+                                new Alert(result.getFailures().isEmpty() && result.getRenamed().isEmpty()
+                                        ? Alert.AlertType.INFORMATION
+                                        : Alert.AlertType.WARNING, message.toString(), ButtonType.OK).showAndWait();
+                                dialog.close();
+                            });
+                        } catch (Exception ex) {
+                            System.err.println("Error in bulk certificate print: " + ex.getMessage());
+                            ex.printStackTrace();
+                            javafx.application.Platform.runLater(() -> {
+                                progressBar.setVisible(false);
+                                cancel.setText("Close");
+                                statusLabel.setText("Failed.");
+                                new Alert(Alert.AlertType.ERROR, "Bulk print failed: " + ex.getMessage(),
+                                        ButtonType.OK).showAndWait();
+                            });
+                        }
+                    });
+        });
+
+        Label scopeLabel = new Label("Certificates");
+        scopeLabel.setStyle(StyleHelper.getFormLabelStyle());
+        Label outputLabel = new Label("Output");
+        outputLabel.setStyle(StyleHelper.getFormLabelStyle());
+
+        root.getChildren().addAll(titleLabel,
+                new VBox(6, scopeLabel, selectedRb, rangeRb, rangeRow),
+                new VBox(6, outputLabel, mergedRb, filesRb),
+                progressBar, statusLabel, buttons);
+
+        dialog.setScene(new Scene(root, 460, 420));
+        dialog.show();
+    }
+
     // ========== ACTION METHODS ==========
     private void downloadCertificate(Certificate c, String type) {
         if (c.getPdfPath() == null || c.getPdfPath().isEmpty()) {
@@ -1643,7 +1796,7 @@ public class CertificateController {
                 ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     try {
                         Certificate updated = certificateDAO.getById(c.getId(), type);
                         if (updated != null) {
@@ -1691,7 +1844,7 @@ public class CertificateController {
                                     ButtonType.OK).showAndWait();
                         });
                     }
-                }).start();
+                });
             }
         });
     }
@@ -2017,7 +2170,7 @@ public class CertificateController {
                 ButtonType.OK, ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = certificateDAO.delete(c.getId(), type);
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
@@ -2036,46 +2189,76 @@ public class CertificateController {
                                     .showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
 
+    /**
+     * Show the next certificate number in the field. Saving with this number
+     * unchanged still allocates it on insert, so two forms showing the same
+     * preview do not issue it twice.
+     */
+    private void previewCertificateNo(TextField certNoField, String type) {
+        String preview = certNumberService.previewNumber(type);
+        certNoField.setText(preview);
+        certNoField.setUserData(preview);
+    }
+
+    /**
+     * The number typed into the field, or null to allocate the next one on
+     * insert (blank, or the untouched preview).
+     */
+    private static String enteredCertificateNo(TextField certNoField) {
+        String certNo = certNoField.getText().trim();
+        if (certNo.isEmpty() || certNo.equals(certNoField.getUserData())) {
+            return null;
+        }
+        return certNo;
+    }
+
+    private static void generateCertificatePDF(Certificate c) throws java.io.IOException {
+        // Generate PDF for marriage certificates
+        if ("Marriage".equals(c.getType())) {
+            String pdfPath = CertificatePDFService.saveMarriageCertificateHTML(c);
+            c.setPdfPath(pdfPath); // Store PDF path
+        }
+        // Generate PDF for death certificates
+        else if ("Death".equals(c.getType())) {
+            String pdfPath = CertificatePDFService.saveDeathCertificateHTML(c);
+            c.setPdfPath(pdfPath); // Store PDF path
+        }
+        // Generate PDF for Jamath certificates
+        else if ("Jamath".equals(c.getType())) {
+            String pdfPath = CertificatePDFService.saveJamathCertificateHTML(c);
+            c.setPdfPath(pdfPath); // Store PDF path
+        }
+        // Generate PDF for Custom certificates
+        else if ("Custom".equals(c.getType()) && c.getTemplateContent() != null
+                && !c.getTemplateContent().isEmpty()) {
+            String pdfPath = CertificatePDFService.saveCustomCertificateHTML(c);
+            c.setPdfPath(pdfPath); // Store PDF path
+        }
+    }
+
     private void saveCertificate(Certificate c, Certificate existing, Stage dialog, Object... formFields) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             try {
-                // Generate PDF for marriage certificates
-                if ("Marriage".equals(c.getType())) {
-                    String pdfPath = CertificatePDFService.saveMarriageCertificateHTML(c);
-                    c.setPdfPath(pdfPath); // Store PDF path
-                }
-                // Generate PDF for death certificates
-                else if ("Death".equals(c.getType())) {
-                    String pdfPath = CertificatePDFService.saveDeathCertificateHTML(c);
-                    c.setPdfPath(pdfPath); // Store PDF path
-                }
-                // Generate PDF for Jamath certificates
-                else if ("Jamath".equals(c.getType())) {
-                    String pdfPath = CertificatePDFService.saveJamathCertificateHTML(c);
-                    c.setPdfPath(pdfPath); // Store PDF path
-                }
-                // Generate PDF for Custom certificates
-                else if ("Custom".equals(c.getType()) && c.getTemplateContent() != null
-                        && !c.getTemplateContent().isEmpty()) {
-                    String pdfPath = CertificatePDFService.saveCustomCertificateHTML(c);
-                    c.setPdfPath(pdfPath); // Store PDF path
-                }
-
-                boolean ok;
+                boolean saved;
                 if (existing == null) {
-                    Long newId = certificateDAO.create(c);
-                    ok = newId != null;
-                    if (ok && newId != null) {
-                        c.setId(newId); // Set the ID for the newly created certificate
+                    // Insert first so the certificate number is allocated with the row,
+                    // then render the PDF with it
+                    saved = certificateDAO.create(c) != null;
+                    if (saved) {
+                        c.setQrCode("https://mahal.com/verify/" + c.getCertificateNo());
+                        generateCertificatePDF(c);
+                        saved = certificateDAO.update(c);
                     }
                 } else {
-                    ok = certificateDAO.update(c);
+                    generateCertificatePDF(c);
+                    saved = certificateDAO.update(c);
                 }
+                boolean ok = saved;
                 javafx.application.Platform.runLater(() -> {
                     if (ok) {
                         if (dialog != null)
@@ -2136,11 +2319,17 @@ public class CertificateController {
             } catch (Exception e) {
                 System.err.println("Error saving certificate: " + e.getMessage());
                 e.printStackTrace();
+                boolean saved = existing == null && c.getId() != null;
                 javafx.application.Platform.runLater(() -> {
-                    new Alert(Alert.AlertType.ERROR, "Error generating certificate: " + e.getMessage(), ButtonType.OK)
-                            .showAndWait();
+                    if (saved) {
+                        refresh();
+                    }
+                    new Alert(Alert.AlertType.ERROR, "Error generating certificate: " + e.getMessage()
+                            + (saved ? "\n\nCertificate " + c.getCertificateNo()
+                                    + " was saved; use Regenerate to create its PDF." : ""),
+                            ButtonType.OK).showAndWait();
                 });
             }
-        }).start();
+        });
     }
 }
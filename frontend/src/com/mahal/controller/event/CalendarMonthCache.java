@@ -0,0 +1,126 @@
+package com.mahal.controller.event;
+
+import com.mahal.database.EventDAO;
+import com.mahal.model.Event;
+import com.mahal.util.BackgroundTasks;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calendar events bucketed by the month they start in, so paging through
+ * months and years only queries months not seen yet. The neighbours of the
+ * shown month are prefetched at background priority.
+ *
+ * Buckets are dropped when an event in them is created, updated or deleted
+ * and all at once on sync-down. A load that was running when its month was
+ * invalidated is not stored. All methods must be called on the JavaFX
+ * Application Thread.
+ */
+class CalendarMonthCache {
+    /** Months kept, least recently used dropped first. */
+    private static final int MAX_MONTHS = 36;
+
+    private final Object owner;
+    private final EventDAO eventDAO;
+    private final Map<YearMonth, List<Event>> months = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Event>> eldest) {
+            return size() > MAX_MONTHS;
+        }
+    };
+    /** Bumped per month on invalidation, so loads started before it are not stored. */
+    private final Map<YearMonth, Long> versions = new HashMap<>();
+    /** Bumped by {@link #invalidateAll}. */
+    private long epoch;
+    private final Set<YearMonth> inFlight = new HashSet<>();
+
+    /**
+     * @param owner owner of the loads for {@link BackgroundTasks#cancelAll}
+     */
+    CalendarMonthCache(Object owner, EventDAO eventDAO) {
+        this.owner = owner;
+        this.eventDAO = eventDAO;
+    }
+
+    /**
+     * Events starting in the given months, or null if any of them is not
+     * cached yet.
+     */
+    List<Event> get(List<YearMonth> shown) {
+        List<Event> events = new ArrayList<>();
+        for (YearMonth month : shown) {
+            List<Event> bucket = months.get(month);
+            if (bucket == null) {
+                return null;
+            }
+            events.addAll(bucket);
+        }
+        return events;
+    }
+
+    /**
+     * Load the months that are not cached, then run {@code onLoaded}.
+     */
+    void load(List<YearMonth> shown, Runnable onLoaded) {
+        for (YearMonth month : shown) {
+            if (!months.containsKey(month)) {
+                fetch(month, BackgroundTasks.Priority.INTERACTIVE, onLoaded);
+            }
+        }
+    }
+
+    /**
+     * Load the months before and after the given one in the background.
+     */
+    void prefetchAround(YearMonth month) {
+        for (YearMonth neighbour : List.of(month.minusMonths(1), month.plusMonths(1))) {
+            if (!months.containsKey(neighbour) && !inFlight.contains(neighbour)) {
+                fetch(neighbour, BackgroundTasks.Priority.BACKGROUND, null);
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets of the months the given start times fall in.
+     */
+    void invalidate(LocalDateTime... starts) {
+        for (LocalDateTime start : starts) {
+            if (start != null) {
+                YearMonth month = YearMonth.from(start);
+                months.remove(month);
+                versions.merge(month, 1L, Long::sum);
+            }
+        }
+    }
+
+    void invalidateAll() {
+        epoch++;
+        months.clear();
+    }
+
+    private void fetch(YearMonth month, BackgroundTasks.Priority priority, Runnable onLoaded) {
+        long version = versions.getOrDefault(month, 0L);
+        long startEpoch = epoch;
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.atEndOfMonth().atTime(23, 59, 59);
+        inFlight.add(month);
+        BackgroundTasks.getInstance().load(owner, "calendar:" + month, priority,
+                () -> eventDAO.getCalendarEvents(start, end), events -> {
+                    inFlight.remove(month);
+                    if (epoch == startEpoch && versions.getOrDefault(month, 0L) == version) {
+                        months.put(month, Collections.unmodifiableList(events));
+                    }
+                    if (onLoaded != null) {
+                        onLoaded.run();
+                    }
+                }, e -> inFlight.remove(month));
+    }
+}
@@ -9,14 +9,18 @@ import javafx.stage.Stage;
 import javafx.stage.FileChooser;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.EventDAO;
-import com.mahal.database.MasjidDAO;
+import com.mahal.database.ReferenceDataCache;
 import com.mahal.model.Event;
 import com.mahal.model.Masjid;
+import com.mahal.util.SearchPipeline;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
 import com.mahal.util.StyleHelper;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -26,16 +30,18 @@ import java.util.List;
 import javafx.animation.PauseTransition;
 import javafx.stage.PopupWindow;
 
-public class EventController {
+public class EventController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox addEventViewPane;
     private VBox eventListViewPane;
     private VBox calendarViewPane;
     private EventDAO eventDAO;
-    private MasjidDAO masjidDAO;
 
     private ObservableList<Event> eventList = FXCollections.observableArrayList();
+    /** Events of the months the calendar shows, from {@link #calendarCache}. */
+    private List<Event> calendarEvents = new ArrayList<>();
+    private CalendarMonthCache calendarCache;
     private ObservableList<Masjid> masjidList = FXCollections.observableArrayList();
 
     // Calendar state
@@ -45,6 +51,7 @@ public class EventController {
 
     // Filter fields
     private TextField searchField;
+    private SearchPipeline<Event> eventSearch;
     private ComboBox<Masjid> masjidCombo;
     private DatePicker startDatePicker;
     private DatePicker endDatePicker;
@@ -58,18 +65,19 @@ public class EventController {
 
     public EventController() {
         this.eventDAO = new EventDAO();
-        this.masjidDAO = new MasjidDAO();
+        this.calendarCache = new CalendarMonthCache(this, eventDAO);
         createView();
         loadMasjids();
         loadEventList();
         loadCalendarEvents();
 
         // Subscribe to sync events
-        com.mahal.util.EventBus.getInstance().subscribe("events", e -> javafx.application.Platform.runLater(() -> {
+        com.mahal.util.EventBus.getInstance().subscribe("events", this, e -> javafx.application.Platform.runLater(() -> {
+            calendarCache.invalidateAll();
             loadEventList();
             loadCalendarEvents();
         }));
-        com.mahal.util.EventBus.getInstance().subscribe("masjids",
+        com.mahal.util.EventBus.getInstance().subscribe("masjids", this,
                 e -> javafx.application.Platform.runLater(this::loadMasjids));
     }
 
@@ -77,6 +85,13 @@ public class EventController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        calendarCache.invalidateAll();
+        loadEventList();
+        loadCalendarEvents();
+    }
+
     private void styleSwitcherButton(Button btn, boolean active) {
         btn.setStyle(StyleHelper.getPillButtonStyle(active));
     }
@@ -453,9 +468,13 @@ public class EventController {
         searchField.setPromptText("Search events...");
         searchField.setPrefWidth(250);
         StyleHelper.styleTextField(searchField);
-        searchField.textProperty().addListener((obs, old, val) -> {
-            loadEventList();
-        });
+        eventSearch = SearchPipeline.forQuery(searchField, this, "eventList",
+                text -> eventDAO.getAllWithFilters(text, null, null, null, null), data -> {
+                    eventList.setAll(data);
+                    if (recordCountLabel != null) {
+                        recordCountLabel.setText("Showing " + data.size() + " events");
+                    }
+                });
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -520,24 +539,10 @@ public class EventController {
     }
 
     private void loadEventList() {
-        new Thread(() -> {
-            try {
-                // Get search text
-                String searchText = (searchField != null) ? searchField.getText() : "";
-
-                var data = eventDAO.getAllWithFilters(searchText, null, null, null, null);
-                System.out.println("Loaded " + data.size() + " events from database");
-                javafx.application.Platform.runLater(() -> {
-                    eventList.setAll(data);
-                    if (recordCountLabel != null) {
-                        recordCountLabel.setText("Showing " + data.size() + " events");
-                    }
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading events: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        // Re-run the current search
+        if (eventSearch != null) {
+            eventSearch.refresh();
+        }
     }
 
     // ========== CALENDAR VIEW ==========
@@ -567,34 +572,38 @@ public class EventController {
         }
     }
 
+    /**
+     * Show the events of the current month/week/day, from the month cache
+     * when possible, and prefetch the neighbouring months.
+     */
     private void loadCalendarEvents() {
-        new Thread(() -> {
-            try {
-                LocalDateTime start, end;
-                if ("month".equals(calendarView)) {
-                    start = currentDate.withDayOfMonth(1).atStartOfDay();
-                    end = currentDate.withDayOfMonth(currentDate.lengthOfMonth()).atTime(23, 59, 59);
-                } else if ("week".equals(calendarView)) {
-                    LocalDate weekStart = currentDate.minusDays(currentDate.getDayOfWeek().getValue() - 1);
-                    start = weekStart.atStartOfDay();
-                    end = weekStart.plusDays(6).atTime(23, 59, 59);
-                } else {
-                    start = currentDate.atStartOfDay();
-                    end = currentDate.atTime(23, 59, 59);
-                }
+        List<YearMonth> shown = new ArrayList<>();
+        if ("week".equals(calendarView)) {
+            LocalDate weekStart = currentDate.minusDays(currentDate.getDayOfWeek().getValue() - 1);
+            shown.add(YearMonth.from(weekStart));
+            if (!YearMonth.from(weekStart.plusDays(6)).equals(shown.get(0))) {
+                shown.add(YearMonth.from(weekStart.plusDays(6)));
+            }
+        } else {
+            shown.add(YearMonth.from(currentDate));
+        }
 
-                var data = eventDAO.getCalendarEvents(start, end);
-                javafx.application.Platform.runLater(() -> {
-                    eventList.setAll(data);
-                    // Reload calendar view
-                    if (calendarPane != null) {
-                        loadCalendarContent(calendarPane);
-                    }
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading calendar events: " + e.getMessage());
+        List<Event> cached = calendarCache.get(shown);
+        if (cached != null) {
+            calendarEvents = cached;
+            // Reload calendar view
+            if (calendarPane != null) {
+                loadCalendarContent(calendarPane);
             }
-        }).start();
+        } else {
+            final LocalDate requestedDate = currentDate;
+            calendarCache.load(shown, () -> {
+                if (requestedDate.equals(currentDate) && calendarCache.get(shown) != null) {
+                    loadCalendarEvents();
+                }
+            });
+        }
+        calendarCache.prefetchAround(YearMonth.from(currentDate));
     }
 
     private VBox renderMonthView() {
@@ -997,7 +1006,7 @@ public class EventController {
         LocalDateTime dayStart = date.atStartOfDay();
         LocalDateTime dayEnd = date.atTime(23, 59, 59);
 
-        for (Event event : eventList) {
+        for (Event event : calendarEvents) {
             if (event.getStartDateTime() != null && event.getEndDateTime() != null) {
                 if ((event.getStartDateTime().isBefore(dayEnd) || event.getStartDateTime().isEqual(dayEnd)) &&
                         (event.getEndDateTime().isAfter(dayStart) || event.getEndDateTime().isEqual(dayStart))) {
@@ -1390,10 +1399,11 @@ public class EventController {
                 ButtonType.OK, ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = eventDAO.delete(event.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
+                            calendarCache.invalidate(event.getStartDateTime());
                             loadEventList();
                             loadCalendarEvents();
                             new Alert(Alert.AlertType.INFORMATION, "Event deleted successfully!", ButtonType.OK)
@@ -1402,7 +1412,7 @@ public class EventController {
                             new Alert(Alert.AlertType.ERROR, "Failed to delete event", ButtonType.OK).showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1422,7 +1432,7 @@ public class EventController {
         } else {
             dialog = null;
         }
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             try {
                 boolean ok;
                 if (existing == null) {
@@ -1452,6 +1462,12 @@ public class EventController {
                         // Add a small delay to ensure database commit is complete
                         javafx.util.Duration delay = javafx.util.Duration.millis(100);
                         javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(delay);
+                        if (existing == null) {
+                            calendarCache.invalidate(event.getStartDateTime());
+                        } else {
+                            // The edit may have moved the event out of its old month
+                            calendarCache.invalidateAll();
+                        }
                         pause.setOnFinished(ev -> {
                             loadEventList();
                             loadCalendarEvents();
@@ -1513,19 +1529,11 @@ public class EventController {
                             .showAndWait();
                 });
             }
-        }).start();
+        });
     }
 
     private void loadMasjids() {
-        new Thread(() -> {
-            try {
-                var data = masjidDAO.getAll();
-                javafx.application.Platform.runLater(() -> {
-                    masjidList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading masjids: " + e.getMessage());
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "masjids", () -> ReferenceDataCache.getInstance().getMasjids(),
+                masjidList::setAll);
     }
 }
@@ -1,11 +1,7 @@
 package com.mahal.controller.home;
 
+import com.mahal.controller.Refreshable;
 import com.mahal.database.*;
-import com.mahal.model.DueCollection;
-import com.mahal.model.Expense;
-import com.mahal.model.Income;
-import com.mahal.model.IncomeType;
-import com.mahal.model.Member;
 import com.mahal.util.FormatUtil;
 import com.mahal.util.StyleHelper;
 
@@ -29,49 +25,43 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 /**
  * Home dashboard shown before the Masjid page.
- * Uses real amounts and counts from existing DAOs to drive
- * summary cards and a donation trends chart, with filter options.
+ * Uses amounts and counts aggregated in SQL by {@link LedgerAggregateDAO} to
+ * drive summary cards and a donation trends chart, with filter options.
  * All dates are interpreted in Indian Standard Time via {@link FormatUtil}.
  */
-public class HomeDashboardController {
+public class HomeDashboardController implements Refreshable {
 
-        private final IncomeDAO incomeDAO;
-        private final IncomeTypeDAO incomeTypeDAO;
-        private final ExpenseDAO expenseDAO;
-        private final DueCollectionDAO dueCollectionDAO;
-        private final MemberDAO memberDAO;
+        private final LedgerAggregateDAO ledgerAggregateDAO;
         private VBox dashboardContent;
         private DatePicker fromDatePicker;
         private DatePicker toDatePicker;
         private ComboBox<String> periodCombo;
 
         public HomeDashboardController() {
-                this.incomeDAO = new IncomeDAO();
-                this.incomeTypeDAO = new IncomeTypeDAO();
-                this.expenseDAO = new ExpenseDAO();
-                this.dueCollectionDAO = new DueCollectionDAO();
-                this.memberDAO = new MemberDAO();
+                this.ledgerAggregateDAO = new LedgerAggregateDAO();
 
                 // Subscribe to sync/data events to keep the dashboard fresh
-                com.mahal.util.EventBus.getInstance().subscribe("income_types",
+                com.mahal.util.EventBus.getInstance().subscribe("income_types", this,
                                 e -> javafx.application.Platform.runLater(this::refreshDashboard));
-                com.mahal.util.EventBus.getInstance().subscribe("incomes",
+                com.mahal.util.EventBus.getInstance().subscribe("incomes", this,
                                 e -> javafx.application.Platform.runLater(this::refreshDashboard));
-                com.mahal.util.EventBus.getInstance().subscribe("due_collections",
+                com.mahal.util.EventBus.getInstance().subscribe("due_collections", this,
                                 e -> javafx.application.Platform.runLater(this::refreshDashboard));
-                com.mahal.util.EventBus.getInstance().subscribe("expenses",
+                com.mahal.util.EventBus.getInstance().subscribe("expenses", this,
                                 e -> javafx.application.Platform.runLater(this::refreshDashboard));
-                com.mahal.util.EventBus.getInstance().subscribe("members",
+                com.mahal.util.EventBus.getInstance().subscribe("members", this,
                                 e -> javafx.application.Platform.runLater(this::refreshDashboard));
         }
 
+        @Override
+        public void refresh() {
+                refreshDashboard();
+        }
+
         private void refreshDashboard() {
                 if (dashboardContent != null && fromDatePicker != null && toDatePicker != null) {
                         rebuildDashboard(dashboardContent, fromDatePicker.getValue(), toDatePicker.getValue());
@@ -212,54 +202,11 @@ public class HomeDashboardController {
                 LocalDate from = startDate;
                 LocalDate to = endDate;
 
-                // Load income and map income type -> category (DONATION / etc.)
-                // Note: Since type field was removed from UI, it may be null - filter those out
-                List<Income> allIncome = incomeDAO.getAll();
-                List<IncomeType> allTypes = incomeTypeDAO.getAll();
-                Map<Long, String> typeById = allTypes.stream()
-                                .filter(it -> it.getId() != null && it.getType() != null) // Filter out null IDs and
-                                                                                          // null types
-                                .collect(Collectors.toMap(IncomeType::getId, IncomeType::getType, (a, b) -> a));
-
-                List<Income> incomeRange = allIncome.stream()
-                                .filter(i -> i.getDate() != null &&
-                                                !i.getDate().isBefore(from) &&
-                                                !i.getDate().isAfter(to))
-                                .toList();
-
-                List<Income> donationIncome = incomeRange.stream()
-                                .filter(i -> {
-                                        Long typeId = i.getIncomeTypeId();
-                                        String t = typeId != null ? typeById.get(typeId) : null;
-                                        return t == null || "DONATION".equalsIgnoreCase(t);
-                                })
-                                .toList();
-
-                List<Expense> allExpenses = expenseDAO.getAll();
-                List<Expense> expensesRange = allExpenses.stream()
-                                .filter(e -> e.getDate() != null &&
-                                                !e.getDate().isBefore(from) &&
-                                                !e.getDate().isAfter(to))
-                                .toList();
-
-                List<DueCollection> allCollections = dueCollectionDAO.getAll();
-
-                List<Member> members = memberDAO.getAll();
-
-                BigDecimal totalDonations = allIncome.stream()
-                                .map(Income::getAmount)
-                                .filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalExpenses = allExpenses.stream()
-                                .map(Expense::getAmount)
-                                .filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalDuesCollected = allCollections.stream()
-                                .map(DueCollection::getAmount)
-                                .filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                LedgerAggregateDAO.Summary summary = ledgerAggregateDAO.getSummary();
+
+                BigDecimal totalDonations = summary.getIncomes().getAmount();
+                BigDecimal totalExpenses = summary.getExpenses().getAmount();
+                BigDecimal totalDuesCollected = summary.getDueCollections().getAmount();
 
                 BigDecimal netBalance = totalDonations.add(totalDuesCollected).subtract(totalExpenses);
 
@@ -272,24 +219,24 @@ public class HomeDashboardController {
                 VBox duesCard = createStatCard(
                                 "Due Collections",
                                 FormatUtil.formatCurrency(totalDuesCollected),
-                                allCollections.size() + " total collections",
+                                summary.getDueCollections().getCount() + " total collections",
                                 "#10b981", "💰");
 
                 VBox donationsCard = createStatCard(
                                 "Total Donations",
                                 FormatUtil.formatCurrency(totalDonations),
-                                allIncome.size() + " total records",
+                                summary.getIncomes().getCount() + " total records",
                                 "#16a34a", "🧧");
 
                 VBox expensesCard = createStatCard(
                                 "Total Expenses",
                                 FormatUtil.formatCurrency(totalExpenses),
-                                allExpenses.size() + " total records",
+                                summary.getExpenses().getCount() + " total records",
                                 "#ef4444", "📉");
 
                 VBox membersCard = createStatCard(
                                 "Registered Members",
-                                String.valueOf(members.size()),
+                                String.valueOf(summary.getMemberCount()),
                                 "Active members",
                                 "#2563eb", "👥");
 
@@ -306,7 +253,7 @@ public class HomeDashboardController {
                 HBox middleRow = new HBox(20);
                 middleRow.setAlignment(Pos.TOP_LEFT);
 
-                VBox donationTrendsContainer = createDonationTrendsChart(donationIncome, from, to);
+                VBox donationTrendsContainer = createDonationTrendsChart(from, to);
 
                 middleRow.getChildren().addAll(donationTrendsContainer);
                 HBox.setHgrow(donationTrendsContainer, Priority.ALWAYS);
@@ -315,7 +262,7 @@ public class HomeDashboardController {
                 HBox expenseRow = new HBox(20);
                 expenseRow.setAlignment(Pos.TOP_LEFT);
 
-                VBox expenseTrendsContainer = createExpenseTrendsChart(expensesRange, from, to);
+                VBox expenseTrendsContainer = createExpenseTrendsChart(from, to);
 
                 expenseRow.getChildren().addAll(expenseTrendsContainer);
                 HBox.setHgrow(expenseTrendsContainer, Priority.ALWAYS);
@@ -359,7 +306,6 @@ public class HomeDashboardController {
         }
 
         private VBox createDonationTrendsChart(
-                        List<Income> donations,
                         LocalDate start,
                         LocalDate end) {
 
@@ -385,50 +331,7 @@ public class HomeDashboardController {
                                 "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.05), 10, 0, 0, 4); " +
                                 "-fx-border-color: #f3f4f6; -fx-border-width: 1; -fx-border-radius: 12;");
 
-                XYChart.Series<String, Number> series = new XYChart.Series<>();
-
-                long daysBetween = ChronoUnit.DAYS.between(start, end);
-                if (daysBetween <= 45) {
-                        // Group by Day
-                        Map<LocalDate, BigDecimal> byDate = donations.stream()
-                                        .filter(i -> i.getDate() != null && i.getAmount() != null)
-                                        .collect(Collectors.groupingBy(
-                                                        Income::getDate,
-                                                        TreeMap::new,
-                                                        Collectors.mapping(Income::getAmount,
-                                                                        Collectors.reducing(BigDecimal.ZERO,
-                                                                                        BigDecimal::add))));
-
-                        LocalDate cursor = start;
-                        while (!cursor.isAfter(end)) {
-                                BigDecimal amount = byDate.getOrDefault(cursor, BigDecimal.ZERO);
-                                series.getData().add(new XYChart.Data<>(
-                                                String.valueOf(cursor.getDayOfMonth()),
-                                                amount));
-                                cursor = cursor.plusDays(1);
-                        }
-                } else {
-                        // Group by Month
-                        Map<YearMonth, BigDecimal> byMonth = donations.stream()
-                                        .filter(i -> i.getDate() != null && i.getAmount() != null)
-                                        .collect(Collectors.groupingBy(
-                                                        i -> YearMonth.from(i.getDate()),
-                                                        TreeMap::new,
-                                                        Collectors.mapping(Income::getAmount,
-                                                                        Collectors.reducing(BigDecimal.ZERO,
-                                                                                        BigDecimal::add))));
-
-                        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM");
-                        YearMonth cursor = YearMonth.from(start);
-                        YearMonth limit = YearMonth.from(end);
-                        while (!cursor.isAfter(limit)) {
-                                BigDecimal amount = byMonth.getOrDefault(cursor, BigDecimal.ZERO);
-                                series.getData().add(new XYChart.Data<>(
-                                                cursor.format(fmt),
-                                                amount));
-                                cursor = cursor.plusMonths(1);
-                        }
-                }
+                XYChart.Series<String, Number> series = loadTrendSeries(LedgerAggregateDAO.Ledger.DONATIONS, start, end);
 
                 chart.getData().add(series);
                 // Apply Emerald colors directly to chart
@@ -443,7 +346,6 @@ public class HomeDashboardController {
         }
 
         private VBox createExpenseTrendsChart(
-                        List<Expense> expenses,
                         LocalDate start,
                         LocalDate end) {
 
@@ -469,19 +371,28 @@ public class HomeDashboardController {
                                 "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.05), 10, 0, 0, 4); " +
                                 "-fx-border-color: #f3f4f6; -fx-border-width: 1; -fx-border-radius: 12;");
 
+                XYChart.Series<String, Number> series = loadTrendSeries(LedgerAggregateDAO.Ledger.EXPENSES, start, end);
+
+                chart.getData().add(series);
+                // Apply Red colors for expenses
+                chart.setStyle("CHART_COLOR_1: #ef4444;");
+
+                chart.setMinWidth(600);
+                return container;
+        }
+
+        /**
+         * Per-day amounts for ranges up to 45 days, per-month amounts beyond
+         * that, with empty buckets filled in as zero.
+         */
+        private XYChart.Series<String, Number> loadTrendSeries(LedgerAggregateDAO.Ledger ledger,
+                        LocalDate start, LocalDate end) {
                 XYChart.Series<String, Number> series = new XYChart.Series<>();
 
                 long daysBetween = ChronoUnit.DAYS.between(start, end);
                 if (daysBetween <= 45) {
                         // Group by Day
-                        Map<LocalDate, BigDecimal> byDate = expenses.stream()
-                                        .filter(e -> e.getDate() != null && e.getAmount() != null)
-                                        .collect(Collectors.groupingBy(
-                                                        Expense::getDate,
-                                                        TreeMap::new,
-                                                        Collectors.mapping(Expense::getAmount,
-                                                                        Collectors.reducing(BigDecimal.ZERO,
-                                                                                        BigDecimal::add))));
+                        Map<LocalDate, BigDecimal> byDate = ledgerAggregateDAO.getDailyAmounts(ledger, start, end);
 
                         LocalDate cursor = start;
                         while (!cursor.isAfter(end)) {
@@ -493,14 +404,7 @@ public class HomeDashboardController {
                         }
                 } else {
                         // Group by Month
-                        Map<YearMonth, BigDecimal> byMonth = expenses.stream()
-                                        .filter(e -> e.getDate() != null && e.getAmount() != null)
-                                        .collect(Collectors.groupingBy(
-                                                        e -> YearMonth.from(e.getDate()),
-                                                        TreeMap::new,
-                                                        Collectors.mapping(Expense::getAmount,
-                                                                        Collectors.reducing(BigDecimal.ZERO,
-                                                                                        BigDecimal::add))));
+                        Map<YearMonth, BigDecimal> byMonth = ledgerAggregateDAO.getMonthlyAmounts(ledger, start, end);
 
                         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM");
                         YearMonth cursor = YearMonth.from(start);
@@ -513,12 +417,6 @@ public class HomeDashboardController {
                                 cursor = cursor.plusMonths(1);
                         }
                 }
-
-                chart.getData().add(series);
-                // Apply Red colors for expenses
-                chart.setStyle("CHART_COLOR_1: #ef4444;");
-
-                chart.setMinWidth(600);
-                return container;
+                return series;
         }
 }
@@ -11,6 +11,7 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.beans.property.SimpleStringProperty;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.InventoryItemDAO;
 import com.mahal.database.DamagedItemDAO;
 import com.mahal.database.RentItemDAO;
@@ -19,13 +20,15 @@ import com.mahal.model.InventoryItem;
 import com.mahal.model.DamagedItem;
 import com.mahal.model.RentItem;
 import com.mahal.model.Rent;
+import com.mahal.util.SearchPipeline;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
 import com.mahal.util.StyleHelper;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
-public class InventoryController {
+public class InventoryController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox addItemsViewPane;
@@ -67,16 +70,16 @@ public class InventoryController {
         createView();
 
         // Subscribe to sync events
-        com.mahal.util.EventBus.getInstance().subscribe("inventory_items",
+        com.mahal.util.EventBus.getInstance().subscribe("inventory_items", this,
                 e -> javafx.application.Platform.runLater(this::loadItems));
-        com.mahal.util.EventBus.getInstance().subscribe("damaged_items",
+        com.mahal.util.EventBus.getInstance().subscribe("damaged_items", this,
                 e -> javafx.application.Platform.runLater(() -> {
                     loadDamaged();
                     loadItems();
                 }));
-        com.mahal.util.EventBus.getInstance().subscribe("rent_items",
+        com.mahal.util.EventBus.getInstance().subscribe("rent_items", this,
                 e -> javafx.application.Platform.runLater(this::loadRentItems));
-        com.mahal.util.EventBus.getInstance().subscribe("rents",
+        com.mahal.util.EventBus.getInstance().subscribe("rents", this,
                 e -> javafx.application.Platform.runLater(this::loadRents));
     }
 
@@ -84,6 +87,14 @@ public class InventoryController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadItems();
+        loadDamaged();
+        loadRentItems();
+        loadRents();
+    }
+
     private void styleSwitcherButton(Button btn, boolean active) {
         btn.setStyle(StyleHelper.getPillButtonStyle(active));
     }
@@ -259,21 +270,9 @@ public class InventoryController {
         StyleHelper.styleTextField(searchField);
         searchField.setPrefWidth(250);
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredItems.setPredicate(item -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (item.getItemName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (item.getSkuCode() != null && item.getSkuCode().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (item.getLocation() != null && item.getLocation().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-            updateCountLabel(itemCountLabel, filteredItems, "item");
-        });
+        SearchPipeline.forList(searchField, filteredItems,
+                item -> SearchPipeline.keyOf(item.getItemName(), item.getSkuCode(), item.getLocation()),
+                () -> updateCountLabel(itemCountLabel, filteredItems, "item"));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -371,20 +370,9 @@ public class InventoryController {
         StyleHelper.styleTextField(searchField);
         searchField.setPrefWidth(250);
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredDamaged.setPredicate(damaged -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (damaged.getInventoryItemName() != null
-                        && damaged.getInventoryItemName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (damaged.getReason() != null && damaged.getReason().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-            updateCountLabel(damagedCountLabel, filteredDamaged, "damaged item");
-        });
+        SearchPipeline.forList(searchField, filteredDamaged,
+                damaged -> SearchPipeline.keyOf(damaged.getInventoryItemName(), damaged.getReason()),
+                () -> updateCountLabel(damagedCountLabel, filteredDamaged, "damaged item"));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -469,16 +457,9 @@ public class InventoryController {
         searchField.setPromptText("Search items...");
         searchField.setPrefWidth(300);
         StyleHelper.styleTextField(searchField);
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filteredRentItems.setPredicate(item -> {
-                if (newVal == null || newVal.isEmpty())
-                    return true;
-                String lower = newVal.toLowerCase();
-                return (item.getInventoryItemName() != null
-                        && item.getInventoryItemName().toLowerCase().contains(lower));
-            });
-            updateCountLabel(rentItemCountLabel, filteredRentItems, "Item");
-        });
+        SearchPipeline.forList(searchField, filteredRentItems,
+                item -> SearchPipeline.keyOf(item.getInventoryItemName()),
+                () -> updateCountLabel(rentItemCountLabel, filteredRentItems, "Item"));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -563,16 +544,9 @@ public class InventoryController {
         searchField.setPromptText("Search rentals...");
         searchField.setPrefWidth(300);
         StyleHelper.styleTextField(searchField);
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filteredRents.setPredicate(rent -> {
-                if (newVal == null || newVal.isEmpty())
-                    return true;
-                String lower = newVal.toLowerCase();
-                return (rent.getRenterName() != null && rent.getRenterName().toLowerCase().contains(lower)) ||
-                        (rent.getRentItemName() != null && rent.getRentItemName().toLowerCase().contains(lower));
-            });
-            updateCountLabel(rentCountLabel, filteredRents, "Rental");
-        });
+        SearchPipeline.forList(searchField, filteredRents,
+                rent -> SearchPipeline.keyOf(rent.getRenterName(), rent.getRentItemName()),
+                () -> updateCountLabel(rentCountLabel, filteredRents, "Rental"));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -683,17 +657,9 @@ public class InventoryController {
         viewCountLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #64748b; -fx-font-weight: 500;");
         updateCountLabel(viewCountLabel, filteredRents, "Rental");
 
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filteredRents.setPredicate(rent -> {
-                if (newVal == null || newVal.isEmpty())
-                    return true;
-                String lower = newVal.toLowerCase();
-                return (rent.getRenterName() != null && rent.getRenterName().toLowerCase().contains(lower)) ||
-                        (rent.getRentItemName() != null && rent.getRentItemName().toLowerCase().contains(lower)) ||
-                        (rent.getRenterMobile() != null && rent.getRenterMobile().contains(lower));
-            });
-            updateCountLabel(viewCountLabel, filteredRents, "Rental");
-        });
+        SearchPipeline.forList(searchField, filteredRents,
+                rent -> SearchPipeline.keyOf(rent.getRenterName(), rent.getRentItemName(), rent.getRenterMobile()),
+                () -> updateCountLabel(viewCountLabel, filteredRents, "Rental"));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -800,60 +766,24 @@ public class InventoryController {
 
     // ========== LOAD METHODS ==========
     private void loadItems() {
-        new Thread(() -> {
-            try {
-                var data = itemDAO.getAll();
-                javafx.application.Platform.runLater(() -> {
-                    itemList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading items: " + e.getMessage());
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "items", () -> itemDAO.getAll(), itemList::setAll);
     }
 
     private void loadDamaged() {
-        new Thread(() -> {
-            try {
-                var data = damagedDAO.getAll();
-                javafx.application.Platform.runLater(() -> {
-                    damagedList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading damaged items: " + e.getMessage());
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "damaged", () -> damagedDAO.getAll(), damagedList::setAll);
     }
 
     private void loadRentItems() {
-        new Thread(() -> {
-            try {
-                var data = rentItemDAO.getAll();
-                javafx.application.Platform.runLater(() -> {
-                    rentItemList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading rent items: " + e.getMessage());
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "rentItems", () -> rentItemDAO.getAll(), rentItemList::setAll);
     }
 
     private void loadRents() {
-        new Thread(() -> {
-            try {
-                var data = rentDAO.getAll();
-                javafx.application.Platform.runLater(() -> {
-                    rentList.setAll(data);
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading rents: " + e.getMessage());
-            }
-        }).start();
+        BackgroundTasks.getInstance().load(this, "rents", () -> rentDAO.getAll(), rentList::setAll);
     }
 
     // ========== SAVE METHODS ==========
     private void saveItem(InventoryItem item, InventoryItem existing) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             boolean ok = false;
             try {
                 if (existing == null) {
@@ -877,11 +807,11 @@ public class InventoryController {
                     new Alert(Alert.AlertType.ERROR, "Save failed. Please check the logs.", ButtonType.OK).show();
                 }
             });
-        }).start();
+        });
     }
 
     private void saveDamagedItem(DamagedItem damaged, DamagedItem existing) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             boolean ok;
             if (existing == null) {
                 ok = damagedDAO.create(damaged) != null;
@@ -902,11 +832,11 @@ public class InventoryController {
                     new Alert(Alert.AlertType.ERROR, "Save failed", ButtonType.OK).show();
                 }
             });
-        }).start();
+        });
     }
 
     private void saveRentItem(RentItem rentItem, RentItem existing) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             boolean ok = (existing == null) ? (rentItemDAO.create(rentItem) != null) : rentItemDAO.update(rentItem);
             javafx.application.Platform.runLater(() -> {
                 if (ok) {
@@ -918,11 +848,11 @@ public class InventoryController {
                     new Alert(Alert.AlertType.ERROR, "Save failed", ButtonType.OK).show();
                 }
             });
-        }).start();
+        });
     }
 
     private void saveRent(Rent rent, Rent existing) {
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             boolean ok = (existing == null) ? (rentDAO.create(rent) != null) : rentDAO.update(rent);
             javafx.application.Platform.runLater(() -> {
                 if (ok) {
@@ -936,7 +866,7 @@ public class InventoryController {
                     new Alert(Alert.AlertType.ERROR, "Save failed", ButtonType.OK).show();
                 }
             });
-        }).start();
+        });
     }
 
     // ========== DELETE METHODS ==========
@@ -944,7 +874,7 @@ public class InventoryController {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, "Delete this item?", ButtonType.OK, ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = itemDAO.delete(item.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
@@ -955,7 +885,7 @@ public class InventoryController {
                             new Alert(Alert.AlertType.ERROR, "Delete failed", ButtonType.OK).showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -965,7 +895,7 @@ public class InventoryController {
                 ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = damagedDAO.delete(damaged.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
@@ -977,7 +907,7 @@ public class InventoryController {
                             new Alert(Alert.AlertType.ERROR, "Delete failed", ButtonType.OK).showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -987,7 +917,7 @@ public class InventoryController {
                 ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = rentItemDAO.delete(rentItem.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
@@ -998,7 +928,7 @@ public class InventoryController {
                             new Alert(Alert.AlertType.ERROR, "Delete failed", ButtonType.OK).showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1007,7 +937,7 @@ public class InventoryController {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, "Delete this rent?", ButtonType.OK, ButtonType.CANCEL);
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean ok = rentDAO.delete(rent.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (ok) {
@@ -1020,7 +950,7 @@ public class InventoryController {
                             new Alert(Alert.AlertType.ERROR, "Delete failed", ButtonType.OK).showAndWait();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -8,10 +8,14 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.control.ScrollPane;
 import javafx.stage.Stage;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.MasjidDAO;
 import com.mahal.database.CommitteeDAO;
+import com.mahal.database.ReferenceDataCache;
 import com.mahal.model.Masjid;
 import com.mahal.model.Committee;
+import com.mahal.util.SearchPipeline;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
@@ -31,7 +35,7 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.util.StringConverter;
 
-public class MasjidController {
+public class MasjidController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox masjidViewPane;
@@ -75,6 +79,12 @@ public class MasjidController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadMasjidData();
+        loadCommitteeData();
+    }
+
     private void createView() {
         view = new VBox(24);
         view.setPadding(new Insets(24));
@@ -145,22 +155,9 @@ public class MasjidController {
         StyleHelper.styleTextField(searchField);
         searchField.setPrefWidth(250);
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredMasjids.setPredicate(masjid -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (masjid.getName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (masjid.getAddress().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (masjid.getAbbreviation() != null
-                        && masjid.getAbbreviation().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-            updateMasjidCount();
-        });
+        SearchPipeline.forList(searchField, filteredMasjids,
+                masjid -> SearchPipeline.keyOf(masjid.getName(), masjid.getAddress(), masjid.getAbbreviation()),
+                this::updateMasjidCount);
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -269,21 +266,10 @@ public class MasjidController {
         StyleHelper.styleTextField(searchField);
         searchField.setPrefWidth(250);
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredCommittees.setPredicate(member -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (member.getMemberName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (member.getDesignation().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (member.getMasjidName() != null && member.getMasjidName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-            updateCommitteeCount();
-        });
+        SearchPipeline.forList(searchField, filteredCommittees,
+                member -> SearchPipeline.keyOf(member.getMemberName(), member.getDesignation(),
+                        member.getMasjidName()),
+                this::updateCommitteeCount);
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -379,25 +365,21 @@ public class MasjidController {
     }
 
     private void loadMasjidData() {
-        new Thread(() -> {
-            java.util.List<Masjid> masjids = masjidDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                masjidList.clear();
-                masjidList.addAll(masjids);
-                updateMasjidCount();
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "masjids", () -> ReferenceDataCache.getInstance().getMasjids(),
+                masjids -> {
+                    masjidList.clear();
+                    masjidList.addAll(masjids);
+                    updateMasjidCount();
+                });
     }
 
     private void loadCommitteeData() {
-        new Thread(() -> {
-            java.util.List<Committee> committees = committeeDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                committeeList.clear();
-                committeeList.addAll(committees);
-                updateCommitteeCount();
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "committees", () -> ReferenceDataCache.getInstance().getCommittees(),
+                committees -> {
+                    committeeList.clear();
+                    committeeList.addAll(committees);
+                    updateCommitteeCount();
+                });
     }
 
     private void showMasjidDialog(Masjid masjid) {
@@ -467,7 +449,7 @@ public class MasjidController {
             saveBtn.setDisable(true);
             saveBtn.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 boolean isEdit = masjid != null;
                 System.out.println("Processing Masjid: " + (isEdit ? "UPDATE (ID: " + m.getId() + ")" : "CREATE"));
                 boolean success = !isEdit ? masjidDAO.create(m) != null : masjidDAO.update(m);
@@ -484,7 +466,7 @@ public class MasjidController {
                         alert.show();
                     }
                 });
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -584,7 +566,7 @@ public class MasjidController {
             saveBtn.setDisable(true);
             saveBtn.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 boolean isEdit = committee != null;
                 System.out.println(
                         "Processing Committee Member: " + (isEdit ? "UPDATE (ID: " + c.getId() + ")" : "CREATE"));
@@ -602,7 +584,7 @@ public class MasjidController {
                         alert.show();
                     }
                 });
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -632,7 +614,7 @@ public class MasjidController {
         alert.setContentText("Are you sure you want to delete this masjid?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = masjidDAO.delete(masjid.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -645,7 +627,7 @@ public class MasjidController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -656,7 +638,7 @@ public class MasjidController {
         alert.setContentText("Are you sure you want to delete this committee member?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = committeeDAO.delete(committee.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -668,7 +650,7 @@ public class MasjidController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
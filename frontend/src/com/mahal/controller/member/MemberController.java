@@ -5,13 +5,17 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import com.mahal.controller.Refreshable;
 import com.mahal.database.MemberDAO;
 import com.mahal.database.HouseDAO;
+import com.mahal.database.PageSort;
 import com.mahal.model.Member;
 import com.mahal.model.House;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
+import com.mahal.util.LazyTableLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -23,7 +27,7 @@ import javafx.scene.control.TextFormatter;
 import javafx.scene.control.TextInputControl;
 import javafx.util.StringConverter;
 
-public class MemberController {
+public class MemberController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox memberViewPane;
@@ -33,6 +37,7 @@ public class MemberController {
     private TextField memberSearchField;
     private TextField houseSearchField;
     private ObservableList<Member> memberList;
+    private LazyTableLoader<Member> memberLoader;
     private ObservableList<House> houseList;
     private MemberDAO memberDAO;
     private HouseDAO houseDAO;
@@ -76,9 +81,9 @@ public class MemberController {
         loadHouseData();
 
         // Subscribe to sync events
-        com.mahal.util.EventBus.getInstance().subscribe("members",
+        com.mahal.util.EventBus.getInstance().subscribe("members", this,
                 e -> javafx.application.Platform.runLater(this::loadData));
-        com.mahal.util.EventBus.getInstance().subscribe("houses",
+        com.mahal.util.EventBus.getInstance().subscribe("houses", this,
                 e -> javafx.application.Platform.runLater(this::loadHouseData));
     }
 
@@ -86,6 +91,12 @@ public class MemberController {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadData();
+        loadHouseData();
+    }
+
     private void createView() {
         view = new VBox(20);
         view.setPadding(new Insets(24));
@@ -245,24 +256,15 @@ public class MemberController {
         memberTable.getColumns().addAll(nameCol, fatherCol, mobileCol, ageCol, addressCol, actionsCol);
         VBox.setVgrow(memberTable, Priority.ALWAYS);
 
-        // Filtering logic
-        FilteredList<Member> filteredData = new FilteredList<>(memberList, p -> true);
-        memberSearchField.textProperty().addListener((obs, old, newValue) -> {
-            filteredData.setPredicate(mem -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lower = newValue.toLowerCase();
-                if (mem.getName() != null && mem.getName().toLowerCase().contains(lower))
-                    return true;
-                if (mem.getMobile() != null && mem.getMobile().contains(lower))
-                    return true;
-                if (mem.getAddress() != null && mem.getAddress().toLowerCase().contains(lower))
-                    return true;
-                return false;
-            });
-        });
+        // Rows are paged in from the database; search and sort run in SQL
+        memberLoader = new LazyTableLoader<>(memberTable, memberList, LazyTableLoader.DEFAULT_PAGE_SIZE,
+                PageSort.asc(MemberDAO.SortField.NAME), Member::getId, memberDAO::getPage);
+        memberLoader.mapSortColumn(nameCol, MemberDAO.SortField.NAME);
+        memberLoader.mapSortColumn(fatherCol, MemberDAO.SortField.FATHER_NAME);
+        memberLoader.mapSortColumn(mobileCol, MemberDAO.SortField.MOBILE);
+        memberLoader.mapSortColumn(addressCol, MemberDAO.SortField.ADDRESS);
+        memberSearchField.textProperty().addListener((obs, old, newValue) -> memberLoader.setFilter(newValue));
 
-        memberTable.setItems(filteredData);
         memberViewPane.getChildren().addAll(actionRow, memberTable);
     }
 
@@ -358,30 +360,14 @@ public class MemberController {
     }
 
     private void loadData() {
-        new Thread(() -> {
-            try {
-                java.util.List<Member> members = memberDAO.getAll();
-                System.out.println("loadData(): Retrieved " + members.size() + " members from database");
-                javafx.application.Platform.runLater(() -> {
-                    memberList.clear();
-                    memberList.addAll(members);
-                    System.out.println("loadData(): Updated table with " + memberList.size() + " members");
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading member data: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        memberLoader.refresh();
     }
 
     private void loadHouseData() {
-        new Thread(() -> {
-            java.util.List<House> houses = houseDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                houseList.clear();
-                houseList.addAll(houses);
-            });
-        }).start();
+        BackgroundTasks.getInstance().load(this, "houses", () -> houseDAO.getAll(), houses -> {
+            houseList.clear();
+            houseList.addAll(houses);
+        });
     }
 
     private void showMemberDialog(Member member) {
@@ -575,13 +561,13 @@ public class MemberController {
         addressCombo.setItems(filteredHouses);
 
         // Load houses in background
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             java.util.List<House> houses = houseDAO.getAll();
             javafx.application.Platform.runLater(() -> {
                 allHouses.clear();
                 allHouses.addAll(houses);
             });
-        }).start();
+        });
 
         // Set converter to display house information
         addressCombo.setConverter(new StringConverter<House>() {
@@ -681,7 +667,7 @@ public class MemberController {
         if (member != null && member.getAddress() != null && !member.getAddress().trim().isEmpty()) {
             String memberAddress = member.getAddress().trim();
             // Try to find matching house
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 java.util.List<House> houses = houseDAO.getAll();
                 javafx.application.Platform.runLater(() -> {
                     for (House house : houses) {
@@ -695,7 +681,7 @@ public class MemberController {
                         addressCombo.getEditor().setText(memberAddress);
                     }
                 });
-            }).start();
+            });
         }
 
         // Add button to add new house
@@ -763,7 +749,7 @@ public class MemberController {
                 newHouse.setAddress(address);
                 newHouse.setHouseNumber(houseNumber.isEmpty() ? null : houseNumber);
 
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     Long newId = houseDAO.create(newHouse);
                     javafx.application.Platform.runLater(() -> {
                         if (newId != null) {
@@ -787,7 +773,7 @@ public class MemberController {
                             alert.show();
                         }
                     });
-                }).start();
+                });
             });
 
             houseRoot.getChildren().addAll(
@@ -977,7 +963,7 @@ public class MemberController {
             // Capture originalMemberId in final variable for use in thread
             final Long memberIdToUse = originalMemberId;
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     System.out.println("Save operation started. originalMemberId: " + memberIdToUse);
@@ -1035,7 +1021,7 @@ public class MemberController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -1073,7 +1059,7 @@ public class MemberController {
                 "Are you sure you want to delete this member?\n\nNote: This will also delete related records in Due Collections and Incomes.");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = memberDAO.delete(member.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -1090,7 +1076,7 @@ public class MemberController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1101,7 +1087,7 @@ public class MemberController {
         alert.setContentText("Delete this house?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = houseDAO.delete(house.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -1113,7 +1099,7 @@ public class MemberController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1172,7 +1158,7 @@ public class MemberController {
             houseData.setAddress(address);
             houseData.setHouseNumber(houseNumber.isEmpty() ? null : houseNumber);
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 boolean success;
                 if (house == null) {
                     success = houseDAO.create(houseData) != null;
@@ -1191,7 +1177,7 @@ public class MemberController {
                         alert.show();
                     }
                 });
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -1,13 +1,7 @@
 package com.mahal.controller.reports;
 
-import com.mahal.database.DueCollectionDAO;
-import com.mahal.database.ExpenseDAO;
-import com.mahal.database.IncomeDAO;
-import com.mahal.database.MemberDAO;
-import com.mahal.model.DueCollection;
-import com.mahal.model.Expense;
-import com.mahal.model.Income;
-import com.mahal.model.Member;
+import com.mahal.controller.Refreshable;
+import com.mahal.database.LedgerAggregateDAO;
 import com.mahal.util.FormatUtil;
 import com.mahal.util.StyleHelper;
 
@@ -30,29 +24,35 @@ import javafx.scene.layout.VBox;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * High‑level dashboard / reports view built on real data from the
- * accounts module (income, expenses, due collections) and members.
+ * accounts module (income, expenses, due collections) and members,
+ * read from the ledger rollups so any date range costs a few hundred rows.
  *
  * All dates use IST (via FormatUtil.todayIst) and all currency is
  * displayed as INR.
  */
-public class ReportsController {
+public class ReportsController implements Refreshable {
 
-        private final IncomeDAO incomeDAO;
-        private final ExpenseDAO expenseDAO;
-        private final DueCollectionDAO dueCollectionDAO;
-        private final MemberDAO memberDAO;
+        private final LedgerAggregateDAO ledgerAggregateDAO;
+        private VBox shownContent;
+        private LocalDate shownStart;
+        private LocalDate shownEnd;
 
         public ReportsController() {
-                this.incomeDAO = new IncomeDAO();
-                this.expenseDAO = new ExpenseDAO();
-                this.dueCollectionDAO = new DueCollectionDAO();
-                this.memberDAO = new MemberDAO();
+                this.ledgerAggregateDAO = new LedgerAggregateDAO();
+        }
+
+        /**
+         * Recompute the report for the range currently shown.
+         */
+        @Override
+        public void refresh() {
+                if (shownContent != null) {
+                        rebuildContent(shownContent, shownStart, shownEnd);
+                }
         }
 
         public javafx.scene.control.ScrollPane getView() {
@@ -165,33 +165,22 @@ public class ReportsController {
         }
 
         private void rebuildContent(VBox container, LocalDate start, LocalDate end) {
+                shownContent = container;
+                shownStart = start;
+                shownEnd = end;
                 container.getChildren().clear();
 
-                List<Income> allIncome = incomeDAO.getAll();
-                List<Expense> allExpenses = expenseDAO.getAll();
-                List<DueCollection> allCollections = dueCollectionDAO.getAll();
-                List<Member> allMembers = memberDAO.getAll();
-
-                List<Income> rangeIncome = allIncome.stream()
-                                .filter(i -> i.getDate() != null && !i.getDate().isBefore(start)
-                                                && !i.getDate().isAfter(end))
-                                .toList();
-                List<Expense> rangeExpenses = allExpenses.stream()
-                                .filter(e -> e.getDate() != null && !e.getDate().isBefore(start)
-                                                && !e.getDate().isAfter(end))
-                                .toList();
-                List<DueCollection> rangeCollections = allCollections.stream()
-                                .filter(c -> c.getDate() != null && !c.getDate().isBefore(start)
-                                                && !c.getDate().isAfter(end))
-                                .toList();
-
-                BigDecimal totalIncome = rangeIncome.stream().map(Income::getAmount).filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                BigDecimal totalExpense = rangeExpenses.stream().map(Expense::getAmount).filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                BigDecimal totalCollections = rangeCollections.stream().map(DueCollection::getAmount)
-                                .filter(a -> a != null)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                LedgerAggregateDAO.Totals incomeTotals = ledgerAggregateDAO.getTotals(
+                                LedgerAggregateDAO.Ledger.INCOMES, start, end);
+                LedgerAggregateDAO.Totals expenseTotals = ledgerAggregateDAO.getTotals(
+                                LedgerAggregateDAO.Ledger.EXPENSES, start, end);
+                LedgerAggregateDAO.Totals collectionTotals = ledgerAggregateDAO.getTotals(
+                                LedgerAggregateDAO.Ledger.DUE_COLLECTIONS, start, end);
+                long memberCount = ledgerAggregateDAO.getSummary().getMemberCount();
+
+                BigDecimal totalIncome = incomeTotals.getAmount();
+                BigDecimal totalExpense = expenseTotals.getAmount();
+                BigDecimal totalCollections = collectionTotals.getAmount();
 
                 BigDecimal netBalance = totalIncome.add(totalCollections).subtract(totalExpense);
 
@@ -206,7 +195,7 @@ public class ReportsController {
                                                 "Expenses in range"),
                                 createStatCard("Net Balance", FormatUtil.formatCurrency(netBalance),
                                                 netBalance.compareTo(BigDecimal.ZERO) >= 0 ? "Surplus" : "Deficit"),
-                                createStatCard("Registered Members", String.valueOf(allMembers.size()),
+                                createStatCard("Registered Members", String.valueOf(memberCount),
                                                 "Total members"));
                 cardsRow.getChildren().forEach(n -> HBox.setHgrow(n, Priority.ALWAYS));
 
@@ -214,12 +203,10 @@ public class ReportsController {
                 HBox chartRow = new HBox(24);
                 chartRow.setAlignment(Pos.TOP_LEFT);
 
-                VBox barChartCard = wrapInCard(createIncomeExpenseBarChart(rangeIncome, rangeExpenses, start, end),
+                VBox barChartCard = wrapInCard(createIncomeExpenseBarChart(start, end),
                                 "Income vs Expense (This Month)");
-                VBox pieChartCard = wrapInCard(createCollectionByTypePieChart(allCollections.stream()
-                                .filter(c -> c.getDate() != null && !c.getDate().isBefore(start)
-                                                && !c.getDate().isAfter(end))
-                                .toList()), "Due Collections by Type (This Month)");
+                VBox pieChartCard = wrapInCard(createCollectionByTypePieChart(start, end),
+                                "Due Collections by Type (This Month)");
 
                 HBox.setHgrow(barChartCard, Priority.ALWAYS);
                 HBox.setHgrow(pieChartCard, Priority.ALWAYS);
@@ -261,8 +248,6 @@ public class ReportsController {
         }
 
         private BarChart<String, Number> createIncomeExpenseBarChart(
-                        List<Income> incomes,
-                        List<Expense> expenses,
                         LocalDate start,
                         LocalDate end) {
 
@@ -284,22 +269,11 @@ public class ReportsController {
                 XYChart.Series<String, Number> expenseSeries = new XYChart.Series<>();
                 expenseSeries.setName("Expense");
 
-                // Group sums by date
-                Map<LocalDate, BigDecimal> incomeByDate = incomes.stream()
-                                .filter(i -> i.getDate() != null && i.getAmount() != null)
-                                .collect(Collectors.groupingBy(
-                                                Income::getDate,
-                                                Collectors.mapping(Income::getAmount,
-                                                                Collectors.reducing(BigDecimal.ZERO,
-                                                                                BigDecimal::add))));
-
-                Map<LocalDate, BigDecimal> expenseByDate = expenses.stream()
-                                .filter(e -> e.getDate() != null && e.getAmount() != null)
-                                .collect(Collectors.groupingBy(
-                                                Expense::getDate,
-                                                Collectors.mapping(Expense::getAmount,
-                                                                Collectors.reducing(BigDecimal.ZERO,
-                                                                                BigDecimal::add))));
+                // Daily sums from the ledger rollups
+                Map<LocalDate, BigDecimal> incomeByDate = ledgerAggregateDAO.getDailyAmounts(
+                                LedgerAggregateDAO.Ledger.INCOMES, start, end);
+                Map<LocalDate, BigDecimal> expenseByDate = ledgerAggregateDAO.getDailyAmounts(
+                                LedgerAggregateDAO.Ledger.EXPENSES, start, end);
 
                 LocalDate cursor = start;
                 while (!cursor.isAfter(end)) {
@@ -319,20 +293,14 @@ public class ReportsController {
                 return chart;
         }
 
-        private PieChart createCollectionByTypePieChart(List<DueCollection> collections) {
+        private PieChart createCollectionByTypePieChart(LocalDate start, LocalDate end) {
                 PieChart pie = new PieChart();
                 pie.setLegendVisible(true);
                 pie.setLegendSide(javafx.geometry.Side.BOTTOM);
                 pie.setLabelsVisible(true);
                 pie.setStyle("-fx-background-color: transparent;");
 
-                Map<String, BigDecimal> byType = collections.stream()
-                                .filter(c -> c.getDueTypeName() != null && c.getAmount() != null)
-                                .collect(Collectors.groupingBy(
-                                                DueCollection::getDueTypeName,
-                                                Collectors.mapping(DueCollection::getAmount,
-                                                                Collectors.reducing(BigDecimal.ZERO,
-                                                                                BigDecimal::add))));
+                Map<String, BigDecimal> byType = ledgerAggregateDAO.getDueCollectionsByType(start, end);
 
                 for (Map.Entry<String, BigDecimal> entry : byType.entrySet()) {
                         String label = entry.getKey() + " (" + FormatUtil.formatCurrency(entry.getValue()) + ")";
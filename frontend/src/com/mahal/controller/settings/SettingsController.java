@@ -3,9 +3,11 @@ package com.mahal.controller.settings;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import com.mahal.database.LedgerAggregateDAO;
 import com.mahal.sync.SupabaseConfig;
 import com.mahal.sync.SyncHelper;
 import com.mahal.sync.ConnectivityService;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.FormStyler;
 import com.mahal.util.StyleHelper;
 import com.mahal.service.SubscriptionService;
@@ -59,7 +61,11 @@ public class SettingsController {
         // Sync Status Section
         VBox syncStatusSection = createSyncStatusSection();
 
-        view.getChildren().addAll(titleLabel, subscriptionSection, supabaseSection, syncStatusSection);
+        // Data Maintenance Section
+        VBox maintenanceSection = createMaintenanceSection();
+
+        view.getChildren().addAll(titleLabel, subscriptionSection, supabaseSection, syncStatusSection,
+                maintenanceSection);
 
         // Update status periodically
         updateSubscriptionInfo();
@@ -149,6 +155,59 @@ public class SettingsController {
         return section;
     }
 
+    private VBox createMaintenanceSection() {
+        VBox section = new VBox(16);
+        section.setPadding(new Insets(20));
+        section.setStyle(StyleHelper.getCardStyle());
+
+        Label sectionTitle = new Label("Data Maintenance");
+        sectionTitle.setStyle(
+                "-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: " + StyleHelper.TEXT_GRAY_900 + ";");
+
+        Label description = new Label("Report and dashboard totals are kept up to date automatically. " +
+                "If they ever disagree with the income, expense or due collection lists, rebuild them here.");
+        description.setStyle("-fx-font-size: 12px; -fx-text-fill: " + StyleHelper.TEXT_GRAY_700 + ";");
+        description.setWrapText(true);
+
+        Button rebuildBtn = new Button("Rebuild Report Totals");
+        rebuildBtn.setStyle("-fx-background-color: #2563eb; -fx-text-fill: white; -fx-background-radius: 8; " +
+                "-fx-font-weight: 600; -fx-font-size: 13px; -fx-padding: 8 16; -fx-cursor: hand;");
+        rebuildBtn.setOnAction(e -> rebuildReportTotals(rebuildBtn));
+
+        HBox buttonBox = new HBox(10);
+        buttonBox.getChildren().add(rebuildBtn);
+
+        section.getChildren().addAll(sectionTitle, description, buttonBox);
+
+        return section;
+    }
+
+    private void rebuildReportTotals(Button rebuildBtn) {
+        rebuildBtn.setDisable(true);
+        BackgroundTasks.getInstance().run(() -> {
+            String error = null;
+            try {
+                new LedgerAggregateDAO().rebuildRollups();
+            } catch (Exception e) {
+                System.err.println("Error rebuilding ledger rollups: " + e.getMessage());
+                e.printStackTrace();
+                error = e.getMessage();
+            }
+
+            String failure = error;
+            Platform.runLater(() -> {
+                rebuildBtn.setDisable(false);
+                Alert alert = new Alert(failure == null ? Alert.AlertType.INFORMATION : Alert.AlertType.ERROR);
+                alert.setTitle("Rebuild Report Totals");
+                alert.setHeaderText(failure == null ? "Success" : "Rebuild Failed");
+                alert.setContentText(failure == null
+                        ? "Report and dashboard totals have been recalculated."
+                        : "Could not rebuild report totals: " + failure);
+                alert.showAndWait();
+            });
+        });
+    }
+
     private void saveSupabaseConfig() {
         String url = supabaseUrlField.getText().trim();
         String key = supabaseKeyField.getText().trim();
@@ -230,7 +289,7 @@ public class SettingsController {
 
     private void updateSubscriptionInfo() {
         // Fetch subscription info in background thread
-        new Thread(() -> {
+        BackgroundTasks.getInstance().run(() -> {
             try {
                 SubscriptionService.SubscriptionStatus status = subscriptionService.checkSubscriptionStatus();
 
@@ -302,7 +361,7 @@ public class SettingsController {
                 });
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private String capitalize(String str) {
@@ -5,14 +5,18 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import com.mahal.controller.Refreshable;
+import com.mahal.database.PageSort;
 import com.mahal.database.StaffDAO;
 import com.mahal.database.StaffSalaryDAO;
 import java.io.File;
 import com.mahal.model.Staff;
 import com.mahal.model.StaffSalary;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
+import com.mahal.util.LazyTableLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -30,7 +34,7 @@ import javafx.collections.transformation.SortedList;
 import javafx.stage.FileChooser;
 import com.mahal.service.SalaryReportPDFService;
 
-public class StaffController {
+public class StaffController implements Refreshable {
     private VBox view;
     private StackPane contentPane;
     private VBox staffViewPane;
@@ -40,6 +44,10 @@ public class StaffController {
     private TableView<StaffSalary> salaryTable;
     private ObservableList<Staff> staffList;
     private ObservableList<StaffSalary> salaryList;
+    private ObservableList<StaffSalary> salaryPageList;
+    private LazyTableLoader<StaffSalary> salaryLoader;
+    private ObservableList<StaffSalary> reportItems;
+    private boolean reportDataLoaded;
     private StaffDAO staffDAO;
     private StaffSalaryDAO salaryDAO;
     private TextField searchField;
@@ -64,19 +72,26 @@ public class StaffController {
         this.salaryDAO = new StaffSalaryDAO();
         this.staffList = FXCollections.observableArrayList();
         this.salaryList = FXCollections.observableArrayList();
+        this.salaryPageList = FXCollections.observableArrayList();
         createView();
         loadStaffData();
         loadSalaryData();
 
         // Subscribe to sync events
-        EventBus.getInstance().subscribe("staff", event -> Platform.runLater(this::loadStaffData));
-        EventBus.getInstance().subscribe("staff_salaries", event -> Platform.runLater(this::loadSalaryData));
+        EventBus.getInstance().subscribe("staff", this, event -> Platform.runLater(this::loadStaffData));
+        EventBus.getInstance().subscribe("staff_salaries", this, event -> Platform.runLater(this::loadSalaryData));
     }
 
     public VBox getView() {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadStaffData();
+        loadSalaryData();
+    }
+
     private void createView() {
         view = new VBox(20);
         view.setPadding(new Insets(32));
@@ -134,6 +149,9 @@ public class StaffController {
             salaryBtn.setStyle(StyleHelper.getPillButtonStyle(false));
             reportBtn.setStyle(StyleHelper.getPillButtonStyle(true));
             contentPane.getChildren().setAll(reportViewPane);
+            if (!reportDataLoaded) {
+                loadReportData();
+            }
         });
 
         mainCard.getChildren().addAll(header, switcherContainer, contentPane);
@@ -374,26 +392,17 @@ public class StaffController {
         salaryTable.getColumns().addAll(staffCol, paidDateCol, salaryCol, paidCol, modeCol, balanceCol, remarksCol,
                 actionsCol);
 
-        // Filtered List Implementation
-        FilteredList<StaffSalary> filteredData = new FilteredList<>(salaryList, p -> true);
-        salarySearchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredData.setPredicate(sal -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (sal.getStaffName() != null && sal.getStaffName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (sal.getRemarks() != null && sal.getRemarks().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (sal.getPaymentMode() != null && sal.getPaymentMode().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
-        });
-
-        SortedList<StaffSalary> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(salaryTable.comparatorProperty());
-        salaryTable.setItems(sortedData);
+        // Payments are paged in from the database; search and sort run in SQL
+        salaryLoader = new LazyTableLoader<>(salaryTable, salaryPageList, LazyTableLoader.DEFAULT_PAGE_SIZE,
+                PageSort.desc(StaffSalaryDAO.SortField.PAID_DATE), StaffSalary::getId, salaryDAO::getPage);
+        salaryLoader.mapSortColumn(staffCol, StaffSalaryDAO.SortField.STAFF);
+        salaryLoader.mapSortColumn(paidDateCol, StaffSalaryDAO.SortField.PAID_DATE);
+        salaryLoader.mapSortColumn(salaryCol, StaffSalaryDAO.SortField.SALARY);
+        salaryLoader.mapSortColumn(paidCol, StaffSalaryDAO.SortField.PAID_AMOUNT);
+        salaryLoader.mapSortColumn(modeCol, StaffSalaryDAO.SortField.PAYMENT_MODE);
+        salaryLoader.mapSortColumn(balanceCol, StaffSalaryDAO.SortField.BALANCE);
+        salaryLoader.mapSortColumn(remarksCol, StaffSalaryDAO.SortField.REMARKS);
+        salarySearchField.textProperty().addListener((observable, oldValue, newValue) -> salaryLoader.setFilter(newValue));
 
         salaryView.getChildren().addAll(actionRow, salaryTable);
         return salaryView;
@@ -562,43 +571,43 @@ public class StaffController {
         SortedList<StaffSalary> sortedData = new SortedList<>(filteredData);
         sortedData.comparatorProperty().bind(reportTable.comparatorProperty());
         reportTable.setItems(sortedData);
+        reportItems = sortedData;
 
         reportView.getChildren().addAll(actionRow, reportTable);
         return reportView;
     }
 
     private void loadStaffData() {
-        new Thread(() -> {
-            try {
-                java.util.List<Staff> staffs = staffDAO.getAll();
-                System.out.println("loadStaffData: Retrieved " + staffs.size() + " staff records from database");
-                javafx.application.Platform.runLater(() -> {
+        BackgroundTasks.getInstance().load(this, "staff", BackgroundTasks.Priority.BACKGROUND, () -> staffDAO.getAll(),
+                staffs -> {
                     staffList.clear();
                     staffList.addAll(staffs);
-                    System.out.println("loadStaffData: Added " + staffs.size() + " records to table (staffList size: "
-                            + staffList.size() + ")");
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading staff data: " + e.getMessage());
-                e.printStackTrace();
-                javafx.application.Platform.runLater(() -> {
+                    System.out.println("loadStaffData: Added " + staffs.size() + " records to table");
+                }, e -> {
                     Alert alert = new Alert(Alert.AlertType.ERROR);
                     alert.setTitle("Error");
                     alert.setContentText("Failed to load staff data: " + e.getMessage());
                     alert.show();
                 });
-            }
-        }).start();
     }
 
     private void loadSalaryData() {
-        new Thread(() -> {
-            java.util.List<StaffSalary> salaries = salaryDAO.getAll();
-            javafx.application.Platform.runLater(() -> {
-                salaryList.clear();
-                salaryList.addAll(salaries);
-            });
-        }).start();
+        salaryLoader.refresh();
+        if (reportDataLoaded) {
+            loadReportData();
+        }
+    }
+
+    /**
+     * The report filters by date range and staff in memory, so it needs every
+     * salary record. Loaded the first time the report is opened.
+     */
+    private void loadReportData() {
+        reportDataLoaded = true;
+        BackgroundTasks.getInstance().load(this, "salaryReport", () -> salaryDAO.getAll(), salaries -> {
+            salaryList.clear();
+            salaryList.addAll(salaries);
+        });
     }
 
     private void showStaffDialog(Staff staff) {
@@ -746,7 +755,7 @@ public class StaffController {
             saveButton.setDisable(true);
             saveButton.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     if (staff == null) {
@@ -810,7 +819,7 @@ public class StaffController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -851,7 +860,7 @@ public class StaffController {
         alert.setContentText("Are you sure you want to delete this staff member?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = staffDAO.delete(staff.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -863,7 +872,7 @@ public class StaffController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1064,7 +1073,7 @@ public class StaffController {
             BigDecimal salaryAmount = salaryData.getSalary() != null ? salaryData.getSalary() : BigDecimal.ZERO;
             salaryData.setBalance(salaryAmount.subtract(paidAmount));
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     if (salary == null) {
@@ -1117,7 +1126,7 @@ public class StaffController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -1156,7 +1165,7 @@ public class StaffController {
         alert.setContentText("Are you sure you want to delete this salary payment record?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = salaryDAO.delete(salary.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -1173,7 +1182,7 @@ public class StaffController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
@@ -1186,10 +1195,10 @@ public class StaffController {
 
         File file = fileChooser.showSaveDialog(view.getScene().getWindow());
         if (file != null) {
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
-                    // Extract data currently in the table
-                    java.util.List<StaffSalary> currentData = new java.util.ArrayList<>(salaryTable.getItems());
+                    // Extract data currently in the report table
+                    java.util.List<StaffSalary> currentData = new java.util.ArrayList<>(reportItems);
 
                     LocalDate from = reportFromDate.getValue();
                     LocalDate to = reportToDate.getValue();
@@ -1215,7 +1224,7 @@ public class StaffController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         }
     }
 }
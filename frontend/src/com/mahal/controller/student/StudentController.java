@@ -5,15 +5,17 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import com.mahal.controller.Refreshable;
+import com.mahal.database.PageSort;
 import com.mahal.database.StudentDAO;
 import com.mahal.model.Student;
+import com.mahal.util.BackgroundTasks;
 import com.mahal.util.StyleHelper;
 import com.mahal.util.TableStyler;
 import com.mahal.util.FormStyler;
+import com.mahal.util.LazyTableLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.TextFormatter;
 import javafx.scene.control.TextInputControl;
@@ -24,10 +26,11 @@ import java.time.format.DateTimeFormatter;
 import com.mahal.util.EventBus;
 import javafx.application.Platform;
 
-public class StudentController {
+public class StudentController implements Refreshable {
     private VBox view;
     private TableView<Student> studentTable;
     private ObservableList<Student> studentList;
+    private LazyTableLoader<Student> studentLoader;
     private StudentDAO studentDAO;
     private TextField searchField;
 
@@ -48,13 +51,18 @@ public class StudentController {
         loadStudentData();
 
         // Subscribe to sync events
-        EventBus.getInstance().subscribe("students", event -> Platform.runLater(this::loadStudentData));
+        EventBus.getInstance().subscribe("students", this, event -> Platform.runLater(this::loadStudentData));
     }
 
     public VBox getView() {
         return view;
     }
 
+    @Override
+    public void refresh() {
+        loadStudentData();
+    }
+
     private void createView() {
         view = new VBox(20);
         view.setPadding(new Insets(32));
@@ -172,57 +180,30 @@ public class StudentController {
 
         studentTable.getColumns().addAll(nameCol, courseCol, admissionNumberCol, admissionDateCol, mobileCol, emailCol, addressCol, actionsCol);
 
-        // Filtered List Implementation
-        FilteredList<Student> filteredData = new FilteredList<>(studentList, p -> true);
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredData.setPredicate(student -> {
-                if (newValue == null || newValue.isEmpty())
-                    return true;
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (student.getName() != null && student.getName().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (student.getCourse() != null && student.getCourse().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (student.getAdmissionNumber() != null && student.getAdmissionNumber().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (student.getMobile() != null && student.getMobile().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                if (student.getEmail() != null && student.getEmail().toLowerCase().contains(lowerCaseFilter))
-                    return true;
-                return false;
-            });
+        // Rows are paged in from the database; search and sort run in SQL
+        studentLoader = new LazyTableLoader<>(studentTable, studentList, LazyTableLoader.DEFAULT_PAGE_SIZE,
+                PageSort.asc(StudentDAO.SortField.NAME), Student::getId, studentDAO::getPage);
+        studentLoader.mapSortColumn(nameCol, StudentDAO.SortField.NAME);
+        studentLoader.mapSortColumn(courseCol, StudentDAO.SortField.COURSE);
+        studentLoader.mapSortColumn(admissionNumberCol, StudentDAO.SortField.ADMISSION_NUMBER);
+        studentLoader.mapSortColumn(admissionDateCol, StudentDAO.SortField.ADMISSION_DATE);
+        studentLoader.mapSortColumn(mobileCol, StudentDAO.SortField.MOBILE);
+        studentLoader.mapSortColumn(emailCol, StudentDAO.SortField.EMAIL);
+        studentLoader.mapSortColumn(addressCol, StudentDAO.SortField.ADDRESS);
+        studentLoader.setOnError(e -> {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setContentText("Failed to load student data: " + e.getMessage());
+            alert.show();
         });
-
-        SortedList<Student> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(studentTable.comparatorProperty());
-        studentTable.setItems(sortedData);
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> studentLoader.setFilter(newValue));
 
         studentView.getChildren().addAll(actionRow, studentTable);
         return studentView;
     }
 
     private void loadStudentData() {
-        new Thread(() -> {
-            try {
-                java.util.List<Student> students = studentDAO.getAll();
-                System.out.println("loadStudentData: Retrieved " + students.size() + " student records from database");
-                javafx.application.Platform.runLater(() -> {
-                    studentList.clear();
-                    studentList.addAll(students);
-                    System.out.println("loadStudentData: Added " + students.size() + " records to table (studentList size: "
-                            + studentList.size() + ")");
-                });
-            } catch (Exception e) {
-                System.err.println("Error loading student data: " + e.getMessage());
-                e.printStackTrace();
-                javafx.application.Platform.runLater(() -> {
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Error");
-                    alert.setContentText("Failed to load student data: " + e.getMessage());
-                    alert.show();
-                });
-            }
-        }).start();
+        studentLoader.refresh();
     }
 
     private void showStudentDialog(Student student) {
@@ -384,7 +365,7 @@ public class StudentController {
             saveButton.setDisable(true);
             saveButton.setText("Saving...");
 
-            new Thread(() -> {
+            BackgroundTasks.getInstance().run(() -> {
                 try {
                     boolean success;
                     if (student == null) {
@@ -445,7 +426,7 @@ public class StudentController {
                         ex.printStackTrace();
                     });
                 }
-            }).start();
+            });
         });
 
         root.getChildren().addAll(
@@ -489,7 +470,7 @@ public class StudentController {
         alert.setContentText("Are you sure you want to delete this student?");
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new Thread(() -> {
+                BackgroundTasks.getInstance().run(() -> {
                     boolean success = studentDAO.delete(student.getId());
                     javafx.application.Platform.runLater(() -> {
                         if (success) {
@@ -501,7 +482,7 @@ public class StudentController {
                             errorAlert.show();
                         }
                     });
-                }).start();
+                });
             }
         });
     }
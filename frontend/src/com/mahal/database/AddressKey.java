@@ -0,0 +1,110 @@
+package com.mahal.database;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized form of an address, stored in the {@code address_key} column of
+ * members, houses and due_collections so address matching is an index seek
+ * on (user_id, address_key) instead of a TRIM/LOWER scan.
+ *
+ * A due collection's key is its member's key; it is copied on write and
+ * refreshed when the member's address changes.
+ */
+public final class AddressKey {
+    /** Tables carrying an address_key column. */
+    public static final Set<String> TABLES = Set.of("members", "houses", "due_collections");
+
+    /** Address key of a member; bind (member_id, user_id). */
+    static final String KEY_OF_MEMBER_SQL = "(SELECT address_key FROM members WHERE id = ? AND user_id = ?)";
+
+    /** due_collections.address_key derived from the row's current member. */
+    static final String MEMBER_KEY_SQL = "(SELECT m.address_key FROM members m "
+            + "WHERE m.id = due_collections.member_id AND m.user_id = due_collections.user_id)";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int ID_CHUNK = 500;
+
+    private AddressKey() {
+    }
+
+    /**
+     * Trimmed, whitespace-collapsed, lower-cased, NFC-normalized address, or
+     * null for a blank address.
+     */
+    public static String of(String address) {
+        if (address == null) {
+            return null;
+        }
+        String key = WHITESPACE.matcher(Normalizer.normalize(address, Normalizer.Form.NFC).trim()).replaceAll(" ");
+        return key.isEmpty() ? null : key.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Recompute address_key for the given rows of a keyed table (all rows when
+     * ids is null). For members, the keys of their due collections follow.
+     * Used after writes that bypass the DAOs, e.g. sync-down upserts.
+     */
+    public static void refresh(Transaction tx, String table, List<Long> ids) throws SQLException {
+        if (!TABLES.contains(table)) {
+            return;
+        }
+        if ("due_collections".equals(table)) {
+            String sql = "UPDATE due_collections SET address_key = " + MEMBER_KEY_SQL;
+            if (ids == null) {
+                tx.executeUpdate(sql, null);
+            } else {
+                tx.executeBatch(sql + " WHERE id = ?", idRows(ids));
+            }
+            return;
+        }
+
+        String select = "SELECT id, address FROM " + table;
+        List<Object[]> updates = new ArrayList<>();
+        if (ids == null) {
+            collectKeys(tx, select, null, updates);
+        } else {
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                collectKeys(tx, select + " WHERE id IN (" + placeholders + ")", chunk.toArray(), updates);
+            }
+        }
+        tx.executeBatch("UPDATE " + table + " SET address_key = ? WHERE id = ?", updates);
+
+        if ("members".equals(table)) {
+            String sql = "UPDATE due_collections SET address_key = " + MEMBER_KEY_SQL;
+            if (ids == null) {
+                tx.executeUpdate(sql, null);
+            } else {
+                tx.executeBatch(sql + " WHERE member_id = ?", idRows(ids));
+            }
+        }
+    }
+
+    private static void collectKeys(Transaction tx, String sql, Object[] params, List<Object[]> updates)
+            throws SQLException {
+        updates.addAll(tx.executeQuery(sql, params, rs -> {
+            try {
+                return new Object[] { of(rs.getString("address")), rs.getLong("id") };
+            } catch (SQLException e) {
+                System.err.println("Error reading address for key: " + e.getMessage());
+                return null;
+            }
+        }));
+    }
+
+    private static List<Object[]> idRows(List<Long> ids) {
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            rows.add(new Object[] { id });
+        }
+        return rows;
+    }
+}
@@ -4,6 +4,7 @@ import com.mahal.model.User;
 import com.mahal.sync.SyncHelper;
 import com.mahal.sync.SupabaseConfig;
 import com.mahal.util.SessionManager;
+import com.mahal.util.SharedHttpClient;
 import org.mindrot.jbcrypt.BCrypt;
 import org.json.JSONObject;
 import org.json.JSONArray;
@@ -14,66 +15,13 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 public class AdminDAO {
     private DatabaseService dbService;
 
     public AdminDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS admins (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " +
-                "name TEXT NOT NULL, " +
-                "password TEXT NOT NULL, " +
-                "full_name TEXT, " +
-                "active INTEGER DEFAULT 1, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "admins");
-            // Only create indexes if user_id column exists
-            try {
-                // Check if user_id column exists before creating indexes
-                String checkSql = "PRAGMA table_info(admins)";
-                var columns = dbService.executeQuery(checkSql, rs -> {
-                    try {
-                        return rs.getString("name");
-                    } catch (Exception e) {
-                        return null;
-                    }
-                });
-                boolean hasUserId = false;
-                for (var col : columns) {
-                    if ("user_id".equals(col)) {
-                        hasUserId = true;
-                        break;
-                    }
-                }
-                if (hasUserId) {
-                    dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_admins_user_id ON admins(user_id)", null);
-                    dbService.executeUpdate(
-                            "CREATE UNIQUE INDEX IF NOT EXISTS idx_admins_user_name_unique ON admins(user_id, name)",
-                            null);
-                }
-            } catch (Exception e) {
-                // Index creation failed, but table is created - that's okay
-                System.err.println(
-                        "Note: Could not create indexes (user_id column may not exist yet): " + e.getMessage());
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating admins table: " + e.getMessage());
-        }
     }
 
     public User authenticate(String email, String password) {
@@ -160,27 +108,18 @@ public class AdminDAO {
             String urlStr = config.getUrl() + "/rest/v1/admins?name=eq." + java.net.URLEncoder.encode(email, "UTF-8")
                     + "&active=eq.1&limit=1";
             System.out.println("Connecting to Supabase URL: " + urlStr);
-            URL url = new URL(urlStr);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("apikey", config.getApiKey());
-            conn.setRequestProperty("Authorization", "Bearer " + config.getApiKey());
-            conn.setConnectTimeout(10000);
-            conn.setReadTimeout(10000);
+            SharedHttpClient.Response response = SharedHttpClient.getInstance().send(
+                    SharedHttpClient.request("GET", urlStr)
+                            .header("Content-Type", "application/json")
+                            .header("apikey", config.getApiKey())
+                            .header("Authorization", "Bearer " + config.getApiKey())
+                            .timeout(Duration.ofSeconds(10))
+                            // Login waits on this: give up on an unreachable host as before
+                            .deadline(Duration.ofSeconds(10)));
 
-            int responseCode = conn.getResponseCode();
+            int responseCode = response.getStatusCode();
             if (responseCode == 200) {
-                StringBuilder response = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                }
-
-                String responseBody = response.toString();
+                String responseBody = response.getBody();
                 JSONArray records = new JSONArray(responseBody);
 
                 if (records.length() > 0) {
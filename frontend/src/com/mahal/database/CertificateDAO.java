@@ -2,6 +2,7 @@ package com.mahal.database;
 
 import com.mahal.model.Certificate;
 import com.mahal.sync.SyncHelper;
+import com.mahal.util.FormatUtil;
 import com.mahal.util.SessionManager;
 import com.mahal.model.User;
 import java.sql.ResultSet;
@@ -14,14 +15,6 @@ public class CertificateDAO {
 
     public CertificateDAO() {
         this.db = DatabaseService.getInstance();
-        createTablesIfNotExists();
-    }
-
-    private void createTablesIfNotExists() {
-        createMarriageTable();
-        createDeathTable();
-        createJamathTable();
-        createCustomTable();
     }
 
     private String getCurrentUserId() {
@@ -34,131 +27,6 @@ public class CertificateDAO {
         return String.valueOf(currentUser.getId());
     }
 
-    private void createMarriageTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS marriage_certificates (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "certificate_no TEXT, " +
-                "groom_name TEXT, " +
-                "bride_name TEXT, " +
-                "parent_name_of_groom TEXT, " +
-                "parent_name_of_bride TEXT, " +
-                "address_of_groom TEXT, " +
-                "address_of_bride TEXT, " +
-                "place_of_marriage TEXT, " +
-                "marriage_status TEXT, " +
-                "marriage_date TEXT, " +
-                "additional_notes TEXT, " +
-                "supporting_docs_path TEXT, " +
-                "pdf_path TEXT, " +
-                "qr_code TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "marriage_certificates");
-            try {
-                db.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_marriage_certificates_user_id ON marriage_certificates(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating marriage_certificates table: " + e.getMessage());
-        }
-    }
-
-    private void createDeathTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS death_certificates (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "certificate_no TEXT, " +
-                "name TEXT, " +
-                "parent_name TEXT, " +
-                "address TEXT, " +
-                "thalook TEXT, " +
-                "date_of_death TEXT, " +
-                "cause TEXT, " +
-                "place_of_death TEXT, " +
-                "issued_date TEXT, " +
-                "pdf_path TEXT, " +
-                "qr_code TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "death_certificates");
-            try {
-                db.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_death_certificates_user_id ON death_certificates(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating death_certificates table: " + e.getMessage());
-        }
-    }
-
-    private void createJamathTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS jamath_certificates (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "certificate_no TEXT, " +
-                "name TEXT, " +
-                "parent_name TEXT, " +
-                "address TEXT, " +
-                "thalook TEXT, " +
-                "date TEXT, " +
-                "remarks TEXT, " +
-                "pdf_path TEXT, " +
-                "qr_code TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "jamath_certificates");
-            try {
-                db.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_jamath_certificates_user_id ON jamath_certificates(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating jamath_certificates table: " + e.getMessage());
-        }
-    }
-
-    private void createCustomTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS custom_certificates (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "certificate_no TEXT, " +
-                "template_name TEXT, " +
-                "template_content TEXT, " +
-                "field_data TEXT, " +
-                "issued_date TEXT, " +
-                "pdf_path TEXT, " +
-                "qr_code TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "custom_certificates");
-            try {
-                db.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_custom_certificates_user_id ON custom_certificates(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating custom_certificates table: " + e.getMessage());
-        }
-    }
-
     private String getTableName(String type) {
         switch (type) {
             case "Marriage":
@@ -174,22 +42,66 @@ public class CertificateDAO {
         }
     }
 
-    public long countByType(String type) {
+    private static String numberPrefix(String type) {
+        switch (type) {
+            case "Death":
+                return "DC";
+            case "Jamath":
+                return "JC";
+            case "Custom":
+                return "CC";
+            default:
+                return "MC";
+        }
+    }
+
+    /**
+     * A certificate number such as MC-2026-00042.
+     */
+    public static String formatNumber(String type, int year, long value) {
+        return String.format("%s-%d-%05d", numberPrefix(type), year, value);
+    }
+
+    /**
+     * The number the next certificate of the type issued in the year would
+     * get, without reserving it.
+     */
+    public String peekNextNumber(String type, int year) {
         String userId = getCurrentUserId();
-        String tableName = getTableName(type);
-        String sql = "SELECT COUNT(*) FROM " + tableName + " WHERE user_id = ?";
-        try {
-            var result = db.executeQuery(sql, new Object[] { userId }, rs -> {
-                try {
-                    return rs.getLong(1);
-                } catch (SQLException e) {
-                    return 0L;
-                }
-            });
-            return result.isEmpty() ? 0L : result.get(0);
-        } catch (Exception e) {
-            return 0L;
+        List<Long> next = db.executeQuery(
+                "SELECT next_value FROM certificate_sequences WHERE user_id = ? AND type = ? AND year = ?",
+                new Object[] { userId, type, year }, rs -> {
+                    try {
+                        return rs.getLong(1);
+                    } catch (SQLException e) {
+                        return null;
+                    }
+                });
+        return formatNumber(type, year, next.isEmpty() ? 1 : next.get(0));
+    }
+
+    /**
+     * Take {@code count} consecutive numbers of the type for the year. A number
+     * is never handed out twice, even after its certificate is deleted.
+     */
+    private static List<String> allocateNumbers(Transaction tx, String userId, String type, int year, int count)
+            throws SQLException {
+        List<Long> next = tx.executeQuery("INSERT INTO certificate_sequences (user_id, type, year, next_value) "
+                + "VALUES (?, ?, ?, ?) ON CONFLICT (user_id, type, year) DO UPDATE "
+                + "SET next_value = next_value + ? RETURNING next_value",
+                new Object[] { userId, type, year, 1L + count, count }, rs -> {
+                    try {
+                        return rs.getLong(1);
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException("Reading certificate sequence failed", e);
+                    }
+                });
+        long first = next.get(0) - count;
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(formatNumber(type, year, first + i));
         }
+        return numbers;
     }
 
     public List<Certificate> getByType(String type) {
@@ -198,26 +110,38 @@ public class CertificateDAO {
 
     public List<Certificate> getByTypeWithFilters(String type, String search, String certificateNo,
             String name, String groomName, String brideName) {
+        return getByTypeWithFilters(type, search, certificateNo, name, groomName, brideName, null, null);
+    }
+
+    /**
+     * As above, limited to certificates whose main date (marriage, death,
+     * jamath or issue date) falls between {@code fromDate} and {@code toDate},
+     * inclusive; either bound may be null.
+     */
+    public List<Certificate> getByTypeWithFilters(String type, String search, String certificateNo,
+            String name, String groomName, String brideName, java.time.LocalDate fromDate, java.time.LocalDate toDate) {
         String userId = getCurrentUserId();
         String tableName = getTableName(type);
         String sql;
         List<Object> params = new ArrayList<>();
-        params.add(userId); // Add user_id first
+        // Search text matches word prefixes of the certificate number and names
+        // (full text index); best matches first
+        String ftsQuery = DAOBase.toFtsQuery(search);
+        if (ftsQuery != null) {
+            params.add(ftsQuery);
+        }
+        params.add(userId);
+        String from = "FROM " + tableName
+                + (ftsQuery != null ? DAOBase.ftsJoin(tableName + "_fts", "id") : "") + " WHERE user_id = ?";
+        String rankOrder = ftsQuery != null ? "fts.fts_rank, " : "";
 
         if ("Marriage".equals(type)) {
             sql = "SELECT id, user_id, certificate_no, groom_name, bride_name, parent_name_of_groom, parent_name_of_bride, "
                     +
                     "address_of_groom, address_of_bride, place_of_marriage, marriage_status, marriage_date, " +
                     "additional_notes, supporting_docs_path, pdf_path, qr_code, created_at, updated_at " +
-                    "FROM " + tableName + " WHERE user_id = ?";
-
-            if (search != null && !search.isEmpty()) {
-                sql += " AND (certificate_no LIKE ? OR groom_name LIKE ? OR bride_name LIKE ?)";
-                String searchPattern = "%" + search + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-                params.add(searchPattern);
-            }
+                    from;
+
             if (certificateNo != null && !certificateNo.isEmpty()) {
                 sql += " AND certificate_no = ?";
                 params.add(certificateNo);
@@ -231,18 +155,13 @@ public class CertificateDAO {
                 params.add("%" + brideName + "%");
             }
 
-            sql += " ORDER BY marriage_date DESC, id DESC";
+            sql += dateRange("marriage_date", fromDate, toDate, params);
+            sql += " ORDER BY " + rankOrder + "marriage_date DESC, id DESC";
         } else if ("Death".equals(type)) {
             sql = "SELECT id, user_id, certificate_no, name, parent_name, address, thalook, date_of_death, cause, " +
                     "place_of_death, issued_date, pdf_path, qr_code, created_at, updated_at " +
-                    "FROM " + tableName + " WHERE user_id = ?";
+                    from;
 
-            if (search != null && !search.isEmpty()) {
-                sql += " AND (certificate_no LIKE ? OR name LIKE ?)";
-                String searchPattern = "%" + search + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-            }
             if (certificateNo != null && !certificateNo.isEmpty()) {
                 sql += " AND certificate_no = ?";
                 params.add(certificateNo);
@@ -252,18 +171,13 @@ public class CertificateDAO {
                 params.add("%" + name + "%");
             }
 
-            sql += " ORDER BY date_of_death DESC, id DESC";
+            sql += dateRange("date_of_death", fromDate, toDate, params);
+            sql += " ORDER BY " + rankOrder + "date_of_death DESC, id DESC";
         } else if ("Jamath".equals(type)) {
             sql = "SELECT id, user_id, certificate_no, name, parent_name, address, thalook, date, remarks, " +
                     "pdf_path, qr_code, created_at, updated_at " +
-                    "FROM " + tableName + " WHERE user_id = ?";
+                    from;
 
-            if (search != null && !search.isEmpty()) {
-                sql += " AND (certificate_no LIKE ? OR name LIKE ?)";
-                String searchPattern = "%" + search + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-            }
             if (certificateNo != null && !certificateNo.isEmpty()) {
                 sql += " AND certificate_no = ?";
                 params.add(certificateNo);
@@ -273,18 +187,13 @@ public class CertificateDAO {
                 params.add("%" + name + "%");
             }
 
-            sql += " ORDER BY date DESC, id DESC";
+            sql += dateRange("date", fromDate, toDate, params);
+            sql += " ORDER BY " + rankOrder + "date DESC, id DESC";
         } else { // Custom
             sql = "SELECT id, user_id, certificate_no, template_name, template_content, field_data, issued_date, " +
                     "pdf_path, qr_code, created_at, updated_at " +
-                    "FROM " + tableName + " WHERE user_id = ?";
+                    from;
 
-            if (search != null && !search.isEmpty()) {
-                sql += " AND (certificate_no LIKE ? OR template_name LIKE ?)";
-                String searchPattern = "%" + search + "%";
-                params.add(searchPattern);
-                params.add(searchPattern);
-            }
             if (certificateNo != null && !certificateNo.isEmpty()) {
                 sql += " AND certificate_no = ?";
                 params.add(certificateNo);
@@ -294,12 +203,28 @@ public class CertificateDAO {
                 params.add("%" + name + "%");
             }
 
-            sql += " ORDER BY issued_date DESC, id DESC";
+            sql += dateRange("issued_date", fromDate, toDate, params);
+            sql += " ORDER BY " + rankOrder + "issued_date DESC, id DESC";
         }
 
         return db.executeQuery(sql, params.toArray(), this::mapResultSet);
     }
 
+    private static String dateRange(String column, java.time.LocalDate from, java.time.LocalDate to,
+            List<Object> params) {
+        // Dates are stored as ISO text, sometimes with a time part
+        String sql = "";
+        if (from != null) {
+            sql += " AND substr(" + column + ", 1, 10) >= ?";
+            params.add(from.toString());
+        }
+        if (to != null) {
+            sql += " AND substr(" + column + ", 1, 10) <= ?";
+            params.add(to.toString());
+        }
+        return sql;
+    }
+
     public Certificate getById(Long id, String type) {
         String userId = getCurrentUserId();
         String tableName = getTableName(type);
@@ -385,7 +310,31 @@ public class CertificateDAO {
             };
         }
 
-        Long newId = db.executeInsert(sql, params);
+        // A certificate without a number gets the next one of its sequence,
+        // allocated in the insert's transaction
+        boolean allocate = c.getCertificateNo() == null || c.getCertificateNo().trim().isEmpty();
+        String insertSql = sql;
+        Object[] insertParams = params;
+        Long newId;
+        try {
+            newId = db.inTransaction(tx -> {
+                if (allocate) {
+                    // The IST year, as shown by CertificateNumberService.previewNumber
+                    int year = FormatUtil.todayIst().getYear();
+                    String certNo = allocateNumbers(tx, userId, c.getType(), year, 1).get(0);
+                    insertParams[1] = certNo;
+                    c.setCertificateNo(certNo);
+                }
+                return tx.executeInsert(insertSql, insertParams);
+            });
+        } catch (SQLException | UncheckedSQLException e) {
+            System.err.println("Error creating certificate: " + e.getMessage());
+            e.printStackTrace();
+            if (allocate) {
+                c.setCertificateNo(null);
+            }
+            newId = null;
+        }
 
         // Queue for sync if record was created successfully
         if (newId != null) {
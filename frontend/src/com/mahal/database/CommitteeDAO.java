@@ -13,32 +13,6 @@ public class CommitteeDAO {
 
     public CommitteeDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS committees (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "member_name TEXT NOT NULL, " +
-                "mobile TEXT, " +
-                "designation TEXT, " +
-                "other_details TEXT, " +
-                "masjid_id INTEGER, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "committees");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_committees_user_id ON committees(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating committees table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -94,6 +68,7 @@ public class CommitteeDAO {
         // Queue for sync if record was created successfully
         if (newId != null) {
             committee.setId(newId);
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COMMITTEES);
             SyncHelper.queueInsert("committees", newId, committee);
         }
 
@@ -117,6 +92,7 @@ public class CommitteeDAO {
 
         // Queue for sync if update was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COMMITTEES);
             SyncHelper.queueUpdate("committees", committee.getId(), committee);
         }
 
@@ -130,6 +106,7 @@ public class CommitteeDAO {
 
         // Queue for sync if delete was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COMMITTEES);
             SyncHelper.queueDelete("committees", id);
         }
 
@@ -0,0 +1,404 @@
+package com.mahal.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SQLite connection pool used by {@link DatabaseService}.
+ *
+ * Keeps a bounded set of reader connections and one dedicated writer
+ * connection open for the lifetime of the application. The database runs in
+ * WAL journal mode, so readers never block the writer and the writer never
+ * blocks readers. Only one thread may hold the writer at a time; other
+ * writers wait on a fair lock instead of spinning on SQLITE_BUSY.
+ *
+ * Connections handed out are proxies: calling close() returns the connection
+ * to the pool instead of closing the underlying SQLite handle.
+ */
+public class ConnectionPool {
+    private static final long BORROW_TIMEOUT_MS = 10_000;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final int CACHE_SIZE_KB = 16_000; // negative cache_size = KiB
+    private static final long MMAP_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private final String url;
+    private final int maxReaders;
+    private final BlockingQueue<Connection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private Connection writer;
+    private volatile boolean shutdown = false;
+
+    // Health metrics
+    private final AtomicLong readerBorrows = new AtomicLong();
+    private final AtomicLong readerWaits = new AtomicLong();
+    private final AtomicLong readerWaitNanos = new AtomicLong();
+    private final AtomicLong writerBorrows = new AtomicLong();
+    private final AtomicLong writerWaits = new AtomicLong();
+    private final AtomicLong writerWaitNanos = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong connectionsDiscarded = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+
+    public ConnectionPool(String url, int maxReaders) {
+        this.url = url;
+        this.maxReaders = Math.max(1, maxReaders);
+        this.idleReaders = new ArrayBlockingQueue<>(this.maxReaders);
+    }
+
+    /**
+     * Borrow a reader connection. Blocks while all readers are in use.
+     */
+    public Connection borrowReader() throws SQLException {
+        ensureOpen();
+        readerBorrows.incrementAndGet();
+
+        Connection raw = idleReaders.poll();
+        if (raw == null && openReaders.incrementAndGet() <= maxReaders) {
+            try {
+                raw = openConnection(false);
+            } catch (SQLException e) {
+                openReaders.decrementAndGet();
+                throw e;
+            }
+        } else if (raw == null) {
+            openReaders.decrementAndGet();
+            readerWaits.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                raw = idleReaders.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection", e);
+            } finally {
+                readerWaitNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (raw == null) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + BORROW_TIMEOUT_MS
+                        + "ms waiting for a reader connection (" + maxReaders + " in use)");
+            }
+        }
+
+        final Connection reader = raw;
+        return wrap(reader, () -> releaseReader(reader));
+    }
+
+    /**
+     * Borrow the single writer connection. Blocks while another thread holds
+     * it. Re-entrant: a thread that already holds the writer gets it again.
+     */
+    public Connection borrowWriter() throws SQLException {
+        ensureOpen();
+        writerBorrows.incrementAndGet();
+
+        if (!writerLock.tryLock()) {
+            writerWaits.incrementAndGet();
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = writerLock.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the writer connection", e);
+            } finally {
+                writerWaitNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (!acquired) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + BORROW_TIMEOUT_MS + "ms waiting for the writer connection");
+            }
+        }
+
+        try {
+            if (writer == null || writer.isClosed()) {
+                if (writer != null) {
+                    connectionsDiscarded.incrementAndGet();
+                }
+                writer = openConnection(true);
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+
+        final Connection raw = writer;
+        return wrap(raw, () -> releaseWriter(raw));
+    }
+
+    /**
+     * True if the calling thread currently holds the writer connection.
+     */
+    public boolean isWriterHeldByCurrentThread() {
+        return writerLock.isHeldByCurrentThread();
+    }
+
+    private void releaseReader(Connection raw) {
+        try {
+            if (shutdown || raw.isClosed()) {
+                discard(raw);
+                return;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (!idleReaders.offer(raw)) {
+                discard(raw);
+            }
+        } catch (SQLException e) {
+            System.err.println("ConnectionPool: discarding broken reader connection: " + e.getMessage());
+            discard(raw);
+        }
+    }
+
+    private void discard(Connection raw) {
+        openReaders.decrementAndGet();
+        connectionsDiscarded.incrementAndGet();
+        closeQuietly(raw);
+    }
+
+    private void releaseWriter(Connection raw) {
+        try {
+            // Only the outermost release resets the connection; nested borrows
+            // on the same thread must not end the caller's transaction.
+            if (writerLock.getHoldCount() == 1 && !raw.isClosed() && !raw.getAutoCommit()) {
+                System.err.println("ConnectionPool: writer released inside an open transaction, rolling back");
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("ConnectionPool: discarding broken writer connection: " + e.getMessage());
+            closeQuietly(raw);
+            writer = null;
+            connectionsDiscarded.incrementAndGet();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private Connection openConnection(boolean forWriter) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        connectionsOpened.incrementAndGet();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            if (forWriter) {
+                // journal_mode is persistent in the database file; setting it once
+                // on the writer is enough, readers pick it up automatically.
+                try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = WAL")) {
+                    if (rs.next() && !"wal".equalsIgnoreCase(rs.getString(1))) {
+                        System.err.println("ConnectionPool: WAL mode not available, journal_mode=" + rs.getString(1));
+                    }
+                }
+            }
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA cache_size = -" + CACHE_SIZE_KB);
+            stmt.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        return conn;
+    }
+
+    private Connection wrap(Connection raw, Runnable onClose) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new PooledConnectionHandler(raw, onClose));
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+    }
+
+    /**
+     * Snapshot of the pool's health counters.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                maxReaders,
+                openReaders.get(),
+                idleReaders.size(),
+                readerBorrows.get(),
+                readerWaits.get(),
+                TimeUnit.NANOSECONDS.toMillis(readerWaitNanos.get()),
+                writerBorrows.get(),
+                writerWaits.get(),
+                TimeUnit.NANOSECONDS.toMillis(writerWaitNanos.get()),
+                writerLock.isLocked(),
+                writerLock.getQueueLength(),
+                connectionsOpened.get(),
+                connectionsDiscarded.get(),
+                borrowTimeouts.get());
+    }
+
+    /**
+     * Checkpoint the WAL and close all connections. Idle readers are closed
+     * immediately; readers still in use are closed when they are released.
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        Connection reader;
+        while ((reader = idleReaders.poll()) != null) {
+            discard(reader);
+        }
+        writerLock.lock();
+        try {
+            if (writer != null && !writer.isClosed()) {
+                try (Statement stmt = writer.createStatement()) {
+                    stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                } catch (SQLException e) {
+                    System.err.println("ConnectionPool: WAL checkpoint failed: " + e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            // Writer already unusable, nothing to checkpoint
+        } finally {
+            closeQuietly(writer);
+            writer = null;
+            writerLock.unlock();
+        }
+        System.out.println("ConnectionPool shut down. " + getStats());
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Proxy handler that turns close() into "return to pool".
+     */
+    private static class PooledConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+        private final Runnable onClose;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        PooledConnectionHandler(Connection raw, Runnable onClose) {
+            this.raw = raw;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + raw + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable view of pool counters, suitable for logging or diagnostics.
+     */
+    public static class PoolStats {
+        private final int maxReaders;
+        private final int openReaders;
+        private final int idleReaders;
+        private final long readerBorrows;
+        private final long readerWaits;
+        private final long readerWaitMillis;
+        private final long writerBorrows;
+        private final long writerWaits;
+        private final long writerWaitMillis;
+        private final boolean writerBusy;
+        private final int writerQueueLength;
+        private final long connectionsOpened;
+        private final long connectionsDiscarded;
+        private final long borrowTimeouts;
+
+        PoolStats(int maxReaders, int openReaders, int idleReaders, long readerBorrows, long readerWaits,
+                long readerWaitMillis, long writerBorrows, long writerWaits, long writerWaitMillis,
+                boolean writerBusy, int writerQueueLength, long connectionsOpened, long connectionsDiscarded,
+                long borrowTimeouts) {
+            this.maxReaders = maxReaders;
+            this.openReaders = openReaders;
+            this.idleReaders = idleReaders;
+            this.readerBorrows = readerBorrows;
+            this.readerWaits = readerWaits;
+            this.readerWaitMillis = readerWaitMillis;
+            this.writerBorrows = writerBorrows;
+            this.writerWaits = writerWaits;
+            this.writerWaitMillis = writerWaitMillis;
+            this.writerBusy = writerBusy;
+            this.writerQueueLength = writerQueueLength;
+            this.connectionsOpened = connectionsOpened;
+            this.connectionsDiscarded = connectionsDiscarded;
+            this.borrowTimeouts = borrowTimeouts;
+        }
+
+        public int getMaxReaders() { return maxReaders; }
+        public int getOpenReaders() { return openReaders; }
+        public int getIdleReaders() { return idleReaders; }
+        public int getActiveReaders() { return openReaders - idleReaders; }
+        public long getReaderBorrows() { return readerBorrows; }
+        public long getReaderWaits() { return readerWaits; }
+        public long getReaderWaitMillis() { return readerWaitMillis; }
+        public long getWriterBorrows() { return writerBorrows; }
+        public long getWriterWaits() { return writerWaits; }
+        public long getWriterWaitMillis() { return writerWaitMillis; }
+        public boolean isWriterBusy() { return writerBusy; }
+        public int getWriterQueueLength() { return writerQueueLength; }
+        public long getConnectionsOpened() { return connectionsOpened; }
+        public long getConnectionsDiscarded() { return connectionsDiscarded; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+
+        @Override
+        public String toString() {
+            return "PoolStats{readers=" + getActiveReaders() + "/" + openReaders + " active (max " + maxReaders
+                    + "), readerBorrows=" + readerBorrows + ", readerWaits=" + readerWaits + " (" + readerWaitMillis
+                    + "ms), writerBorrows=" + writerBorrows + ", writerWaits=" + writerWaits + " ("
+                    + writerWaitMillis + "ms), writerBusy=" + writerBusy + ", writerQueue=" + writerQueueLength
+                    + ", opened=" + connectionsOpened + ", discarded=" + connectionsDiscarded
+                    + ", timeouts=" + borrowTimeouts + "}";
+        }
+    }
+}
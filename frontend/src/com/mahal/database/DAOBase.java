@@ -2,6 +2,7 @@ package com.mahal.database;
 
 import com.mahal.util.SessionManager;
 import com.mahal.model.User;
+import java.util.List;
 
 /**
  * Base utility methods for DAOs to ensure user isolation.
@@ -35,38 +36,103 @@ public class DAOBase {
     }
 
     /**
-     * Ensure table has user_id column (for migration).
-     * Call this in createTableIfNotExists() after creating the table.
+     * Turn free search text into an FTS5 query in which every word must match
+     * as a prefix: {@code abdul rah} becomes {@code "abdul"* AND "rah"*}.
+     * Returns null when the text has nothing searchable.
      */
-    protected static void ensureUserIdColumn(DatabaseService db, String tableName) {
-        try {
-            // Check if user_id column exists
-            String checkSql = "PRAGMA table_info(" + tableName + ")";
-            var columns = db.executeQuery(checkSql, rs -> {
-                try {
-                    return rs.getString("name");
-                } catch (Exception e) {
-                    return null;
-                }
-            });
-
-            boolean hasUserId = false;
-            for (var col : columns) {
-                if ("user_id".equals(col)) {
-                    hasUserId = true;
-                    break;
-                }
+    static String toFtsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String word : text.trim().split("\\s+")) {
+            // Quoting makes FTS5 syntax characters literal; a word without any
+            // letter or digit would be an empty phrase
+            if (!word.codePoints().anyMatch(Character::isLetterOrDigit)) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(" AND ");
             }
+            query.append('"').append(word.replace("\"", "\"\"")).append("\"*");
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * Join clause restricting rows to FTS matches and exposing their bm25
+     * score as {@code fts.fts_rank} (lower is better). Binds one parameter,
+     * the {@link #toFtsQuery} result, at the position of the clause.
+     */
+    protected static String ftsJoin(String ftsTable, String idColumn) {
+        return " JOIN (SELECT rowid AS fts_rowid, rank AS fts_rank FROM " + ftsTable + " WHERE " + ftsTable
+                + " MATCH ?) fts ON fts.fts_rowid = " + idColumn;
+    }
+
+    /**
+     * Append " AND idColumn IN (FTS matches)" for the search text, for queries
+     * that keep their own ordering (e.g. keyset pages). Does nothing for text
+     * with nothing searchable.
+     */
+    protected static void appendFtsFilter(StringBuilder sql, List<Object> params, String ftsTable,
+            String idColumn, String text) {
+        String query = toFtsQuery(text);
+        if (query == null) {
+            return;
+        }
+        sql.append(" AND ").append(idColumn).append(" IN (SELECT rowid FROM ").append(ftsTable)
+                .append(" WHERE ").append(ftsTable).append(" MATCH ?)");
+        params.add(query);
+    }
 
-            if (!hasUserId) {
-                // Add user_id column
-                String alterSql = "ALTER TABLE " + tableName + " ADD COLUMN user_id TEXT";
-                db.executeUpdate(alterSql, null);
-                System.out.println("Added user_id column to " + tableName);
+    /**
+     * Like {@link #appendFtsFilter} over several FTS tables: a row matches if
+     * any of the given columns is a match in its FTS table, e.g. an income
+     * whose own text or whose member's name matches. {@code columnsAndTables}
+     * are pairs of id column and FTS table ("i.id", "incomes_fts",
+     * "i.member_id", "members_fts", ...).
+     */
+    protected static void appendFtsAnyFilter(StringBuilder sql, List<Object> params, String text,
+            String... columnsAndTables) {
+        String query = toFtsQuery(text);
+        if (query == null || columnsAndTables.length < 2) {
+            return;
+        }
+        sql.append(" AND (");
+        for (int i = 0; i + 1 < columnsAndTables.length; i += 2) {
+            if (i > 0) {
+                sql.append(" OR ");
             }
-        } catch (Exception e) {
-            // Table might not exist yet or column might already exist, ignore
-            System.err.println("Note: Could not check/add user_id column to " + tableName + ": " + e.getMessage());
+            String ftsTable = columnsAndTables[i + 1];
+            sql.append(columnsAndTables[i]).append(" IN (SELECT rowid FROM ").append(ftsTable)
+                    .append(" WHERE ").append(ftsTable).append(" MATCH ?)");
+            params.add(query);
+        }
+        sql.append(")");
+    }
+
+    /**
+     * Append the keyset condition, ORDER BY and LIMIT for one page. The query
+     * built so far must end inside a WHERE clause.
+     *
+     * @param idColumn the row id column (e.g. "i.id"), used as tie-breaker
+     * @param after    key of the last row of the previous page, or null for the
+     *                 first page
+     */
+    protected static void appendPage(StringBuilder sql, List<Object> params, PageSort<?> sort, String idColumn,
+            PageKey after, int limit) {
+        String expr = sort.getField().getExpression();
+        String cmp = sort.isAscending() ? ">" : "<";
+        String dir = sort.isAscending() ? "ASC" : "DESC";
+        if (after != null) {
+            sql.append(" AND (").append(expr).append(" ").append(cmp).append(" ? OR (")
+                    .append(expr).append(" = ? AND ").append(idColumn).append(" ").append(cmp).append(" ?))");
+            params.add(after.getSortValue());
+            params.add(after.getSortValue());
+            params.add(after.getId());
         }
+        sql.append(" ORDER BY ").append(expr).append(" ").append(dir).append(", ")
+                .append(idColumn).append(" ").append(dir).append(" LIMIT ?");
+        params.add(limit);
     }
 }
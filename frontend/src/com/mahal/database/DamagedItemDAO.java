@@ -17,31 +17,6 @@ public class DamagedItemDAO {
 
     public DamagedItemDAO() {
         this.db = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS damaged_items (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "inventory_item_id INTEGER, " +
-                "quantity INTEGER, " +
-                "damage_date TEXT, " +
-                "reason TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "damaged_items");
-            try {
-                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_damaged_items_user_id ON damaged_items(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating damaged_items table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -3,7 +3,14 @@ package com.mahal.database;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DatabaseService {
     // SQLite database file will be created in the project root directory
@@ -13,7 +20,13 @@ public class DatabaseService {
     private static final String APP_DATA_PATH = System.getProperty("user.home") + "/AppData/Roaming/MahalApp/data/";
     private static final String DB_FILE_NAME = "mahal_db_v2.db";
     private static final String DB_URL = "jdbc:sqlite:" + APP_DATA_PATH + DB_FILE_NAME + "?busy_timeout=5000";
+    // Readers run concurrently under WAL; writes are serialized on one connection
+    private static final int MAX_READER_CONNECTIONS = 4;
+    // Rows fetched per round trip by the streaming query APIs
+    public static final int DEFAULT_FETCH_SIZE = 500;
     private static DatabaseService instance;
+    private final ConnectionPool pool;
+    private final WriteExecutor writeExecutor;
 
     private DatabaseService() {
         // Ensure database directory exists
@@ -27,6 +40,12 @@ public class DatabaseService {
             System.err.println("SQLite Driver not found. Please ensure sqlite-jdbc.jar is in the classpath.");
             System.err.println("Error: " + e.getMessage());
         }
+
+        this.pool = new ConnectionPool(DB_URL, MAX_READER_CONNECTIONS);
+        this.writeExecutor = new WriteExecutor(pool);
+
+        // Create/upgrade the schema before any DAO runs a query
+        new SchemaMigrator(pool, SchemaMigrations.all()).migrate();
     }
 
     private void ensureDirectoryExists() {
@@ -42,15 +61,41 @@ public class DatabaseService {
         }
     }
 
-    public static DatabaseService getInstance() {
+    public static synchronized DatabaseService getInstance() {
         if (instance == null) {
             instance = new DatabaseService();
         }
         return instance;
     }
 
+    /**
+     * Borrow a pooled read connection. Closing it returns it to the pool.
+     */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return pool.borrowReader();
+    }
+
+    /**
+     * Borrow the single pooled write connection. Only one thread holds it at a
+     * time; closing it releases it for the next writer.
+     */
+    public Connection getWriteConnection() throws SQLException {
+        return pool.borrowWriter();
+    }
+
+    /**
+     * Current connection pool health counters.
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Flush queued writes, checkpoint the WAL and close all pooled connections.
+     */
+    public void shutdown() {
+        writeExecutor.shutdown();
+        pool.shutdown();
     }
 
     public boolean testConnection() {
@@ -108,7 +153,6 @@ public class DatabaseService {
                         mapperEx.printStackTrace();
                     }
                 }
-                System.out.println("executeQuery: Processed " + rowCount + " rows, added " + results.size() + " items");
             }
         } catch (SQLException e) {
             System.err.println("Query execution failed: " + e.getMessage());
@@ -117,34 +161,252 @@ public class DatabaseService {
         return results;
     }
 
-    public int executeUpdate(String sql, Object[] params) {
-        try (Connection conn = getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Stream query results row by row instead of collecting them into a list.
+     * The stream holds a pooled reader connection until it is closed, so
+     * always use it in try-with-resources:
+     *
+     * <pre>
+     * try (Stream&lt;Income&gt; incomes = db.stream(sql, params, mapper)) { ... }
+     * </pre>
+     *
+     * Rows for which the mapper returns null are skipped. A SQLException while
+     * reading is rethrown as UncheckedSQLException.
+     */
+    public <T> Stream<T> stream(String sql, Object[] params, RowMapper<T> mapper) {
+        return stream(sql, params, mapper, DEFAULT_FETCH_SIZE);
+    }
 
-            if (params != null) {
-                for (int i = 0; i < params.length; i++) {
-                    stmt.setObject(i + 1, params[i]);
+    public <T> Stream<T> stream(String sql, Object[] params, RowMapper<T> mapper, int fetchSize) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize);
+            Transaction.bind(stmt, params);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, stmt, conn);
+            throw new UncheckedSQLException("Query execution failed: " + e.getMessage(), e);
+        }
+
+        final Connection streamConn = conn;
+        final PreparedStatement streamStmt = stmt;
+        final ResultSet streamRs = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (streamRs.next()) {
+                        T item = mapper.mapRow(streamRs);
+                        if (item != null) {
+                            action.accept(item);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException("Query execution failed: " + e.getMessage(), e);
                 }
             }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(streamRs, streamStmt, streamConn));
+    }
 
-            return stmt.executeUpdate();
+    /**
+     * Invoke the callback for every row of a query without collecting results.
+     * Returns the number of rows processed, or -1 if the query failed.
+     */
+    public int forEachRow(String sql, Object[] params, RowCallback callback) {
+        return forEachRow(sql, params, callback, DEFAULT_FETCH_SIZE);
+    }
+
+    public int forEachRow(String sql, Object[] params, RowCallback callback, int fetchSize) {
+        try (Connection conn = getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(fetchSize);
+            Transaction.bind(stmt, params);
+            int rowCount = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    callback.processRow(rs);
+                    rowCount++;
+                }
+            }
+            return rowCount;
         } catch (SQLException e) {
-            System.err.println("Update execution failed: " + e.getMessage());
+            System.err.println("Query execution failed: " + e.getMessage());
             e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Execute an INSERT/UPDATE/DELETE through the write queue and wait for it
+     * to be committed. Returns the affected row count, or 0 on failure.
+     */
+    public int executeUpdate(String sql, Object[] params) {
+        if (isInWriteContext()) {
+            try (Connection conn = getWriteConnection()) {
+                return doUpdate(conn, sql, params);
+            } catch (SQLException e) {
+                System.err.println("Update execution failed: " + e.getMessage());
+                e.printStackTrace();
+                return 0;
+            }
+        }
+        try {
+            return submitUpdate(sql, params).join();
+        } catch (CompletionException e) {
+            System.err.println("Update execution failed: " + e.getCause().getMessage());
+            e.getCause().printStackTrace();
             return 0;
         }
     }
 
+    /**
+     * Execute an INSERT through the write queue and wait for it to be
+     * committed. Returns the generated row id, or null on failure.
+     */
     public Long executeInsert(String sql, Object[] params) {
-        try (Connection conn = getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        if (isInWriteContext()) {
+            try (Connection conn = getWriteConnection()) {
+                return doInsert(conn, sql, params);
+            } catch (SQLException e) {
+                System.err.println("Insert execution failed: " + e.getMessage());
+                e.printStackTrace();
+                return null;
+            }
+        }
+        try {
+            return submitInsert(sql, params).join();
+        } catch (CompletionException e) {
+            System.err.println("Insert execution failed: " + e.getCause().getMessage());
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
 
-            if (params != null) {
-                for (int i = 0; i < params.length; i++) {
-                    stmt.setObject(i + 1, params[i]);
+    /**
+     * Queue an INSERT/UPDATE/DELETE without waiting. The future completes with
+     * the affected row count once the write's group has been committed.
+     */
+    public CompletableFuture<Integer> submitUpdate(String sql, Object[] params) {
+        return writeExecutor.submit(conn -> doUpdate(conn, sql, params));
+    }
+
+    /**
+     * Queue an INSERT without waiting. The future completes with the generated
+     * row id (or null if nothing was inserted) once it has been committed.
+     */
+    public CompletableFuture<Long> submitInsert(String sql, Object[] params) {
+        return writeExecutor.submit(conn -> doInsert(conn, sql, params));
+    }
+
+    /**
+     * Queue arbitrary work on the writer connection. The work runs inside the
+     * write thread's current group transaction and must not commit or change
+     * auto-commit itself.
+     */
+    public <T> CompletableFuture<T> submitWrite(WriteExecutor.WriteWork<T> work) {
+        return writeExecutor.submit(work);
+    }
+
+    /**
+     * Run work as a single transaction on the writer connection. Commits if the
+     * work returns normally and rolls everything back if it throws. Calls to
+     * executeUpdate/executeInsert made by the work on this thread join the
+     * same transaction. A nested inTransaction call becomes a savepoint that
+     * is rolled back on its own if the nested work fails.
+     */
+    public <T> T inTransaction(Transaction.Work<T> work) throws SQLException {
+        try (Connection conn = getWriteConnection()) {
+            Transaction tx = new Transaction(conn);
+            if (!conn.getAutoCommit()) {
+                // Already inside a transaction on this thread: nest via savepoint
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    T result = work.execute(tx);
+                    conn.releaseSavepoint(savepoint);
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback(savepoint);
+                    throw e;
                 }
             }
 
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(tx);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Transaction rollback failed: " + rollbackEx.getMessage());
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Run one statement for many parameter rows in a single transaction using
+     * JDBC batching. Either every row is applied or none is. Returns the
+     * per-row update counts, or an empty array on failure.
+     */
+    public int[] executeBatch(String sql, List<Object[]> paramRows) {
+        try {
+            return inTransaction(tx -> tx.executeBatch(sql, paramRows));
+        } catch (SQLException e) {
+            System.err.println("Batch execution failed: " + e.getMessage());
+            e.printStackTrace();
+            return new int[0];
+        }
+    }
+
+    /**
+     * Number of writes waiting in the write queue.
+     */
+    public int getWriteQueueDepth() {
+        return writeExecutor.getQueueDepth();
+    }
+
+    /**
+     * True if the calling thread is the write thread or already holds the
+     * writer connection; such callers must write inline instead of queueing.
+     */
+    private boolean isInWriteContext() {
+        return writeExecutor.isWriterThread() || pool.isWriterHeldByCurrentThread();
+    }
+
+    private static int doUpdate(Connection conn, String sql, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Transaction.bind(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static Long doInsert(Connection conn, String sql, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Transaction.bind(stmt, params);
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
                 // SQLite-safe way to get generated ID
@@ -155,9 +417,6 @@ public class DatabaseService {
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Insert execution failed: " + e.getMessage());
-            e.printStackTrace();
         }
         return null;
     }
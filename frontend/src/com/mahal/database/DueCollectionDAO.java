@@ -7,42 +7,27 @@ import com.mahal.model.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class DueCollectionDAO {
+    private static final String SELECT_SQL =
+            "SELECT dc.id, dc.user_id, dc.masjid_id, m.name as masjid_name, dc.member_id, mem.name as member_name, "
+            +
+            "mem.address as address, dc.due_type_id, dt.due_name as due_type_name, dc.amount, dc.date, " +
+            "dc.payment_mode, dc.receipt_no, dc.remarks, dc.created_at, dc.updated_at " +
+            "FROM due_collections dc " +
+            "LEFT JOIN masjids m ON dc.masjid_id = m.id " +
+            "LEFT JOIN members mem ON dc.member_id = mem.id " +
+            "LEFT JOIN due_types dt ON dc.due_type_id = dt.id " +
+            "WHERE dc.user_id = ?";
+    private static final String SELECT_ALL_SQL = SELECT_SQL + " ORDER BY dc.date DESC";
+
     private DatabaseService dbService;
 
     public DueCollectionDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS due_collections (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "masjid_id INTEGER, " +
-                "member_id INTEGER, " +
-                "due_type_id INTEGER, " +
-                "amount REAL, " +
-                "date TEXT, " +
-                "payment_mode TEXT, " +
-                "receipt_no TEXT, " +
-                "remarks TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "due_collections");
-            try {
-                dbService.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_due_collections_user_id ON due_collections(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating due_collections table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -57,27 +42,50 @@ public class DueCollectionDAO {
 
     public List<DueCollection> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT dc.id, dc.user_id, dc.masjid_id, m.name as masjid_name, dc.member_id, mem.name as member_name, "
-                +
-                "mem.address as address, dc.due_type_id, dt.due_name as due_type_name, dc.amount, dc.date, " +
-                "dc.payment_mode, dc.receipt_no, dc.remarks, dc.created_at, dc.updated_at " +
-                "FROM due_collections dc " +
-                "LEFT JOIN masjids m ON dc.masjid_id = m.id " +
-                "LEFT JOIN members mem ON dc.member_id = mem.id " +
-                "LEFT JOIN due_types dt ON dc.due_type_id = dt.id " +
-                "WHERE dc.user_id = ? " +
-                "ORDER BY dc.date DESC";
-        List<DueCollection> results = dbService.executeQuery(sql, new Object[] { userId }, this::mapResultSet);
+        List<DueCollection> results = dbService.executeQuery(SELECT_ALL_SQL, new Object[] { userId },
+                this::mapResultSet);
         System.out.println("DueCollectionDAO.getAll(): Retrieved " + results.size()
                 + " collection records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Stream all due collections for the current user without loading them into memory.
+     * The stream holds a database connection; close it (try-with-resources).
+     */
+    public Stream<DueCollection> streamAll() {
+        String userId = getCurrentUserId();
+        return dbService.stream(SELECT_ALL_SQL, new Object[] { userId }, this::mapResultSet);
+    }
+
+    /**
+     * Collections for one address (matched on address key) and/or due type,
+     * newest first. Null filters are ignored.
+     */
+    public List<DueCollection> getFiltered(String address, Long dueTypeId) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        String addressKey = AddressKey.of(address);
+        if (addressKey != null) {
+            sql.append(" AND dc.address_key = ?");
+            params.add(addressKey);
+        }
+        if (dueTypeId != null) {
+            sql.append(" AND dc.due_type_id = ?");
+            params.add(dueTypeId);
+        }
+        sql.append(" ORDER BY dc.date DESC");
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
     public Long create(DueCollection collection) {
         String userId = getCurrentUserId();
-        String sql = "INSERT INTO due_collections (user_id, masjid_id, member_id, due_type_id, amount, date, payment_mode, receipt_no, remarks, created_at, updated_at) "
+        String sql = "INSERT INTO due_collections (user_id, masjid_id, member_id, due_type_id, amount, date, payment_mode, receipt_no, remarks, address_key, created_at, updated_at) "
                 +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, datetime('now'), datetime('now'))";
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, " + AddressKey.KEY_OF_MEMBER_SQL
+                + ", datetime('now'), datetime('now'))";
         // Convert LocalDate to string format YYYY-MM-DD for SQLite TEXT field
         String dateStr = collection.getDate() != null ? collection.getDate().toString() : null;
         Object[] params = {
@@ -89,7 +97,9 @@ public class DueCollectionDAO {
                 dateStr,
                 collection.getPaymentMode(),
                 collection.getReceiptNo(),
-                collection.getRemarks()
+                collection.getRemarks(),
+                collection.getMemberId(),
+                userId
         };
         Long newId = dbService.executeInsert(sql, params);
 
@@ -106,7 +116,8 @@ public class DueCollectionDAO {
         String userId = getCurrentUserId();
         String sql = "UPDATE due_collections SET masjid_id = ?, member_id = ?, due_type_id = ?, amount = ?, date = ?, "
                 +
-                "payment_mode = ?, receipt_no = ?, remarks = ?, updated_at = datetime('now') " +
+                "payment_mode = ?, receipt_no = ?, remarks = ?, address_key = " + AddressKey.KEY_OF_MEMBER_SQL
+                + ", updated_at = datetime('now') " +
                 "WHERE id = ? AND user_id = ?";
         // Convert LocalDate to string format YYYY-MM-DD for SQLite TEXT field
         String dateStr = collection.getDate() != null ? collection.getDate().toString() : null;
@@ -119,6 +130,8 @@ public class DueCollectionDAO {
                 collection.getPaymentMode(),
                 collection.getReceiptNo(),
                 collection.getRemarks(),
+                collection.getMemberId(),
+                userId,
                 collection.getId(),
                 userId // CRITICAL: User isolation check
         };
@@ -246,9 +259,10 @@ public class DueCollectionDAO {
 
         if (!exists) {
             // INSERT (forcing the ID from Supabase)
-            String sql = "INSERT INTO due_collections (id, user_id, masjid_id, member_id, due_type_id, amount, date, payment_mode, receipt_no, remarks, created_at, updated_at) "
+            String sql = "INSERT INTO due_collections (id, user_id, masjid_id, member_id, due_type_id, amount, date, payment_mode, receipt_no, remarks, address_key, created_at, updated_at) "
                     +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, datetime('now'), ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + AddressKey.KEY_OF_MEMBER_SQL
+                    + ", datetime('now'), ?)";
 
             Object[] params = {
                     collection.getId(),
@@ -261,6 +275,8 @@ public class DueCollectionDAO {
                     collection.getPaymentMode(),
                     collection.getReceiptNo(),
                     collection.getRemarks(),
+                    collection.getMemberId(),
+                    userId,
                     supabaseUpdatedAt != null ? supabaseUpdatedAt : "datetime('now')"
             };
 
@@ -276,7 +292,8 @@ public class DueCollectionDAO {
             // UPDATE
             String sql = "UPDATE due_collections SET masjid_id = ?, member_id = ?, due_type_id = ?, amount = ?, date = ?, "
                     +
-                    "payment_mode = ?, receipt_no = ?, remarks = ?, updated_at = ? " +
+                    "payment_mode = ?, receipt_no = ?, remarks = ?, address_key = " + AddressKey.KEY_OF_MEMBER_SQL
+                    + ", updated_at = ? " +
                     "WHERE id = ? AND user_id = ?";
 
             Object[] params = {
@@ -288,6 +305,8 @@ public class DueCollectionDAO {
                     collection.getPaymentMode(),
                     collection.getReceiptNo(),
                     collection.getRemarks(),
+                    collection.getMemberId(),
+                    userId,
                     supabaseUpdatedAt != null ? supabaseUpdatedAt : "datetime('now')",
                     collection.getId(),
                     userId
@@ -0,0 +1,108 @@
+package com.mahal.database;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the due obligations ledger maintained by {@link DueObligations}:
+ * what each house owes per due type, summed over the periods due so far.
+ */
+public class DueObligationDAO {
+
+    /**
+     * Expected and paid amounts of one due type for one address, over every
+     * period up to the current one.
+     */
+    public static class Balance {
+        private final String addressKey;
+        private final Long dueTypeId;
+        private final String dueTypeName;
+        private final String frequency;
+        private final int periods;
+        private final int unpaidPeriods;
+        private final BigDecimal expectedAmount;
+        private final BigDecimal paidAmount;
+        private final String latestRemarks;
+
+        Balance(String addressKey, Long dueTypeId, String dueTypeName, String frequency, int periods,
+                int unpaidPeriods, BigDecimal expectedAmount, BigDecimal paidAmount, String latestRemarks) {
+            this.addressKey = addressKey;
+            this.dueTypeId = dueTypeId;
+            this.dueTypeName = dueTypeName;
+            this.frequency = frequency;
+            this.periods = periods;
+            this.unpaidPeriods = unpaidPeriods;
+            this.expectedAmount = expectedAmount;
+            this.paidAmount = paidAmount;
+            this.latestRemarks = latestRemarks;
+        }
+
+        public String getAddressKey() { return addressKey; }
+        public Long getDueTypeId() { return dueTypeId; }
+        public String getDueTypeName() { return dueTypeName; }
+        public String getFrequency() { return frequency; }
+        public int getPeriods() { return periods; }
+        public int getUnpaidPeriods() { return unpaidPeriods; }
+        public BigDecimal getExpectedAmount() { return expectedAmount; }
+        public BigDecimal getPaidAmount() { return paidAmount; }
+        public BigDecimal getBalance() { return expectedAmount.subtract(paidAmount); }
+        public String getLatestRemarks() { return latestRemarks; }
+    }
+
+    private DatabaseService dbService;
+
+    public DueObligationDAO() {
+        this.dbService = DatabaseService.getInstance();
+    }
+
+    /**
+     * Balances per (address key, due type) for the current user, optionally
+     * narrowed to one address (matched on address key) and/or due type.
+     * Schedules that are missing or behind the current period are
+     * regenerated first.
+     */
+    public List<Balance> getBalances(String address, Long dueTypeId) {
+        String userId = DAOBase.getCurrentUserId();
+        try {
+            DueObligations.ensureCurrent(userId);
+        } catch (SQLException e) {
+            System.err.println("Error updating due schedules: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.address_key, o.due_type_id, dt.due_name, dt.frequency, " +
+                "SUM(CASE WHEN o.expected_paise > 0 THEN 1 ELSE 0 END) AS periods, " +
+                "SUM(CASE WHEN o.paid_paise < o.expected_paise THEN 1 ELSE 0 END) AS unpaid_periods, " +
+                "SUM(o.expected_paise) AS expected_paise, SUM(o.paid_paise) AS paid_paise, " +
+                "CASE WHEN SUM(o.payment_count) > 0 THEN (SELECT dc.remarks FROM due_collections dc " +
+                "WHERE dc.user_id = o.user_id AND dc.address_key = o.address_key " +
+                "AND dc.due_type_id = o.due_type_id ORDER BY dc.date DESC, dc.id DESC LIMIT 1) END AS remarks " +
+                "FROM due_obligations o JOIN due_types dt ON dt.id = o.due_type_id WHERE o.user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        String addressKey = AddressKey.of(address);
+        if (addressKey != null) {
+            sql.append(" AND o.address_key = ?");
+            params.add(addressKey);
+        }
+        if (dueTypeId != null) {
+            sql.append(" AND o.due_type_id = ?");
+            params.add(dueTypeId);
+        }
+        sql.append(" GROUP BY o.address_key, o.due_type_id ORDER BY o.address_key, dt.due_name");
+        return dbService.executeQuery(sql.toString(), params.toArray(), rs -> {
+            try {
+                return new Balance(rs.getString("address_key"), rs.getLong("due_type_id"),
+                        rs.getString("due_name"), rs.getString("frequency"), rs.getInt("periods"),
+                        rs.getInt("unpaid_periods"), BigDecimal.valueOf(rs.getLong("expected_paise"), 2),
+                        BigDecimal.valueOf(rs.getLong("paid_paise"), 2), rs.getString("remarks"));
+            } catch (SQLException e) {
+                System.err.println("Error mapping due balance: " + e.getMessage());
+                return null;
+            }
+        });
+    }
+}
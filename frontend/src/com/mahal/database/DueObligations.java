@@ -0,0 +1,202 @@
+package com.mahal.database;
+
+import com.mahal.util.FormatUtil;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Materialized due obligations: what each house (address key) owes for each
+ * due type and period, and how much of it has been paid.
+ *
+ * due_schedule holds the periods a due type is owed for, from its creation
+ * up to the current period: one per month for MONTHLY, per year for ANNUAL,
+ * and a single 'ONCE' period otherwise.
+ * due_obligations holds one row per (address key, due type, period) with the
+ * expected and paid amounts in paise. Triggers keep it current: members
+ * gaining an address get the schedule's rows, due collection writes
+ * apply their amount to their period, and due type edits drop the type's
+ * schedule so {@link #ensureCurrent} regenerates it on the next read.
+ */
+public final class DueObligations {
+    static final String ONCE = "ONCE";
+
+    private DueObligations() {
+    }
+
+    /**
+     * Period of a collection date for the given frequency, as SQL over the
+     * column expressions; matches {@link #periodOf}.
+     */
+    static String periodSql(String frequency, String date) {
+        return "CASE UPPER(" + frequency + ") WHEN 'MONTHLY' THEN substr(COALESCE(" + date + ", ''), 1, 7) "
+                + "WHEN 'ANNUAL' THEN substr(COALESCE(" + date + ", ''), 1, 4) ELSE '" + ONCE + "' END";
+    }
+
+    /** Frequency of a due collection row's due type, for use in triggers. */
+    static String frequencyOf(String row) {
+        return "(SELECT frequency FROM due_types WHERE id = " + row + ".due_type_id)";
+    }
+
+    static String periodOf(String frequency, LocalDate date) {
+        String f = frequency != null ? frequency.toUpperCase(Locale.ROOT) : "";
+        switch (f) {
+            case "MONTHLY":
+                return YearMonth.from(date).toString();
+            case "ANNUAL":
+                return String.valueOf(date.getYear());
+            default:
+                return ONCE;
+        }
+    }
+
+    /**
+     * Regenerate the schedule and obligations of every due type of the user
+     * whose schedule is missing (new or edited type) or does not reach the
+     * current period yet.
+     */
+    public static void ensureCurrent(String userId) throws SQLException {
+        LocalDate today = FormatUtil.todayIst();
+        List<Long> stale = DatabaseService.getInstance().executeQuery(
+                "SELECT dt.id, dt.frequency, (SELECT MAX(s.period) FROM due_schedule s " +
+                        "WHERE s.user_id = dt.user_id AND s.due_type_id = dt.id) AS last_period " +
+                        "FROM due_types dt WHERE dt.user_id = ?",
+                new Object[] { userId }, rs -> {
+                    try {
+                        String last = rs.getString("last_period");
+                        boolean current = last != null && last.equals(periodOf(rs.getString("frequency"), today));
+                        return current ? -1L : rs.getLong("id");
+                    } catch (SQLException e) {
+                        System.err.println("Error reading due schedule: " + e.getMessage());
+                        return -1L;
+                    }
+                });
+        stale.removeIf(id -> id < 0);
+        if (stale.isEmpty()) {
+            return;
+        }
+        DatabaseService.getInstance().inTransaction(tx -> {
+            for (Long dueTypeId : stale) {
+                rebuildType(tx, userId, dueTypeId, today);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Recreate one due type's schedule and obligations, applying the paid
+     * amounts of its existing collections.
+     */
+    static void rebuildType(Transaction tx, String userId, Long dueTypeId, LocalDate today) throws SQLException {
+        List<String[]> types = tx.executeQuery(
+                "SELECT frequency, CAST(ROUND(COALESCE(amount, 0) * 100) AS INTEGER) AS amount_paise, " +
+                        "substr(created_at, 1, 10) AS created FROM due_types WHERE id = ? AND user_id = ?",
+                new Object[] { dueTypeId, userId }, rs -> {
+                    try {
+                        return new String[] { rs.getString("frequency"), rs.getString("amount_paise"),
+                                rs.getString("created") };
+                    } catch (SQLException e) {
+                        System.err.println("Error reading due type for schedule: " + e.getMessage());
+                        return null;
+                    }
+                });
+        tx.executeUpdate("DELETE FROM due_schedule WHERE user_id = ? AND due_type_id = ?",
+                new Object[] { userId, dueTypeId });
+        tx.executeUpdate("DELETE FROM due_obligations WHERE user_id = ? AND due_type_id = ?",
+                new Object[] { userId, dueTypeId });
+        if (types.isEmpty() || types.get(0) == null) {
+            return;
+        }
+
+        String[] type = types.get(0);
+        String frequency = type[0];
+        long amountPaise = Long.parseLong(type[1]);
+        // Payments dated before the type existed count as credit, not as extra periods
+        LocalDate created = parseDate(type[2]);
+        LocalDate start = created != null && created.isBefore(today) ? created : today;
+
+        List<Object[]> schedule = new ArrayList<>();
+        for (String period : periods(frequency, start, today)) {
+            schedule.add(new Object[] { userId, dueTypeId, period, amountPaise });
+        }
+        tx.executeBatch("INSERT INTO due_schedule (user_id, due_type_id, period, expected_paise) VALUES (?, ?, ?, ?)",
+                schedule);
+
+        tx.executeUpdate("INSERT INTO due_obligations (user_id, address_key, due_type_id, period, expected_paise) " +
+                "SELECT s.user_id, k.address_key, s.due_type_id, s.period, s.expected_paise " +
+                "FROM (SELECT DISTINCT address_key FROM members WHERE user_id = ? AND address_key IS NOT NULL) k " +
+                "CROSS JOIN due_schedule s WHERE s.user_id = ? AND s.due_type_id = ?",
+                new Object[] { userId, userId, dueTypeId });
+
+        tx.executeUpdate("INSERT INTO due_obligations (user_id, address_key, due_type_id, period, paid_paise, " +
+                "payment_count) SELECT user_id, address_key, due_type_id, " + periodSql("?", "date") + " AS period, " +
+                "SUM(" + LedgerRollups.paise("due_collections") + "), COUNT(*) FROM due_collections " +
+                "WHERE user_id = ? AND due_type_id = ? AND address_key IS NOT NULL " +
+                "GROUP BY address_key, period " +
+                "ON CONFLICT (user_id, address_key, due_type_id, period) DO UPDATE SET " +
+                "paid_paise = excluded.paid_paise, payment_count = excluded.payment_count",
+                new Object[] { frequency, userId, dueTypeId });
+    }
+
+    private static List<String> periods(String frequency, LocalDate start, LocalDate end) {
+        List<String> periods = new ArrayList<>();
+        String f = frequency != null ? frequency.toUpperCase(Locale.ROOT) : "";
+        if ("MONTHLY".equals(f)) {
+            for (YearMonth m = YearMonth.from(start); !m.isAfter(YearMonth.from(end)); m = m.plusMonths(1)) {
+                periods.add(m.toString());
+            }
+        } else if ("ANNUAL".equals(f)) {
+            for (int year = start.getYear(); year <= end.getYear(); year++) {
+                periods.add(String.valueOf(year));
+            }
+        } else {
+            periods.add(ONCE);
+        }
+        return periods;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Statements applying (sign +1) or reverting (sign -1) a due collection
+     * row's amount on its obligation, for use in trigger bodies.
+     */
+    static String applyPayment(String row, int sign) {
+        String period = periodSql(frequencyOf(row), row + ".date");
+        String paise = LedgerRollups.paise(row);
+        if (sign > 0) {
+            return "INSERT INTO due_obligations (user_id, address_key, due_type_id, period, paid_paise, "
+                    + "payment_count) SELECT " + row + ".user_id, " + row + ".address_key, " + row + ".due_type_id, "
+                    + period + ", " + paise + ", 1 WHERE " + row + ".user_id IS NOT NULL AND " + row
+                    + ".address_key IS NOT NULL AND " + row + ".due_type_id IS NOT NULL "
+                    + "ON CONFLICT (user_id, address_key, due_type_id, period) DO UPDATE SET "
+                    + "paid_paise = paid_paise + excluded.paid_paise, payment_count = payment_count + 1;";
+        }
+        String match = " WHERE user_id = " + row + ".user_id AND address_key = " + row + ".address_key"
+                + " AND due_type_id = " + row + ".due_type_id AND period = " + period;
+        return "UPDATE due_obligations SET paid_paise = paid_paise - " + paise
+                + ", payment_count = payment_count - 1" + match + "; "
+                + "DELETE FROM due_obligations" + match + " AND payment_count <= 0 AND expected_paise = 0;";
+    }
+
+    /**
+     * Statement giving a member's address the obligations of every scheduled
+     * due type, for use in trigger bodies.
+     */
+    static String addAddress(String row) {
+        return "INSERT INTO due_obligations (user_id, address_key, due_type_id, period, expected_paise) "
+                + "SELECT s.user_id, " + row + ".address_key, s.due_type_id, s.period, s.expected_paise "
+                + "FROM due_schedule s WHERE s.user_id = " + row + ".user_id AND " + row + ".address_key IS NOT NULL "
+                + "ON CONFLICT (user_id, address_key, due_type_id, period) DO UPDATE SET "
+                + "expected_paise = excluded.expected_paise;";
+    }
+}
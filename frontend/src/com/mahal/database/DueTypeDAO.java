@@ -14,30 +14,6 @@ public class DueTypeDAO {
 
     public DueTypeDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS due_types (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "due_name TEXT NOT NULL, " +
-                "frequency TEXT, " +
-                "amount REAL, " +
-                "description TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "due_types");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_due_types_user_id ON due_types(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating due_types table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -76,6 +52,7 @@ public class DueTypeDAO {
         // Queue for sync if record was created successfully
         if (newId != null) {
             dueType.setId(newId);
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.DUE_TYPES);
             SyncHelper.queueInsert("due_types", newId, dueType);
         }
 
@@ -97,6 +74,7 @@ public class DueTypeDAO {
 
         // Queue for sync if update was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.DUE_TYPES);
             SyncHelper.queueUpdate("due_types", dueType.getId(), dueType);
         }
 
@@ -110,6 +88,7 @@ public class DueTypeDAO {
 
         // Queue for sync if delete was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.DUE_TYPES);
             SyncHelper.queueDelete("due_types", id);
         }
 
@@ -176,6 +155,7 @@ public class DueTypeDAO {
 
             try {
                 int rows = dbService.executeUpdate(sql, params);
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.DUE_TYPES);
                 return rows > 0;
             } catch (Exception e) {
                 System.err.println("DueTypeDAO.upsertFromSupabase (INSERT): " + e.getMessage());
@@ -200,6 +180,7 @@ public class DueTypeDAO {
 
             try {
                 int rows = dbService.executeUpdate(sql, params);
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.DUE_TYPES);
                 return rows > 0;
             } catch (Exception e) {
                 System.err.println("DueTypeDAO.upsertFromSupabase (UPDATE): " + e.getMessage());
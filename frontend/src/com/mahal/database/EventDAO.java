@@ -18,36 +18,6 @@ public class EventDAO {
 
     public EventDAO() {
         this.db = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS events (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "event_name TEXT NOT NULL, " +
-                "start_date_time TEXT, " +
-                "end_date_time TEXT, " +
-                "event_place TEXT, " +
-                "masjid_id INTEGER, " +
-                "event_details TEXT, " +
-                "organizer TEXT, " +
-                "contact TEXT, " +
-                "attachments_path TEXT, " +
-                "is_public INTEGER DEFAULT 1, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "events");
-            try {
-                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_events_user_id ON events(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating events table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -78,22 +48,20 @@ public class EventDAO {
             LocalDateTime endDate, Boolean isPublic) {
         String userId = getCurrentUserId();
         List<Object> params = new ArrayList<>();
-        params.add(userId); // Add user_id first
+        // Search text matches word prefixes of name, place and organizer (full text index)
+        String ftsQuery = DAOBase.toFtsQuery(search);
+        if (ftsQuery != null) {
+            params.add(ftsQuery);
+        }
+        params.add(userId);
         String sql = "SELECT e.id, e.user_id, e.event_name, e.start_date_time, e.end_date_time, e.event_place, " +
                 "e.masjid_id, m.name as masjid_name, e.event_details, e.organizer, e.contact, " +
                 "e.attachments_path, e.is_public, e.created_at, e.updated_at " +
-                "FROM events e " +
-                "LEFT JOIN masjids m ON e.masjid_id = m.id " +
+                "FROM events e" +
+                (ftsQuery != null ? DAOBase.ftsJoin("events_fts", "e.id") : "") +
+                " LEFT JOIN masjids m ON e.masjid_id = m.id " +
                 "WHERE e.user_id = ?";
 
-        if (search != null && !search.isEmpty()) {
-            sql += " AND (LOWER(e.event_name) LIKE ? OR LOWER(e.event_place) LIKE ? OR LOWER(e.organizer) LIKE ?)";
-            String searchPattern = "%" + search.toLowerCase() + "%";
-            params.add(searchPattern);
-            params.add(searchPattern);
-            params.add(searchPattern);
-        }
-
         if (masjidId != null) {
             sql += " AND e.masjid_id = ?";
             params.add(masjidId);
@@ -114,7 +82,8 @@ public class EventDAO {
             params.add(isPublic ? 1 : 0);
         }
 
-        sql += " ORDER BY e.start_date_time DESC, e.id DESC";
+        // Best matches first when searching
+        sql += " ORDER BY " + (ftsQuery != null ? "fts.fts_rank, " : "") + "e.start_date_time DESC, e.id DESC";
 
         return db.executeQuery(sql, params.toArray(), this::mapResultSet);
     }
@@ -7,39 +7,53 @@ import com.mahal.model.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class ExpenseDAO {
+    private static final String SELECT_SQL =
+            "SELECT e.id, e.user_id, e.expense_type, e.amount, e.date, e.masjid_id, m.name as masjid_name, " +
+            "e.notes, e.receipt_path, e.created_at, e.updated_at " +
+            "FROM expenses e " +
+            "LEFT JOIN masjids m ON e.masjid_id = m.id AND m.user_id = ? " +
+            "WHERE e.user_id = ?";
+    private static final String SELECT_ALL_SQL = SELECT_SQL + " ORDER BY e.date DESC";
+
+    /**
+     * Sortable fields for {@link #getPage}.
+     */
+    public enum SortField implements PageSort.Field<Expense> {
+        DATE("COALESCE(substr(e.date, 1, 10), '')", r -> r.getDate() != null ? r.getDate().toString() : ""),
+        EXPENSE_TYPE("COALESCE(e.expense_type, '')", r -> nullToEmpty(r.getExpenseType())),
+        MASJID("COALESCE(m.name, '')", r -> nullToEmpty(r.getMasjidName())),
+        AMOUNT("COALESCE(e.amount, 0)", r -> r.getAmount() != null ? r.getAmount().doubleValue() : 0.0),
+        NOTES("COALESCE(e.notes, '')", r -> nullToEmpty(r.getNotes()));
+
+        private final String expression;
+        private final Function<Expense, Object> key;
+
+        SortField(String expression, Function<Expense, Object> key) {
+            this.expression = expression;
+            this.key = key;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public Object keyOf(Expense row) {
+            return key.apply(row);
+        }
+    }
+
     private DatabaseService dbService;
 
     public ExpenseDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS expenses (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "expense_type TEXT, " +
-                "amount REAL, " +
-                "date TEXT, " +
-                "masjid_id INTEGER, " +
-                "notes TEXT, " +
-                "receipt_path TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "expenses");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_expenses_user_id ON expenses(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating expenses table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -54,18 +68,78 @@ public class ExpenseDAO {
 
     public List<Expense> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT e.id, e.user_id, e.expense_type, e.amount, e.date, e.masjid_id, m.name as masjid_name, " +
-                "e.notes, e.receipt_path, e.created_at, e.updated_at " +
-                "FROM expenses e " +
-                "LEFT JOIN masjids m ON e.masjid_id = m.id AND m.user_id = ? " +
-                "WHERE e.user_id = ? " +
-                "ORDER BY e.date DESC";
-        List<Expense> results = dbService.executeQuery(sql, new Object[] { userId, userId }, this::mapResultSet);
+        List<Expense> results = dbService.executeQuery(SELECT_ALL_SQL, new Object[] { userId, userId },
+                this::mapResultSet);
         System.out.println(
                 "ExpenseDAO.getAll(): Retrieved " + results.size() + " expense records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Stream all expenses for the current user without loading them into memory.
+     * The stream holds a database connection; close it (try-with-resources).
+     */
+    public Stream<Expense> streamAll() {
+        String userId = getCurrentUserId();
+        return dbService.stream(SELECT_ALL_SQL, new Object[] { userId, userId }, this::mapResultSet);
+    }
+
+    /**
+     * Get one page of expenses using keyset pagination.
+     *
+     * @param afterKey key of the last row already shown, or null for the first
+     *                 page
+     * @param filter   optional search text, matched word by word as prefixes of
+     *                 expense type and notes, or of the masjid name (full text
+     *                 indexes)
+     */
+    public List<Expense> getPage(PageKey afterKey, int limit, PageSort<Expense> sort, String filter) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        params.add(userId);
+        DAOBase.appendFtsAnyFilter(sql, params, filter, "e.id", "expenses_fts", "e.masjid_id", "masjids_fts");
+        DAOBase.appendPage(sql, params, sort, "e.id", afterKey, limit);
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
+    /**
+     * Number of expense records, counted in SQL.
+     */
+    public int getCount() {
+        String userId = getCurrentUserId();
+        List<Integer> results = dbService.executeQuery("SELECT COUNT(*) FROM expenses WHERE user_id = ?",
+                new Object[] { userId }, rs -> {
+                    try {
+                        return rs.getInt(1);
+                    } catch (SQLException e) {
+                        return null;
+                    }
+                });
+        return results.isEmpty() ? 0 : results.get(0);
+    }
+
+    /**
+     * Sum of all expense amounts, computed in SQL.
+     */
+    public BigDecimal getTotalAmount() {
+        String userId = getCurrentUserId();
+        List<BigDecimal> results = dbService.executeQuery(
+                "SELECT COALESCE(SUM(amount), 0) FROM expenses WHERE user_id = ?", new Object[] { userId }, rs -> {
+                    try {
+                        return BigDecimal.valueOf(rs.getDouble(1));
+                    } catch (SQLException e) {
+                        return null;
+                    }
+                });
+        return results.isEmpty() ? BigDecimal.ZERO : results.get(0);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     public Long create(Expense expense) {
         String userId = getCurrentUserId();
         String sql = "INSERT INTO expenses (user_id, expense_type, amount, date, masjid_id, notes, receipt_path, created_at, updated_at) "
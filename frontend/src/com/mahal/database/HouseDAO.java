@@ -13,28 +13,6 @@ public class HouseDAO {
 
     public HouseDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS houses (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "address TEXT NOT NULL, " +
-                "house_number TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "houses");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_houses_user_id ON houses(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating houses table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -55,16 +33,21 @@ public class HouseDAO {
         return results;
     }
 
+    /**
+     * Houses whose address or house number has words starting with the words
+     * of the search term, best matches first.
+     */
     public List<House> searchByAddress(String searchTerm) {
         String userId = getCurrentUserId();
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+        String ftsQuery = DAOBase.toFtsQuery(searchTerm);
+        if (ftsQuery == null) {
             return getAll();
         }
-        String sql = "SELECT id, user_id, address, house_number FROM houses " +
-                "WHERE user_id = ? AND (LOWER(address) LIKE LOWER(?) OR LOWER(house_number) LIKE LOWER(?)) " +
-                "ORDER BY address, house_number";
-        String searchPattern = "%" + searchTerm.trim() + "%";
-        return dbService.executeQuery(sql, new Object[] { userId, searchPattern, searchPattern }, this::mapResultSet);
+        String sql = "SELECT id, user_id, address, house_number FROM houses" +
+                DAOBase.ftsJoin("houses_fts", "id") +
+                " WHERE user_id = ? " +
+                "ORDER BY fts.fts_rank, address, house_number";
+        return dbService.executeQuery(sql, new Object[] { ftsQuery, userId }, this::mapResultSet);
     }
 
     public House getById(Long id) {
@@ -76,11 +59,12 @@ public class HouseDAO {
 
     public Long create(House house) {
         String userId = getCurrentUserId();
-        String sql = "INSERT INTO houses (user_id, address, house_number, created_at, updated_at) " +
-                "VALUES (?, ?, ?, datetime('now'), datetime('now'))";
+        String sql = "INSERT INTO houses (user_id, address, address_key, house_number, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, datetime('now'), datetime('now'))";
         Object[] params = {
                 userId, // CRITICAL: Set user_id for user isolation
                 house.getAddress(),
+                AddressKey.of(house.getAddress()),
                 house.getHouseNumber()
         };
         Long newId = dbService.executeInsert(sql, params);
@@ -96,9 +80,11 @@ public class HouseDAO {
 
     public boolean update(House house) {
         String userId = getCurrentUserId();
-        String sql = "UPDATE houses SET address = ?, house_number = ?, updated_at = datetime('now') WHERE id = ? AND user_id = ?";
+        String sql = "UPDATE houses SET address = ?, address_key = ?, house_number = ?, updated_at = datetime('now') "
+                + "WHERE id = ? AND user_id = ?";
         Object[] params = {
                 house.getAddress(),
+                AddressKey.of(house.getAddress()),
                 house.getHouseNumber(),
                 house.getId(),
                 userId // CRITICAL: User isolation check
@@ -155,13 +141,14 @@ public class HouseDAO {
 
         if (existing == null) {
             // INSERT (forcing the ID from Supabase)
-            String sql = "INSERT INTO houses (id, user_id, address, house_number, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, datetime('now'), ?)";
+            String sql = "INSERT INTO houses (id, user_id, address, address_key, house_number, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, datetime('now'), ?)";
 
             Object[] params = {
                     house.getId(),
                     userId,
                     house.getAddress(),
+                    AddressKey.of(house.getAddress()),
                     house.getHouseNumber(),
                     supabaseUpdatedAt != null ? supabaseUpdatedAt : "datetime('now')"
             };
@@ -176,11 +163,12 @@ public class HouseDAO {
             }
         } else {
             // UPDATE
-            String sql = "UPDATE houses SET address = ?, house_number = ?, updated_at = ? " +
+            String sql = "UPDATE houses SET address = ?, address_key = ?, house_number = ?, updated_at = ? " +
                     "WHERE id = ? AND user_id = ?";
 
             Object[] params = {
                     house.getAddress(),
+                    AddressKey.of(house.getAddress()),
                     house.getHouseNumber(),
                     supabaseUpdatedAt != null ? supabaseUpdatedAt : "datetime('now')",
                     house.getId(),
@@ -8,41 +8,59 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class IncomeDAO {
+    private static final String SELECT_SQL =
+            "SELECT i.id, i.user_id, i.masjid_id, m.name as masjid_name, i.member_id, mem.name as member_name, "
+            +
+            "i.income_type_id, it.name as income_type_name, i.amount, i.date, i.payment_mode, " +
+            "i.receipt_no, i.remarks, i.created_at, i.updated_at " +
+            "FROM incomes i " +
+            "LEFT JOIN masjids m ON i.masjid_id = m.id " +
+            "LEFT JOIN members mem ON i.member_id = mem.id " +
+            "LEFT JOIN income_types it ON i.income_type_id = it.id " +
+            "WHERE i.user_id = ?";
+    private static final String SELECT_ALL_SQL = SELECT_SQL + " ORDER BY i.date DESC";
+
+    /**
+     * Sortable fields for {@link #getPage}.
+     */
+    public enum SortField implements PageSort.Field<Income> {
+        DATE("COALESCE(substr(i.date, 1, 10), '')", r -> r.getDate() != null ? r.getDate().toString() : ""),
+        INCOME_TYPE("COALESCE(it.name, '')", r -> nullToEmpty(r.getIncomeTypeName())),
+        MASJID("COALESCE(m.name, '')", r -> nullToEmpty(r.getMasjidName())),
+        MEMBER("COALESCE(mem.name, '')", r -> nullToEmpty(r.getMemberName())),
+        AMOUNT("COALESCE(i.amount, 0)", r -> r.getAmount() != null ? r.getAmount().doubleValue() : 0.0),
+        PAYMENT_MODE("COALESCE(i.payment_mode, '')", r -> nullToEmpty(r.getPaymentMode())),
+        RECEIPT_NO("COALESCE(i.receipt_no, '')", r -> nullToEmpty(r.getReceiptNo()));
+
+        private final String expression;
+        private final Function<Income, Object> key;
+
+        SortField(String expression, Function<Income, Object> key) {
+            this.expression = expression;
+            this.key = key;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public Object keyOf(Income row) {
+            return key.apply(row);
+        }
+    }
+
     private DatabaseService dbService;
 
     public IncomeDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS incomes (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "masjid_id INTEGER, " +
-                "member_id INTEGER, " +
-                "income_type_id INTEGER, " +
-                "amount REAL, " +
-                "date TEXT, " +
-                "payment_mode TEXT, " +
-                "receipt_no TEXT, " +
-                "remarks TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "incomes");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_incomes_user_id ON incomes(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating incomes table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -57,22 +75,45 @@ public class IncomeDAO {
 
     public List<Income> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT i.id, i.user_id, i.masjid_id, m.name as masjid_name, i.member_id, mem.name as member_name, "
-                +
-                "i.income_type_id, it.name as income_type_name, i.amount, i.date, i.payment_mode, " +
-                "i.receipt_no, i.remarks, i.created_at, i.updated_at " +
-                "FROM incomes i " +
-                "LEFT JOIN masjids m ON i.masjid_id = m.id " +
-                "LEFT JOIN members mem ON i.member_id = mem.id " +
-                "LEFT JOIN income_types it ON i.income_type_id = it.id " +
-                "WHERE i.user_id = ? " +
-                "ORDER BY i.date DESC";
-        List<Income> results = dbService.executeQuery(sql, new Object[] { userId }, this::mapResultSet);
+        List<Income> results = dbService.executeQuery(SELECT_ALL_SQL, new Object[] { userId }, this::mapResultSet);
         System.out
                 .println("IncomeDAO.getAll(): Retrieved " + results.size() + " income records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Stream all incomes for the current user without loading them into memory.
+     * The stream holds a database connection; close it (try-with-resources).
+     */
+    public Stream<Income> streamAll() {
+        String userId = getCurrentUserId();
+        return dbService.stream(SELECT_ALL_SQL, new Object[] { userId }, this::mapResultSet);
+    }
+
+    /**
+     * Get one page of incomes using keyset pagination.
+     *
+     * @param afterKey key of the last row already shown, or null for the first
+     *                 page
+     * @param filter   optional search text, matched word by word as prefixes of
+     *                 payment mode and receipt number, or of the income type,
+     *                 masjid or member (full text indexes)
+     */
+    public List<Income> getPage(PageKey afterKey, int limit, PageSort<Income> sort, String filter) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        DAOBase.appendFtsAnyFilter(sql, params, filter, "i.id", "incomes_fts", "i.income_type_id",
+                "income_types_fts", "i.masjid_id", "masjids_fts", "i.member_id", "members_fts");
+        DAOBase.appendPage(sql, params, sort, "i.id", afterKey, limit);
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     public List<Income> getByDateRange(LocalDate startDate, LocalDate endDate) {
         String userId = getCurrentUserId();
         String sql = "SELECT i.id, i.user_id, i.masjid_id, m.name as masjid_name, i.member_id, mem.name as member_name, "
@@ -14,31 +14,6 @@ public class IncomeTypeDAO {
 
     public IncomeTypeDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS income_types (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "name TEXT NOT NULL, " +
-                "type TEXT, " +
-                "default_amount REAL, " +
-                "description TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "income_types");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_income_types_user_id ON income_types(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating income_types table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -77,6 +52,7 @@ public class IncomeTypeDAO {
         // Queue for sync if record was created successfully
         if (newId != null) {
             incomeType.setId(newId);
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.INCOME_TYPES);
             SyncHelper.queueInsert("income_types", newId, incomeType);
         }
 
@@ -98,6 +74,7 @@ public class IncomeTypeDAO {
 
         // Queue for sync if update was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.INCOME_TYPES);
             SyncHelper.queueUpdate("income_types", incomeType.getId(), incomeType);
         }
 
@@ -111,6 +88,7 @@ public class IncomeTypeDAO {
 
         // Queue for sync if delete was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.INCOME_TYPES);
             SyncHelper.queueDelete("income_types", id);
         }
 
@@ -178,6 +156,7 @@ public class IncomeTypeDAO {
 
             try {
                 int rows = dbService.executeUpdate(sql, params);
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.INCOME_TYPES);
                 return rows > 0;
             } catch (Exception e) {
                 System.err.println("IncomeTypeDAO.upsertFromSupabase (INSERT): " + e.getMessage());
@@ -202,6 +181,7 @@ public class IncomeTypeDAO {
 
             try {
                 int rows = dbService.executeUpdate(sql, params);
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.INCOME_TYPES);
                 return rows > 0;
             } catch (Exception e) {
                 System.err.println("IncomeTypeDAO.upsertFromSupabase (UPDATE): " + e.getMessage());
@@ -18,35 +18,6 @@ public class InventoryItemDAO {
 
     public InventoryItemDAO() {
         this.db = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS inventory_items (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "item_name TEXT NOT NULL, " +
-                "sku_code TEXT, " +
-                "quantity INTEGER, " +
-                "location TEXT, " +
-                "purchase_date TEXT, " +
-                "supplier TEXT, " +
-                "value REAL, " +
-                "notes TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "inventory_items");
-            try {
-                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_items_user_id ON inventory_items(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating inventory_items table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -0,0 +1,275 @@
+package com.mahal.database;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totals, counts and date series over the money tables (incomes, expenses,
+ * due collections), read from the daily/monthly rollups maintained by
+ * {@link LedgerRollups} so callers such as the dashboard and reports read a
+ * few aggregate rows instead of whole tables.
+ *
+ * A date range is answered from monthly rows for the whole months inside it
+ * and daily rows for the partial months at either end, so ten years cost
+ * about 120 monthly rows per type plus at most two months of daily rows.
+ */
+public class LedgerAggregateDAO {
+
+    /**
+     * A money table, optionally narrowed to a subset of its rows.
+     */
+    public enum Ledger {
+        INCOMES(LedgerRollups.Source.INCOMES, "", ""),
+        /** Incomes whose type is DONATION or unknown (no type, or a type without a category). */
+        DONATIONS(LedgerRollups.Source.INCOMES,
+                " LEFT JOIN income_types it ON it.id = CAST(r.type_key AS INTEGER)",
+                " AND (it.type IS NULL OR UPPER(it.type) = 'DONATION')"),
+        EXPENSES(LedgerRollups.Source.EXPENSES, "", ""),
+        DUE_COLLECTIONS(LedgerRollups.Source.DUE_COLLECTIONS, "", "");
+
+        private final LedgerRollups.Source source;
+        private final String join;
+        private final String condition;
+
+        Ledger(LedgerRollups.Source source, String join, String condition) {
+            this.source = source;
+            this.join = join;
+            this.condition = condition;
+        }
+    }
+
+    /** Number of rows and sum of their amounts. */
+    public static final class Totals {
+        private final long count;
+        private final BigDecimal amount;
+
+        Totals(long count, BigDecimal amount) {
+            this.count = count;
+            this.amount = amount != null ? amount : BigDecimal.ZERO;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+
+    /** All-time totals for the dashboard cards. */
+    public static final class Summary {
+        private final Totals incomes;
+        private final Totals expenses;
+        private final Totals dueCollections;
+        private final long memberCount;
+
+        Summary(Totals incomes, Totals expenses, Totals dueCollections, long memberCount) {
+            this.incomes = incomes;
+            this.expenses = expenses;
+            this.dueCollections = dueCollections;
+            this.memberCount = memberCount;
+        }
+
+        public Totals getIncomes() {
+            return incomes;
+        }
+
+        public Totals getExpenses() {
+            return expenses;
+        }
+
+        public Totals getDueCollections() {
+            return dueCollections;
+        }
+
+        public long getMemberCount() {
+            return memberCount;
+        }
+    }
+
+    private DatabaseService dbService;
+
+    public LedgerAggregateDAO() {
+        this.dbService = DatabaseService.getInstance();
+    }
+
+    /**
+     * Row counts and amount totals of incomes, expenses and due collections,
+     * plus the member count, in a single query.
+     */
+    public Summary getSummary() {
+        String userId = DAOBase.getCurrentUserId();
+        String sql = "SELECT " +
+                ledgerTotals(LedgerRollups.Source.INCOMES, "income") + ", " +
+                ledgerTotals(LedgerRollups.Source.EXPENSES, "expense") + ", " +
+                ledgerTotals(LedgerRollups.Source.DUE_COLLECTIONS, "due") + ", " +
+                "(SELECT COUNT(*) FROM members WHERE user_id = ?) AS member_count";
+        Object[] params = { userId, userId, userId, userId, userId, userId, userId };
+        List<Summary> results = dbService.executeQuery(sql, params, rs -> {
+            try {
+                return new Summary(
+                        new Totals(rs.getLong("income_count"), paise(rs, "income_paise")),
+                        new Totals(rs.getLong("expense_count"), paise(rs, "expense_paise")),
+                        new Totals(rs.getLong("due_count"), paise(rs, "due_paise")),
+                        rs.getLong("member_count"));
+            } catch (SQLException e) {
+                System.err.println("Error mapping ledger summary: " + e.getMessage());
+                return null;
+            }
+        });
+        if (results.isEmpty() || results.get(0) == null) {
+            Totals none = new Totals(0, BigDecimal.ZERO);
+            return new Summary(none, none, none, 0);
+        }
+        return results.get(0);
+    }
+
+    private static String ledgerTotals(LedgerRollups.Source source, String prefix) {
+        String from = " FROM " + LedgerRollups.MONTHLY_TABLE + " WHERE user_id = ? AND ledger = '" +
+                source.table() + "')";
+        return "(SELECT COALESCE(SUM(row_count), 0)" + from + " AS " + prefix + "_count, " +
+                "(SELECT COALESCE(SUM(amount_paise), 0)" + from + " AS " + prefix + "_paise";
+    }
+
+    /**
+     * Count and total of a ledger's rows dated within [from, to].
+     */
+    public Totals getTotals(Ledger ledger, LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COALESCE(SUM(r.row_count), 0) AS row_count, " +
+                "COALESCE(SUM(r.amount_paise), 0) AS amount_paise FROM " + rangeRows(ledger, from, to, params) +
+                ledger.join + " WHERE 1 = 1" + ledger.condition;
+        List<Totals> results = dbService.executeQuery(sql, params.toArray(), rs -> {
+            try {
+                return new Totals(rs.getLong("row_count"), paise(rs, "amount_paise"));
+            } catch (SQLException e) {
+                System.err.println("Error mapping ledger totals: " + e.getMessage());
+                return null;
+            }
+        });
+        return results.isEmpty() || results.get(0) == null ? new Totals(0, BigDecimal.ZERO) : results.get(0);
+    }
+
+    /**
+     * Amount per day within [from, to]; days without rows are absent.
+     */
+    public Map<LocalDate, BigDecimal> getDailyAmounts(Ledger ledger, LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        String rows = "(" + dailyRows(ledger, from, to, params) + ") r";
+        Map<LocalDate, BigDecimal> byDay = new TreeMap<>();
+        forEachBucket(ledger, rows, "r.period", params,
+                (bucket, amount) -> byDay.put(LocalDate.parse(bucket), amount));
+        return byDay;
+    }
+
+    /**
+     * Amount per calendar month of the rows dated within [from, to]; months
+     * without rows are absent.
+     */
+    public Map<YearMonth, BigDecimal> getMonthlyAmounts(Ledger ledger, LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        String rows = rangeRows(ledger, from, to, params);
+        Map<YearMonth, BigDecimal> byMonth = new TreeMap<>();
+        forEachBucket(ledger, rows, "substr(r.period, 1, 7)", params,
+                (bucket, amount) -> byMonth.put(YearMonth.parse(bucket), amount));
+        return byMonth;
+    }
+
+    /**
+     * Due collections within [from, to] per due type name, largest first.
+     * Collections without a known due type are left out.
+     */
+    public Map<String, BigDecimal> getDueCollectionsByType(LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT dt.due_name AS due_name, SUM(r.amount_paise) AS amount_paise FROM " +
+                rangeRows(Ledger.DUE_COLLECTIONS, from, to, params) +
+                " JOIN due_types dt ON dt.id = CAST(r.type_key AS INTEGER) " +
+                "WHERE dt.due_name IS NOT NULL GROUP BY dt.due_name ORDER BY amount_paise DESC";
+        Map<String, BigDecimal> byType = new LinkedHashMap<>();
+        dbService.forEachRow(sql, params.toArray(),
+                rs -> byType.put(rs.getString("due_name"), paise(rs, "amount_paise")));
+        return byType;
+    }
+
+    /**
+     * Recompute the rollups from the ledger tables. For recovery only; the
+     * rollups are normally kept current by triggers.
+     */
+    public void rebuildRollups() throws SQLException {
+        dbService.inTransaction(tx -> {
+            LedgerRollups.rebuild(tx);
+            return null;
+        });
+    }
+
+    private interface BucketCallback {
+        void accept(String bucket, BigDecimal amount);
+    }
+
+    private void forEachBucket(Ledger ledger, String rows, String bucketExpression, List<Object> params,
+            BucketCallback callback) {
+        String sql = "SELECT " + bucketExpression + " AS bucket, SUM(r.amount_paise) AS amount_paise FROM " +
+                rows + ledger.join + " WHERE r.period <> ''" + ledger.condition +
+                " GROUP BY bucket ORDER BY bucket";
+        dbService.forEachRow(sql, params.toArray(), rs -> {
+            String bucket = rs.getString("bucket");
+            try {
+                callback.accept(bucket, paise(rs, "amount_paise"));
+            } catch (RuntimeException e) {
+                System.err.println("LedgerAggregateDAO: skipping bucket '" + bucket + "': " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Rollup rows (period, type_key, row_count, amount_paise) covering
+     * exactly [from, to], as a subquery aliased "r": monthly rows for the
+     * whole months, daily rows for the partial months at either end.
+     */
+    private String rangeRows(Ledger ledger, LocalDate from, LocalDate to, List<Object> params) {
+        YearMonth firstFull = from.getDayOfMonth() == 1 ? YearMonth.from(from) : YearMonth.from(from).plusMonths(1);
+        YearMonth lastFull = to.equals(YearMonth.from(to).atEndOfMonth())
+                ? YearMonth.from(to)
+                : YearMonth.from(to).minusMonths(1);
+        if (firstFull.isAfter(lastFull)) {
+            return "(" + dailyRows(ledger, from, to, params) + ") r";
+        }
+
+        List<String> parts = new ArrayList<>();
+        if (from.isBefore(firstFull.atDay(1))) {
+            parts.add(dailyRows(ledger, from, firstFull.atDay(1).minusDays(1), params));
+        }
+        parts.add("SELECT month AS period, type_key, row_count, amount_paise FROM " + LedgerRollups.MONTHLY_TABLE +
+                " WHERE user_id = ? AND ledger = ? AND month BETWEEN ? AND ?");
+        params.add(DAOBase.getCurrentUserId());
+        params.add(ledger.source.table());
+        params.add(firstFull.toString());
+        params.add(lastFull.toString());
+        if (to.isAfter(lastFull.atEndOfMonth())) {
+            parts.add(dailyRows(ledger, lastFull.atEndOfMonth().plusDays(1), to, params));
+        }
+        return "(" + String.join(" UNION ALL ", parts) + ") r";
+    }
+
+    private String dailyRows(Ledger ledger, LocalDate from, LocalDate to, List<Object> params) {
+        params.add(DAOBase.getCurrentUserId());
+        params.add(ledger.source.table());
+        params.add(from.toString());
+        params.add(to.toString());
+        return "SELECT day AS period, type_key, row_count, amount_paise FROM " + LedgerRollups.DAILY_TABLE +
+                " WHERE user_id = ? AND ledger = ? AND day BETWEEN ? AND ?";
+    }
+
+    private static BigDecimal paise(ResultSet rs, String column) throws SQLException {
+        return BigDecimal.valueOf(rs.getLong(column), 2);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mahal.database;
+
+import java.sql.SQLException;
+
+/**
+ * Per-user daily and monthly totals of the money tables, kept in
+ * ledger_daily_rollup and ledger_monthly_rollup (row count and amount in
+ * paise per ledger, day/month and type).
+ *
+ * The rollups are maintained by triggers on the ledger tables, so every DAO
+ * write and sync-down upsert updates them in the same transaction. Rows
+ * without a date are counted under day/month ''. {@link #rebuild} recomputes
+ * everything from the ledger tables.
+ */
+public final class LedgerRollups {
+    public static final String DAILY_TABLE = "ledger_daily_rollup";
+    public static final String MONTHLY_TABLE = "ledger_monthly_rollup";
+
+    /** A rolled-up table and the column its totals are split by. */
+    public enum Source {
+        INCOMES("incomes", "income_type_id"),
+        EXPENSES("expenses", "expense_type"),
+        DUE_COLLECTIONS("due_collections", "due_type_id");
+
+        private final String table;
+        private final String typeColumn;
+
+        Source(String table, String typeColumn) {
+            this.table = table;
+            this.typeColumn = typeColumn;
+        }
+
+        /** Value of the ledger column in the rollup tables. */
+        public String table() {
+            return table;
+        }
+
+        String typeColumn() {
+            return typeColumn;
+        }
+    }
+
+    private LedgerRollups() {
+    }
+
+    static String day(String row) {
+        return "COALESCE(substr(" + row + ".date, 1, 10), '')";
+    }
+
+    static String month(String row) {
+        return "substr(" + day(row) + ", 1, 7)";
+    }
+
+    static String typeKey(Source source, String row) {
+        return "COALESCE(CAST(" + row + "." + source.typeColumn + " AS TEXT), '')";
+    }
+
+    static String paise(String row) {
+        return "CAST(ROUND(COALESCE(" + row + ".amount, 0) * 100) AS INTEGER)";
+    }
+
+    /**
+     * Recompute both rollup tables from the ledger tables, for every user.
+     */
+    public static void rebuild(Transaction tx) throws SQLException {
+        tx.executeUpdate("DELETE FROM " + DAILY_TABLE, null);
+        tx.executeUpdate("DELETE FROM " + MONTHLY_TABLE, null);
+        for (Source source : Source.values()) {
+            tx.executeUpdate("INSERT INTO " + DAILY_TABLE
+                    + " (user_id, ledger, day, type_key, row_count, amount_paise) "
+                    + "SELECT t.user_id, '" + source.table + "', " + day("t") + ", " + typeKey(source, "t") + ", "
+                    + "COUNT(*), SUM(" + paise("t") + ") FROM " + source.table + " t "
+                    + "WHERE t.user_id IS NOT NULL GROUP BY 1, 3, 4", null);
+        }
+        tx.executeUpdate("INSERT INTO " + MONTHLY_TABLE
+                + " (user_id, ledger, month, type_key, row_count, amount_paise) "
+                + "SELECT user_id, ledger, substr(day, 1, 7), type_key, SUM(row_count), SUM(amount_paise) "
+                + "FROM " + DAILY_TABLE + " GROUP BY 1, 2, 3, 4", null);
+    }
+
+    /**
+     * Statements adding the given row ("new" or "old") of a source table to
+     * one rollup table, for use in a trigger body.
+     */
+    static String addRow(Source source, String row, String rollupTable, String periodColumn, String period) {
+        return "INSERT INTO " + rollupTable + " (user_id, ledger, " + periodColumn + ", type_key, row_count, "
+                + "amount_paise) SELECT " + row + ".user_id, '" + source.table + "', " + period + ", "
+                + typeKey(source, row) + ", 1, " + paise(row) + " WHERE " + row + ".user_id IS NOT NULL "
+                + "ON CONFLICT (user_id, ledger, " + periodColumn + ", type_key) DO UPDATE SET "
+                + "row_count = row_count + 1, amount_paise = amount_paise + excluded.amount_paise;";
+    }
+
+    /**
+     * Statements removing the given row of a source table from one rollup
+     * table, dropping the bucket once it is empty.
+     */
+    static String removeRow(Source source, String row, String rollupTable, String periodColumn, String period) {
+        String match = " WHERE user_id = " + row + ".user_id AND ledger = '" + source.table + "' AND "
+                + periodColumn + " = " + period + " AND type_key = " + typeKey(source, row);
+        return "UPDATE " + rollupTable + " SET row_count = row_count - 1, amount_paise = amount_paise - "
+                + paise(row) + match + "; "
+                + "DELETE FROM " + rollupTable + match + " AND row_count <= 0;";
+    }
+}
@@ -13,33 +13,6 @@ public class MasjidDAO {
     
     public MasjidDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-    
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS masjids (" +
-                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                     "user_id TEXT NOT NULL, " +  // CRITICAL: User isolation
-                     "name TEXT NOT NULL, " +
-                     "abbreviation TEXT, " +
-                     "address TEXT, " +
-                     "waqf_board_no TEXT, " +
-                     "state TEXT, " +
-                     "email TEXT, " +
-                     "mobile TEXT, " +
-                     "registration_no TEXT, " +
-                     "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                     "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                     ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "masjids");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_masjids_user_id ON masjids(user_id)", null);
-            } catch (Exception e) {}
-        } catch (Exception e) {
-            System.err.println("Error creating masjids table: " + e.getMessage());
-        }
     }
     
     private String getCurrentUserId() {
@@ -88,6 +61,7 @@ public class MasjidDAO {
         // Queue for sync if record was created successfully
         if (newId != null) {
             masjid.setId(newId);
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.MASJIDS);
             SyncHelper.queueInsert("masjids", newId, masjid);
         }
         
@@ -114,6 +88,7 @@ public class MasjidDAO {
         
         // Queue for sync if update was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.MASJIDS);
             SyncHelper.queueUpdate("masjids", masjid.getId(), masjid);
         }
         
@@ -127,6 +102,7 @@ public class MasjidDAO {
         
         // Queue for sync if delete was successful
         if (success) {
+            ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.MASJIDS);
             SyncHelper.queueDelete("masjids", id);
         }
         
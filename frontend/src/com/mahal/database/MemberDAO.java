@@ -6,50 +6,52 @@ import com.mahal.util.SessionManager;
 import com.mahal.model.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class MemberDAO {
+    private static final String SELECT_SQL =
+            "SELECT id, user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, " +
+            "date_of_birth, address, mobile, gender, id_proof_type, id_proof_no, photo_path, " +
+            "created_at, updated_at FROM members WHERE user_id = ?";
+    private static final String SELECT_ALL_SQL = SELECT_SQL + " ORDER BY name";
+
+    /**
+     * Sortable fields for {@link #getPage}.
+     */
+    public enum SortField implements PageSort.Field<Member> {
+        NAME("name", Member::getName),
+        FATHER_NAME("COALESCE(father_name, '')", m -> nullToEmpty(m.getFatherName())),
+        MOBILE("COALESCE(mobile, '')", m -> nullToEmpty(m.getMobile())),
+        ADDRESS("COALESCE(address, '')", m -> nullToEmpty(m.getAddress()));
+
+        private final String expression;
+        private final Function<Member, Object> key;
+
+        SortField(String expression, Function<Member, Object> key) {
+            this.expression = expression;
+            this.key = key;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public Object keyOf(Member row) {
+            return key.apply(row);
+        }
+    }
+
     private DatabaseService dbService;
 
     public MemberDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS members (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "name TEXT NOT NULL, " +
-                "qualification TEXT, " +
-                "father_name TEXT, " +
-                "mother_name TEXT, " +
-                "district TEXT, " +
-                "panchayat TEXT, " +
-                "mahal TEXT, " +
-                "date_of_birth TEXT, " +
-                "address TEXT, " +
-                "mobile TEXT, " +
-                "gender TEXT, " +
-                "id_proof_type TEXT, " +
-                "id_proof_no TEXT, " +
-                "photo_path TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            // Ensure user_id column exists (for existing databases)
-            DAOBase.ensureUserIdColumn(dbService, "members");
-            // Create index for better query performance
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_members_user_id ON members(user_id)", null);
-            } catch (Exception e) {
-                // Index might already exist, ignore
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating members table: " + e.getMessage());
-        }
     }
 
     /**
@@ -67,15 +69,43 @@ public class MemberDAO {
 
     public List<Member> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT id, user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, " +
-                "date_of_birth, address, mobile, gender, id_proof_type, id_proof_no, photo_path, " +
-                "created_at, updated_at FROM members WHERE user_id = ? ORDER BY name";
-        List<Member> results = dbService.executeQuery(sql, new Object[] { userId }, this::mapResultSet);
+        List<Member> results = dbService.executeQuery(SELECT_ALL_SQL, new Object[] { userId }, this::mapResultSet);
         System.out
                 .println("MemberDAO.getAll(): Retrieved " + results.size() + " member records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Stream all members for the current user without loading them into memory.
+     * The stream holds a database connection; close it (try-with-resources).
+     */
+    public Stream<Member> streamAll() {
+        String userId = getCurrentUserId();
+        return dbService.stream(SELECT_ALL_SQL, new Object[] { userId }, this::mapResultSet);
+    }
+
+    /**
+     * Get one page of members using keyset pagination.
+     *
+     * @param afterKey key of the last row already shown, or null for the first
+     *                 page
+     * @param filter   optional search text, matched word by word as prefixes of
+     *                 name, mobile and address (full text index)
+     */
+    public List<Member> getPage(PageKey afterKey, int limit, PageSort<Member> sort, String filter) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        DAOBase.appendFtsFilter(sql, params, "members_fts", "id", filter);
+        DAOBase.appendPage(sql, params, sort, "id", afterKey, limit);
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     public Member getById(Long id) {
         String userId = getCurrentUserId();
         String sql = "SELECT id, user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, " +
@@ -86,34 +116,48 @@ public class MemberDAO {
     }
 
     public Member getByAddress(String address) {
-        if (address == null || address.trim().isEmpty()) {
+        String addressKey = AddressKey.of(address);
+        if (addressKey == null) {
             return null;
         }
         String userId = getCurrentUserId();
-        String trimmedAddress = address.trim();
-        // Try exact match first (case-sensitive)
-        String sql = "SELECT id, user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, " +
-                "date_of_birth, address, mobile, gender, id_proof_type, id_proof_no, photo_path, " +
-                "created_at, updated_at FROM members WHERE TRIM(address) = ? AND user_id = ? LIMIT 1";
-        List<Member> results = dbService.executeQuery(sql, new Object[] { trimmedAddress, userId }, this::mapResultSet);
-        if (!results.isEmpty()) {
-            return results.get(0);
-        }
-        // If no exact match, try case-insensitive
-        sql = "SELECT id, user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, " +
-                "date_of_birth, address, mobile, gender, id_proof_type, id_proof_no, photo_path, " +
-                "created_at, updated_at FROM members WHERE TRIM(LOWER(address)) = LOWER(?) AND user_id = ? LIMIT 1";
-        results = dbService.executeQuery(sql, new Object[] { trimmedAddress, userId }, this::mapResultSet);
+        // Seek on (user_id, address_key); among matches prefer the exact spelling
+        String sql = SELECT_SQL + " AND address_key = ? ORDER BY TRIM(address) = ? DESC, id LIMIT 1";
+        List<Member> results = dbService.executeQuery(sql, new Object[] { userId, addressKey, address.trim() },
+                this::mapResultSet);
         return results.isEmpty() ? null : results.get(0);
     }
 
+    /**
+     * Distinct member addresses of the current user, keyed by address key and
+     * ordered by it. The value is one of the spellings used for display.
+     */
+    public Map<String, String> getDistinctAddresses() {
+        String userId = getCurrentUserId();
+        String sql = "SELECT address_key, MIN(TRIM(address)) AS address FROM members "
+                + "WHERE user_id = ? AND address_key IS NOT NULL GROUP BY address_key ORDER BY address_key";
+        List<String[]> rows = dbService.executeQuery(sql, new Object[] { userId }, rs -> {
+            try {
+                return new String[] { rs.getString("address_key"), rs.getString("address") };
+            } catch (SQLException e) {
+                System.err.println("Error mapping address: " + e.getMessage());
+                return null;
+            }
+        });
+        Map<String, String> addresses = new LinkedHashMap<>();
+        for (String[] row : rows) {
+            addresses.put(row[0], row[1]);
+        }
+        return addresses;
+    }
+
     public Long create(Member member) {
         String userId = getCurrentUserId();
         String sql = "INSERT INTO members (user_id, name, qualification, father_name, mother_name, district, panchayat, mahal, "
                 +
-                "date_of_birth, address, mobile, gender, id_proof_type, id_proof_no, photo_path, created_at, updated_at) "
+                "date_of_birth, address, address_key, mobile, gender, id_proof_type, id_proof_no, photo_path, created_at, updated_at) "
                 +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, datetime('now'), datetime('now'))";
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, datetime('now'), datetime('now'))";
         // Convert LocalDate to string format YYYY-MM-DD for SQLite TEXT field
         String dateOfBirthStr = member.getDateOfBirth() != null ? member.getDateOfBirth().toString() : null;
         Object[] params = {
@@ -127,6 +171,7 @@ public class MemberDAO {
                 member.getMahal(),
                 dateOfBirthStr,
                 member.getAddress(),
+                AddressKey.of(member.getAddress()),
                 member.getMobile(),
                 member.getGender(),
                 member.getIdProofType(),
@@ -150,11 +195,12 @@ public class MemberDAO {
         // own records
         String sql = "UPDATE members SET name = ?, qualification = ?, father_name = ?, mother_name = ?, district = ?, "
                 +
-                "panchayat = ?, mahal = ?, date_of_birth = ?, address = ?, mobile = ?, gender = ?, " +
+                "panchayat = ?, mahal = ?, date_of_birth = ?, address = ?, address_key = ?, mobile = ?, gender = ?, " +
                 "id_proof_type = ?, id_proof_no = ?, photo_path = ?, updated_at = datetime('now') " +
                 "WHERE id = ? AND user_id = ?";
         // Convert LocalDate to string format YYYY-MM-DD for SQLite TEXT field
         String dateOfBirthStr = member.getDateOfBirth() != null ? member.getDateOfBirth().toString() : null;
+        String addressKey = AddressKey.of(member.getAddress());
         Object[] params = {
                 member.getName(),
                 member.getQualification(),
@@ -165,6 +211,7 @@ public class MemberDAO {
                 member.getMahal(),
                 dateOfBirthStr,
                 member.getAddress(),
+                addressKey,
                 member.getMobile(),
                 member.getGender(),
                 member.getIdProofType(),
@@ -173,7 +220,23 @@ public class MemberDAO {
                 member.getId(),
                 userId // CRITICAL: User isolation check
         };
-        boolean success = dbService.executeUpdate(sql, params) > 0;
+        boolean success;
+        try {
+            // The member's due collections carry its address key; move them along
+            success = dbService.inTransaction(tx -> {
+                if (tx.executeUpdate(sql, params) == 0) {
+                    return false;
+                }
+                tx.executeUpdate("UPDATE due_collections SET address_key = ? "
+                        + "WHERE member_id = ? AND user_id = ? AND address_key IS NOT ?",
+                        new Object[] { addressKey, member.getId(), userId, addressKey });
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error updating member: " + e.getMessage());
+            e.printStackTrace();
+            success = false;
+        }
 
         // Queue for sync if update was successful
         if (success && member.getId() != null) {
@@ -186,20 +249,18 @@ public class MemberDAO {
     public boolean delete(Long id) {
         try {
             String userId = getCurrentUserId();
-            // First, check if member is referenced in other tables (only for this user's
-            // records)
-            // Delete or nullify references in due_collections
-            String deleteDueCollections = "DELETE FROM due_collections WHERE member_id = ? AND user_id = ?";
-            dbService.executeUpdate(deleteDueCollections, new Object[] { id, userId });
-
-            // Delete or nullify references in incomes
-            String deleteIncomes = "DELETE FROM incomes WHERE member_id = ? AND user_id = ?";
-            dbService.executeUpdate(deleteIncomes, new Object[] { id, userId });
+            // Remove the member and everything referencing it (only for this user's
+            // records) as one unit, so a failure never leaves orphaned references
+            boolean success = dbService.inTransaction(tx -> {
+                // Delete references in due_collections and incomes
+                deleteReferences(tx, "due_collections", id, userId);
+                deleteReferences(tx, "incomes", id, userId);
 
-            // CRITICAL: Filter by both id AND user_id to ensure user can only delete their
-            // own records
-            String sql = "DELETE FROM members WHERE id = ? AND user_id = ?";
-            boolean success = dbService.executeUpdate(sql, new Object[] { id, userId }) > 0;
+                // CRITICAL: Filter by both id AND user_id to ensure user can only delete their
+                // own records
+                String sql = "DELETE FROM members WHERE id = ? AND user_id = ?";
+                return tx.executeUpdate(sql, new Object[] { id, userId }) > 0;
+            });
 
             // Queue for sync if delete was successful
             if (success && id != null) {
@@ -214,6 +275,23 @@ public class MemberDAO {
         }
     }
 
+    /**
+     * Delete rows referencing a member. Runs in its own savepoint so a missing
+     * table (module never opened on this device) does not abort the delete.
+     */
+    private void deleteReferences(Transaction tx, String tableName, Long id, String userId) throws SQLException {
+        java.sql.Savepoint savepoint = tx.savepoint();
+        try {
+            tx.executeUpdate("DELETE FROM " + tableName + " WHERE member_id = ? AND user_id = ?",
+                    new Object[] { id, userId });
+            tx.release(savepoint);
+        } catch (SQLException e) {
+            tx.rollbackTo(savepoint);
+            tx.release(savepoint);
+            System.err.println("Note: Could not delete member references from " + tableName + ": " + e.getMessage());
+        }
+    }
+
     public String getDeleteErrorMessage(Long id) {
         // Check which tables reference this member
         StringBuilder errorMsg = new StringBuilder("Cannot delete member. This member is referenced in: ");
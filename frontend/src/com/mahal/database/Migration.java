@@ -0,0 +1,141 @@
+package com.mahal.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One versioned schema change, applied at most once by {@link SchemaMigrator}.
+ *
+ * A migration is an ordered list of steps. Its checksum is computed from the
+ * step definitions, so editing a migration that has already been applied is
+ * detected on the next startup. Never change a released migration; add a new
+ * one instead.
+ */
+public class Migration {
+
+    /**
+     * A step that needs Java logic rather than a single SQL statement.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Transaction tx) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final List<String> definitions;
+    private final List<Step> steps;
+
+    private Migration(int version, String description, List<String> definitions, List<Step> steps) {
+        this.version = version;
+        this.description = description;
+        this.definitions = Collections.unmodifiableList(definitions);
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public static Builder builder(int version, String description) {
+        return new Builder(version, description);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * SHA-256 over the step definitions, hex encoded.
+     */
+    public String getChecksum() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String definition : definitions) {
+                digest.update(definition.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    void apply(Transaction tx) throws SQLException {
+        for (Step step : steps) {
+            step.apply(tx);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+
+    public static class Builder {
+        private final int version;
+        private final String description;
+        private final List<String> definitions = new ArrayList<>();
+        private final List<Step> steps = new ArrayList<>();
+
+        private Builder(int version, String description) {
+            this.version = version;
+            this.description = description;
+        }
+
+        /**
+         * Run a single SQL statement.
+         */
+        public Builder sql(String statement) {
+            definitions.add(statement);
+            steps.add(tx -> tx.executeUpdate(statement, null));
+            return this;
+        }
+
+        /**
+         * Add a column unless the table already has it. SQLite has no
+         * "ADD COLUMN IF NOT EXISTS", and databases created by older versions
+         * of the app may already have been patched by hand.
+         */
+        public Builder addColumnIfMissing(String table, String column, String type) {
+            definitions.add("ADD COLUMN IF MISSING " + table + "." + column + " " + type);
+            steps.add(tx -> {
+                List<String> columns = tx.executeQuery("PRAGMA table_info(" + table + ")", null, rs -> {
+                    try {
+                        return rs.getString("name");
+                    } catch (SQLException e) {
+                        return null;
+                    }
+                });
+                if (!columns.contains(column)) {
+                    tx.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type, null);
+                    System.out.println("SchemaMigrator: added " + column + " column to " + table);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Run Java logic. The name is part of the checksum, so rename the step
+         * if its behaviour changes.
+         */
+        public Builder step(String name, Step step) {
+            definitions.add("STEP " + name);
+            steps.add(step);
+            return this;
+        }
+
+        public Migration build() {
+            return new Migration(version, description, definitions, steps);
+        }
+    }
+}
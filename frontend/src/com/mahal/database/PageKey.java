@@ -0,0 +1,30 @@
+package com.mahal.database;
+
+/**
+ * Position of the last row of a page for keyset pagination: the value of the
+ * sort column plus the row id as a tie-breaker. The next page starts strictly
+ * after this key, so paging stays fast no matter how deep the user scrolls
+ * (no OFFSET scan) and is stable while rows are inserted.
+ */
+public class PageKey {
+    private final Object sortValue;
+    private final Long id;
+
+    public PageKey(Object sortValue, Long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "PageKey{sortValue=" + sortValue + ", id=" + id + "}";
+    }
+}
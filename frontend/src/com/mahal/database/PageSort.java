@@ -0,0 +1,82 @@
+package com.mahal.database;
+
+import java.util.Objects;
+
+/**
+ * Sort order for a keyset-paginated query: a whitelisted sort field and a
+ * direction. Rows with equal sort values are ordered by id.
+ */
+public class PageSort<T> {
+
+    /**
+     * A sortable field of a DAO. Each DAO exposes its fields as an enum so that
+     * only known SQL expressions ever reach a query.
+     */
+    public interface Field<T> {
+        /**
+         * SQL expression the query orders by. It must never evaluate to NULL
+         * (wrap nullable columns in COALESCE), otherwise keyset comparison
+         * skips rows.
+         */
+        String getExpression();
+
+        /**
+         * Value of the sort expression for a row already loaded, as it was
+         * read from the database.
+         */
+        Object keyOf(T row);
+    }
+
+    private final Field<T> field;
+    private final boolean ascending;
+
+    public PageSort(Field<T> field, boolean ascending) {
+        this.field = Objects.requireNonNull(field);
+        this.ascending = ascending;
+    }
+
+    public static <T> PageSort<T> asc(Field<T> field) {
+        return new PageSort<>(field, true);
+    }
+
+    public static <T> PageSort<T> desc(Field<T> field) {
+        return new PageSort<>(field, false);
+    }
+
+    public Field<T> getField() {
+        return field;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Key of the given row under this sort, used to request the page after it.
+     */
+    public PageKey keyOf(T row, Long id) {
+        return new PageKey(field.keyOf(row), id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageSort)) {
+            return false;
+        }
+        PageSort<?> other = (PageSort<?>) o;
+        return ascending == other.ascending && field.equals(other.field);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, ascending);
+    }
+
+    @Override
+    public String toString() {
+        return field + (ascending ? " ASC" : " DESC");
+    }
+}
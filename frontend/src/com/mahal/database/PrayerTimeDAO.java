@@ -19,42 +19,6 @@ public class PrayerTimeDAO {
 
     public PrayerTimeDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS prayer_times (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "user_id TEXT NOT NULL," + // CRITICAL: User isolation
-                "prayer_date TEXT NOT NULL," +
-                "fajr TEXT," +
-                "sunrise TEXT," +
-                "dhuhr TEXT," +
-                "asr TEXT," +
-                "maghrib TEXT," +
-                "isha TEXT," +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP," +
-                "UNIQUE(prayer_date, user_id)" + // Unique per user and date
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "prayer_times");
-            // Drop old unique index if it exists and creates conflict (SQLite might not let
-            // us easily mod unique constraints without recreation)
-            // But ensureUserIdColumn handles column addition.
-            // The UNIQUE constraint on just 'prayer_date' from old schema might persist if
-            // we don't handle it.
-            // For now, we assume ensureUserIdColumn is safe.
-            // Create index for user_id
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_prayer_times_user_id ON prayer_times(user_id)",
-                        null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating prayer_times table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -0,0 +1,158 @@
+package com.mahal.database;
+
+import com.mahal.model.Committee;
+import com.mahal.model.DueType;
+import com.mahal.model.IncomeType;
+import com.mahal.model.Masjid;
+import com.mahal.util.EventBus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through, per-user cache of the small reference tables (income types,
+ * due types, masjids, committees) used by combo boxes and name lookups.
+ *
+ * Each (user, table) snapshot carries the table's version at load time. DAO
+ * writes and sync-down upserts call {@link #invalidate}, and the cache also
+ * listens on the EventBus topic of each table; either bumps the version so
+ * the next read reloads, and a load that raced with an invalidation is not
+ * stored. Callers get copies of the cached rows (the tables are small), so
+ * an edit dialog changing a row cannot alter the snapshot behind the DAO's back.
+ */
+public class ReferenceDataCache {
+    public static final String INCOME_TYPES = "income_types";
+    public static final String DUE_TYPES = "due_types";
+    public static final String MASJIDS = "masjids";
+    public static final String COMMITTEES = "committees";
+
+    private static final List<String> TABLES = List.of(INCOME_TYPES, DUE_TYPES, MASJIDS, COMMITTEES);
+
+    private static ReferenceDataCache instance;
+
+    private static final class Snapshot<T> {
+        final long version;
+        final List<T> rows;
+        final Map<Long, T> byId;
+
+        Snapshot(long version, List<T> rows, Function<T, Long> idOf) {
+            this.version = version;
+            this.rows = Collections.unmodifiableList(rows);
+            Map<Long, T> index = new HashMap<>();
+            for (T row : rows) {
+                Long id = idOf.apply(row);
+                if (id != null) {
+                    index.put(id, row);
+                }
+            }
+            this.byId = Collections.unmodifiableMap(index);
+        }
+    }
+
+    /** Table name -> current version; bumped on every invalidation. */
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    /** "userId|table" -> snapshot. */
+    private final Map<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+
+    private ReferenceDataCache() {
+        for (String table : TABLES) {
+            EventBus.getInstance().subscribe(table, message -> invalidate(table));
+        }
+    }
+
+    public static synchronized ReferenceDataCache getInstance() {
+        if (instance == null) {
+            instance = new ReferenceDataCache();
+        }
+        return instance;
+    }
+
+    public List<IncomeType> getIncomeTypes() {
+        return copies(snapshot(INCOME_TYPES, () -> new IncomeTypeDAO().getAll(), IncomeType::getId).rows,
+                IncomeType::copy);
+    }
+
+    public IncomeType getIncomeType(Long id) {
+        return id != null ? copyOf(snapshot(INCOME_TYPES, () -> new IncomeTypeDAO().getAll(), IncomeType::getId)
+                .byId.get(id), IncomeType::copy) : null;
+    }
+
+    public List<DueType> getDueTypes() {
+        return copies(snapshot(DUE_TYPES, () -> new DueTypeDAO().getAll(), DueType::getId).rows, DueType::copy);
+    }
+
+    public DueType getDueType(Long id) {
+        return id != null ? copyOf(snapshot(DUE_TYPES, () -> new DueTypeDAO().getAll(), DueType::getId).byId.get(id),
+                DueType::copy) : null;
+    }
+
+    public List<Masjid> getMasjids() {
+        return copies(snapshot(MASJIDS, () -> new MasjidDAO().getAll(), Masjid::getId).rows, Masjid::copy);
+    }
+
+    public Masjid getMasjid(Long id) {
+        return id != null ? copyOf(snapshot(MASJIDS, () -> new MasjidDAO().getAll(), Masjid::getId).byId.get(id),
+                Masjid::copy) : null;
+    }
+
+    public List<Committee> getCommittees() {
+        return copies(snapshot(COMMITTEES, () -> new CommitteeDAO().getAll(), Committee::getId).rows,
+                Committee::copy);
+    }
+
+    /**
+     * Drop the cached snapshots of a table for every user. Tables the cache
+     * does not hold are ignored.
+     */
+    public void invalidate(String table) {
+        if (!TABLES.contains(table)) {
+            return;
+        }
+        versions.merge(table, 1L, Long::sum);
+        snapshots.keySet().removeIf(key -> key.endsWith("|" + table));
+    }
+
+    /** Drop every snapshot, e.g. on logout. */
+    public void invalidateAll() {
+        for (String table : TABLES) {
+            invalidate(table);
+        }
+    }
+
+    private static <T> List<T> copies(List<T> rows, UnaryOperator<T> copy) {
+        List<T> result = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            result.add(copy.apply(row));
+        }
+        return result;
+    }
+
+    private static <T> T copyOf(T row, UnaryOperator<T> copy) {
+        return row != null ? copy.apply(row) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> snapshot(String table, Supplier<List<T>> loader, Function<T, Long> idOf) {
+        String key = DAOBase.getCurrentUserId() + "|" + table;
+        long version = versions.getOrDefault(table, 0L);
+        Snapshot<T> cached = (Snapshot<T>) snapshots.get(key);
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+
+        Snapshot<T> loaded = new Snapshot<>(version, loader.get(), idOf);
+        synchronized (this) {
+            // Only keep it if nothing was written while it loaded
+            if (versions.getOrDefault(table, 0L) == version) {
+                snapshots.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+}
@@ -19,34 +19,6 @@ public class RentDAO {
 
     public RentDAO() {
         this.db = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS rents (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "rent_item_id INTEGER, " +
-                "renter_name TEXT, " +
-                "renter_mobile TEXT, " +
-                "rent_start_date TEXT, " +
-                "rent_end_date TEXT, " +
-                "amount REAL, " +
-                "deposit REAL, " +
-                "status TEXT DEFAULT 'BOOKED', " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "rents");
-            try {
-                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rents_user_id ON rents(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating rents table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -14,30 +14,6 @@ public class RentItemDAO {
 
     public RentItemDAO() {
         this.db = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS rent_items (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "inventory_item_id INTEGER, " +
-                "rate_per_day REAL, " +
-                "deposit REAL, " +
-                "available INTEGER DEFAULT 1, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            db.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(db, "rent_items");
-            try {
-                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rent_items_user_id ON rent_items(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating rent_items table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
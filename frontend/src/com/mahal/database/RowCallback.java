@@ -0,0 +1,14 @@
+package com.mahal.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Receives each row of a query in turn without materializing the result.
+ * Used by {@link DatabaseService#forEachRow}; implementations must not advance
+ * or close the ResultSet.
+ */
+@FunctionalInterface
+public interface RowCallback {
+    void processRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,14 @@
+package com.mahal.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to an object.
+ * Used by the streaming query APIs on {@link DatabaseService}; implementations
+ * must not advance or close the ResultSet.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,752 @@
+package com.mahal.database;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * All local schema migrations, in version order.
+ *
+ * Append new migrations at the end with the next version number. Never edit or
+ * reorder a migration that has shipped: {@link SchemaMigrator} records each
+ * migration's checksum and reports edits.
+ */
+public final class SchemaMigrations {
+    /*
+     * unicode61 only treats letters and digits as token characters by default,
+     * which splits Malayalam words at every vowel sign and virama; adding the
+     * mark (M*) and format (Cf, e.g. ZWJ/ZWNJ) categories keeps them whole.
+     */
+    private static final String FTS_TOKENIZER = "unicode61 remove_diacritics 2 categories 'L* N* Co M* Cf'";
+
+    private SchemaMigrations() {
+    }
+
+    public static List<Migration> all() {
+        return List.of(
+                baseline(),
+                keysetPagingIndexes(),
+                addressKeys(),
+                fullTextSearch(),
+                dueCollectionDateIndex(),
+                ledgerRollups(),
+                dueObligations(),
+                certificateSequences(),
+                structuredSyncQueue(),
+                ledgerFullTextSearch());
+    }
+
+    /**
+     * V1: the schema previously created by the DAO constructors, including the
+     * user_id fixups for databases from before user isolation. Every step is
+     * idempotent so it also serves as the baseline for existing databases.
+     */
+    private static Migration baseline() {
+        Migration.Builder m = Migration.builder(1, "baseline schema");
+
+        m.sql("CREATE TABLE IF NOT EXISTS admins (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "password TEXT NOT NULL, " +
+                "full_name TEXT, " +
+                "active INTEGER DEFAULT 1, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        m.addColumnIfMissing("admins", "user_id", "TEXT");
+        // An admin's own id is its user_id
+        m.sql("UPDATE admins SET user_id = CAST(id AS TEXT) WHERE user_id IS NULL OR user_id = ''");
+        m.sql("CREATE INDEX IF NOT EXISTS idx_admins_user_id ON admins(user_id)");
+        m.step("admins unique (user_id, name) index", tx -> {
+            try {
+                tx.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS idx_admins_user_name_unique "
+                        + "ON admins(user_id, name)", null);
+            } catch (SQLException e) {
+                // Old databases may hold duplicate logins; keep the rest of the baseline
+                System.err.println("SchemaMigrator: could not create idx_admins_user_name_unique: "
+                        + e.getMessage());
+            }
+        });
+
+        m.sql("CREATE TABLE IF NOT EXISTS masjids (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "abbreviation TEXT, " +
+                "address TEXT, " +
+                "waqf_board_no TEXT, " +
+                "state TEXT, " +
+                "email TEXT, " +
+                "mobile TEXT, " +
+                "registration_no TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "masjids");
+
+        m.sql("CREATE TABLE IF NOT EXISTS committees (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "member_name TEXT NOT NULL, " +
+                "mobile TEXT, " +
+                "designation TEXT, " +
+                "other_details TEXT, " +
+                "masjid_id INTEGER, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "committees");
+
+        m.sql("CREATE TABLE IF NOT EXISTS members (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "qualification TEXT, " +
+                "father_name TEXT, " +
+                "mother_name TEXT, " +
+                "district TEXT, " +
+                "panchayat TEXT, " +
+                "mahal TEXT, " +
+                "date_of_birth TEXT, " +
+                "address TEXT, " +
+                "mobile TEXT, " +
+                "gender TEXT, " +
+                "id_proof_type TEXT, " +
+                "id_proof_no TEXT, " +
+                "photo_path TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "members");
+
+        m.sql("CREATE TABLE IF NOT EXISTS houses (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "address TEXT NOT NULL, " +
+                "house_number TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "houses");
+
+        m.sql("CREATE TABLE IF NOT EXISTS income_types (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "type TEXT, " +
+                "default_amount REAL, " +
+                "description TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "income_types");
+
+        m.sql("CREATE TABLE IF NOT EXISTS incomes (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "masjid_id INTEGER, " +
+                "member_id INTEGER, " +
+                "income_type_id INTEGER, " +
+                "amount REAL, " +
+                "date TEXT, " +
+                "payment_mode TEXT, " +
+                "receipt_no TEXT, " +
+                "remarks TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "incomes");
+
+        m.sql("CREATE TABLE IF NOT EXISTS due_types (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "due_name TEXT NOT NULL, " +
+                "frequency TEXT, " +
+                "amount REAL, " +
+                "description TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "due_types");
+
+        m.sql("CREATE TABLE IF NOT EXISTS due_collections (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "masjid_id INTEGER, " +
+                "member_id INTEGER, " +
+                "due_type_id INTEGER, " +
+                "amount REAL, " +
+                "date TEXT, " +
+                "payment_mode TEXT, " +
+                "receipt_no TEXT, " +
+                "remarks TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "due_collections");
+
+        m.sql("CREATE TABLE IF NOT EXISTS expenses (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "expense_type TEXT, " +
+                "amount REAL, " +
+                "date TEXT, " +
+                "masjid_id INTEGER, " +
+                "notes TEXT, " +
+                "receipt_path TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "expenses");
+
+        m.sql("CREATE TABLE IF NOT EXISTS inventory_items (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "item_name TEXT NOT NULL, " +
+                "sku_code TEXT, " +
+                "quantity INTEGER, " +
+                "location TEXT, " +
+                "purchase_date TEXT, " +
+                "supplier TEXT, " +
+                "value REAL, " +
+                "notes TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "inventory_items");
+
+        m.sql("CREATE TABLE IF NOT EXISTS damaged_items (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "inventory_item_id INTEGER, " +
+                "quantity INTEGER, " +
+                "damage_date TEXT, " +
+                "reason TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "damaged_items");
+
+        m.sql("CREATE TABLE IF NOT EXISTS rent_items (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "inventory_item_id INTEGER, " +
+                "rate_per_day REAL, " +
+                "deposit REAL, " +
+                "available INTEGER DEFAULT 1, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "rent_items");
+
+        m.sql("CREATE TABLE IF NOT EXISTS rents (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "rent_item_id INTEGER, " +
+                "renter_name TEXT, " +
+                "renter_mobile TEXT, " +
+                "rent_start_date TEXT, " +
+                "rent_end_date TEXT, " +
+                "amount REAL, " +
+                "deposit REAL, " +
+                "status TEXT DEFAULT 'BOOKED', " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "rents");
+
+        m.sql("CREATE TABLE IF NOT EXISTS events (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "event_name TEXT NOT NULL, " +
+                "start_date_time TEXT, " +
+                "end_date_time TEXT, " +
+                "event_place TEXT, " +
+                "masjid_id INTEGER, " +
+                "event_details TEXT, " +
+                "organizer TEXT, " +
+                "contact TEXT, " +
+                "attachments_path TEXT, " +
+                "is_public INTEGER DEFAULT 1, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "events");
+
+        m.sql("CREATE TABLE IF NOT EXISTS staff (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "designation TEXT, " +
+                "salary REAL, " +
+                "address TEXT, " +
+                "mobile TEXT, " +
+                "email TEXT, " +
+                "joining_date TEXT, " +
+                "notes TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "staff");
+
+        m.sql("CREATE TABLE IF NOT EXISTS staff_salaries (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "staff_id INTEGER NOT NULL, " +
+                "salary REAL, " +
+                "paid_date TEXT, " +
+                "paid_amount REAL, " +
+                "payment_mode TEXT, " +
+                "remarks TEXT, " +
+                "balance REAL, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "staff_salaries");
+
+        m.sql("CREATE TABLE IF NOT EXISTS students (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "name TEXT NOT NULL, " +
+                "course TEXT, " +
+                "admission_number TEXT, " +
+                "admission_date TEXT, " +
+                "mobile TEXT, " +
+                "email TEXT, " +
+                "address TEXT, " +
+                "father_name TEXT, " +
+                "mother_name TEXT, " +
+                "guardian_mobile TEXT, " +
+                "notes TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "students");
+
+        m.sql("CREATE TABLE IF NOT EXISTS prayer_times (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "prayer_date TEXT NOT NULL, " +
+                "fajr TEXT, " +
+                "sunrise TEXT, " +
+                "dhuhr TEXT, " +
+                "asr TEXT, " +
+                "maghrib TEXT, " +
+                "isha TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "UNIQUE(prayer_date, user_id)" +
+                ")");
+        userScoped(m, "prayer_times");
+
+        m.sql("CREATE TABLE IF NOT EXISTS marriage_certificates (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "certificate_no TEXT, " +
+                "groom_name TEXT, " +
+                "bride_name TEXT, " +
+                "parent_name_of_groom TEXT, " +
+                "parent_name_of_bride TEXT, " +
+                "address_of_groom TEXT, " +
+                "address_of_bride TEXT, " +
+                "place_of_marriage TEXT, " +
+                "marriage_status TEXT, " +
+                "marriage_date TEXT, " +
+                "additional_notes TEXT, " +
+                "supporting_docs_path TEXT, " +
+                "pdf_path TEXT, " +
+                "qr_code TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "marriage_certificates");
+
+        m.sql("CREATE TABLE IF NOT EXISTS death_certificates (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "certificate_no TEXT, " +
+                "name TEXT, " +
+                "parent_name TEXT, " +
+                "address TEXT, " +
+                "thalook TEXT, " +
+                "date_of_death TEXT, " +
+                "cause TEXT, " +
+                "place_of_death TEXT, " +
+                "issued_date TEXT, " +
+                "pdf_path TEXT, " +
+                "qr_code TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "death_certificates");
+
+        m.sql("CREATE TABLE IF NOT EXISTS jamath_certificates (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "certificate_no TEXT, " +
+                "name TEXT, " +
+                "parent_name TEXT, " +
+                "address TEXT, " +
+                "thalook TEXT, " +
+                "date TEXT, " +
+                "remarks TEXT, " +
+                "pdf_path TEXT, " +
+                "qr_code TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "jamath_certificates");
+
+        m.sql("CREATE TABLE IF NOT EXISTS custom_certificates (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "user_id TEXT NOT NULL, " +
+                "certificate_no TEXT, " +
+                "template_name TEXT, " +
+                "template_content TEXT, " +
+                "field_data TEXT, " +
+                "issued_date TEXT, " +
+                "pdf_path TEXT, " +
+                "qr_code TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        userScoped(m, "custom_certificates");
+
+        // Sync bookkeeping
+        m.sql("CREATE TABLE IF NOT EXISTS sync_queue (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "table_name TEXT NOT NULL, " +
+                "operation TEXT NOT NULL, " +
+                "record_id INTEGER, " +
+                "data TEXT, " +
+                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                "synced_at TEXT, " +
+                "sync_status TEXT DEFAULT 'PENDING', " +
+                "retry_count INTEGER DEFAULT 0" +
+                ")");
+        m.sql("CREATE TABLE IF NOT EXISTS sync_metadata (" +
+                "user_id TEXT NOT NULL PRIMARY KEY, " +
+                "last_sync_time TEXT, " +
+                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        m.sql("CREATE TABLE IF NOT EXISTS record_sync_metadata (" +
+                "table_name TEXT NOT NULL, " +
+                "record_id TEXT NOT NULL, " +
+                "user_id TEXT NOT NULL, " +
+                "updated_at TEXT, " +
+                "is_synced INTEGER DEFAULT 0, " +
+                "sync_version INTEGER DEFAULT 0, " +
+                "PRIMARY KEY (table_name, record_id, user_id)" +
+                ")");
+
+        return m.build();
+    }
+
+    /**
+     * V2: indexes backing the keyset-paginated getPage queries. The expression
+     * indexes must match the DAOs' SortField expressions exactly.
+     */
+    private static Migration keysetPagingIndexes() {
+        return Migration.builder(2, "keyset paging indexes")
+                .sql("CREATE INDEX IF NOT EXISTS idx_members_user_name ON members(user_id, name, id)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_students_user_name ON students(user_id, name, id)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_incomes_user_date ON incomes(user_id, "
+                        + "COALESCE(substr(date, 1, 10), ''), id)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses(user_id, "
+                        + "COALESCE(substr(date, 1, 10), ''), id)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_staff_salaries_user_paid_date ON staff_salaries(user_id, "
+                        + "COALESCE(substr(paid_date, 1, 10), ''), id)")
+                .build();
+    }
+
+    /**
+     * V3: normalized address_key on members, houses and due_collections (see
+     * {@link AddressKey}), backfilled and indexed with user_id.
+     */
+    private static Migration addressKeys() {
+        return Migration.builder(3, "address keys")
+                .addColumnIfMissing("members", "address_key", "TEXT")
+                .addColumnIfMissing("houses", "address_key", "TEXT")
+                .addColumnIfMissing("due_collections", "address_key", "TEXT")
+                .step("backfill address keys", tx -> {
+                    AddressKey.refresh(tx, "members", null);
+                    AddressKey.refresh(tx, "houses", null);
+                })
+                .sql("CREATE INDEX IF NOT EXISTS idx_members_user_address_key ON members(user_id, address_key)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_houses_user_address_key ON houses(user_id, address_key)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_due_collections_user_address_key "
+                        + "ON due_collections(user_id, address_key, due_type_id)")
+                .build();
+    }
+
+    /**
+     * V4: FTS5 search indexes over the searchable text columns, kept up to
+     * date by triggers (external content, so the text is not stored twice).
+     */
+    private static Migration fullTextSearch() {
+        Migration.Builder m = Migration.builder(4, "full text search");
+        ftsIndex(m, "members", "name", "mobile", "address");
+        ftsIndex(m, "houses", "address", "house_number");
+        ftsIndex(m, "events", "event_name", "event_place", "organizer");
+        ftsIndex(m, "marriage_certificates", "certificate_no", "groom_name", "bride_name");
+        ftsIndex(m, "death_certificates", "certificate_no", "name");
+        ftsIndex(m, "jamath_certificates", "certificate_no", "name");
+        ftsIndex(m, "custom_certificates", "certificate_no", "template_name");
+        return m.build();
+    }
+
+    /**
+     * V5: (user_id, date) index on due_collections, matching the income and
+     * expense ones, for the date-range aggregates in {@link LedgerAggregateDAO}.
+     */
+    private static Migration dueCollectionDateIndex() {
+        return Migration.builder(5, "due collection date index")
+                .sql("CREATE INDEX IF NOT EXISTS idx_due_collections_user_date ON due_collections(user_id, "
+                        + "COALESCE(substr(date, 1, 10), ''), id)")
+                .build();
+    }
+
+    /**
+     * V6: daily and monthly ledger rollups (see {@link LedgerRollups}), kept
+     * up to date by triggers on the ledger tables and backfilled once.
+     */
+    private static Migration ledgerRollups() {
+        Migration.Builder m = Migration.builder(6, "ledger rollups");
+        m.sql("CREATE TABLE IF NOT EXISTS " + LedgerRollups.DAILY_TABLE + " (" +
+                "user_id TEXT NOT NULL, " +
+                "ledger TEXT NOT NULL, " +
+                "day TEXT NOT NULL, " +
+                "type_key TEXT NOT NULL, " +
+                "row_count INTEGER NOT NULL DEFAULT 0, " +
+                "amount_paise INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (user_id, ledger, day, type_key)" +
+                ") WITHOUT ROWID");
+        m.sql("CREATE TABLE IF NOT EXISTS " + LedgerRollups.MONTHLY_TABLE + " (" +
+                "user_id TEXT NOT NULL, " +
+                "ledger TEXT NOT NULL, " +
+                "month TEXT NOT NULL, " +
+                "type_key TEXT NOT NULL, " +
+                "row_count INTEGER NOT NULL DEFAULT 0, " +
+                "amount_paise INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (user_id, ledger, month, type_key)" +
+                ") WITHOUT ROWID");
+        for (LedgerRollups.Source source : LedgerRollups.Source.values()) {
+            rollupTriggers(m, source);
+        }
+        m.step("backfill ledger rollups", LedgerRollups::rebuild);
+        return m.build();
+    }
+
+    /**
+     * Triggers adding inserted rows of a ledger table to the rollups,
+     * removing deleted ones, and moving updated ones between buckets.
+     */
+    private static void rollupTriggers(Migration.Builder m, LedgerRollups.Source source) {
+        String table = source.table();
+        String addNew = LedgerRollups.addRow(source, "new", LedgerRollups.DAILY_TABLE, "day",
+                LedgerRollups.day("new")) + " "
+                + LedgerRollups.addRow(source, "new", LedgerRollups.MONTHLY_TABLE, "month",
+                        LedgerRollups.month("new"));
+        String removeOld = LedgerRollups.removeRow(source, "old", LedgerRollups.DAILY_TABLE, "day",
+                LedgerRollups.day("old")) + " "
+                + LedgerRollups.removeRow(source, "old", LedgerRollups.MONTHLY_TABLE, "month",
+                        LedgerRollups.month("old"));
+
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + table + "_rollup_ai AFTER INSERT ON " + table
+                + " BEGIN " + addNew + " END");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + table + "_rollup_ad AFTER DELETE ON " + table
+                + " BEGIN " + removeOld + " END");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + table + "_rollup_au AFTER UPDATE OF user_id, date, amount, "
+                + source.typeColumn() + " ON " + table + " BEGIN " + removeOld + " " + addNew + " END");
+    }
+
+    /**
+     * V7: due schedule and obligations ledger (see {@link DueObligations}).
+     * Schedules are generated on first read, so there is no backfill here.
+     */
+    private static Migration dueObligations() {
+        String addPayment = DueObligations.applyPayment("new", 1);
+        String removePayment = DueObligations.applyPayment("old", -1);
+        String addAddress = DueObligations.addAddress("new");
+        String dropSchedule = "DELETE FROM due_schedule WHERE user_id = old.user_id AND due_type_id = old.id;";
+
+        return Migration.builder(7, "due obligations")
+                .sql("CREATE TABLE IF NOT EXISTS due_schedule (" +
+                        "user_id TEXT NOT NULL, " +
+                        "due_type_id INTEGER NOT NULL, " +
+                        "period TEXT NOT NULL, " +
+                        "expected_paise INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (user_id, due_type_id, period)" +
+                        ") WITHOUT ROWID")
+                .sql("CREATE TABLE IF NOT EXISTS due_obligations (" +
+                        "user_id TEXT NOT NULL, " +
+                        "address_key TEXT NOT NULL, " +
+                        "due_type_id INTEGER NOT NULL, " +
+                        "period TEXT NOT NULL, " +
+                        "expected_paise INTEGER NOT NULL DEFAULT 0, " +
+                        "paid_paise INTEGER NOT NULL DEFAULT 0, " +
+                        "payment_count INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (user_id, address_key, due_type_id, period)" +
+                        ") WITHOUT ROWID")
+                .sql("CREATE INDEX IF NOT EXISTS idx_due_obligations_user_type "
+                        + "ON due_obligations(user_id, due_type_id, address_key)")
+                .sql("CREATE TRIGGER IF NOT EXISTS due_collections_obligations_ai AFTER INSERT ON due_collections"
+                        + " BEGIN " + addPayment + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS due_collections_obligations_ad AFTER DELETE ON due_collections"
+                        + " BEGIN " + removePayment + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS due_collections_obligations_au AFTER UPDATE OF user_id, "
+                        + "address_key, due_type_id, date, amount ON due_collections"
+                        + " BEGIN " + removePayment + " " + addPayment + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS members_obligations_ai AFTER INSERT ON members"
+                        + " BEGIN " + addAddress + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS members_obligations_au AFTER UPDATE OF user_id, address_key "
+                        + "ON members BEGIN " + addAddress + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS due_types_obligations_au AFTER UPDATE OF user_id, frequency, "
+                        + "amount, created_at ON due_types BEGIN " + dropSchedule + " END")
+                .sql("CREATE TRIGGER IF NOT EXISTS due_types_obligations_ad AFTER DELETE ON due_types BEGIN "
+                        + dropSchedule + " DELETE FROM due_obligations WHERE user_id = old.user_id "
+                        + "AND due_type_id = old.id; END")
+                .build();
+    }
+
+    /**
+     * V8: certificate number sequences per (user, type, year), so issuing a
+     * number is one upsert instead of counting the table. Seeded from the
+     * existing numbers; triggers move a sequence past any number that is
+     * entered by hand or synced down, so allocation never repeats one.
+     */
+    private static Migration certificateSequences() {
+        Migration.Builder m = Migration.builder(8, "certificate number sequences")
+                .sql("CREATE TABLE IF NOT EXISTS certificate_sequences (" +
+                        "user_id TEXT NOT NULL, " +
+                        "type TEXT NOT NULL, " +
+                        "year INTEGER NOT NULL, " +
+                        "next_value INTEGER NOT NULL, " +
+                        "PRIMARY KEY (user_id, type, year)" +
+                        ") WITHOUT ROWID");
+        certificateSequence(m, "marriage_certificates", "Marriage", "MC");
+        certificateSequence(m, "death_certificates", "Death", "DC");
+        certificateSequence(m, "jamath_certificates", "Jamath", "JC");
+        certificateSequence(m, "custom_certificates", "Custom", "CC");
+        return m.build();
+    }
+
+    /**
+     * Seed the type's sequences from numbers of the form PP-YYYY-NNNNN and
+     * keep them ahead of inserted or renumbered certificates.
+     */
+    private static void certificateSequence(Migration.Builder m, String table, String type, String prefix) {
+        String pattern = "'" + prefix + "-[0-9][0-9][0-9][0-9]-[0-9]*'";
+        String bump = " ON CONFLICT (user_id, type, year) DO UPDATE"
+                + " SET next_value = max(next_value, excluded.next_value)";
+        String bumpNew = "INSERT INTO certificate_sequences (user_id, type, year, next_value) VALUES (new.user_id, '"
+                + type + "', CAST(substr(new.certificate_no, 4, 4) AS INTEGER), "
+                + "CAST(substr(new.certificate_no, 9) AS INTEGER) + 1)" + bump + ";";
+        String when = " WHEN new.user_id IS NOT NULL AND new.certificate_no GLOB " + pattern;
+
+        m.sql("INSERT INTO certificate_sequences (user_id, type, year, next_value) SELECT user_id, '" + type
+                + "', CAST(substr(certificate_no, 4, 4) AS INTEGER), "
+                + "MAX(CAST(substr(certificate_no, 9) AS INTEGER)) + 1 FROM " + table
+                + " WHERE user_id IS NOT NULL AND certificate_no GLOB " + pattern
+                + " GROUP BY user_id, substr(certificate_no, 4, 4)" + bump);
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + table + "_sequence_ai AFTER INSERT ON " + table + when
+                + " BEGIN " + bumpNew + " END");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + table + "_sequence_au AFTER UPDATE OF user_id, certificate_no ON "
+                + table + when + " BEGIN " + bumpNew + " END");
+    }
+
+    /**
+     * V9: sync_queue with user_id as a column instead of only inside the JSON
+     * payload, a checked status, retry backoff (next_attempt_at) and the last
+     * error, plus indexes for the due-entry scan, per-record lookups on
+     * enqueue and the cleanup of synced entries. The table is rebuilt since
+     * SQLite cannot add CHECK constraints to existing columns.
+     */
+    private static Migration structuredSyncQueue() {
+        return Migration.builder(9, "structured sync queue")
+                .sql("CREATE TABLE sync_queue_v9 (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        "user_id TEXT, " +
+                        "table_name TEXT NOT NULL, " +
+                        "operation TEXT NOT NULL CHECK (operation IN ('INSERT', 'UPDATE', 'DELETE')), " +
+                        "record_id INTEGER, " +
+                        "data TEXT, " +
+                        "sync_status TEXT NOT NULL DEFAULT 'PENDING' " +
+                        "CHECK (sync_status IN ('PENDING', 'SYNCING', 'SYNCED', 'FAILED')), " +
+                        "retry_count INTEGER NOT NULL DEFAULT 0, " +
+                        "next_attempt_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                        "last_error TEXT, " +
+                        "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                        "synced_at TEXT" +
+                        ")")
+                .sql("INSERT INTO sync_queue_v9 (id, user_id, table_name, operation, record_id, data, sync_status, " +
+                        "retry_count, next_attempt_at, created_at, synced_at) " +
+                        "SELECT id, CASE WHEN json_valid(data) THEN CAST(json_extract(data, '$.user_id') AS TEXT) END, " +
+                        "table_name, upper(operation), record_id, data, " +
+                        "CASE WHEN sync_status IN ('PENDING', 'SYNCING', 'SYNCED', 'FAILED') THEN sync_status " +
+                        "ELSE 'PENDING' END, " +
+                        "COALESCE(retry_count, 0), COALESCE(created_at, CURRENT_TIMESTAMP), created_at, synced_at " +
+                        "FROM sync_queue WHERE upper(operation) IN ('INSERT', 'UPDATE', 'DELETE')")
+                .sql("DROP TABLE sync_queue")
+                .sql("ALTER TABLE sync_queue_v9 RENAME TO sync_queue")
+                // Only entries still to be pushed, in the order they are claimed
+                .sql("CREATE INDEX IF NOT EXISTS idx_sync_queue_due ON sync_queue (next_attempt_at, id) " +
+                        "WHERE sync_status IN ('PENDING', 'FAILED') AND retry_count < 5")
+                // Latest entry of a record and the duplicate INSERT check, from the index alone
+                .sql("CREATE INDEX IF NOT EXISTS idx_sync_queue_record " +
+                        "ON sync_queue (table_name, record_id, operation, sync_status, retry_count)")
+                .sql("CREATE INDEX IF NOT EXISTS idx_sync_queue_synced ON sync_queue (synced_at) " +
+                        "WHERE sync_status = 'SYNCED'")
+                .build();
+    }
+
+    /**
+     * V10: FTS5 indexes for the remaining searchable lists (students and the
+     * income, expense and salary ledgers), plus the names of the masjids,
+     * income types and staff they are searched by, so every list searches
+     * the same way as members, houses, events and certificates.
+     */
+    private static Migration ledgerFullTextSearch() {
+        Migration.Builder m = Migration.builder(10, "ledger full text search");
+        ftsIndex(m, "students", "name", "course", "admission_number", "mobile", "email");
+        ftsIndex(m, "incomes", "payment_mode", "receipt_no");
+        ftsIndex(m, "expenses", "expense_type", "notes");
+        ftsIndex(m, "staff_salaries", "remarks", "payment_mode");
+        ftsIndex(m, "masjids", "name");
+        ftsIndex(m, "income_types", "name");
+        ftsIndex(m, "staff", "name");
+        return m.build();
+    }
+
+    /**
+     * Create {table}_fts over the given columns of an id-keyed table, the
+     * triggers that keep it in sync, and index the existing rows.
+     */
+    private static void ftsIndex(Migration.Builder m, String table, String... columns) {
+        String fts = table + "_fts";
+        String cols = String.join(", ", columns);
+        String newValues = "new." + String.join(", new.", columns);
+        String oldValues = "old." + String.join(", old.", columns);
+        String insertNew = "INSERT INTO " + fts + " (rowid, " + cols + ") VALUES (new.id, " + newValues + ");";
+        String deleteOld = "INSERT INTO " + fts + " (" + fts + ", rowid, " + cols + ") "
+                + "VALUES ('delete', old.id, " + oldValues + ");";
+
+        m.sql("CREATE VIRTUAL TABLE IF NOT EXISTS " + fts + " USING fts5(" + cols + ", "
+                + "content='" + table + "', content_rowid='id', tokenize=\"" + FTS_TOKENIZER + "\", prefix='2 3')");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + fts + "_ai AFTER INSERT ON " + table
+                + " BEGIN " + insertNew + " END");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + fts + "_ad AFTER DELETE ON " + table
+                + " BEGIN " + deleteOld + " END");
+        m.sql("CREATE TRIGGER IF NOT EXISTS " + fts + "_au AFTER UPDATE OF id, " + cols + " ON " + table
+                + " BEGIN " + deleteOld + " " + insertNew + " END");
+        m.sql("INSERT INTO " + fts + " (" + fts + ") VALUES ('rebuild')");
+    }
+
+    /**
+     * Make sure a table created by an old build has user_id, and index it.
+     */
+    private static void userScoped(Migration.Builder m, String table) {
+        m.addColumnIfMissing(table, "user_id", "TEXT");
+        m.sql("CREATE INDEX IF NOT EXISTS idx_" + table + "_user_id ON " + table + "(user_id)");
+    }
+}
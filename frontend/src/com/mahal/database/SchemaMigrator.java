@@ -0,0 +1,129 @@
+package com.mahal.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the local SQLite schema up to date once per process, before any DAO
+ * touches the database.
+ *
+ * Applied migrations are recorded in {@code schema_version} with their
+ * checksum. Pending migrations run in version order, each in its own
+ * transaction together with its {@code schema_version} row, so a migration is
+ * either fully applied and recorded or not at all. If one fails, the later
+ * ones are skipped because they may depend on it.
+ */
+public class SchemaMigrator {
+    private static final String CREATE_VERSION_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INTEGER PRIMARY KEY, " +
+            "description TEXT NOT NULL, " +
+            "checksum TEXT NOT NULL, " +
+            "applied_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
+            "execution_ms INTEGER" +
+            ")";
+
+    private final ConnectionPool pool;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(ConnectionPool pool, List<Migration> migrations) {
+        this.pool = pool;
+        this.migrations = migrations;
+    }
+
+    /**
+     * Apply all pending migrations. Returns the number applied.
+     */
+    public int migrate() {
+        int applied = 0;
+        try (Connection conn = pool.borrowWriter()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE_SQL);
+            }
+            Map<Integer, String> appliedChecksums = loadAppliedChecksums(conn);
+
+            int latestKnown = 0;
+            for (Migration migration : migrations) {
+                latestKnown = Math.max(latestKnown, migration.getVersion());
+                String recorded = appliedChecksums.get(migration.getVersion());
+                if (recorded != null) {
+                    if (!recorded.equals(migration.getChecksum())) {
+                        System.err.println("SchemaMigrator: checksum mismatch for already applied migration "
+                                + migration + " (recorded " + recorded + "). The migration was edited after release.");
+                    }
+                    continue;
+                }
+                if (!apply(conn, migration)) {
+                    System.err.println("SchemaMigrator: stopping, later migrations depend on " + migration);
+                    break;
+                }
+                applied++;
+            }
+
+            for (Integer version : appliedChecksums.keySet()) {
+                if (version > latestKnown) {
+                    System.err.println("SchemaMigrator: database is at schema version " + version
+                            + " but this build only knows up to " + latestKnown + " (downgraded app?)");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("SchemaMigrator: could not migrate database: " + e.getMessage());
+            e.printStackTrace();
+        }
+        if (applied > 0) {
+            System.out.println("SchemaMigrator: applied " + applied + " migration(s)");
+        }
+        return applied;
+    }
+
+    private Map<Integer, String> loadAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> checksums = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                checksums.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return checksums;
+    }
+
+    private boolean apply(Connection conn, Migration migration) {
+        long start = System.currentTimeMillis();
+        try {
+            conn.setAutoCommit(false);
+            migration.apply(new Transaction(conn));
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                stmt.setInt(1, migration.getVersion());
+                stmt.setString(2, migration.getDescription());
+                stmt.setString(3, migration.getChecksum());
+                stmt.setLong(4, System.currentTimeMillis() - start);
+                stmt.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("SchemaMigrator: applied " + migration + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("SchemaMigrator: migration " + migration + " failed: " + e.getMessage());
+            e.printStackTrace();
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("SchemaMigrator: rollback failed: " + rollbackEx.getMessage());
+            }
+            return false;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("SchemaMigrator: could not restore auto-commit: " + e.getMessage());
+            }
+        }
+    }
+}
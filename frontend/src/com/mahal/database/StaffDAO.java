@@ -15,34 +15,6 @@ public class StaffDAO {
 
     public StaffDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS staff (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "name TEXT NOT NULL, " +
-                "designation TEXT, " +
-                "salary REAL, " +
-                "address TEXT, " +
-                "mobile TEXT, " +
-                "email TEXT, " +
-                "joining_date TEXT, " +
-                "notes TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "staff");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_staff_user_id ON staff(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating staff table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
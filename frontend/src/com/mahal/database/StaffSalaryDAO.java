@@ -8,41 +8,54 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Date;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public class StaffSalaryDAO {
+    private static final String SELECT_SQL =
+            "SELECT ss.id, ss.user_id, ss.staff_id, s.name as staff_name, s.designation, ss.salary, " +
+            "ss.paid_date, ss.paid_amount, ss.payment_mode, ss.remarks, ss.balance, " +
+            "ss.created_at, ss.updated_at " +
+            "FROM staff_salaries ss " +
+            "JOIN staff s ON ss.staff_id = s.id AND s.user_id = ? " +
+            "WHERE ss.user_id = ?";
+
+    /**
+     * Sortable fields for {@link #getPage}.
+     */
+    public enum SortField implements PageSort.Field<StaffSalary> {
+        PAID_DATE("COALESCE(substr(ss.paid_date, 1, 10), '')", r -> r.getPaidDate() != null ? r.getPaidDate().toString() : ""),
+        STAFF("COALESCE(s.name, '')", r -> nullToEmpty(r.getStaffName())),
+        SALARY("COALESCE(ss.salary, 0)", r -> toDouble(r.getSalary())),
+        PAID_AMOUNT("COALESCE(ss.paid_amount, 0)", r -> toDouble(r.getPaidAmount())),
+        PAYMENT_MODE("COALESCE(ss.payment_mode, '')", r -> nullToEmpty(r.getPaymentMode())),
+        BALANCE("COALESCE(ss.balance, 0)", r -> toDouble(r.getBalance())),
+        REMARKS("COALESCE(ss.remarks, '')", r -> nullToEmpty(r.getRemarks()));
+
+        private final String expression;
+        private final Function<StaffSalary, Object> key;
+
+        SortField(String expression, Function<StaffSalary, Object> key) {
+            this.expression = expression;
+            this.key = key;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public Object keyOf(StaffSalary row) {
+            return key.apply(row);
+        }
+    }
+
     private DatabaseService dbService;
 
     public StaffSalaryDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS staff_salaries (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "staff_id INTEGER NOT NULL, " +
-                "salary REAL, " +
-                "paid_date TEXT, " +
-                "paid_amount REAL, " +
-                "payment_mode TEXT, " +
-                "remarks TEXT, " +
-                "balance REAL, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "staff_salaries");
-            try {
-                dbService.executeUpdate(
-                        "CREATE INDEX IF NOT EXISTS idx_staff_salaries_user_id ON staff_salaries(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating staff_salaries table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -57,19 +70,41 @@ public class StaffSalaryDAO {
 
     public List<StaffSalary> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT ss.id, ss.user_id, ss.staff_id, s.name as staff_name, s.designation, ss.salary, " +
-                "ss.paid_date, ss.paid_amount, ss.payment_mode, ss.remarks, ss.balance, " +
-                "ss.created_at, ss.updated_at " +
-                "FROM staff_salaries ss " +
-                "JOIN staff s ON ss.staff_id = s.id AND s.user_id = ? " +
-                "WHERE ss.user_id = ? " +
-                "ORDER BY ss.paid_date DESC";
+        String sql = SELECT_SQL + " ORDER BY ss.paid_date DESC";
         List<StaffSalary> results = dbService.executeQuery(sql, new Object[] { userId, userId }, this::mapResultSet);
         System.out.println(
                 "StaffSalaryDAO.getAll(): Retrieved " + results.size() + " salary records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Get one page of salary payments using keyset pagination.
+     *
+     * @param afterKey key of the last row already shown, or null for the first
+     *                 page
+     * @param filter   optional search text, matched word by word as prefixes of
+     *                 remarks and payment mode, or of the staff name (full text
+     *                 indexes)
+     */
+    public List<StaffSalary> getPage(PageKey afterKey, int limit, PageSort<StaffSalary> sort, String filter) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        params.add(userId);
+        DAOBase.appendFtsAnyFilter(sql, params, filter, "ss.id", "staff_salaries_fts", "ss.staff_id", "staff_fts");
+        DAOBase.appendPage(sql, params, sort, "ss.id", afterKey, limit);
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
     public StaffSalary getById(Long id) {
         String userId = getCurrentUserId();
         String sql = "SELECT ss.id, ss.user_id, ss.staff_id, s.name as staff_name, s.designation, ss.salary, " +
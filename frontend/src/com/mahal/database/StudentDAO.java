@@ -6,44 +6,51 @@ import com.mahal.util.SessionManager;
 import com.mahal.model.User;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public class StudentDAO {
+    private static final String SELECT_SQL =
+            "SELECT id, user_id, name, course, admission_number, admission_date, mobile, email, address, " +
+            "father_name, mother_name, guardian_mobile, notes, created_at, updated_at " +
+            "FROM students WHERE user_id = ?";
+
+    /**
+     * Sortable fields for {@link #getPage}.
+     */
+    public enum SortField implements PageSort.Field<Student> {
+        NAME("name", Student::getName),
+        COURSE("COALESCE(course, '')", r -> nullToEmpty(r.getCourse())),
+        ADMISSION_NUMBER("COALESCE(admission_number, '')", r -> nullToEmpty(r.getAdmissionNumber())),
+        ADMISSION_DATE("COALESCE(substr(admission_date, 1, 10), '')", r -> r.getAdmissionDate() != null ? r.getAdmissionDate().toString() : ""),
+        MOBILE("COALESCE(mobile, '')", r -> nullToEmpty(r.getMobile())),
+        EMAIL("COALESCE(email, '')", r -> nullToEmpty(r.getEmail())),
+        ADDRESS("COALESCE(address, '')", r -> nullToEmpty(r.getAddress()));
+
+        private final String expression;
+        private final Function<Student, Object> key;
+
+        SortField(String expression, Function<Student, Object> key) {
+            this.expression = expression;
+            this.key = key;
+        }
+
+        @Override
+        public String getExpression() {
+            return expression;
+        }
+
+        @Override
+        public Object keyOf(Student row) {
+            return key.apply(row);
+        }
+    }
+
     private DatabaseService dbService;
 
     public StudentDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS students (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id TEXT NOT NULL, " + // CRITICAL: User isolation
-                "name TEXT NOT NULL, " +
-                "course TEXT, " +
-                "admission_number TEXT, " +
-                "admission_date TEXT, " +
-                "mobile TEXT, " +
-                "email TEXT, " +
-                "address TEXT, " +
-                "father_name TEXT, " +
-                "mother_name TEXT, " +
-                "guardian_mobile TEXT, " +
-                "notes TEXT, " +
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-        try {
-            dbService.executeUpdate(sql, null);
-            DAOBase.ensureUserIdColumn(dbService, "students");
-            try {
-                dbService.executeUpdate("CREATE INDEX IF NOT EXISTS idx_students_user_id ON students(user_id)", null);
-            } catch (Exception e) {
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating students table: " + e.getMessage());
-        }
     }
 
     private String getCurrentUserId() {
@@ -58,14 +65,35 @@ public class StudentDAO {
 
     public List<Student> getAll() {
         String userId = getCurrentUserId();
-        String sql = "SELECT id, user_id, name, course, admission_number, admission_date, mobile, email, address, " +
-                "father_name, mother_name, guardian_mobile, notes, created_at, updated_at " +
-                "FROM students WHERE user_id = ? ORDER BY name";
+        String sql = SELECT_SQL + " ORDER BY name";
         List<Student> results = dbService.executeQuery(sql, new Object[] { userId }, this::mapResultSet);
         System.out.println("StudentDAO.getAll(): Retrieved " + results.size() + " student records for user_id: " + userId);
         return results;
     }
 
+    /**
+     * Get one page of students using keyset pagination.
+     *
+     * @param afterKey key of the last row already shown, or null for the first
+     *                 page
+     * @param filter   optional search text, matched word by word as prefixes of
+     *                 name, course, admission number, mobile and email (full
+     *                 text index)
+     */
+    public List<Student> getPage(PageKey afterKey, int limit, PageSort<Student> sort, String filter) {
+        String userId = getCurrentUserId();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        DAOBase.appendFtsFilter(sql, params, "students_fts", "id", filter);
+        DAOBase.appendPage(sql, params, sort, "id", afterKey, limit);
+        return dbService.executeQuery(sql.toString(), params.toArray(), this::mapResultSet);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     public Student getById(Long id) {
         String userId = getCurrentUserId();
         String sql = "SELECT id, user_id, name, course, admission_number, admission_date, mobile, email, address, " +
@@ -0,0 +1,127 @@
+package com.mahal.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Unit of work handed to {@link DatabaseService#inTransaction}.
+ *
+ * All statements run on the writer connection inside one transaction. If the
+ * work throws, everything is rolled back; otherwise it is committed as a
+ * whole. Unlike the DatabaseService helpers, these methods throw
+ * SQLException so a failure aborts the transaction.
+ */
+public class Transaction {
+
+    /**
+     * Work executed inside a transaction.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(Transaction tx) throws SQLException;
+    }
+
+    private final Connection conn;
+
+    Transaction(Connection conn) {
+        this.conn = conn;
+    }
+
+    public int executeUpdate(String sql, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    public Long executeInsert(String sql, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            if (stmt.executeUpdate() > 0) {
+                try (Statement idStmt = conn.createStatement();
+                        ResultSet rs = idStmt.executeQuery("SELECT last_insert_rowid()")) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run one statement for every parameter row using JDBC batching.
+     * Returns the per-row update counts.
+     */
+    public int[] executeBatch(String sql, List<Object[]> paramRows) throws SQLException {
+        if (paramRows == null || paramRows.isEmpty()) {
+            return new int[0];
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Object[] params : paramRows) {
+                bind(stmt, params);
+                stmt.addBatch();
+            }
+            return stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Query on the transaction's own connection, so uncommitted changes made
+     * earlier in this transaction are visible.
+     */
+    public <T> List<T> executeQuery(String sql, Object[] params, Function<ResultSet, T> mapper) throws SQLException {
+        List<T> results = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    T item = mapper.apply(rs);
+                    if (item != null) {
+                        results.add(item);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Mark a point that can be rolled back to without abandoning the whole
+     * transaction.
+     */
+    public Savepoint savepoint() throws SQLException {
+        return conn.setSavepoint();
+    }
+
+    public void rollbackTo(Savepoint savepoint) throws SQLException {
+        conn.rollback(savepoint);
+    }
+
+    public void release(Savepoint savepoint) throws SQLException {
+        conn.releaseSavepoint(savepoint);
+    }
+
+    /**
+     * Underlying writer connection. Do not commit, roll back or change
+     * auto-commit on it; DatabaseService owns the transaction boundaries.
+     */
+    public Connection getConnection() {
+        return conn;
+    }
+
+    static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        if (params != null) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        }
+    }
+}
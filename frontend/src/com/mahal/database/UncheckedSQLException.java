@@ -0,0 +1,20 @@
+package com.mahal.database;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a SQLException thrown while consuming a streamed query, where checked
+ * exceptions cannot propagate through java.util.stream.
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,245 @@
+package com.mahal.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-threaded write executor used by {@link DatabaseService}.
+ *
+ * All mutations are queued and applied by one dedicated thread on the pool's
+ * writer connection. Writes that arrive within a short window are grouped
+ * into a single transaction (group commit), so a burst of DAO writes pays for
+ * one journal flush instead of one per statement. Each write runs inside its
+ * own savepoint, so a failing write (SQLException or RuntimeException) is
+ * rolled back on its own without affecting the other writes in the same
+ * group. Futures complete only after the group's commit or rollback.
+ */
+public class WriteExecutor {
+    private static final long GROUP_WINDOW_MICROS = 2000;
+    private static final int MAX_GROUP_SIZE = 256;
+
+    /**
+     * A unit of work executed on the writer connection.
+     */
+    @FunctionalInterface
+    public interface WriteWork<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private static class WriteTask<T> {
+        final WriteWork<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+
+        WriteTask(WriteWork<T> work) {
+            this.work = work;
+        }
+
+        void run(Connection conn) throws SQLException {
+            result = work.execute(conn);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+
+        void fail(Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<WriteTask<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong writesCommitted = new AtomicLong();
+    private final AtomicLong writesFailed = new AtomicLong();
+    private final AtomicLong groupsCommitted = new AtomicLong();
+    private final AtomicLong largestGroup = new AtomicLong();
+
+    public WriteExecutor(ConnectionPool pool) {
+        this.pool = pool;
+        this.worker = new Thread(this::runLoop, "mahal-db-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue a write. The returned future completes once the write's group has
+     * been committed, or exceptionally if the write or the commit failed.
+     */
+    public <T> CompletableFuture<T> submit(WriteWork<T> work) {
+        WriteTask<T> task = new WriteTask<>(work);
+        if (!running) {
+            task.fail(new SQLException("Write executor has been shut down"));
+            return task.future;
+        }
+        queue.add(task);
+        return task.future;
+    }
+
+    /**
+     * True when called from the writer thread itself. Callers use this to run
+     * nested writes inline instead of queueing (which would deadlock).
+     */
+    public boolean isWriterThread() {
+        return Thread.currentThread() == worker;
+    }
+
+    private void runLoop() {
+        List<WriteTask<?>> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteTask<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collectGroup(group);
+                applyGroup(group);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Throwable t) {
+                System.err.println("WriteExecutor: unexpected error: " + t.getMessage());
+                t.printStackTrace();
+                for (WriteTask<?> task : group) {
+                    task.fail(t);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Gather writes that are already queued or arrive within the group window.
+     */
+    private void collectGroup(List<WriteTask<?>> group) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(GROUP_WINDOW_MICROS);
+        while (group.size() < MAX_GROUP_SIZE) {
+            WriteTask<?> next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+            }
+            group.add(next);
+        }
+    }
+
+    private void applyGroup(List<WriteTask<?>> group) {
+        List<WriteTask<?>> succeeded = new ArrayList<>(group.size());
+        try (Connection conn = pool.borrowWriter()) {
+            if (group.size() == 1) {
+                // Nothing to group: run in autocommit mode, no savepoint overhead
+                WriteTask<?> task = group.get(0);
+                try {
+                    task.run(conn);
+                    succeeded.add(task);
+                } catch (SQLException | RuntimeException e) {
+                    writesFailed.incrementAndGet();
+                    task.fail(e);
+                }
+            } else {
+                conn.setAutoCommit(false);
+                try (Statement sp = conn.createStatement()) {
+                    for (WriteTask<?> task : group) {
+                        sp.execute("SAVEPOINT group_write");
+                        try {
+                            task.run(conn);
+                            sp.execute("RELEASE SAVEPOINT group_write");
+                            succeeded.add(task);
+                        } catch (SQLException | RuntimeException e) {
+                            // A failing write (checked or not) only undoes its own savepoint
+                            sp.execute("ROLLBACK TO SAVEPOINT group_write");
+                            sp.execute("RELEASE SAVEPOINT group_write");
+                            writesFailed.incrementAndGet();
+                            task.fail(e);
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    // Roll back before autocommit is restored, which would commit the partial group
+                    try {
+                        conn.rollback();
+                    } catch (SQLException rollbackEx) {
+                        System.err.println("WriteExecutor: rollback failed: " + rollbackEx.getMessage());
+                    }
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("WriteExecutor: group of " + group.size() + " writes failed: " + e.getMessage());
+            writesFailed.addAndGet(succeeded.size());
+            for (WriteTask<?> task : succeeded) {
+                task.fail(e);
+            }
+            for (WriteTask<?> task : group) {
+                if (!task.future.isDone()) {
+                    task.fail(e);
+                }
+            }
+            return;
+        }
+
+        groupsCommitted.incrementAndGet();
+        writesCommitted.addAndGet(succeeded.size());
+        largestGroup.accumulateAndGet(group.size(), Math::max);
+        for (WriteTask<?> task : succeeded) {
+            task.complete();
+        }
+    }
+
+    /**
+     * Number of writes waiting to be applied.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting writes, apply everything already queued and stop the
+     * writer thread.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        WriteTask<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.fail(new SQLException("Write executor has been shut down"));
+        }
+        System.out.println("WriteExecutor shut down. " + toString());
+    }
+
+    @Override
+    public String toString() {
+        return "WriteExecutor{committed=" + writesCommitted.get() + ", failed=" + writesFailed.get()
+                + ", groups=" + groupsCommitted.get() + ", largestGroup=" + largestGroup.get()
+                + ", queued=" + queue.size() + "}";
+    }
+}
@@ -19,6 +19,14 @@ public class Committee {
         this.masjidId = masjidId;
     }
     
+    /** A detached copy, so callers can edit it without touching the original. */
+    public Committee copy() {
+        Committee copy = new Committee(id, memberName, mobile, designation, masjidId);
+        copy.otherDetails = otherDetails;
+        copy.masjidName = masjidName;
+        return copy;
+    }
+    
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
@@ -11,6 +11,17 @@ public class DueType {
     
     public DueType() {}
     
+    /** A detached copy, so callers can edit it without touching the original. */
+    public DueType copy() {
+        DueType copy = new DueType();
+        copy.id = id;
+        copy.dueName = dueName;
+        copy.frequency = frequency;
+        copy.amount = amount;
+        copy.description = description;
+        return copy;
+    }
+    
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
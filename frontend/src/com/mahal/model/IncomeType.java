@@ -11,6 +11,17 @@ public class IncomeType {
     
     public IncomeType() {}
     
+    /** A detached copy, so callers can edit it without touching the original. */
+    public IncomeType copy() {
+        IncomeType copy = new IncomeType();
+        copy.id = id;
+        copy.name = name;
+        copy.type = type;
+        copy.defaultAmount = defaultAmount;
+        copy.description = description;
+        return copy;
+    }
+    
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
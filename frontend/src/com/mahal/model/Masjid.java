@@ -21,6 +21,20 @@ public class Masjid {
         this.mobile = mobile;
     }
 
+    /**
+     * A detached copy, so callers can edit it without touching the original.
+     */
+    public Masjid copy() {
+        Masjid copy = new Masjid(id, name, address, mobile);
+        copy.abbreviation = abbreviation;
+        copy.waqfBoardNo = waqfBoardNo;
+        copy.state = state;
+        copy.email = email;
+        copy.registrationNo = registrationNo;
+        copy.status = status;
+        return copy;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
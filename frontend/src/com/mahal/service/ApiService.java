@@ -1,12 +1,8 @@
 package com.mahal.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import com.mahal.util.SessionManager;
+import com.mahal.util.SharedHttpClient;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
@@ -34,11 +30,10 @@ public class ApiService {
         while (System.currentTimeMillis() - startTime < timeoutSeconds * 1000) {
             try {
                 // Use a simple endpoint that should be available
-                URL url = java.net.URI.create(BASE_URL + "/pricing").toURL();
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setConnectTimeout(1000);
-                conn.setReadTimeout(1000);
-                int code = conn.getResponseCode();
+                int code = SharedHttpClient.getInstance().send(
+                        SharedHttpClient.request("GET", BASE_URL + "/pricing").timeout(Duration.ofSeconds(1))
+                                .deadline(Duration.ofSeconds(1)))
+                        .getStatusCode();
                 if (code > 0) { // Any response (even error) means server is listening
                     System.out.println("✅ Backend is responsive!");
                     return true;
@@ -94,38 +89,16 @@ public class ApiService {
                 urlStr += "/";
             urlStr += "functions/v1/" + functionName;
 
-            URL url = java.net.URI.create(urlStr).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Authorization", "Bearer " + supabaseKey);
-            conn.setRequestProperty("apikey", supabaseKey);
-
+            SharedHttpClient.Request request = SharedHttpClient.request("POST", urlStr)
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + supabaseKey)
+                    .header("apikey", supabaseKey);
             if (data != null) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = data.toString().getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-            }
-
-            int responseCode = conn.getResponseCode();
-            StringBuilder response = new StringBuilder();
-
-            BufferedReader reader;
-            if (responseCode >= 200 && responseCode < 300) {
-                reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            } else {
-                reader = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-            }
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+                request.body(data.toString());
             }
-            reader.close();
 
-            return new ApiResponse(responseCode, response.toString());
+            SharedHttpClient.Response response = SharedHttpClient.getInstance().send(request);
+            return new ApiResponse(response.getStatusCode(), response.getBody());
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -135,42 +108,21 @@ public class ApiService {
 
     private ApiResponse makeRequest(String method, String endpoint, JSONObject data) {
         try {
-            URL url = java.net.URI.create(BASE_URL + endpoint).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            conn.setRequestProperty("Content-Type", "application/json");
+            SharedHttpClient.Request request = SharedHttpClient.request(method, BASE_URL + endpoint)
+                    .header("Content-Type", "application/json");
 
             // Add authorization token if available
             String token = SessionManager.getInstance().getAuthToken();
             if (token != null) {
-                conn.setRequestProperty("Authorization", "Bearer " + token);
+                request.header("Authorization", "Bearer " + token);
             }
 
             if (data != null && (method.equals("POST") || method.equals("PUT"))) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = data.toString().getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-            }
-
-            int responseCode = conn.getResponseCode();
-            StringBuilder response = new StringBuilder();
-
-            BufferedReader reader;
-            if (responseCode >= 200 && responseCode < 300) {
-                reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            } else {
-                reader = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-            }
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+                request.body(data.toString());
             }
-            reader.close();
 
-            return new ApiResponse(responseCode, response.toString());
+            SharedHttpClient.Response response = SharedHttpClient.getInstance().send(request);
+            return new ApiResponse(response.getStatusCode(), response.getBody());
 
         } catch (Exception e) {
             return new ApiResponse(500, "{\"message\":\"" + e.getMessage() + "\"}");
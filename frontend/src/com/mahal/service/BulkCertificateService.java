@@ -0,0 +1,221 @@
+package com.mahal.service;
+
+import com.mahal.model.Certificate;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+
+/**
+ * Renders many certificates in one go, e.g. for year-end reissues: in
+ * parallel on a small worker pool, either as one PDF per certificate in a
+ * folder or merged, in the given order, into a single PDF to print.
+ *
+ * The methods block until the batch is done and report progress from the
+ * worker threads; call them off the JavaFX thread.
+ */
+public class BulkCertificateService {
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    public interface ProgressListener {
+        /**
+         * Called from a worker thread after each certificate.
+         */
+        void onProgress(int done, int total);
+    }
+
+    public static class Result {
+        private final int generated;
+        private final List<String> failures;
+        private final List<String> renamed;
+        private final boolean cancelled;
+
+        Result(int generated, List<String> failures, List<String> renamed, boolean cancelled) {
+            this.generated = generated;
+            this.failures = failures;
+            this.renamed = renamed;
+            this.cancelled = cancelled;
+        }
+
+        public int getGenerated() {
+            return generated;
+        }
+
+        /** Certificate number (or id) and error of each certificate that failed. */
+        public List<String> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Certificates whose number was already used by another certificate of
+         * the batch, with the file name they were saved under instead.
+         */
+        public List<String> getRenamed() {
+            return renamed;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Write each certificate to {@code directory} as {@code <certificate no>.pdf}.
+     * Older data can have duplicate numbers; a certificate whose file name is
+     * already taken in the batch is saved as
+     * {@code <certificate no>_<type>_<id>.pdf} and reported as renamed.
+     */
+    public Result generateFiles(List<Certificate> certificates, File directory, ProgressListener listener,
+            AtomicBoolean cancelled) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create folder " + directory.getAbsolutePath());
+        }
+        List<File> targets = new ArrayList<>();
+        List<String> renamed = new ArrayList<>();
+        // Compared case-insensitively, as file names are on Windows
+        Set<String> used = new HashSet<>();
+        for (Certificate cert : certificates) {
+            String name = fileNameOf(cert, false);
+            if (!used.add(name.toLowerCase())) {
+                name = fileNameOf(cert, true);
+                used.add(name.toLowerCase());
+                renamed.add(labelOf(cert) + " (duplicate number) saved as " + name);
+            }
+            targets.add(new File(directory, name));
+        }
+        if (!renamed.isEmpty()) {
+            System.out.println("BulkCertificateService: " + renamed.size()
+                    + " certificates share a number with another one and were saved under a different name");
+        }
+        boolean[] rendered = new boolean[certificates.size()];
+        List<String> failures = render(certificates, targets, rendered, listener, cancelled);
+        return new Result(count(rendered), failures, renamed, cancelled.get());
+    }
+
+    /**
+     * Write all certificates, in order, into the single PDF {@code mergedFile}.
+     * Certificates that fail are left out and reported.
+     */
+    public Result generateMerged(List<Certificate> certificates, File mergedFile, ProgressListener listener,
+            AtomicBoolean cancelled) throws IOException {
+        File workDir = Files.createTempDirectory("mahal-certificates").toFile();
+        try {
+            List<File> targets = new ArrayList<>();
+            for (int i = 0; i < certificates.size(); i++) {
+                targets.add(new File(workDir, String.format("%06d.pdf", i)));
+            }
+            boolean[] rendered = new boolean[certificates.size()];
+            List<String> failures = render(certificates, targets, rendered, listener, cancelled);
+            if (cancelled.get() || count(rendered) == 0) {
+                return new Result(0, failures, Collections.emptyList(), cancelled.get());
+            }
+
+            PDFMergerUtility merger = new PDFMergerUtility();
+            merger.setDestinationFileName(mergedFile.getAbsolutePath());
+            for (int i = 0; i < targets.size(); i++) {
+                if (rendered[i]) {
+                    merger.addSource(targets.get(i));
+                }
+            }
+            long start = System.currentTimeMillis();
+            merger.mergeDocuments(MemoryUsageSetting.setupTempFileOnly());
+            System.out.println("BulkCertificateService: merged " + count(rendered) + " certificates in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return new Result(count(rendered), failures, Collections.emptyList(), false);
+        } finally {
+            File[] files = workDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            workDir.delete();
+        }
+    }
+
+    private List<String> render(List<Certificate> certificates, List<File> targets, boolean[] rendered,
+            ProgressListener listener, AtomicBoolean cancelled) {
+        int total = certificates.size();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "mahal-cert-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.currentTimeMillis();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    if (cancelled.get()) {
+                        return;
+                    }
+                    Certificate cert = certificates.get(index);
+                    try {
+                        CertificatePDFService.generatePDF(cert, targets.get(index));
+                        rendered[index] = true;
+                    } catch (Exception e) {
+                        System.err.println("BulkCertificateService: failed to generate " + labelOf(cert) + ": "
+                                + e.getMessage());
+                        failures.add(labelOf(cert) + ": " + e.getMessage());
+                    }
+                    listener.onProgress(done.incrementAndGet(), total);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelled.set(true);
+                    break;
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause().getMessage());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println("BulkCertificateService: rendered " + count(rendered) + " of " + total
+                + " certificates in " + (System.currentTimeMillis() - start) + " ms on " + THREADS + " threads");
+        return failures;
+    }
+
+    private static int count(boolean[] rendered) {
+        int count = 0;
+        for (boolean r : rendered) {
+            if (r) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String labelOf(Certificate cert) {
+        return cert.getCertificateNo() != null && !cert.getCertificateNo().isEmpty()
+                ? cert.getCertificateNo()
+                : cert.getType() + " #" + cert.getId();
+    }
+
+    private static String fileNameOf(Certificate cert, boolean withId) {
+        String name = cert.getCertificateNo() != null && !cert.getCertificateNo().isEmpty()
+                ? cert.getCertificateNo() + (withId ? "_" + cert.getType().toLowerCase() + "_" + cert.getId() : "")
+                : cert.getType().toLowerCase() + "_cert_" + cert.getId();
+        return name.replaceAll("[\\\\/:*?\"<>|]", "_") + ".pdf";
+    }
+}
@@ -1,8 +1,14 @@
 package com.mahal.service;
 
 import com.mahal.database.CertificateDAO;
-import java.time.LocalDate;
-
+import com.mahal.util.FormatUtil;
+
+/**
+ * Certificate numbers (e.g. MC-2026-00001), one sequence per type and year.
+ *
+ * A certificate saved without a number gets the next one of its sequence
+ * when it is inserted, see {@link CertificateDAO#create}.
+ */
 public class CertificateNumberService {
     private final CertificateDAO certificateDAO;
 
@@ -10,35 +16,11 @@ public class CertificateNumberService {
         this.certificateDAO = new CertificateDAO();
     }
 
-    public String generateMarriageCertificateNumber() {
-        String prefix = "MC";
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = certificateDAO.countByType("Marriage") + 1;
-        return String.format("%s-%s-%05d", prefix, year, count);
-    }
-
-    public String generateJamathCertificateNumber() {
-        String prefix = "JC";
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = certificateDAO.countByType("Jamath") + 1;
-        return String.format("%s-%s-%05d", prefix, year, count);
-    }
-
-    public String generateDeathCertificateNumber() {
-        String prefix = "DC";
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = certificateDAO.countByType("Death") + 1;
-        return String.format("%s-%s-%05d", prefix, year, count);
-    }
-
-    public String generateCustomCertificateNumber() {
-        String prefix = "CC";
-        String year = String.valueOf(LocalDate.now().getYear());
-        long count = certificateDAO.countByType("Custom") + 1;
-        return String.format("%s-%s-%05d", prefix, year, count);
+    /**
+     * The number the next certificate of the type will get this year, for
+     * display; it is not reserved.
+     */
+    public String previewNumber(String type) {
+        return certificateDAO.peekNextNumber(type, FormatUtil.todayIst().getYear());
     }
 }
-
-
-
-
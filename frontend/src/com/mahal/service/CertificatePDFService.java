@@ -14,23 +14,38 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import java.awt.Font;
-import java.awt.GraphicsEnvironment;
-import java.io.InputStream;
-import java.io.FileInputStream;
-import java.io.File;
 
 public class CertificatePDFService {
 
     private static final String CERTIFICATES_DIR = "certificates";
-    private static final String TEMPLATES_DIR = "templates";
-    private static final String MARRIAGE_CERT_TEMPLATE = "marriage_certificate_template.png";
 
     // PDF dimensions (A4 size in points: 595 x 842)
     private static final float PAGE_WIDTH = 595;
     private static final float PAGE_HEIGHT = 842;
 
+    /**
+     * Generates the PDF for a certificate of any type into the given file.
+     */
+    public static void generatePDF(Certificate cert, File outputFile) throws IOException {
+        String type = cert.getType() != null ? cert.getType() : "";
+        switch (type) {
+            case "Marriage":
+                generatePDFFromImageTemplate(cert, outputFile);
+                break;
+            case "Death":
+                generateDeathCertificatePDF(cert, outputFile);
+                break;
+            case "Jamath":
+                generateJamathCertificatePDF(cert, outputFile);
+                break;
+            case "Custom":
+                generateCustomCertificatePDF(cert, outputFile);
+                break;
+            default:
+                throw new IOException("Unknown certificate type: " + type);
+        }
+    }
+
     public static String saveMarriageCertificateHTML(Certificate cert) throws IOException {
         // Create certificates directory if it doesn't exist
         File certDir = new File(CERTIFICATES_DIR);
@@ -123,6 +138,8 @@ public class CertificatePDFService {
             float pageH = PAGE_HEIGHT;
 
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                drawTemplateBackground(cs, CertificateTemplateCache.getInstance().getBackground(doc, "marriage"));
+
                 // Border
                 cs.setStrokingColor(borderColor);
                 cs.setLineWidth(3);
@@ -134,9 +151,10 @@ public class CertificatePDFService {
                 cs.setFont(PDType1Font.TIMES_BOLD, 24);
                 cs.setNonStrokingColor(titleColor);
                 String title = "MARRIAGE (NIKAH) CERTIFICATE";
-                float titleWidth = PDType1Font.TIMES_BOLD.getStringWidth(title) / 1000 * 24;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - titleWidth) / 2, titleY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_BOLD, title, 24, pageW),
+                        titleY);
                 cs.showText(title);
                 cs.endText();
 
@@ -152,9 +170,10 @@ public class CertificatePDFService {
 
                 // Intro line
                 String introLine = "This certificate is proudly presented to";
-                float introWidth = PDType1Font.TIMES_ROMAN.getStringWidth(introLine) / 1000 * 12;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - introWidth) / 2, currentY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_ROMAN, introLine, 12, pageW),
+                        currentY);
                 cs.showText(introLine);
                 cs.endText();
                 currentY -= lineHeight + 5;
@@ -163,8 +182,9 @@ public class CertificatePDFService {
                 String namesLine = (groomName.isEmpty() ? "_____________________" : groomName)
                         + " & "
                         + (brideName.isEmpty() ? "_____________________" : brideName);
-                cs.setFont(PDType1Font.TIMES_BOLD, 18);
-                float namesWidth = PDType1Font.TIMES_BOLD.getStringWidth(namesLine) / 1000 * 18;
+                PDFont namesFont = FontRegistry.getInstance().fontFor(doc, namesLine, PDType1Font.TIMES_BOLD);
+                cs.setFont(namesFont, 18);
+                float namesWidth = namesFont.getStringWidth(namesLine) / 1000 * 18;
                 cs.beginText();
                 cs.newLineAtOffset((pageW - namesWidth) / 2, currentY);
                 cs.showText(namesLine);
@@ -414,6 +434,17 @@ public class CertificatePDFService {
         }
     }
 
+    /**
+     * Draws the certificate type's template image, if there is one, over the
+     * whole page, beneath the text.
+     */
+    private static void drawTemplateBackground(PDPageContentStream cs, PDImageXObject background)
+            throws IOException {
+        if (background != null) {
+            cs.drawImage(background, 0, 0, PAGE_WIDTH, PAGE_HEIGHT);
+        }
+    }
+
     /**
      * Helper method to draw a paragraph with word wrapping and justified alignment
      * Supports Unicode characters using appropriate fonts
@@ -435,14 +466,7 @@ public class CertificatePDFService {
         java.util.List<String> currentLineWords = new java.util.ArrayList<>();
 
         // Use Unicode font if text contains Unicode characters
-        PDFont font;
-        if (containsUnicode(text)) {
-            font = getUnicodeFont(doc, false);
-            System.out.println(
-                    "Using Unicode font for text containing: " + text.substring(0, Math.min(50, text.length())));
-        } else {
-            font = PDType1Font.TIMES_ROMAN;
-        }
+        PDFont font = FontRegistry.getInstance().fontFor(doc, text, PDType1Font.TIMES_ROMAN);
 
         float spaceWidth;
         try {
@@ -530,228 +554,6 @@ public class CertificatePDFService {
         return currentY;
     }
 
-    /**
-     * Gets a Unicode-supporting font for PDF rendering.
-     * Tries to load a system font that supports Unicode, falls back to Times-Roman
-     * if not available.
-     * 
-     * @param doc  The PDDocument to add the font to
-     * @param bold Whether to use bold variant
-     * @return A PDFont that supports Unicode
-     */
-    private static PDFont getUnicodeFont(PDDocument doc, boolean bold) {
-        // First, try to load bundled font from resources
-        try {
-            // Try to load Noto Sans Malayalam from resources (if bundled)
-            InputStream bundledFont = CertificatePDFService.class
-                    .getResourceAsStream("/fonts/NotoSansMalayalam-Regular.ttf");
-            if (bundledFont != null) {
-                try {
-                    PDFont font = PDType0Font.load(doc, bundledFont, true);
-                    System.out.println("Successfully loaded bundled Unicode font: Noto Sans Malayalam");
-                    return font;
-                } catch (Exception e) {
-                    System.err.println("Failed to load bundled font: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            // Continue to system fonts
-        }
-
-        // Try to load from fonts directory in project root
-        try {
-            File fontsDir = new File("fonts");
-            if (fontsDir.exists() && fontsDir.isDirectory()) {
-                File[] fontFiles = fontsDir.listFiles(
-                        (dir, name) -> name.toLowerCase().endsWith(".ttf") || name.toLowerCase().endsWith(".otf"));
-                if (fontFiles != null && fontFiles.length > 0) {
-                    // Try Noto Sans Malayalam first
-                    for (File fontFile : fontFiles) {
-                        String fileName = fontFile.getName().toLowerCase();
-                        if (fileName.contains("malayalam") || fileName.contains("noto")) {
-                            try (InputStream fontStream = new FileInputStream(fontFile)) {
-                                PDFont font = PDType0Font.load(doc, fontStream, true);
-                                System.out.println(
-                                        "Successfully loaded font from fonts directory: " + fontFile.getName());
-                                return font;
-                            } catch (Exception e) {
-                                System.err.println(
-                                        "Failed to load font file " + fontFile.getName() + ": " + e.getMessage());
-                            }
-                        }
-                    }
-                    // If no Malayalam-specific font, try any TTF/OTF file
-                    for (File fontFile : fontFiles) {
-                        try (InputStream fontStream = new FileInputStream(fontFile)) {
-                            PDFont font = PDType0Font.load(doc, fontStream, true);
-                            System.out.println("Successfully loaded font from fonts directory: " + fontFile.getName());
-                            return font;
-                        } catch (Exception e) {
-                            // Continue to next font
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error checking fonts directory: " + e.getMessage());
-        }
-
-        // Then try system fonts
-        try {
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            String[] fontNames = ge.getAvailableFontFamilyNames();
-
-            // Preferred fonts that typically support Unicode (in order of preference)
-            String[] preferredFonts = {
-                    "Noto Sans Malayalam", "Noto Sans", "Arial Unicode MS", "Arial",
-                    "DejaVu Sans", "Liberation Sans", "Tahoma", "Verdana", "Calibri",
-                    "Mangal", "Lohit Malayalam", "Rachana", "Meera"
-            };
-
-            for (String preferredFont : preferredFonts) {
-                for (String availableFont : fontNames) {
-                    if (availableFont.equalsIgnoreCase(preferredFont)) {
-                        try {
-                            Font javaFont = new Font(availableFont, bold ? Font.BOLD : Font.PLAIN, 12);
-                            if (javaFont.canDisplay('\u0D30')) { // Malayalam character 'ra'
-                                String fontPath = findFontFile(availableFont, bold);
-                                if (fontPath != null) {
-                                    try (InputStream fontStream = new FileInputStream(fontPath)) {
-                                        PDFont pdfFont = PDType0Font.load(doc, fontStream, true);
-                                        System.out.println("Successfully loaded system Unicode font: " + availableFont);
-                                        return pdfFont;
-                                    } catch (Exception e) {
-                                        System.err.println(
-                                                "Failed to load font file " + fontPath + ": " + e.getMessage());
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            // Continue to next font
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading system fonts: " + e.getMessage());
-        }
-
-        // Final fallback: Show warning and use Times-Roman (will show boxes for
-        // unsupported chars)
-        System.err.println("========================================");
-        System.err.println("WARNING: No Unicode font found!");
-        System.err.println("Malayalam text will NOT display correctly in PDF.");
-        System.err.println("========================================");
-        System.err.println("SOLUTION:");
-        System.err.println("1. Run: download_malayalam_font.bat");
-        System.err.println("   OR");
-        System.err.println("2. Download from: https://fonts.google.com/noto/specimen/Noto+Sans+Malayalam");
-        System.err.println("3. Copy 'NotoSansMalayalam-Regular.ttf' to: " + new File("fonts").getAbsolutePath());
-        System.err.println("========================================");
-        return bold ? PDType1Font.TIMES_BOLD : PDType1Font.TIMES_ROMAN;
-    }
-
-    /**
-     * Attempts to find the file path for a system font.
-     * Searches common font directories on Windows, Linux, and macOS.
-     */
-    private static String findFontFile(String fontName, boolean bold) {
-        String os = System.getProperty("os.name").toLowerCase();
-        String[] fontDirs;
-
-        if (os.contains("win")) {
-            // Windows font directory
-            String winDir = System.getenv("WINDIR");
-            fontDirs = new String[] {
-                    winDir != null ? winDir + "\\Fonts\\" : "C:\\Windows\\Fonts\\",
-                    System.getProperty("user.home") + "\\AppData\\Local\\Microsoft\\Windows\\Fonts\\"
-            };
-        } else if (os.contains("mac")) {
-            // macOS font directories
-            fontDirs = new String[] {
-                    "/Library/Fonts/",
-                    "/System/Library/Fonts/",
-                    System.getProperty("user.home") + "/Library/Fonts/"
-            };
-        } else {
-            // Linux font directories
-            fontDirs = new String[] {
-                    "/usr/share/fonts/",
-                    "/usr/local/share/fonts/",
-                    System.getProperty("user.home") + "/.fonts/"
-            };
-        }
-
-        // Common font file extensions
-        String[] extensions = { ".ttf", ".otf", ".TTF", ".OTF" };
-
-        // Try to find font file
-        for (String fontDir : fontDirs) {
-            File dir = new File(fontDir);
-            if (!dir.exists())
-                continue;
-
-            // Search for font files matching the font name
-            File[] files = dir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    String fileName = file.getName().toLowerCase();
-                    String searchName = fontName.toLowerCase().replace(" ", "");
-
-                    // Check if filename contains font name (more flexible matching)
-                    String fontNameLower = fontName.toLowerCase();
-                    String fileNameLower = fileName.toLowerCase();
-
-                    // Try multiple matching strategies
-                    boolean matches = fileNameLower.contains(fontNameLower.replace(" ", "")) ||
-                            fileNameLower.contains(fontNameLower.replace(" ", "-")) ||
-                            fileNameLower.contains(fontNameLower.replace(" ", "_")) ||
-                            (fontNameLower.length() > 3 && fileNameLower.startsWith(
-                                    fontNameLower.replace(" ", "").substring(0, Math.min(5, fontNameLower.length()))));
-
-                    if (matches) {
-                        for (String ext : extensions) {
-                            if (fileName.endsWith(ext)) {
-                                // For bold fonts, prefer files with "bold" in name, but also accept regular if
-                                // bold not found
-                                if (bold) {
-                                    if (fileNameLower.contains("bold")) {
-                                        System.out.println("Found bold font file: " + file.getAbsolutePath());
-                                        return file.getAbsolutePath();
-                                    }
-                                } else {
-                                    if (!fileNameLower.contains("bold") && !fileNameLower.contains("italic")) {
-                                        System.out.println("Found regular font file: " + file.getAbsolutePath());
-                                        return file.getAbsolutePath();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Checks if text contains Unicode characters beyond basic Latin
-     * 
-     * @param text The text to check
-     * @return true if text contains Unicode characters
-     */
-    private static boolean containsUnicode(String text) {
-        if (text == null)
-            return false;
-        for (char c : text.toCharArray()) {
-            if (c > 0x7F && !(c >= 0xA0 && c <= 0xFF)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Draws a line with justified text (stretched to fill width)
      * Handles Unicode characters using appropriate fonts
@@ -918,6 +720,8 @@ public class CertificatePDFService {
             float pageH = PAGE_HEIGHT;
 
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                drawTemplateBackground(cs, CertificateTemplateCache.getInstance().getBackground(doc, "death"));
+
                 // Border
                 cs.setStrokingColor(borderColor);
                 cs.setLineWidth(3);
@@ -929,9 +733,10 @@ public class CertificatePDFService {
                 cs.setFont(PDType1Font.TIMES_BOLD, 24);
                 cs.setNonStrokingColor(titleColor);
                 String title = "DEATH CERTIFICATE";
-                float titleWidth = PDType1Font.TIMES_BOLD.getStringWidth(title) / 1000 * 24;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - titleWidth) / 2, titleY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_BOLD, title, 24, pageW),
+                        titleY);
                 cs.showText(title);
                 cs.endText();
 
@@ -940,18 +745,20 @@ public class CertificatePDFService {
                 cs.setFont(PDType1Font.TIMES_ROMAN, 18);
                 cs.setNonStrokingColor(textColor);
                 String subtitle = "This certificate is respectfully presented in memory of";
-                float subtitleWidth = PDType1Font.TIMES_ROMAN.getStringWidth(subtitle) / 1000 * 18;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - subtitleWidth) / 2, subtitleY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_ROMAN, subtitle, 18, pageW),
+                        subtitleY);
                 cs.showText(subtitle);
                 cs.endText();
 
                 // Name in large bold centered text
                 float nameY = subtitleY - 40;
-                cs.setFont(PDType1Font.TIMES_BOLD, 26);
-                cs.setNonStrokingColor(textColor);
                 String displayName = name.isEmpty() ? "_____________________" : name;
-                float nameWidth = PDType1Font.TIMES_BOLD.getStringWidth(displayName) / 1000 * 26;
+                PDFont nameFont = FontRegistry.getInstance().fontFor(doc, displayName, PDType1Font.TIMES_BOLD);
+                cs.setFont(nameFont, 26);
+                cs.setNonStrokingColor(textColor);
+                float nameWidth = nameFont.getStringWidth(displayName) / 1000 * 26;
                 cs.beginText();
                 cs.newLineAtOffset((pageW - nameWidth) / 2, nameY);
                 cs.showText(displayName);
@@ -1139,6 +946,8 @@ public class CertificatePDFService {
             float pageH = PAGE_HEIGHT;
 
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                drawTemplateBackground(cs, CertificateTemplateCache.getInstance().getBackground(doc, "jamath"));
+
                 // Border
                 cs.setStrokingColor(borderColor);
                 cs.setLineWidth(3);
@@ -1150,9 +959,10 @@ public class CertificatePDFService {
                 cs.setFont(PDType1Font.TIMES_BOLD, 24);
                 cs.setNonStrokingColor(titleColor);
                 String title = "JAMATH CERTIFICATE";
-                float titleWidth = PDType1Font.TIMES_BOLD.getStringWidth(title) / 1000 * 24;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - titleWidth) / 2, titleY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_BOLD, title, 24, pageW),
+                        titleY);
                 cs.showText(title);
                 cs.endText();
 
@@ -1161,18 +971,20 @@ public class CertificatePDFService {
                 cs.setFont(PDType1Font.TIMES_ROMAN, 18);
                 cs.setNonStrokingColor(textColor);
                 String subtitle = "This certificate is hereby issued to";
-                float subtitleWidth = PDType1Font.TIMES_ROMAN.getStringWidth(subtitle) / 1000 * 18;
                 cs.beginText();
-                cs.newLineAtOffset((pageW - subtitleWidth) / 2, subtitleY);
+                cs.newLineAtOffset(
+                        CertificateTemplateCache.getInstance().centeredX(PDType1Font.TIMES_ROMAN, subtitle, 18, pageW),
+                        subtitleY);
                 cs.showText(subtitle);
                 cs.endText();
 
                 // Name in large bold centered text
                 float nameY = subtitleY - 40;
-                cs.setFont(PDType1Font.TIMES_BOLD, 26);
-                cs.setNonStrokingColor(textColor);
                 String displayName = name.isEmpty() ? "_____________________" : name;
-                float nameWidth = PDType1Font.TIMES_BOLD.getStringWidth(displayName) / 1000 * 26;
+                PDFont nameFont = FontRegistry.getInstance().fontFor(doc, displayName, PDType1Font.TIMES_BOLD);
+                cs.setFont(nameFont, 26);
+                cs.setNonStrokingColor(textColor);
+                float nameWidth = nameFont.getStringWidth(displayName) / 1000 * 26;
                 cs.beginText();
                 cs.newLineAtOffset((pageW - nameWidth) / 2, nameY);
                 cs.showText(displayName);
@@ -1380,8 +1192,11 @@ public class CertificatePDFService {
             PDPage currentPage = new PDPage(PDRectangle.A4);
             doc.addPage(currentPage);
             PDPageContentStream cs = new PDPageContentStream(doc, currentPage);
+            PDImageXObject background = CertificateTemplateCache.getInstance().getBackground(doc, "custom");
 
             try {
+                drawTemplateBackground(cs, background);
+
                 // Border
                 cs.setStrokingColor(borderColor);
                 cs.setLineWidth(3);
@@ -1390,9 +1205,7 @@ public class CertificatePDFService {
 
                 // Title: Template Name (with Unicode support)
                 float titleY = pageH - borderMargin - 20;
-                PDFont titleFont = containsUnicode(templateName)
-                        ? getUnicodeFont(doc, true)
-                        : PDType1Font.TIMES_BOLD;
+                PDFont titleFont = FontRegistry.getInstance().fontFor(doc, templateName, PDType1Font.TIMES_BOLD);
                 cs.setFont(titleFont, 24);
                 cs.setNonStrokingColor(titleColor);
                 String titleText = templateName.toUpperCase();
@@ -1423,9 +1236,7 @@ public class CertificatePDFService {
 
                 // Issue Date (right-aligned at top)
                 float dateY = titleY - 25;
-                PDFont dateFont = containsUnicode(issueDateStr)
-                        ? getUnicodeFont(doc, false)
-                        : PDType1Font.TIMES_ROMAN;
+                PDFont dateFont = FontRegistry.getInstance().fontFor(doc, issueDateStr, PDType1Font.TIMES_ROMAN);
                 cs.setFont(dateFont, 12);
                 cs.setNonStrokingColor(textColor);
                 String dateLabel = "Issued Date: " + issueDateStr;
@@ -1466,6 +1277,7 @@ public class CertificatePDFService {
 
                         // Draw border on new page
                         PDPageContentStream borderCs = new PDPageContentStream(doc, currentPage);
+                        drawTemplateBackground(borderCs, background);
                         borderCs.setStrokingColor(borderColor);
                         borderCs.setLineWidth(3);
                         borderCs.addRect(borderMargin, borderMargin, pageW - (borderMargin * 2),
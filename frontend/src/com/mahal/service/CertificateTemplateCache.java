@@ -0,0 +1,169 @@
+package com.mahal.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Assets shared by every certificate of a type, prepared once per process:
+ *
+ * <ul>
+ * <li>the background image from {@code templates/<type>_certificate_template.png}
+ * (or {@code .jpg}), decoded and compressed once and kept as the encoded
+ * image XObject stream, which each document embeds as is;</li>
+ * <li>the layout of the fixed text (titles, subtitles, captions), so only
+ * the certificate's own text is measured per document.</li>
+ * </ul>
+ *
+ * A template image replaced on disk is picked up on the next certificate.
+ * Safe to use from several threads.
+ */
+class CertificateTemplateCache {
+    private static final String TEMPLATES_DIR = "templates";
+    private static final String[] EXTENSIONS = { ".png", ".jpg", ".jpeg" };
+
+    private static CertificateTemplateCache instance;
+
+    /**
+     * An image XObject's encoded stream and its parameters, independent of
+     * any document.
+     */
+    private static final class EncodedImage {
+        final byte[] data;
+        final COSBase filter;
+        final COSBase decodeParms;
+        final int width;
+        final int height;
+        final int bitsPerComponent;
+        final PDColorSpace colorSpace;
+        final EncodedImage softMask;
+
+        EncodedImage(PDImageXObject image) throws IOException {
+            COSStream stream = image.getCOSObject();
+            try (InputStream in = stream.createRawInputStream()) {
+                this.data = in.readAllBytes();
+            }
+            this.filter = stream.getDictionaryObject(COSName.FILTER);
+            this.decodeParms = stream.getDictionaryObject(COSName.DECODE_PARMS);
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.bitsPerComponent = image.getBitsPerComponent();
+            this.colorSpace = image.getColorSpace();
+            this.softMask = image.getSoftMask() != null ? new EncodedImage(image.getSoftMask()) : null;
+        }
+
+        PDImageXObject toImage(PDDocument doc) throws IOException {
+            PDImageXObject image = new PDImageXObject(doc, new ByteArrayInputStream(data), filter, width, height,
+                    bitsPerComponent, colorSpace);
+            if (decodeParms != null) {
+                image.getCOSObject().setItem(COSName.DECODE_PARMS, decodeParms);
+            }
+            if (softMask != null) {
+                image.getCOSObject().setItem(COSName.SMASK, softMask.toImage(doc));
+            }
+            return image;
+        }
+    }
+
+    private static final class Background {
+        final long lastModified;
+        final long length;
+        final EncodedImage image;
+
+        Background(File file, EncodedImage image) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.image = image;
+        }
+
+        boolean isCurrent(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
+    /** Certificate type -> decoded template image. */
+    private final Map<String, Background> backgrounds = new HashMap<>();
+    /** Font, size and fixed text -> x at which the text is centered on the page. */
+    private final Map<String, Float> centeredX = new ConcurrentHashMap<>();
+
+    private CertificateTemplateCache() {
+    }
+
+    static synchronized CertificateTemplateCache getInstance() {
+        if (instance == null) {
+            instance = new CertificateTemplateCache();
+        }
+        return instance;
+    }
+
+    /**
+     * The template image for a certificate type (e.g. "marriage") embedded in
+     * {@code doc}, or null if there is no template image.
+     */
+    PDImageXObject getBackground(PDDocument doc, String type) {
+        File file = findTemplate(type);
+        if (file == null) {
+            return null;
+        }
+        try {
+            EncodedImage image = getEncoded(type, file);
+            return image != null ? image.toImage(doc) : null;
+        } catch (IOException e) {
+            System.err.println("Failed to add certificate template " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * X position that centers a fixed text on a page of the given width.
+     */
+    float centeredX(PDType1Font font, String text, float fontSize, float pageWidth) {
+        return centeredX.computeIfAbsent(font.getName() + "|" + fontSize + "|" + pageWidth + "|" + text, k -> {
+            try {
+                return (pageWidth - font.getStringWidth(text) / 1000 * fontSize) / 2;
+            } catch (IOException e) {
+                return (pageWidth - text.length() * fontSize * 0.6f) / 2;
+            }
+        });
+    }
+
+    private synchronized EncodedImage getEncoded(String type, File file) {
+        Background background = backgrounds.get(type);
+        if (background == null || !background.isCurrent(file)) {
+            long start = System.currentTimeMillis();
+            EncodedImage image;
+            try (PDDocument scratch = new PDDocument()) {
+                image = new EncodedImage(PDImageXObject.createFromFileByContent(file, scratch));
+                System.out.println("Loaded certificate template " + file.getName() + " in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Failed to load certificate template " + file.getName() + ": " + e.getMessage());
+                image = null;
+            }
+            background = new Background(file, image);
+            backgrounds.put(type, background);
+        }
+        return background.image;
+    }
+
+    private static File findTemplate(String type) {
+        for (String extension : EXTENSIONS) {
+            File file = new File(TEMPLATES_DIR, type + "_certificate_template" + extension);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+}
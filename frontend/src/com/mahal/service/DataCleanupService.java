@@ -1,6 +1,7 @@
 package com.mahal.service;
 
 import com.mahal.database.DatabaseService;
+import com.mahal.database.ReferenceDataCache;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,22 +43,40 @@ public class DataCleanupService {
         List<String> tables = getAllUserScopedTables();
         int totalDeleted = 0;
 
-        for (String tableName : tables) {
-            try {
-                if (hasUserIdColumn(tableName)) {
-                    String sql = "DELETE FROM " + tableName + " WHERE user_id != ?";
-                    int rows = dbService.executeUpdate(sql, new Object[] { userId });
-                    if (rows > 0) {
-                        System.out.println(
-                                "   - Removed " + rows + " records from '" + tableName + "' belonging to other users.");
-                        totalDeleted += rows;
+        // Run all deletes as one transaction: one journal flush instead of one per
+        // table, and a failing table is rolled back on its own via a savepoint.
+        try {
+            totalDeleted = dbService.inTransaction(tx -> {
+                int deleted = 0;
+                for (String tableName : tables) {
+                    if (!hasUserIdColumn(tableName)) {
+                        continue;
+                    }
+                    java.sql.Savepoint savepoint = tx.savepoint();
+                    try {
+                        String sql = "DELETE FROM " + tableName + " WHERE user_id != ?";
+                        int rows = tx.executeUpdate(sql, new Object[] { userId });
+                        tx.release(savepoint);
+                        if (rows > 0) {
+                            System.out.println(
+                                    "   - Removed " + rows + " records from '" + tableName
+                                            + "' belonging to other users.");
+                            deleted += rows;
+                        }
+                    } catch (java.sql.SQLException e) {
+                        tx.rollbackTo(savepoint);
+                        tx.release(savepoint);
+                        System.err.println("   - Error cleaning table '" + tableName + "': " + e.getMessage());
                     }
                 }
-            } catch (Exception e) {
-                System.err.println("   - Error cleaning table '" + tableName + "': " + e.getMessage());
-            }
+                return deleted;
+            });
+        } catch (java.sql.SQLException e) {
+            System.err.println("⚠️ [CLEANUP] Cleanup failed and was rolled back: " + e.getMessage());
+            return;
         }
 
+        ReferenceDataCache.getInstance().invalidateAll();
         System.out.println("✅ [CLEANUP] Completed. Total records removed: " + totalDeleted);
     }
 
@@ -0,0 +1,325 @@
+package com.mahal.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Process-wide registry of the TrueType fonts used for non-Latin-1 text in
+ * generated PDFs.
+ *
+ * Fonts are looked up (bundled resources, the {@code fonts} directory, then
+ * the system font directories) and parsed once per script and weight, on
+ * first use; every document then embeds a subset of the shared parsed font.
+ * A script without a font of its own falls back to the general Unicode font,
+ * and finally to the standard Times font. Safe to use from several threads.
+ */
+public class FontRegistry {
+
+    public enum Script {
+        LATIN('\u0101', "/fonts/NotoSans-Regular.ttf", "/fonts/NotoSans-Bold.ttf",
+                "notosans", "dejavusans", "liberationsans", "arial", "verdana", "tahoma", "calibri"),
+        MALAYALAM('\u0D30', "/fonts/NotoSansMalayalam-Regular.ttf", "/fonts/NotoSansMalayalam-Bold.ttf",
+                "notosansmalayalam", "notoserifmalayalam", "lohitmalayalam", "rachana", "meera", "kartika",
+                "nirmala", "arialuni"),
+        ARABIC('\u0628', "/fonts/NotoNaskhArabic-Regular.ttf", "/fonts/NotoNaskhArabic-Bold.ttf",
+                "notonaskharabic", "notosansarabic", "amiri", "scheherazade", "dejavusans", "arial", "tahoma",
+                "times");
+
+        /** A character every font used for the script must have. */
+        final char probe;
+        final String bundledRegular;
+        final String bundledBold;
+        /** File name prefixes, lower-case without separators, in order of preference. */
+        final String[] families;
+
+        Script(char probe, String bundledRegular, String bundledBold, String... families) {
+            this.probe = probe;
+            this.bundledRegular = bundledRegular;
+            this.bundledBold = bundledBold;
+            this.families = families;
+        }
+    }
+
+    private static FontRegistry instance;
+
+    /** Script and weight -> parsed font, empty if none was found. */
+    private final Map<String, Optional<TrueTypeFont>> fonts = new HashMap<>();
+    /** Fonts already embedded in a document, so each is added only once. */
+    private final Map<PDDocument, Map<String, PDFont>> embedded = new WeakHashMap<>();
+    private List<File> fontFiles;
+
+    private FontRegistry() {
+    }
+
+    public static synchronized FontRegistry getInstance() {
+        if (instance == null) {
+            instance = new FontRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Resolve the fonts certificates commonly need, e.g. in the background
+     * before the first certificate is printed.
+     */
+    public void preload() {
+        resolve(Script.LATIN, false);
+        resolve(Script.MALAYALAM, false);
+    }
+
+    /**
+     * The font to draw {@code text} with in {@code doc}: {@code standardFont}
+     * when it can encode the text, otherwise a Unicode font for the text's
+     * script with the same weight.
+     */
+    public PDFont fontFor(PDDocument doc, String text, PDType1Font standardFont) {
+        if (!needsUnicode(text)) {
+            return standardFont;
+        }
+        boolean bold = standardFont.getName().contains("Bold");
+        return getFont(doc, scriptOf(text), bold);
+    }
+
+    /**
+     * A Unicode font for the script, embedded in {@code doc}; Times when no
+     * font is available.
+     */
+    public PDFont getFont(PDDocument doc, Script script, boolean bold) {
+        String key = script + (bold ? "-bold" : "");
+        synchronized (embedded) {
+            PDFont font = embedded.computeIfAbsent(doc, d -> new HashMap<>()).get(key);
+            if (font != null) {
+                return font;
+            }
+        }
+        TrueTypeFont ttf = resolve(script, bold);
+        PDFont font;
+        if (ttf == null) {
+            font = bold ? PDType1Font.TIMES_BOLD : PDType1Font.TIMES_ROMAN;
+        } else {
+            try {
+                font = PDType0Font.load(doc, ttf, true);
+            } catch (IOException e) {
+                System.err.println("Failed to embed font for " + script + ": " + e.getMessage());
+                font = bold ? PDType1Font.TIMES_BOLD : PDType1Font.TIMES_ROMAN;
+            }
+        }
+        synchronized (embedded) {
+            embedded.get(doc).put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * True if the text has characters outside Latin-1, which the standard
+     * fonts cannot encode.
+     */
+    public static boolean needsUnicode(String text) {
+        if (text == null)
+            return false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c > 0x7F && !(c >= 0xA0 && c <= 0xFF)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The first Malayalam or Arabic script found in the text, otherwise Latin.
+     */
+    public static Script scriptOf(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0D00 && c <= 0x0D7F) {
+                return Script.MALAYALAM;
+            }
+            if ((c >= 0x0600 && c <= 0x06FF) || (c >= 0x0750 && c <= 0x077F)
+                    || (c >= 0xFB50 && c <= 0xFDFF) || (c >= 0xFE70 && c <= 0xFEFF)) {
+                return Script.ARABIC;
+            }
+        }
+        return Script.LATIN;
+    }
+
+    private synchronized TrueTypeFont resolve(Script script, boolean bold) {
+        String key = script + (bold ? "-bold" : "");
+        Optional<TrueTypeFont> font = fonts.get(key);
+        if (font == null) {
+            TrueTypeFont found = find(script, bold);
+            if (found == null && bold) {
+                found = resolve(script, false);
+            }
+            if (found == null && script == Script.MALAYALAM && !bold) {
+                printMissingMalayalamFont();
+            }
+            if (found == null && script != Script.LATIN) {
+                found = resolve(Script.LATIN, bold);
+            }
+            font = Optional.ofNullable(found);
+            fonts.put(key, font);
+        }
+        return font.orElse(null);
+    }
+
+    private TrueTypeFont find(Script script, boolean bold) {
+        // Bundled with the application
+        try (InputStream in = FontRegistry.class
+                .getResourceAsStream(bold ? script.bundledBold : script.bundledRegular)) {
+            if (in != null) {
+                TrueTypeFont ttf = parse(in, script);
+                if (ttf != null) {
+                    System.out.println("Loaded bundled font for " + script + ": "
+                            + (bold ? script.bundledBold : script.bundledRegular));
+                    return ttf;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load bundled font for " + script + ": " + e.getMessage());
+        }
+
+        // fonts directory, then the system's, by family preference
+        List<File> files = getFontFiles();
+        for (String family : script.families) {
+            List<File> candidates = new ArrayList<>();
+            for (File file : files) {
+                String name = normalizedName(file);
+                if (name.startsWith(family) && name.contains("bold") == bold && !name.contains("italic")
+                        && !name.contains("oblique")) {
+                    candidates.add(file);
+                }
+            }
+            // Plain family before its variants (DejaVuSans before DejaVuSansMono)
+            candidates.sort(Comparator.comparingInt(file -> file.getName().length()));
+            for (File file : candidates) {
+                TrueTypeFont ttf = load(file, script);
+                if (ttf != null) {
+                    return ttf;
+                }
+            }
+        }
+
+        // Any font the user dropped into the fonts directory
+        File localDir = new File("fonts").getAbsoluteFile();
+        for (File file : files) {
+            if (localDir.equals(file.getAbsoluteFile().getParentFile())
+                    && normalizedName(file).contains("bold") == bold) {
+                TrueTypeFont ttf = load(file, script);
+                if (ttf != null) {
+                    return ttf;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static TrueTypeFont load(File file, Script script) {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            TrueTypeFont ttf = parse(in, script);
+            if (ttf != null) {
+                System.out.println("Loaded font for " + script + ": " + file.getAbsolutePath());
+            }
+            return ttf;
+        } catch (IOException e) {
+            System.err.println("Failed to load font file " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String normalizedName(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).replaceAll("[ _-]", "");
+    }
+
+    /**
+     * Parse a font into memory; null if it has no glyph for the script.
+     */
+    private static TrueTypeFont parse(InputStream in, Script script) throws IOException {
+        TrueTypeFont ttf = new TTFParser().parse(in);
+        CmapLookup cmap = ttf.getUnicodeCmapLookup(false);
+        if (cmap != null && cmap.getGlyphId(script.probe) > 0) {
+            return ttf;
+        }
+        ttf.close();
+        return null;
+    }
+
+    /**
+     * TTF/OTF files in the fonts directory and the system font directories,
+     * listed once.
+     */
+    private List<File> getFontFiles() {
+        if (fontFiles == null) {
+            fontFiles = new ArrayList<>();
+            List<File> dirs = new ArrayList<>();
+            dirs.add(new File("fonts"));
+            String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+            String home = System.getProperty("user.home");
+            if (os.contains("win")) {
+                String winDir = System.getenv("WINDIR");
+                dirs.add(new File(winDir != null ? winDir + "\\Fonts" : "C:\\Windows\\Fonts"));
+                dirs.add(new File(home + "\\AppData\\Local\\Microsoft\\Windows\\Fonts"));
+            } else if (os.contains("mac")) {
+                dirs.add(new File("/Library/Fonts"));
+                dirs.add(new File("/System/Library/Fonts"));
+                dirs.add(new File(home + "/Library/Fonts"));
+            } else {
+                dirs.add(new File("/usr/share/fonts"));
+                dirs.add(new File("/usr/local/share/fonts"));
+                dirs.add(new File(home + "/.fonts"));
+                dirs.add(new File(home + "/.local/share/fonts"));
+            }
+            for (File dir : dirs) {
+                collectFontFiles(dir, 4);
+            }
+        }
+        return fontFiles;
+    }
+
+    private void collectFontFiles(File dir, int depth) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            if (file.isDirectory()) {
+                if (depth > 0) {
+                    collectFontFiles(file, depth - 1);
+                }
+            } else if (name.endsWith(".ttf") || name.endsWith(".otf")) {
+                fontFiles.add(file);
+            }
+        }
+    }
+
+    private static void printMissingMalayalamFont() {
+        System.err.println("========================================");
+        System.err.println("WARNING: No Malayalam font found!");
+        System.err.println("Malayalam text will NOT display correctly in PDF.");
+        System.err.println("========================================");
+        System.err.println("SOLUTION:");
+        System.err.println("1. Run: download_malayalam_font.bat");
+        System.err.println("   OR");
+        System.err.println("2. Download from: https://fonts.google.com/noto/specimen/Noto+Sans+Malayalam");
+        System.err.println("3. Copy 'NotoSansMalayalam-Regular.ttf' to: " + new File("fonts").getAbsolutePath());
+        System.err.println("========================================");
+    }
+}
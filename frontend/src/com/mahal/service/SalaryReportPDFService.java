@@ -53,10 +53,7 @@ public class SalaryReportPDFService {
 
             currentY -= 15;
             // Report Info Bar
-            cs.setFont(PDType1Font.HELVETICA, 9);
             cs.setNonStrokingColor(new Color(107, 114, 128)); // Slate 500
-            cs.beginText();
-            cs.newLineAtOffset(MARGIN, currentY);
             String info = "Generated: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy"));
             if (from != null && to != null) {
                 info += "  |  Period: " + from.format(DateTimeFormatter.ofPattern("dd/MM/yy")) + " - "
@@ -65,6 +62,9 @@ public class SalaryReportPDFService {
             if (staffName != null && !staffName.isEmpty() && !staffName.equals("All Staff")) {
                 info += "  |  Filter: " + staffName;
             }
+            cs.setFont(FontRegistry.getInstance().fontFor(document, info, PDType1Font.HELVETICA), 9);
+            cs.beginText();
+            cs.newLineAtOffset(MARGIN, currentY);
             cs.showText(info);
             cs.endText();
 
@@ -76,7 +76,7 @@ public class SalaryReportPDFService {
                     "REMARKS" };
 
             // Draw Header Row
-            drawRow(cs, headers, colWidths, MARGIN, currentY, true, false);
+            drawRow(document, cs, headers, colWidths, MARGIN, currentY, true, false);
             currentY -= ROW_HEIGHT;
 
             // Data Rows
@@ -88,7 +88,7 @@ public class SalaryReportPDFService {
                     document.addPage(page);
                     cs = new PDPageContentStream(document, page);
                     currentY = PAGE_HEIGHT - MARGIN;
-                    drawRow(cs, headers, colWidths, MARGIN, currentY, true, false);
+                    drawRow(document, cs, headers, colWidths, MARGIN, currentY, true, false);
                     currentY -= ROW_HEIGHT;
                 }
 
@@ -104,7 +104,7 @@ public class SalaryReportPDFService {
                         truncate(sal.getRemarks(), 20)
                 };
 
-                drawRow(cs, rowData, colWidths, MARGIN, currentY, false, alternate);
+                drawRow(document, cs, rowData, colWidths, MARGIN, currentY, false, alternate);
                 currentY -= ROW_HEIGHT;
                 alternate = !alternate;
             }
@@ -114,7 +114,7 @@ public class SalaryReportPDFService {
         }
     }
 
-    private static void drawRow(PDPageContentStream cs, String[] data, float[] widths, float x, float y,
+    private static void drawRow(PDDocument document, PDPageContentStream cs, String[] data, float[] widths, float x, float y,
             boolean isHeader, boolean isShaded) throws IOException {
         // Draw background
         if (isHeader) {
@@ -142,10 +142,12 @@ public class SalaryReportPDFService {
         // Draw text
         float currentX = x + 5;
         cs.setNonStrokingColor(isHeader ? Color.BLACK : new Color(31, 41, 55)); // Gray 800
-        cs.setFont(isHeader ? PDType1Font.HELVETICA_BOLD : PDType1Font.HELVETICA,
-                isHeader ? FONT_SIZE_HEADER : FONT_SIZE_DATA);
+        PDType1Font standardFont = isHeader ? PDType1Font.HELVETICA_BOLD : PDType1Font.HELVETICA;
+        float fontSize = isHeader ? FONT_SIZE_HEADER : FONT_SIZE_DATA;
 
         for (int i = 0; i < data.length; i++) {
+            // Names and remarks may be in Malayalam or Arabic
+            cs.setFont(FontRegistry.getInstance().fontFor(document, data[i], standardFont), fontSize);
             cs.beginText();
             cs.newLineAtOffset(currentX, y);
             cs.showText(data[i]);
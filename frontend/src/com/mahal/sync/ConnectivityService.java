@@ -1,7 +1,7 @@
 package com.mahal.sync;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
+import com.mahal.util.SharedHttpClient;
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -65,16 +65,12 @@ public class ConnectivityService {
      */
     private boolean testConnection() {
         try {
-            URL url = new URL(TEST_URL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("HEAD");
-            connection.setConnectTimeout(20000); // 20 seconds timeout for slow connections
-            connection.setReadTimeout(20000); // 20 seconds read timeout
-            connection.connect();
-            
-            int responseCode = connection.getResponseCode();
-            connection.disconnect();
-            
+            // 20 seconds timeout for slow connections
+            int responseCode = SharedHttpClient.getInstance().send(
+                    SharedHttpClient.request("HEAD", TEST_URL).timeout(Duration.ofSeconds(20))
+                            .deadline(Duration.ofSeconds(20)))
+                    .getStatusCode();
+
             return responseCode == 200;
         } catch (Exception e) {
             // Connectivity test failed - may be due to slow connection
@@ -1,11 +1,7 @@
 package com.mahal.sync;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import com.mahal.util.SharedHttpClient;
+import java.time.Duration;
 import java.time.Instant;
 import java.io.IOException;
 
@@ -21,8 +17,7 @@ public class EnhancedSupabaseSyncService {
     private SupabaseConfig config;
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_RETRY_DELAY_MS = 1000; // 1 second
-    private static final int CONNECT_TIMEOUT_MS = 30000;
-    private static final int READ_TIMEOUT_MS = 30000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
 
     private EnhancedSupabaseSyncService() {
         this.config = SupabaseConfig.getInstance();
@@ -85,23 +80,17 @@ public class EnhancedSupabaseSyncService {
 
         return executeWithRetry(() -> {
             try {
-                URL url = new URL(getUrl() + "/rest/v1/" + tableName);
-                HttpURLConnection conn = createConnection(url, "POST");
-                conn.setDoOutput(true);
+                SharedHttpClient.Response response = send(
+                        createRequest(getUrl() + "/rest/v1/" + tableName, "POST").body(finalJsonData));
 
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = finalJsonData.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-
-                int responseCode = conn.getResponseCode();
+                int responseCode = response.getStatusCode();
                 if (responseCode == 201 || responseCode == 200) {
                     return SyncResult.success();
                 } else if (responseCode == 409) {
                     // Duplicate key - record already exists, treat as success
                     return SyncResult.success("Record already exists");
                 } else {
-                    String errorMsg = readErrorResponse(conn);
+                    String errorMsg = errorMessage(response);
                     return SyncResult.failure("HTTP " + responseCode + ": " + errorMsg);
                 }
             } catch (IOException e) {
@@ -132,20 +121,15 @@ public class EnhancedSupabaseSyncService {
         return executeWithRetry(() -> {
             try {
                 // Filter only by ID for update to comply with PostgREST constraints
-                URL url = new URL(getUrl() + "/rest/v1/" + tableName + "?id=eq." + recordId);
-                HttpURLConnection conn = createConnection(url, "PUT");
-                conn.setDoOutput(true);
+                SharedHttpClient.Response response = send(
+                        createRequest(getUrl() + "/rest/v1/" + tableName + "?id=eq." + recordId, "PUT")
+                                .body(finalJsonData));
 
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = finalJsonData.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-
-                int responseCode = conn.getResponseCode();
+                int responseCode = response.getStatusCode();
                 if (responseCode == 200 || responseCode == 204) {
                     return SyncResult.success();
                 } else {
-                    String errorMsg = readErrorResponse(conn);
+                    String errorMsg = errorMessage(response);
                     return SyncResult.failure("HTTP " + responseCode + ": " + errorMsg);
                 }
             } catch (IOException e) {
@@ -172,14 +156,14 @@ public class EnhancedSupabaseSyncService {
         return executeWithRetry(() -> {
             try {
                 // Filter only by ID for delete to comply with PostgREST constraints
-                URL url = new URL(getUrl() + "/rest/v1/" + tableName + "?id=eq." + recordId);
-                HttpURLConnection conn = createConnection(url, "DELETE");
+                SharedHttpClient.Response response = send(
+                        createRequest(getUrl() + "/rest/v1/" + tableName + "?id=eq." + recordId, "DELETE"));
 
-                int responseCode = conn.getResponseCode();
+                int responseCode = response.getStatusCode();
                 if (responseCode == 200 || responseCode == 204) {
                     return SyncResult.success();
                 } else {
-                    String errorMsg = readErrorResponse(conn);
+                    String errorMsg = errorMessage(response);
                     return SyncResult.failure("HTTP " + responseCode + ": " + errorMsg);
                 }
             } catch (IOException e) {
@@ -219,15 +203,14 @@ public class EnhancedSupabaseSyncService {
             // Order by updated_at ascending
             query += "&order=updated_at.asc";
 
-            URL url = new URL(getUrl() + "/rest/v1/" + tableName + "?" + query);
-            HttpURLConnection conn = createConnection(url, "GET");
+            SharedHttpClient.Response response = send(
+                    createRequest(getUrl() + "/rest/v1/" + tableName + "?" + query, "GET"));
 
-            int responseCode = conn.getResponseCode();
+            int responseCode = response.getStatusCode();
             if (responseCode == 200) {
-                String responseBody = readResponse(conn);
-                return DownloadResult.success(responseBody);
+                return DownloadResult.success(response.getBody());
             } else {
-                String errorMsg = readErrorResponse(conn);
+                String errorMsg = errorMessage(response);
                 return DownloadResult.failure("HTTP " + responseCode + ": " + errorMsg);
             }
         } catch (IOException e) {
@@ -238,27 +221,23 @@ public class EnhancedSupabaseSyncService {
     }
 
     /**
-     * Create HTTP connection with proper headers and JWT.
+     * Create HTTP request with proper headers and JWT.
      */
-    private HttpURLConnection createConnection(URL url, String method) throws Exception {
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setRequestProperty("apikey", getApiKey());
-
+    private SharedHttpClient.Request createRequest(String url, String method) {
         // Use JWT token if available (user context), otherwise fall back to API key
         String jwtToken = UserContext.getJwtToken();
-        if (jwtToken != null && !jwtToken.isEmpty()) {
-            conn.setRequestProperty("Authorization", "Bearer " + jwtToken);
-        } else {
-            conn.setRequestProperty("Authorization", "Bearer " + getApiKey());
-        }
-
-        conn.setRequestProperty("Prefer", "return=representation");
-        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
-        conn.setReadTimeout(READ_TIMEOUT_MS);
+        String bearer = jwtToken != null && !jwtToken.isEmpty() ? jwtToken : getApiKey();
+
+        return SharedHttpClient.request(method, url)
+                .header("Content-Type", "application/json")
+                .header("apikey", getApiKey())
+                .header("Authorization", "Bearer " + bearer)
+                .header("Prefer", "return=representation")
+                .timeout(REQUEST_TIMEOUT);
+    }
 
-        return conn;
+    private static SharedHttpClient.Response send(SharedHttpClient.Request request) throws IOException {
+        return SharedHttpClient.getInstance().send(request);
     }
 
     /**
@@ -308,41 +287,17 @@ public class EnhancedSupabaseSyncService {
         if (error == null)
             return false;
         // Retry on network errors, 5xx server errors, 429 rate limit
-        return error.contains("timeout") ||
-                error.contains("connection") ||
+        String lower = error.toLowerCase();
+        return lower.contains("timeout") ||
+                lower.contains("timed out") ||
+                lower.contains("connection") ||
                 error.contains("HTTP 5") ||
                 error.contains("HTTP 429");
     }
 
-    private String readResponse(HttpURLConnection conn) throws Exception {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            return response.toString();
-        }
-    }
-
-    private String readErrorResponse(HttpURLConnection conn) {
-        try {
-            if (conn.getErrorStream() != null) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                    StringBuilder error = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        error.append(line);
-                    }
-                    return error.toString();
-                }
-            }
-        } catch (Exception e) {
-            // Ignore
-        }
-        return "Unknown error";
+    private String errorMessage(SharedHttpClient.Response response) {
+        String body = response.getBody();
+        return body != null && !body.isEmpty() ? body : "Unknown error";
     }
 
     /**
@@ -22,6 +22,21 @@ public class JsonUtil {
         return toJson(obj, new IdentityHashMap<>());
     }
     
+    /**
+     * Convert a record (model object or Map) to a JSON object string whose
+     * "user_id" is {@code userId}, replacing any user_id the record has.
+     */
+    public static String toJson(Object obj, String userId) {
+        if (obj instanceof Map) {
+            Map<Object, Object> copy = new java.util.LinkedHashMap<>((Map<?, ?>) obj);
+            copy.put("user_id", userId);
+            return toJson(copy);
+        }
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        visited.put(obj, Boolean.TRUE);
+        return objectToJson(obj, visited, userId);
+    }
+    
     private static String toJson(Object obj, Map<Object, Boolean> visited) {
         if (obj == null) {
             return "null";
@@ -118,10 +133,18 @@ public class JsonUtil {
     }
     
     private static String objectToJson(Object obj, Map<Object, Boolean> visited) {
+        return objectToJson(obj, visited, null);
+    }
+    
+    private static String objectToJson(Object obj, Map<Object, Boolean> visited, String userId) {
         StringBuilder sb = new StringBuilder("{");
         Class<?> clazz = obj.getClass();
         Field[] fields = clazz.getDeclaredFields();
         boolean first = true;
+        if (userId != null) {
+            sb.append("\"user_id\":").append(toJson(userId, visited));
+            first = false;
+        }
         
         for (Field field : fields) {
             // Skip static and synthetic fields
@@ -143,13 +166,16 @@ public class JsonUtil {
                 Object value = field.get(obj);
                 
                 if (value != null) {
+                    // Convert Java camelCase field names to snake_case for Supabase
+                    // Handle special cases for field name mapping
+                    String dbColumnName = getDbColumnName(fieldName, obj);
+                    if (userId != null && "user_id".equals(dbColumnName)) {
+                        continue;
+                    }
                     if (!first) {
                         sb.append(",");
                     }
                     first = false;
-                    // Convert Java camelCase field names to snake_case for Supabase
-                    // Handle special cases for field name mapping
-                    String dbColumnName = getDbColumnName(fieldName, obj);
                     sb.append("\"").append(dbColumnName).append("\":");
                     sb.append(toJson(value, visited));
                 }
@@ -91,6 +91,48 @@ public class SupabaseConfig {
         saveConfig();
     }
 
+    /**
+     * Maximum number of records pushed to Supabase in one request
+     * (sync.batch.size, default 500).
+     */
+    public int getSyncBatchSize() {
+        return getPositiveInt("sync.batch.size", 500);
+    }
+
+    /**
+     * Quiet time after the last local change before a sync starts
+     * (sync.debounce.ms, default 500).
+     */
+    public long getSyncDebounceMillis() {
+        return getPositiveInt("sync.debounce.ms", 500);
+    }
+
+    /**
+     * Longest a sync waits for changes to stop coming in (sync.max.delay.ms,
+     * default 5000).
+     */
+    public long getSyncMaxDelayMillis() {
+        return getPositiveInt("sync.max.delay.ms", 5000);
+    }
+
+    /**
+     * Maximum number of queued operations pushed per sync run; a sync starts
+     * right away once this many changes are waiting (sync.flush.limit,
+     * default 2000).
+     */
+    public int getSyncFlushLimit() {
+        return getPositiveInt("sync.flush.limit", 2000);
+    }
+
+    private int getPositiveInt(String key, int defaultValue) {
+        try {
+            int value = Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     /**
      * Get Razorpay Key ID.
      */
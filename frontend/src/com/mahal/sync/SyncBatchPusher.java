@@ -0,0 +1,305 @@
+package com.mahal.sync;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Pushes queued operations to Supabase in bulk, at most {@code batchSize}
+ * records per request:
+ * <ul>
+ * <li>consecutive INSERTs of a table with the same columns are sent as one
+ * JSON array upsert (on_conflict=id, merge-duplicates);</li>
+ * <li>consecutive UPDATEs of a table with the same columns cost two requests:
+ * one select=id&amp;id=in.(...) for the records that still exist remotely, then
+ * one array upsert of those, so a record deleted remotely is not created
+ * again;</li>
+ * <li>consecutive DELETEs of a table are sent as one id=in.(...) request.</li>
+ * </ul>
+ *
+ * Queue order is kept across tables: only consecutive operations are batched,
+ * and the open batch is sent as soon as an operation that does not fit it
+ * comes in (so e.g. a parent insert always reaches the server before its
+ * child's). PostgREST applies a request atomically, so a rejected batch is
+ * split in halves until the offending rows are found and every operation is
+ * marked synced or failed on its own.
+ */
+class SyncBatchPusher {
+    private enum Kind {
+        UPSERT, UPDATE, DELETE
+    }
+
+    private final SupabaseSyncService supabaseService;
+    private final SyncQueueDAO syncQueueDAO;
+    private final int batchSize;
+
+    /** The batch being filled, null if none. */
+    private Batch current;
+    /** record_id of every operation in the current batch. */
+    private final Set<String> currentRecords = new HashSet<>();
+    private int synced;
+    private int failed;
+
+    /**
+     * Consecutive operations of one kind on one table. Upserts and updates
+     * share their columns, updates and deletes their user.
+     */
+    private static final class Batch {
+        final String tableName;
+        final Kind kind;
+        final String userId;
+        final String columns;
+        final List<SyncOperation> ops = new ArrayList<>();
+        final List<JSONObject> rows = new ArrayList<>();
+
+        Batch(String tableName, Kind kind, String userId, String columns) {
+            this.tableName = tableName;
+            this.kind = kind;
+            this.userId = userId;
+            this.columns = columns;
+        }
+
+        boolean accepts(String tableName, Kind kind, String userId, String columns) {
+            if (!this.tableName.equals(tableName) || this.kind != kind) {
+                return false;
+            }
+            switch (kind) {
+                case UPSERT:
+                    return this.columns.equals(columns);
+                case UPDATE:
+                    return this.userId.equals(userId) && this.columns.equals(columns);
+                default:
+                    return this.userId.equals(userId);
+            }
+        }
+
+        void add(SyncOperation op, JSONObject row) {
+            ops.add(op);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+    }
+
+    SyncBatchPusher(SupabaseSyncService supabaseService, SyncQueueDAO syncQueueDAO, int batchSize) {
+        this.supabaseService = supabaseService;
+        this.syncQueueDAO = syncQueueDAO;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Push the operations, in queue order, and mark each one synced or failed.
+     */
+    void push(List<SyncOperation> ops) {
+        long start = System.currentTimeMillis();
+        for (SyncOperation op : ops) {
+            String userId = op.getUserId();
+            if (userId == null || userId.isEmpty()) {
+                System.err.println("ERROR: No user_id for sync operation " + op.getId() + " (table: "
+                        + op.getTableName() + ", operation: " + op.getOperation() + ")");
+                fail(op, "no user_id");
+                continue;
+            }
+
+            // Subscriptions are keyed by user rather than id; keep them on the single-row calls
+            if ("subscriptions".equals(op.getTableName())) {
+                flush();
+                pushSingle(op, userId);
+                continue;
+            }
+
+            Kind kind;
+            switch (op.getOperation()) {
+                case "DELETE":
+                    kind = Kind.DELETE;
+                    break;
+                case "UPDATE":
+                    kind = Kind.UPDATE;
+                    break;
+                default:
+                    kind = Kind.UPSERT;
+                    break;
+            }
+
+            JSONObject json = null;
+            String columns = null;
+            if (kind != Kind.DELETE) {
+                // The payload already carries user_id; it is parsed only to build the request
+                try {
+                    json = new JSONObject(op.getData());
+                } catch (Exception e) {
+                    fail(op, "invalid JSON data: " + e.getMessage());
+                    continue;
+                }
+                if (!json.has("id") && op.getRecordId() != null) {
+                    json.put("id", op.getRecordId());
+                }
+                // Rows of one array upsert must have the same keys
+                columns = String.join(",", new TreeSet<>(json.keySet()));
+            }
+
+            String recordId = String.valueOf(op.getRecordId());
+            if (current != null && (currentRecords.contains(recordId)
+                    || !current.accepts(op.getTableName(), kind, userId, columns))) {
+                flush();
+            }
+            if (current == null) {
+                current = new Batch(op.getTableName(), kind, userId, columns);
+            }
+            current.add(op, json);
+            currentRecords.add(recordId);
+            if (current.ops.size() >= batchSize) {
+                flush();
+            }
+        }
+        flush();
+        System.out.println("Pushed " + ops.size() + " sync operations in " + (System.currentTimeMillis() - start)
+                + " ms: " + synced + " synced, " + failed + " failed");
+    }
+
+    int getSynced() {
+        return synced;
+    }
+
+    int getFailed() {
+        return failed;
+    }
+
+    private void flush() {
+        if (current != null) {
+            Batch batch = current.kind == Kind.UPDATE ? existing(current) : current;
+            if (batch != null && !batch.ops.isEmpty()) {
+                send(batch, 0, batch.ops.size());
+            }
+            current = null;
+            currentRecords.clear();
+        }
+    }
+
+    /**
+     * The part of an update batch whose records still exist remotely. Updates
+     * of records deleted there are marked synced without being sent, as a
+     * PATCH would have matched nothing. Returns null, with every operation
+     * failed, if the lookup failed.
+     */
+    private Batch existing(Batch batch) {
+        List<String> ids = new ArrayList<>(batch.ops.size());
+        for (SyncOperation op : batch.ops) {
+            ids.add(String.valueOf(op.getRecordId()));
+        }
+        Set<String> existingIds = supabaseService.fetchExistingIds(batch.tableName, ids, batch.userId);
+        if (existingIds == null) {
+            for (SyncOperation op : batch.ops) {
+                fail(op, "could not check which records exist");
+            }
+            return null;
+        }
+
+        Batch result = new Batch(batch.tableName, batch.kind, batch.userId, batch.columns);
+        List<SyncOperation> gone = new ArrayList<>();
+        for (int i = 0; i < batch.ops.size(); i++) {
+            if (existingIds.contains(ids.get(i))) {
+                result.add(batch.ops.get(i), batch.rows.get(i));
+            } else {
+                gone.add(batch.ops.get(i));
+            }
+        }
+        if (!gone.isEmpty()) {
+            markSynced(gone);
+            System.out.println("Skipped " + gone.size() + " updates of records deleted remotely from " + batch.tableName);
+        }
+        return result;
+    }
+
+    /**
+     * Send ops [from, to) of the batch; on rejection, each half on its own.
+     */
+    private void send(Batch batch, int from, int to) {
+        SupabaseSyncService.BulkResponse response;
+        if (batch.kind != Kind.DELETE) {
+            response = supabaseService.upsertMany(batch.tableName, new JSONArray(batch.rows.subList(from, to)), "id");
+        } else {
+            List<String> ids = new ArrayList<>();
+            for (SyncOperation op : batch.ops.subList(from, to)) {
+                ids.add(String.valueOf(op.getRecordId()));
+            }
+            response = supabaseService.deleteMany(batch.tableName, ids, batch.userId);
+        }
+
+        if (response.isSuccess()) {
+            markSynced(batch.ops.subList(from, to));
+            String label = batch.kind == Kind.UPSERT ? " upserts" : batch.kind == Kind.UPDATE ? " updates" : " deletes";
+            System.out.println("✓ Synced " + (to - from) + label + " for " + batch.tableName);
+        } else if (response.isRejected() && to - from > 1) {
+            int middle = (from + to) >>> 1;
+            send(batch, from, middle);
+            send(batch, middle, to);
+        } else {
+            for (SyncOperation op : batch.ops.subList(from, to)) {
+                fail(op, response.getError());
+            }
+        }
+    }
+
+    private void pushSingle(SyncOperation op, String userId) {
+        boolean success = false;
+        try {
+            switch (op.getOperation()) {
+                case "INSERT":
+                    success = supabaseService.insert(op.getTableName(), op.getData(), userId);
+                    break;
+                case "UPDATE":
+                    success = supabaseService.update(op.getTableName(), String.valueOf(op.getRecordId()),
+                            op.getData(), userId);
+                    break;
+                case "DELETE":
+                    success = supabaseService.delete(op.getTableName(), String.valueOf(op.getRecordId()), userId);
+                    break;
+            }
+        } catch (Exception e) {
+            System.err.println("Error syncing operation " + op.getId() + ": " + e.getMessage());
+        }
+        if (success) {
+            markSynced(List.of(op));
+        } else {
+            fail(op, "request failed");
+        }
+    }
+
+    /**
+     * Mark pushed operations synced. The updates are queued together (one
+     * group commit) and awaited, so an operation whose status could not be
+     * recorded is counted as failed rather than synced.
+     */
+    private void markSynced(List<SyncOperation> ops) {
+        List<CompletableFuture<Integer>> marks = new ArrayList<>(ops.size());
+        for (SyncOperation op : ops) {
+            marks.add(syncQueueDAO.markAsSynced(op.getId()));
+        }
+        for (CompletableFuture<Integer> mark : marks) {
+            try {
+                mark.join();
+                synced++;
+            } catch (CompletionException e) {
+                failed++;
+            }
+        }
+    }
+
+    private void fail(SyncOperation op, String error) {
+        try {
+            syncQueueDAO.markAsFailed(op.getId(), error).join();
+        } catch (CompletionException e) {
+            // Logged by SyncQueueDAO
+        }
+        failed++;
+        System.err.println("✗ Failed to sync " + op.getOperation() + " operation " + op.getId() + " for table: "
+                + op.getTableName() + ", record ID: " + op.getRecordId() + ": " + error);
+    }
+}
@@ -0,0 +1,180 @@
+package com.mahal.sync;
+
+import com.mahal.util.EventBus;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Runs sync flushes one at a time on a single background thread, however
+ * many components ask for one.
+ *
+ * Requests are debounced: a flush starts once no request has come in for the
+ * debounce window, but never later than the maximum delay after the first
+ * request, or right away once a full batch of requests is waiting. Requests
+ * made during a flush schedule one more flush after it. A flush that fails
+ * as a whole (e.g. offline) puts the dispatcher in backoff, retrying after
+ * 5s, doubling up to 5 minutes.
+ *
+ * State changes are published on the {@link EventBus} topic
+ * {@link #EVENT_TOPIC} with the state name as message.
+ */
+public class SyncDispatcher {
+    public static final String EVENT_TOPIC = "sync_state";
+
+    public enum State {
+        /** Nothing to do. */
+        IDLE,
+        /** A flush is scheduled (debouncing). */
+        SCHEDULED,
+        /** A flush is running. */
+        RUNNING,
+        /** The last flush failed; waiting to retry. */
+        BACKOFF
+    }
+
+    /** Outcome of one flush. */
+    public enum Outcome {
+        /** Everything due was pushed (or nothing was due). */
+        DONE,
+        /** The flush hit its batch limit; more is due. */
+        MORE,
+        /** Nothing could be pushed. */
+        FAILED
+    }
+
+    private static final long MIN_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 300_000;
+
+    private final IntFunction<Outcome> flush;
+    private final long debounceMs;
+    private final long maxDelayMs;
+    private final int maxBatch;
+    private final ScheduledExecutorService executor;
+
+    private State state = State.IDLE;
+    private ScheduledFuture<?> scheduled;
+    /** When the first request of the scheduled flush came in. */
+    private long firstRequestAt;
+    private int waitingRequests;
+    /** A request came in while a flush was running. */
+    private boolean requestedWhileRunning;
+    private int consecutiveFailures;
+
+    /**
+     * @param flush pushes at most the given number of queued operations
+     */
+    public SyncDispatcher(IntFunction<Outcome> flush, long debounceMs, long maxDelayMs, int maxBatch) {
+        this.flush = flush;
+        this.debounceMs = debounceMs;
+        this.maxDelayMs = maxDelayMs;
+        this.maxBatch = maxBatch;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mahal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Ask for a flush after the debounce window, e.g. after a local change.
+     */
+    public synchronized void request() {
+        long now = System.currentTimeMillis();
+        switch (state) {
+            case IDLE:
+                firstRequestAt = now;
+                waitingRequests = 1;
+                schedule(debounceMs, State.SCHEDULED);
+                break;
+            case SCHEDULED:
+                waitingRequests++;
+                long due = waitingRequests >= maxBatch ? now : Math.min(now + debounceMs, firstRequestAt + maxDelayMs);
+                schedule(Math.max(0, due - now), State.SCHEDULED);
+                break;
+            case RUNNING:
+                requestedWhileRunning = true;
+                break;
+            case BACKOFF:
+                // The retry picks it up
+                break;
+        }
+    }
+
+    /**
+     * Flush as soon as possible, e.g. on a manual sync or when the connection
+     * comes back; also ends a backoff.
+     */
+    public synchronized void requestNow() {
+        if (state == State.RUNNING) {
+            requestedWhileRunning = true;
+            return;
+        }
+        consecutiveFailures = 0;
+        firstRequestAt = System.currentTimeMillis();
+        schedule(0, State.SCHEDULED);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(long delayMs, State next) {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(this::run, delayMs, TimeUnit.MILLISECONDS);
+        setState(next);
+    }
+
+    private void run() {
+        synchronized (this) {
+            scheduled = null;
+            requestedWhileRunning = false;
+            waitingRequests = 0;
+            setState(State.RUNNING);
+        }
+
+        Outcome outcome;
+        try {
+            outcome = flush.apply(maxBatch);
+        } catch (Exception e) {
+            System.err.println("Sync flush failed: " + e.getMessage());
+            e.printStackTrace();
+            outcome = Outcome.FAILED;
+        }
+
+        synchronized (this) {
+            if (outcome == Outcome.FAILED) {
+                consecutiveFailures++;
+                long backoff = Math.min(MAX_BACKOFF_MS, MIN_BACKOFF_MS << Math.min(consecutiveFailures - 1, 10));
+                System.out.println("Sync failed; retrying in " + backoff / 1000 + "s");
+                schedule(backoff, State.BACKOFF);
+            } else {
+                consecutiveFailures = 0;
+                if (outcome == Outcome.MORE) {
+                    firstRequestAt = System.currentTimeMillis();
+                    schedule(0, State.SCHEDULED);
+                } else if (requestedWhileRunning) {
+                    firstRequestAt = System.currentTimeMillis();
+                    schedule(debounceMs, State.SCHEDULED);
+                } else {
+                    setState(State.IDLE);
+                }
+            }
+        }
+    }
+
+    private void setState(State next) {
+        if (state != next) {
+            state = next;
+            EventBus.getInstance().publish(EVENT_TOPIC, next.name());
+        }
+    }
+}
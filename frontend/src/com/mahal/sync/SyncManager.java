@@ -15,18 +15,27 @@ import java.util.concurrent.TimeUnit;
  * offline.
  */
 public class SyncManager {
+    /** Records queued per transaction by the initial sync. */
+    private static final int INITIAL_QUEUE_CHUNK = 500;
+    /** Downloaded records applied per transaction. */
+    private static final int DOWNLOAD_CHUNK = 500;
     private static SyncManager instance;
     private ConnectivityService connectivityService;
     private SupabaseSyncService supabaseService;
     private SyncQueueDAO syncQueueDAO;
     private ScheduledExecutorService scheduler;
-    private boolean isSyncing = false;
+    private final SyncDispatcher dispatcher;
     private static final int SYNC_INTERVAL_SECONDS = 60; // Sync every minute when online
 
     private SyncManager() {
         this.connectivityService = ConnectivityService.getInstance();
         this.supabaseService = SupabaseSyncService.getInstance();
         this.syncQueueDAO = new SyncQueueDAO();
+        syncQueueDAO.resetInterruptedOperations();
+
+        SupabaseConfig config = SupabaseConfig.getInstance();
+        this.dispatcher = new SyncDispatcher(this::flushPendingOperations, config.getSyncDebounceMillis(),
+                config.getSyncMaxDelayMillis(), config.getSyncFlushLimit());
 
         // Listen for connectivity changes
         connectivityService.setConnectivityListener(this::onConnectivityChanged);
@@ -53,6 +62,14 @@ public class SyncManager {
      * Queue an operation for sync (called by DAOs when data changes).
      */
     public void queueOperation(String tableName, String operation, Long recordId, Object data) {
+        queueOperation(tableName, operation, recordId, data, true);
+    }
+
+    /**
+     * Queue a sync operation; {@code verbose} false skips the per-operation log
+     * lines, for bulk queueing.
+     */
+    private void queueOperation(String tableName, String operation, Long recordId, Object data, boolean verbose) {
         try {
             // Check if this operation for this record is already in the queue or has been
             // synced
@@ -63,123 +80,66 @@ public class SyncManager {
                     return;
                 }
             }
-            // If data is already a JSONObject, convert it to string directly
-            // Otherwise, use JsonUtil.toJson() for other types
-            String jsonData;
-            if (data instanceof org.json.JSONObject) {
-                jsonData = ((org.json.JSONObject) data).toString();
-            } else {
-                jsonData = JsonUtil.toJson(data);
-            }
-
-            // Always ensure user_id is included in the JSON
-            // Parse JSON, add user_id if missing, then convert back to string
-            String userId = null;
-            try {
-                org.json.JSONObject json = new org.json.JSONObject(jsonData);
 
-                // For "admins" table, use the user_id from the JSON (admin user_id = admin id)
+            String userId;
+            if ("admins".equals(tableName) || "subscriptions".equals(tableName)) {
+                // For "admins" table, use the user_id from the data (admin user_id = admin id)
                 // This allows queuing during registration when no user is logged in
                 // "subscriptions" table also needs this to create initial pending subscription
-                if ("admins".equals(tableName) || "subscriptions".equals(tableName)) {
-                    if (json.has("user_id") && !json.isNull("user_id")) {
-                        // Use the provided user_id from JSON
-                        userId = String.valueOf(json.get("user_id")).trim();
-                        System.out.println("Queued sync operation for table: " + tableName + ", operation: " + operation
-                                + ", using provided user_id: " + userId);
-                    } else {
-                        // If no user_id in JSON, try to use the recordId as user_id (for new admins)
-                        if (recordId != null) {
-                            userId = String.valueOf(recordId).trim();
-                            json.put("user_id", userId);
-                            System.out.println(
-                                    "Queued sync operation for table: " + tableName + ", operation: " + operation
-                                            + ", using recordId as user_id: " + userId);
-                        }
-                    }
-                } else {
-                    // For other tables, require a logged-in user
-                    com.mahal.util.SessionManager sessionManager = com.mahal.util.SessionManager.getInstance();
-                    com.mahal.model.User currentUser = sessionManager.getCurrentUser();
-
-                    if (currentUser == null || currentUser.getId() == null) {
-                        System.err.println(
-                                "Warning: Cannot queue sync operation for " + tableName + " - no user logged in");
-                        return; // Don't queue if no user context
-                    }
-
-                    // Ensure user_id is always a string (handle Long, Integer, String, etc.)
-                    userId = String.valueOf(currentUser.getId()).trim();
-                    if (userId == null || userId.isEmpty() || "null".equals(userId)) {
-                        System.err.println("ERROR: Invalid user_id from session: " + currentUser.getId());
-                        return;
-                    }
-                    // Always set user_id as string - this ensures it's present even if model
-                    // doesn't have the field
-                    json.put("user_id", userId);
-                    System.out.println("Queued sync operation for table: " + tableName + ", operation: " + operation
-                            + ", user_id: " + userId);
-                }
-                jsonData = json.toString();
-            } catch (Exception e) {
-                System.err.println("Error: Could not add user_id to JSON: " + e.getMessage());
-                e.printStackTrace();
-                // For admins and subscriptions, we can still try to queue if we have recordId
-                if (("admins".equals(tableName) || "subscriptions".equals(tableName)) && recordId != null) {
-                    try {
-                        org.json.JSONObject json = new org.json.JSONObject(jsonData);
-                        json.put("user_id", String.valueOf(recordId));
-                        jsonData = json.toString();
-                        userId = String.valueOf(recordId);
-                        System.out.println(
-                                "Queued sync operation for " + tableName + " with recordId as user_id: " + userId);
-                    } catch (Exception e2) {
-                        System.err.println("ERROR: Could not add user_id to admin JSON even with recordId");
-                        return; // Can't queue without user_id
-                    }
+                Object providedUserId = null;
+                if (data instanceof org.json.JSONObject) {
+                    providedUserId = ((org.json.JSONObject) data).opt("user_id");
+                } else if (data instanceof java.util.Map) {
+                    providedUserId = ((java.util.Map<?, ?>) data).get("user_id");
+                }
+                if (providedUserId != null && providedUserId != org.json.JSONObject.NULL) {
+                    userId = String.valueOf(providedUserId).trim();
                 } else {
-                    System.err.println("ERROR: Cannot queue sync operation without user_id");
-                    return; // Can't queue without user_id
+                    // If no user_id in the data, use the recordId as user_id (for new admins)
+                    userId = recordId != null ? String.valueOf(recordId) : null;
                 }
+            } else {
+                // For other tables, require a logged-in user
+                com.mahal.model.User currentUser = com.mahal.util.SessionManager.getInstance().getCurrentUser();
+                if (currentUser == null || currentUser.getId() == null) {
+                    System.err.println(
+                            "Warning: Cannot queue sync operation for " + tableName + " - no user logged in");
+                    return; // Don't queue if no user context
+                }
+                userId = String.valueOf(currentUser.getId()).trim();
             }
 
-            // Final check - ensure we have a valid userId
             if (userId == null || userId.isEmpty() || "null".equals(userId)) {
                 System.err.println("ERROR: No valid user_id available for queueing sync operation");
                 return;
             }
 
-            syncQueueDAO.queueOperation(tableName, operation, recordId, jsonData);
-
-            // Automatically trigger sync if online and configured
-            // Use a small delay to batch multiple rapid operations
-            new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        Thread.sleep(500); // Wait 500ms for potential batch operations
-                        if (supabaseService.isConfigured() && !isSyncing) {
-                            // Try to sync even if connectivity check fails (slow connections may work)
-                            boolean isConnected = connectivityService.isConnected();
-                            if (!isConnected) {
-                                System.out.println(
-                                        "Connectivity check failed, but attempting sync anyway (may work with slow connection)...");
-                            }
-                            syncPendingOperations();
-                        } else {
-                            if (!supabaseService.isConfigured()) {
-                                System.out.println(
-                                        "Sync queued but Supabase not configured. Sync will happen when Supabase is configured.");
-                            } else if (isSyncing) {
-                                System.out.println(
-                                        "Sync queued but sync already in progress. Will be processed shortly.");
-                            }
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
+            // Serialise once, with user_id always set (it is also stored in its own column)
+            String jsonData;
+            if (data instanceof org.json.JSONObject) {
+                org.json.JSONObject source = (org.json.JSONObject) data;
+                org.json.JSONObject json = new org.json.JSONObject();
+                for (String key : source.keySet()) {
+                    json.put(key, source.opt(key));
                 }
-            }).start();
+                json.put("user_id", userId);
+                jsonData = json.toString();
+            } else {
+                jsonData = JsonUtil.toJson(data, userId);
+            }
+            if (verbose) {
+                System.out.println("Queued sync operation for table: " + tableName + ", operation: " + operation
+                        + ", user_id: " + userId);
+            }
+
+            syncQueueDAO.queueOperation(tableName, operation, recordId, userId, jsonData);
+
+            // Rapid writes (imports, bulk edits) are coalesced into one debounced flush
+            if (supabaseService.isConfigured()) {
+                dispatcher.request();
+            } else if (verbose) {
+                System.out.println("Sync queued but Supabase not configured. Sync will happen when Supabase is configured.");
+            }
         } catch (Exception e) {
             System.err.println("Error queueing sync operation: " + e.getMessage());
             e.printStackTrace();
@@ -193,17 +153,8 @@ public class SyncManager {
     private void onConnectivityChanged(boolean isConnected) {
         if (isConnected && supabaseService.isConfigured()) {
             System.out.println("Internet connection restored. Automatically starting sync...");
-            // Small delay to ensure connection is stable
-            new Thread(() -> {
-                try {
-                    Thread.sleep(1000);
-                    if (!isSyncing) {
-                        syncPendingOperations();
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
+            // Debounced, so a flapping connection does not start a sync per change
+            dispatcher.request();
         } else if (!isConnected) {
             System.out.println(
                     "Internet connection lost. Operations will be automatically synced when connection is restored.");
@@ -215,22 +166,19 @@ public class SyncManager {
      * Automatically syncs every 60 seconds when conditions are met.
      */
     private void startPeriodicSync() {
-        scheduler = Executors.newScheduledThreadPool(1);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mahal-sync-periodic");
+            t.setDaemon(true);
+            return t;
+        });
         scheduler.scheduleAtFixedRate(
                 () -> {
                     // Proceed with sync if configured, even if connectivity check fails
                     // (slow connections may cause false negatives, actual sync will handle errors)
-                    if (!isSyncing && supabaseService.isConfigured()) {
-                        List<SyncOperation> pendingOps = syncQueueDAO.getPendingOperations();
-                        if (!pendingOps.isEmpty()) {
-                            boolean isConnected = connectivityService.isConnected();
-                            if (!isConnected) {
-                                System.out.println(
-                                        "Periodic sync: Connectivity check failed, but attempting sync anyway (slow connection may work)...");
-                            }
-                            System.out.println("Periodic sync: Found " + pendingOps.size()
-                                    + " pending operations. Starting automatic sync...");
-                            syncPendingOperations();
+                    if (dispatcher.getState() == SyncDispatcher.State.IDLE && supabaseService.isConfigured()) {
+                        if (syncQueueDAO.hasDueOperations()) {
+                            System.out.println("Periodic sync: Found pending operations. Starting automatic sync...");
+                            dispatcher.request();
                             // TODO: Also sync down from Supabase periodically to get remote changes
                             // syncDownFromSupabase();
                         }
@@ -244,96 +192,62 @@ public class SyncManager {
     }
 
     /**
-     * Sync all pending operations.
+     * Sync all pending operations as soon as possible. The sync runs on the
+     * dispatcher's thread; a call during a running sync schedules one more.
      */
     public void syncPendingOperations() {
-        if (isSyncing) {
-            System.out.println("Sync already in progress, skipping...");
-            return; // Already syncing
+        if (!supabaseService.isConfigured()) {
+            System.out.println("Cannot sync: Supabase not configured");
+            return; // Supabase not configured
         }
+        dispatcher.requestNow();
+    }
 
-        boolean isConfigured = supabaseService.isConfigured();
+    /**
+     * State of the sync dispatcher, e.g. for a status indicator; changes are
+     * also published on the EventBus topic {@link SyncDispatcher#EVENT_TOPIC}.
+     */
+    public SyncDispatcher.State getSyncState() {
+        return dispatcher.getState();
+    }
 
-        if (!isConfigured) {
-            System.out.println("Cannot sync: Supabase not configured");
-            return; // Supabase not configured
+    /**
+     * One flush, on the dispatcher's thread: push up to {@code limit} due
+     * operations.
+     */
+    private SyncDispatcher.Outcome flushPendingOperations(int limit) {
+        if (!supabaseService.isConfigured()) {
+            return SyncDispatcher.Outcome.DONE;
         }
 
         // Note: We proceed even if connectivity check fails, as slow connections
         // may cause false negatives. The actual sync operations will fail gracefully
         // if there's truly no connection.
-        boolean isConnected = connectivityService.isConnected();
-        if (!isConnected) {
+        if (!connectivityService.isConnected()) {
             System.out.println(
                     "Warning: Connectivity check failed, but attempting sync anyway (may work with slow connection)...");
         }
 
-        isSyncing = true;
-
-        new Thread(() -> {
-            try {
-                List<SyncOperation> pendingOps = syncQueueDAO.getPendingOperations();
-                System.out.println("Syncing " + pendingOps.size() + " pending operations...");
-
-                for (SyncOperation op : pendingOps) {
-                    syncQueueDAO.markAsSyncing(op.getId());
-
-                    // Extract user_id from JSON data
-                    String userId = extractUserIdFromJson(op.getData());
-                    if (userId == null || userId.isEmpty()) {
-                        System.err.println("ERROR: No user_id found in sync operation data for table: "
-                                + op.getTableName() + ", operation: " + op.getOperation() + ", ID: " + op.getId());
-                        System.err.println(
-                                "JSON data: " + op.getData().substring(0, Math.min(200, op.getData().length())));
-                        syncQueueDAO.markAsFailed(op.getId());
-                        continue;
-                    }
-
-                    boolean success = false;
-                    try {
-                        System.out.println("Syncing " + op.getOperation() + " operation for table: " + op.getTableName()
-                                + ", record ID: " + op.getRecordId() + ", user_id: " + userId);
-                        switch (op.getOperation()) {
-                            case "INSERT":
-                                success = supabaseService.insert(op.getTableName(), op.getData(), userId);
-                                break;
-                            case "UPDATE":
-                                success = supabaseService.update(op.getTableName(), String.valueOf(op.getRecordId()),
-                                        op.getData(),
-                                        userId);
-                                break;
-                            case "DELETE":
-                                success = supabaseService.delete(op.getTableName(), String.valueOf(op.getRecordId()),
-                                        userId);
-                                break;
-                        }
+        // Merge repeated edits of a record first, then claim what is left
+        syncQueueDAO.compactPending();
+        List<SyncOperation> pendingOps = syncQueueDAO.claimPendingOperations(limit);
+        if (pendingOps.isEmpty()) {
+            return SyncDispatcher.Outcome.DONE;
+        }
+        System.out.println("Syncing " + pendingOps.size() + " pending operations...");
 
-                        if (success) {
-                            syncQueueDAO.markAsSynced(op.getId());
-                            System.out.println("✓ Successfully synced " + op.getOperation() +
-                                    " operation for " + op.getTableName() + " (ID: " + op.getRecordId() + ", user_id: "
-                                    + userId + ")");
-                        } else {
-                            syncQueueDAO.markAsFailed(op.getId());
-                            System.err.println(
-                                    "✗ Failed to sync operation " + op.getId() + " for table: " + op.getTableName() +
-                                            ", record ID: " + op.getRecordId() + ", user_id: " + userId);
-                            System.err.println("  Check console logs above for detailed error messages.");
-                        }
-                    } catch (Exception e) {
-                        syncQueueDAO.markAsFailed(op.getId());
-                        System.err.println("Error syncing operation " + op.getId() + ": " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
+        // Grouped into bulk requests per table rather than one request per row
+        SyncBatchPusher pusher = new SyncBatchPusher(supabaseService, syncQueueDAO,
+                SupabaseConfig.getInstance().getSyncBatchSize());
+        pusher.push(pendingOps);
 
-                // Cleanup old synced operations
-                syncQueueDAO.cleanupOldSyncedOperations();
+        // Cleanup old synced operations
+        syncQueueDAO.cleanupOldSyncedOperations();
 
-            } finally {
-                isSyncing = false;
-            }
-        }).start();
+        if (pusher.getSynced() == 0 && pusher.getFailed() > 0) {
+            return SyncDispatcher.Outcome.FAILED;
+        }
+        return pendingOps.size() >= limit ? SyncDispatcher.Outcome.MORE : SyncDispatcher.Outcome.DONE;
     }
 
     /**
@@ -386,235 +300,63 @@ public class SyncManager {
                 System.out.println("Starting initial sync of existing data...");
                 int totalQueued = 0;
 
-                // Sync Incomes
-                IncomeDAO incomeDAO = new IncomeDAO();
-                List<com.mahal.model.Income> incomes = incomeDAO.getAll();
-                for (com.mahal.model.Income income : incomes) {
-                    if (income.getId() != null) {
-                        queueOperation("incomes", "INSERT", income.getId(), income);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + incomes.size() + " income records for sync");
-
-                // Sync Expenses
-                ExpenseDAO expenseDAO = new ExpenseDAO();
-                List<com.mahal.model.Expense> expenses = expenseDAO.getAll();
-                for (com.mahal.model.Expense expense : expenses) {
-                    if (expense.getId() != null) {
-                        queueOperation("expenses", "INSERT", expense.getId(), expense);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + expenses.size() + " expense records for sync");
-
-                // Sync Members
-                MemberDAO memberDAO = new MemberDAO();
-                List<com.mahal.model.Member> members = memberDAO.getAll();
-                for (com.mahal.model.Member member : members) {
-                    if (member.getId() != null) {
-                        queueOperation("members", "INSERT", member.getId(), member);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + members.size() + " member records for sync");
-
-                // Sync Due Collections
-                DueCollectionDAO dueCollectionDAO = new DueCollectionDAO();
-                List<com.mahal.model.DueCollection> collections = dueCollectionDAO.getAll();
-                for (com.mahal.model.DueCollection collection : collections) {
-                    if (collection.getId() != null) {
-                        queueOperation("due_collections", "INSERT", collection.getId(), collection);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + collections.size() + " due collection records for sync");
-
-                // Sync Inventory Items
-                InventoryItemDAO inventoryItemDAO = new InventoryItemDAO();
-                List<com.mahal.model.InventoryItem> items = inventoryItemDAO.getAll();
-                for (com.mahal.model.InventoryItem item : items) {
-                    if (item.getId() != null) {
-                        queueOperation("inventory_items", "INSERT", item.getId(), item);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + items.size() + " inventory item records for sync");
-
-                // Sync Damaged Items
-                DamagedItemDAO damagedItemDAO = new DamagedItemDAO();
-                List<com.mahal.model.DamagedItem> damagedItems = damagedItemDAO.getAll();
-                for (com.mahal.model.DamagedItem damaged : damagedItems) {
-                    if (damaged.getId() != null) {
-                        queueOperation("damaged_items", "INSERT", damaged.getId(), damaged);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + damagedItems.size() + " damaged item records for sync");
-
-                // Sync Rent Items
-                RentItemDAO rentItemDAO = new RentItemDAO();
-                List<com.mahal.model.RentItem> rentItems = rentItemDAO.getAll();
-                for (com.mahal.model.RentItem rentItem : rentItems) {
-                    if (rentItem.getId() != null) {
-                        queueOperation("rent_items", "INSERT", rentItem.getId(), rentItem);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + rentItems.size() + " rent item records for sync");
-
-                // Sync Rents
-                RentDAO rentDAO = new RentDAO();
-                List<com.mahal.model.Rent> rents = rentDAO.getAll();
-                for (com.mahal.model.Rent rent : rents) {
-                    if (rent.getId() != null) {
-                        queueOperation("rents", "INSERT", rent.getId(), rent);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + rents.size() + " rent records for sync");
-
-                // Sync Events
-                EventDAO eventDAO = new EventDAO();
-                List<com.mahal.model.Event> events = eventDAO.getAll();
-                for (com.mahal.model.Event event : events) {
-                    if (event.getId() != null) {
-                        queueOperation("events", "INSERT", event.getId(), event);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + events.size() + " event records for sync");
-
-                // Sync Masjids
-                MasjidDAO masjidDAO = new MasjidDAO();
-                List<com.mahal.model.Masjid> masjids = masjidDAO.getAll();
-                for (com.mahal.model.Masjid masjid : masjids) {
-                    if (masjid.getId() != null) {
-                        queueOperation("masjids", "INSERT", masjid.getId(), masjid);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + masjids.size() + " masjid records for sync");
-
-                // Sync Staff
-                StaffDAO staffDAO = new StaffDAO();
-                List<com.mahal.model.Staff> staff = staffDAO.getAll();
-                for (com.mahal.model.Staff s : staff) {
-                    if (s.getId() != null) {
-                        queueOperation("staff", "INSERT", s.getId(), s);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + staff.size() + " staff records for sync");
-
-                // Sync Staff Salaries
-                StaffSalaryDAO staffSalaryDAO = new StaffSalaryDAO();
-                List<com.mahal.model.StaffSalary> salaries = staffSalaryDAO.getAll();
-                for (com.mahal.model.StaffSalary salary : salaries) {
-                    if (salary.getId() != null) {
-                        queueOperation("staff_salaries", "INSERT", salary.getId(), salary);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + salaries.size() + " staff salary records for sync");
-
-                // Sync Committees
-                CommitteeDAO committeeDAO = new CommitteeDAO();
-                List<com.mahal.model.Committee> committees = committeeDAO.getAll();
-                for (com.mahal.model.Committee committee : committees) {
-                    if (committee.getId() != null) {
-                        queueOperation("committees", "INSERT", committee.getId(), committee);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + committees.size() + " committee records for sync");
+                // Each table is queued in transactions of INITIAL_QUEUE_CHUNK records, so queue
+                // inserts share a commit without holding the writer for a whole table
+                totalQueued += queueInitialInserts("incomes", new IncomeDAO().streamAll(),
+                        com.mahal.model.Income::getId, "income");
+                totalQueued += queueInitialInserts("expenses", new ExpenseDAO().streamAll(),
+                        com.mahal.model.Expense::getId, "expense");
+                totalQueued += queueInitialInserts("members", new MemberDAO().streamAll(),
+                        com.mahal.model.Member::getId, "member");
+                totalQueued += queueInitialInserts("due_collections", new DueCollectionDAO().streamAll(),
+                        com.mahal.model.DueCollection::getId, "due collection");
+                totalQueued += queueInitialInserts("inventory_items", new InventoryItemDAO().getAll().stream(),
+                        com.mahal.model.InventoryItem::getId, "inventory item");
+                totalQueued += queueInitialInserts("damaged_items", new DamagedItemDAO().getAll().stream(),
+                        com.mahal.model.DamagedItem::getId, "damaged item");
+                totalQueued += queueInitialInserts("rent_items", new RentItemDAO().getAll().stream(),
+                        com.mahal.model.RentItem::getId, "rent item");
+                totalQueued += queueInitialInserts("rents", new RentDAO().getAll().stream(),
+                        com.mahal.model.Rent::getId, "rent");
+                totalQueued += queueInitialInserts("events", new EventDAO().getAll().stream(),
+                        com.mahal.model.Event::getId, "event");
+                totalQueued += queueInitialInserts("masjids", new MasjidDAO().getAll().stream(),
+                        com.mahal.model.Masjid::getId, "masjid");
+                totalQueued += queueInitialInserts("staff", new StaffDAO().getAll().stream(),
+                        com.mahal.model.Staff::getId, "staff");
+                totalQueued += queueInitialInserts("staff_salaries", new StaffSalaryDAO().getAll().stream(),
+                        com.mahal.model.StaffSalary::getId, "staff salary");
+                totalQueued += queueInitialInserts("committees", new CommitteeDAO().getAll().stream(),
+                        com.mahal.model.Committee::getId, "committee");
 
                 // Sync Admins
                 com.mahal.database.AdminDAO adminDAO = new com.mahal.database.AdminDAO();
-                List<org.json.JSONObject> adminJsons = adminDAO.getAllAsJson();
-                for (org.json.JSONObject adminJson : adminJsons) {
-                    Long id = adminJson.getLong("id");
-                    queueOperation("admins", "INSERT", id, adminJson);
-                    totalQueued++;
-                }
-                System.out.println("Queued " + adminJsons.size() + " admin records for sync");
-
-                // Sync Houses
-                HouseDAO houseDAO = new HouseDAO();
-                List<com.mahal.model.House> houses = houseDAO.getAll();
-                for (com.mahal.model.House house : houses) {
-                    if (house.getId() != null) {
-                        queueOperation("houses", "INSERT", house.getId(), house);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + houses.size() + " house records for sync");
-
-                // Sync Income Types
-                IncomeTypeDAO incomeTypeDAO = new IncomeTypeDAO();
-                List<com.mahal.model.IncomeType> incomeTypes = incomeTypeDAO.getAll();
-                for (com.mahal.model.IncomeType incomeType : incomeTypes) {
-                    if (incomeType.getId() != null) {
-                        queueOperation("income_types", "INSERT", incomeType.getId(), incomeType);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + incomeTypes.size() + " income type records for sync");
-
-                // Sync Due Types
-                DueTypeDAO dueTypeDAO = new DueTypeDAO();
-                List<com.mahal.model.DueType> dueTypes = dueTypeDAO.getAll();
-                for (com.mahal.model.DueType dueType : dueTypes) {
-                    if (dueType.getId() != null) {
-                        queueOperation("due_types", "INSERT", dueType.getId(), dueType);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + dueTypes.size() + " due type records for sync");
+                totalQueued += queueInitialInserts("admins", adminDAO.getAllAsJson().stream(),
+                        adminJson -> adminJson.getLong("id"), "admin");
+
+                totalQueued += queueInitialInserts("houses", new HouseDAO().getAll().stream(),
+                        com.mahal.model.House::getId, "house");
+                totalQueued += queueInitialInserts("income_types", new IncomeTypeDAO().getAll().stream(),
+                        com.mahal.model.IncomeType::getId, "income type");
+                totalQueued += queueInitialInserts("due_types", new DueTypeDAO().getAll().stream(),
+                        com.mahal.model.DueType::getId, "due type");
 
                 // Note: Prayer Times are NOT synced to Supabase (not needed)
 
                 // Sync Certificates (all types)
                 CertificateDAO certificateDAO = new CertificateDAO();
-                // Marriage certificates
-                List<com.mahal.model.Certificate> marriageCerts = certificateDAO.getByType("Marriage");
-                for (com.mahal.model.Certificate cert : marriageCerts) {
-                    if (cert.getId() != null) {
-                        queueOperation("marriage_certificates", "INSERT", cert.getId(), cert);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + marriageCerts.size() + " marriage certificate records for sync");
-
-                // Death certificates
-                List<com.mahal.model.Certificate> deathCerts = certificateDAO.getByType("Death");
-                for (com.mahal.model.Certificate cert : deathCerts) {
-                    if (cert.getId() != null) {
-                        queueOperation("death_certificates", "INSERT", cert.getId(), cert);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + deathCerts.size() + " death certificate records for sync");
-
-                // Jamath certificates
-                List<com.mahal.model.Certificate> jamathCerts = certificateDAO.getByType("Jamath");
-                for (com.mahal.model.Certificate cert : jamathCerts) {
-                    if (cert.getId() != null) {
-                        queueOperation("jamath_certificates", "INSERT", cert.getId(), cert);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + jamathCerts.size() + " jamath certificate records for sync");
-
-                // Custom certificates
-                List<com.mahal.model.Certificate> customCerts = certificateDAO.getByType("Custom");
-                for (com.mahal.model.Certificate cert : customCerts) {
-                    if (cert.getId() != null) {
-                        queueOperation("custom_certificates", "INSERT", cert.getId(), cert);
-                        totalQueued++;
-                    }
-                }
-                System.out.println("Queued " + customCerts.size() + " custom certificate records for sync");
+                totalQueued += queueInitialInserts("marriage_certificates",
+                        certificateDAO.getByType("Marriage").stream(),
+                        com.mahal.model.Certificate::getId, "marriage certificate");
+                totalQueued += queueInitialInserts("death_certificates",
+                        certificateDAO.getByType("Death").stream(),
+                        com.mahal.model.Certificate::getId, "death certificate");
+                totalQueued += queueInitialInserts("jamath_certificates",
+                        certificateDAO.getByType("Jamath").stream(),
+                        com.mahal.model.Certificate::getId, "jamath certificate");
+                totalQueued += queueInitialInserts("custom_certificates",
+                        certificateDAO.getByType("Custom").stream(),
+                        com.mahal.model.Certificate::getId, "custom certificate");
 
                 System.out.println("Initial sync complete. Queued " + totalQueued + " total records for sync.");
 
@@ -656,35 +398,50 @@ public class SyncManager {
     }
 
     /**
-     * Shutdown the sync manager.
+     * Queue an INSERT for every record of one table, committing every
+     * {@link #INITIAL_QUEUE_CHUNK} records so the writer connection is never
+     * held long enough to time out interactive saves. Records are consumed as
+     * a stream, which is closed when done. Returns the number of records queued.
      */
-    public void shutdown() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
+    private <T> int queueInitialInserts(String tableName, java.util.stream.Stream<T> records,
+            java.util.function.Function<T, Long> idOf, String label) {
+        int queued = 0;
+        try (records) {
+            java.util.Iterator<T> it = records.iterator();
+            List<T> chunk = new java.util.ArrayList<>(INITIAL_QUEUE_CHUNK);
+            while (it.hasNext()) {
+                chunk.clear();
+                while (it.hasNext() && chunk.size() < INITIAL_QUEUE_CHUNK) {
+                    chunk.add(it.next());
+                }
+                queued += DatabaseService.getInstance().inTransaction(tx -> {
+                    int count = 0;
+                    for (T record : chunk) {
+                        Long id = idOf.apply(record);
+                        if (id != null) {
+                            queueOperation(tableName, "INSERT", id, record, false);
+                            count++;
+                        }
+                    }
+                    return count;
+                });
+            }
+        } catch (java.sql.SQLException | UncheckedSQLException e) {
+            System.err.println("Error queueing " + label + " records for sync: " + e.getMessage());
         }
-        connectivityService.shutdown();
+        System.out.println("Queued " + queued + " " + label + " records for sync");
+        return queued;
     }
 
     /**
-     * Extract user_id from JSON data.
-     * Returns the user_id as a string, handling both string and number formats.
+     * Shutdown the sync manager.
      */
-    private String extractUserIdFromJson(String jsonData) {
-        try {
-            org.json.JSONObject json = new org.json.JSONObject(jsonData);
-            if (json.has("user_id")) {
-                Object userIdObj = json.get("user_id");
-                // Handle both string and number formats
-                String userId = String.valueOf(userIdObj).trim();
-                if (!userId.isEmpty() && !"null".equals(userId)) {
-                    return userId;
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error extracting user_id from JSON: " + e.getMessage());
-            e.printStackTrace();
+    public void shutdown() {
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.shutdown();
         }
-        return null;
+        dispatcher.shutdown();
+        connectivityService.shutdown();
     }
 
     /**
@@ -716,13 +473,7 @@ public class SyncManager {
                     org.json.JSONArray records = new org.json.JSONArray(response);
                     System.out.println("   - Found " + records.length() + " records for " + table);
 
-                    int successCount = 0;
-                    for (int i = 0; i < records.length(); i++) {
-                        org.json.JSONObject record = records.getJSONObject(i);
-                        if (upsertRecord(table, record)) {
-                            successCount++;
-                        }
-                    }
+                    int successCount = upsertRecords(table, records);
                     System.out.println("   - Upserted " + successCount + "/" + records.length() + " records locally.");
                 } else {
                     System.out.println("   - No remote data found for " + table);
@@ -736,78 +487,125 @@ public class SyncManager {
     }
 
     /**
-     * Upsert a record into local SQLite (Insert or Update).
-     * constructs SQL dynamically based on JSON keys.
+     * Upsert remote records into local SQLite (Insert or Update), committing
+     * every {@link #DOWNLOAD_CHUNK} records so a large table never holds the
+     * writer connection long enough to time out interactive saves. Returns
+     * the number of records applied.
      */
-    private boolean upsertRecord(String tableName, org.json.JSONObject record) {
+    private int upsertRecords(String tableName, org.json.JSONArray records) {
+        int applied = 0;
         try {
-            Long id = record.optLong("id", -1);
-            if (id == -1)
-                return false;
-
-            DatabaseService db = DatabaseService.getInstance();
+            for (int from = 0; from < records.length(); from += DOWNLOAD_CHUNK) {
+                applied += upsertChunk(tableName, records, from, Math.min(from + DOWNLOAD_CHUNK, records.length()));
+            }
+        } finally {
+            ReferenceDataCache.getInstance().invalidate(tableName);
+            // Let open screens and their caches (e.g. the events calendar) pick up remote changes
+            com.mahal.util.EventBus.getInstance().publish(tableName, "sync");
+        }
+        return applied;
+    }
 
-            // 1. Check if exists
-            boolean exists = false;
-            try {
-                List<Integer> result = db.executeQuery("SELECT 1 FROM " + tableName + " WHERE id = ?",
-                        new Object[] { id }, rs -> 1);
-                exists = !result.isEmpty();
-            } catch (Exception e) {
-                // Table might not exist or error
-                System.err.println("Error checking existence in " + tableName + ": " + e.getMessage());
-                return false;
+    /**
+     * Upsert records [from, to) in one transaction. Records are grouped by
+     * column set so each group runs as a single JDBC batch; if a batch fails it
+     * is retried row by row so only the offending records are skipped.
+     */
+    private int upsertChunk(String tableName, org.json.JSONArray records, int from, int to) {
+        // SQL (one per distinct column set) -> parameter rows
+        java.util.Map<String, List<Object[]>> batches = new java.util.LinkedHashMap<>();
+        java.util.Map<String, List<Long>> batchIds = new java.util.HashMap<>();
+        for (int i = from; i < to; i++) {
+            org.json.JSONObject record = records.getJSONObject(i);
+            long id = record.optLong("id", -1);
+            if (id == -1)
+                continue;
+
+            // Sorted so records with the same keys always produce the same SQL
+            List<String> columns = new java.util.ArrayList<>(new java.util.TreeSet<>(record.keySet()));
+            String sql = buildUpsertSql(tableName, columns);
+            Object[] params = new Object[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                Object value = record.get(columns.get(c));
+                params[c] = value == org.json.JSONObject.NULL ? null : value;
             }
+            batches.computeIfAbsent(sql, k -> new java.util.ArrayList<>()).add(params);
+            batchIds.computeIfAbsent(sql, k -> new java.util.ArrayList<>()).add(id);
+        }
+        if (batches.isEmpty()) {
+            return 0;
+        }
 
-            // 2. Construct Query
-            StringBuilder sql = new StringBuilder();
-            java.util.List<Object> params = new java.util.ArrayList<>();
-            java.util.Iterator<String> keys = record.keys();
-
-            if (exists) {
-                // UPDATE
-                sql.append("UPDATE ").append(tableName).append(" SET ");
-                boolean first = true;
-                while (keys.hasNext()) {
-                    String key = keys.next();
-                    if (key.equals("id"))
-                        continue; // Don't update ID
-
-                    if (!first)
-                        sql.append(", ");
-                    sql.append(key).append(" = ?");
-                    params.add(record.get(key));
-                    first = false;
-                }
-                sql.append(" WHERE id = ?");
-                params.add(id);
-            } else {
-                // INSERT
-                sql.append("INSERT INTO ").append(tableName).append(" (");
-                StringBuilder values = new StringBuilder();
-                boolean first = true;
-                while (keys.hasNext()) {
-                    String key = keys.next();
-                    if (!first) {
-                        sql.append(", ");
-                        values.append(", ");
+        try {
+            return DatabaseService.getInstance().inTransaction(tx -> {
+                int applied = 0;
+                for (java.util.Map.Entry<String, List<Object[]>> batch : batches.entrySet()) {
+                    java.sql.Savepoint savepoint = tx.savepoint();
+                    try {
+                        tx.executeBatch(batch.getKey(), batch.getValue());
+                        tx.release(savepoint);
+                        applied += batch.getValue().size();
+                        continue;
+                    } catch (java.sql.SQLException e) {
+                        tx.rollbackTo(savepoint);
+                        tx.release(savepoint);
+                    }
+
+                    // Batch failed: apply rows individually to find the bad ones
+                    List<Long> ids = batchIds.get(batch.getKey());
+                    for (int r = 0; r < batch.getValue().size(); r++) {
+                        java.sql.Savepoint rowSavepoint = tx.savepoint();
+                        try {
+                            tx.executeUpdate(batch.getKey(), batch.getValue().get(r));
+                            tx.release(rowSavepoint);
+                            applied++;
+                        } catch (java.sql.SQLException e) {
+                            tx.rollbackTo(rowSavepoint);
+                            tx.release(rowSavepoint);
+                            System.err.println("Local upsert failed for " + tableName + " (ID: " + ids.get(r)
+                                    + "): " + e.getMessage());
+                        }
                     }
-                    sql.append(key);
-                    values.append("?");
-                    params.add(record.get(key));
-                    first = false;
                 }
-                sql.append(") VALUES (").append(values).append(")");
-            }
-
-            // 3. Execute
-            int rows = db.executeUpdate(sql.toString(), params.toArray());
-            return rows > 0;
+                if (AddressKey.TABLES.contains(tableName)) {
+                    // Remote rows carry no address_key; derive it locally for this chunk
+                    List<Long> ids = new java.util.ArrayList<>();
+                    batchIds.values().forEach(ids::addAll);
+                    AddressKey.refresh(tx, tableName, ids);
+                }
+                return applied;
+            });
+        } catch (java.sql.SQLException e) {
+            System.err.println("Local upsert failed for " + tableName + " (records " + from + "-" + (to - 1)
+                    + "): " + e.getMessage());
+            return 0;
+        }
+    }
 
-        } catch (Exception e) {
-            System.err.println("Local upsert failed for " + tableName + ": " + e.getMessage());
-            return false;
+    /**
+     * INSERT ... ON CONFLICT(id) DO UPDATE for the given columns.
+     */
+    private static String buildUpsertSql(String tableName, List<String> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+        StringBuilder values = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            if (i > 0) {
+                sql.append(", ");
+                values.append(", ");
+            }
+            sql.append(column);
+            values.append("?");
+            if (!column.equals("id")) { // Don't update ID
+                if (updates.length() > 0)
+                    updates.append(", ");
+                updates.append(column).append(" = excluded.").append(column);
+            }
         }
+        sql.append(") VALUES (").append(values).append(") ON CONFLICT(id) DO ");
+        sql.append(updates.length() > 0 ? "UPDATE SET " + updates : "NOTHING");
+        return sql.toString();
     }
 
 }
@@ -16,34 +16,6 @@ public class SyncMetadataDAO {
     
     public SyncMetadataDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTablesIfNotExist();
-    }
-    
-    private void createTablesIfNotExist() {
-        // Table for tracking last sync time per user
-        String sql1 = "CREATE TABLE IF NOT EXISTS sync_metadata (" +
-                     "user_id TEXT NOT NULL PRIMARY KEY, " +
-                     "last_sync_time TEXT, " + // ISO 8601 UTC timestamp
-                     "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
-                     ")";
-        
-        // Table for tracking record-level sync metadata
-        String sql2 = "CREATE TABLE IF NOT EXISTS record_sync_metadata (" +
-                     "table_name TEXT NOT NULL, " +
-                     "record_id TEXT NOT NULL, " +
-                     "user_id TEXT NOT NULL, " +
-                     "updated_at TEXT, " + // ISO 8601 UTC timestamp
-                     "is_synced INTEGER DEFAULT 0, " + // 0 = false, 1 = true
-                     "sync_version INTEGER DEFAULT 0, " +
-                     "PRIMARY KEY (table_name, record_id, user_id)" +
-                     ")";
-        
-        try {
-            dbService.executeUpdate(sql1, null);
-            dbService.executeUpdate(sql2, null);
-        } catch (Exception e) {
-            System.err.println("Error creating sync metadata tables: " + e.getMessage());
-        }
     }
     
     /**
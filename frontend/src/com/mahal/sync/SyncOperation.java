@@ -5,19 +5,25 @@ package com.mahal.sync;
  */
 public class SyncOperation {
     private Long id;
+    private String userId;
     private String tableName;
     private String operation; // INSERT, UPDATE, DELETE
     private Long recordId;
     private String data; // JSON string
     private String createdAt;
     private String syncedAt;
-    private String syncStatus;
+    private SyncStatus syncStatus;
     private int retryCount;
+    private String nextAttemptAt;
+    private String lastError;
 
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
     public String getTableName() { return tableName; }
     public void setTableName(String tableName) { this.tableName = tableName; }
 
@@ -36,9 +42,15 @@ public class SyncOperation {
     public String getSyncedAt() { return syncedAt; }
     public void setSyncedAt(String syncedAt) { this.syncedAt = syncedAt; }
 
-    public String getSyncStatus() { return syncStatus; }
-    public void setSyncStatus(String syncStatus) { this.syncStatus = syncStatus; }
+    public SyncStatus getSyncStatus() { return syncStatus; }
+    public void setSyncStatus(SyncStatus syncStatus) { this.syncStatus = syncStatus; }
 
     public int getRetryCount() { return retryCount; }
     public void setRetryCount(int retryCount) { this.retryCount = retryCount; }
+
+    public String getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(String nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
 }
@@ -5,6 +5,7 @@ import com.mahal.sync.SyncOperation;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DAO for managing sync queue operations.
@@ -16,33 +17,182 @@ public class SyncQueueDAO {
 
     public SyncQueueDAO() {
         this.dbService = DatabaseService.getInstance();
-        createTableIfNotExists();
-    }
-
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS sync_queue (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "table_name TEXT NOT NULL, " +
-                "operation TEXT NOT NULL, " + // INSERT, UPDATE, DELETE
-                "record_id INTEGER, " +
-                "data TEXT, " + // JSON string of the record data
-                "created_at TEXT DEFAULT CURRENT_TIMESTAMP, " +
-                "synced_at TEXT, " +
-                "sync_status TEXT DEFAULT 'PENDING', " + // PENDING, SYNCING, SYNCED, FAILED
-                "retry_count INTEGER DEFAULT 0" +
-                ")";
+    }
+
+    /**
+     * Entries still to be pushed: new, or failed with retries left. Written
+     * exactly as the WHERE clause of idx_sync_queue_due so that index applies.
+     */
+    private static final String UNSENT = "sync_status IN ('PENDING', 'FAILED') AND retry_count < 5";
+    /** Unsent entries whose retry backoff has passed. */
+    private static final String DUE = UNSENT + " AND next_attempt_at <= CURRENT_TIMESTAMP";
+    private static final String COLUMNS = "id, user_id, table_name, operation, record_id, data, created_at, " +
+            "retry_count, sync_status, next_attempt_at, last_error";
+
+    /** Result of {@link #coalesce} for two operations that cancel out. */
+    static final String CANCELLED = "CANCELLED";
+
+    /**
+     * Queue an operation. If the record's latest queue entry has not been
+     * pushed yet, the two are merged (see {@link #coalesce}) so repeated edits
+     * upload only the latest data. The merged entry replaces the earlier one
+     * at the end of the queue, so it is still pushed after everything queued
+     * in between (e.g. a parent record it now references).
+     */
+    public Long queueOperation(String tableName, String operation, Long recordId, String userId, String data) {
+        String sql = "INSERT INTO sync_queue (user_id, table_name, operation, record_id, data, sync_status) " +
+                "VALUES (?, ?, ?, ?, ?, 'PENDING')";
+        Object[] params = { userId, tableName, operation, recordId, data };
+        if (recordId == null) {
+            return dbService.executeInsert(sql, params);
+        }
         try {
-            dbService.executeUpdate(sql, null);
-        } catch (Exception e) {
-            System.err.println("Error creating sync_queue table: " + e.getMessage());
+            return dbService.inTransaction(tx -> {
+                List<SyncOperation> latest = tx.executeQuery("SELECT " + COLUMNS + " FROM sync_queue " +
+                        "WHERE table_name = ? AND record_id = ? ORDER BY id DESC LIMIT 1",
+                        new Object[] { tableName, recordId }, this::mapOrThrow);
+                if (!latest.isEmpty() && isUnsent(latest.get(0))) {
+                    SyncOperation earlier = latest.get(0);
+                    String merged = coalesce(earlier, operation);
+                    if (CANCELLED.equals(merged)) {
+                        tx.executeUpdate("DELETE FROM sync_queue WHERE id = ?", new Object[] { earlier.getId() });
+                        return earlier.getId();
+                    }
+                    if (merged != null) {
+                        tx.executeUpdate("DELETE FROM sync_queue WHERE id = ?", new Object[] { earlier.getId() });
+                        // Keeps the earlier entry's attempts, which coalesce relies on
+                        return tx.executeInsert("INSERT INTO sync_queue (user_id, table_name, operation, record_id, " +
+                                "data, sync_status, retry_count, last_error) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                                new Object[] { userId, tableName, merged, recordId, data,
+                                        earlier.getSyncStatus().name(), earlier.getRetryCount(),
+                                        earlier.getLastError() });
+                    }
+                }
+                return tx.executeInsert(sql, params);
+            });
+        } catch (SQLException | com.mahal.database.UncheckedSQLException e) {
+            System.err.println("Error queueing sync operation: " + e.getMessage());
+            return null;
         }
     }
 
-    public Long queueOperation(String tableName, String operation, Long recordId, String data) {
-        String sql = "INSERT INTO sync_queue (table_name, operation, record_id, data, sync_status) " +
-                "VALUES (?, ?, ?, ?, 'PENDING')";
-        Object[] params = { tableName, operation, recordId, data };
-        return dbService.executeInsert(sql, params);
+    /**
+     * The one operation equivalent to {@code earlier} followed by
+     * {@code later} on the same record, which then carries the later data:
+     * INSERT+UPDATE is an INSERT, anything followed by DELETE a DELETE, and an
+     * INSERT that was never attempted followed by DELETE {@link #CANCELLED}.
+     * Null if they cannot be merged (the record was deleted and recreated).
+     */
+    static String coalesce(SyncOperation earlier, String later) {
+        if ("DELETE".equals(earlier.getOperation())) {
+            return null;
+        }
+        if ("DELETE".equals(later)) {
+            // A failed insert may still have reached the server, so it needs the delete
+            return "INSERT".equals(earlier.getOperation()) && earlier.getSyncStatus() == SyncStatus.PENDING
+                    ? CANCELLED
+                    : "DELETE";
+        }
+        return earlier.getOperation();
+    }
+
+    private static boolean isUnsent(SyncOperation op) {
+        return (op.getSyncStatus() == SyncStatus.PENDING || op.getSyncStatus() == SyncStatus.FAILED)
+                && op.getRetryCount() < 5;
+    }
+
+    /**
+     * Merge runs of unsent entries on the same record, e.g. edits queued
+     * while an earlier entry was being pushed, before a sync run claims them.
+     * Each run is kept in its last entry, so queue order is unchanged for
+     * anything queued in between. Returns the number of entries removed.
+     */
+    public int compactPending() {
+        try {
+            return dbService.inTransaction(tx -> {
+                List<SyncOperation> ops = tx.executeQuery("SELECT " + COLUMNS + " FROM sync_queue " +
+                        "WHERE " + UNSENT + " AND (table_name, record_id) IN (" +
+                        "SELECT table_name, record_id FROM sync_queue WHERE " + UNSENT +
+                        " AND record_id IS NOT NULL GROUP BY table_name, record_id HAVING COUNT(*) > 1) " +
+                        "ORDER BY table_name, record_id, id", null, this::mapOrThrow);
+                int removed = 0;
+                SyncOperation current = null;
+                for (SyncOperation op : ops) {
+                    String merged = null;
+                    if (current != null && current.getTableName().equals(op.getTableName())
+                            && current.getRecordId().equals(op.getRecordId())) {
+                        merged = coalesce(current, op.getOperation());
+                    }
+                    if (merged == null) {
+                        current = op;
+                        continue;
+                    }
+                    tx.executeUpdate("DELETE FROM sync_queue WHERE id = ?", new Object[] { current.getId() });
+                    removed++;
+                    if (CANCELLED.equals(merged)) {
+                        tx.executeUpdate("DELETE FROM sync_queue WHERE id = ?", new Object[] { op.getId() });
+                        removed++;
+                        current = null;
+                    } else {
+                        // The later entry takes over the merged operation and the earlier attempts
+                        op.setOperation(merged);
+                        if (current.getSyncStatus() == SyncStatus.FAILED) {
+                            op.setSyncStatus(SyncStatus.FAILED);
+                        }
+                        op.setRetryCount(Math.max(op.getRetryCount(), current.getRetryCount()));
+                        if (op.getLastError() == null) {
+                            op.setLastError(current.getLastError());
+                        }
+                        saveMerged(tx, op);
+                        current = op;
+                    }
+                }
+                if (removed > 0) {
+                    System.out.println("Compacted sync queue: merged away " + removed + " operations");
+                }
+                return removed;
+            });
+        } catch (SQLException | com.mahal.database.UncheckedSQLException e) {
+            System.err.println("Error compacting sync queue: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static void saveMerged(com.mahal.database.Transaction tx, SyncOperation op) throws SQLException {
+        tx.executeUpdate("UPDATE sync_queue SET operation = ?, sync_status = ?, retry_count = ?, last_error = ? " +
+                "WHERE id = ?", new Object[] { op.getOperation(), op.getSyncStatus().name(), op.getRetryCount(),
+                        op.getLastError(), op.getId() });
+    }
+
+    /**
+     * Take up to {@code limit} due operations for a sync run, oldest first,
+     * marking them SYNCING in the same statement so later edits queue behind
+     * them instead of being merged into an entry that is already being pushed.
+     */
+    public List<SyncOperation> claimPendingOperations(int limit) {
+        try {
+            List<SyncOperation> ops = dbService.inTransaction(tx -> tx.executeQuery(
+                    "UPDATE sync_queue SET sync_status = 'SYNCING' WHERE id IN (SELECT id FROM sync_queue WHERE "
+                            + DUE + " ORDER BY id LIMIT ?) RETURNING " + COLUMNS,
+                    new Object[] { limit }, this::mapOrThrow));
+            ops.sort(java.util.Comparator.comparing(SyncOperation::getId));
+            return ops;
+        } catch (SQLException | com.mahal.database.UncheckedSQLException e) {
+            System.err.println("Error claiming sync operations: " + e.getMessage());
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    /**
+     * Return operations left SYNCING by a run that did not finish (e.g. the
+     * app was closed mid-sync) to the queue.
+     */
+    public void resetInterruptedOperations() {
+        int reset = dbService.executeUpdate("UPDATE sync_queue SET sync_status = 'PENDING' WHERE sync_status = 'SYNCING'",
+                null);
+        if (reset > 0) {
+            System.out.println("Requeued " + reset + " sync operations interrupted by the last shutdown");
+        }
     }
 
     /**
@@ -50,25 +200,22 @@ public class SyncQueueDAO {
      * status).
      */
     public boolean isOperationQueued(String tableName, String operation, Long recordId) {
-        String sql = "SELECT COUNT(*) FROM sync_queue WHERE table_name = ? AND operation = ? AND record_id = ?";
-        List<Integer> result = dbService.executeQuery(sql, new Object[] { tableName, operation, recordId }, rs -> {
-            try {
-                return rs.getInt(1);
-            } catch (SQLException e) {
-                return 0;
-            }
-        });
-        return !result.isEmpty() && result.get(0) > 0;
+        String sql = "SELECT 1 FROM sync_queue WHERE table_name = ? AND record_id = ? AND operation = ? LIMIT 1";
+        return !dbService.executeQuery(sql, new Object[] { tableName, recordId, operation }, rs -> 1).isEmpty();
+    }
+
+    /**
+     * True if any operation is due to be pushed.
+     */
+    public boolean hasDueOperations() {
+        return !dbService.executeQuery("SELECT 1 FROM sync_queue WHERE " + DUE + " LIMIT 1", rs -> 1).isEmpty();
     }
 
     /**
      * Get all pending sync operations.
      */
     public List<SyncOperation> getPendingOperations() {
-        String sql = "SELECT id, table_name, operation, record_id, data, created_at, retry_count " +
-                "FROM sync_queue " +
-                "WHERE sync_status = 'PENDING' OR (sync_status = 'FAILED' AND retry_count < 5) " +
-                "ORDER BY created_at ASC";
+        String sql = "SELECT " + COLUMNS + " FROM sync_queue WHERE " + UNSENT + " ORDER BY id";
         return dbService.executeQuery(sql, rs -> {
             try {
                 return mapResultSet(rs);
@@ -84,8 +231,7 @@ public class SyncQueueDAO {
      * Get all failed sync operations (for diagnostics).
      */
     public List<SyncOperation> getFailedOperations() {
-        String sql = "SELECT id, table_name, operation, record_id, data, created_at, retry_count " +
-                "FROM sync_queue " +
+        String sql = "SELECT " + COLUMNS + " FROM sync_queue " +
                 "WHERE sync_status = 'FAILED' " +
                 "ORDER BY created_at ASC";
         return dbService.executeQuery(sql, rs -> {
@@ -103,33 +249,47 @@ public class SyncQueueDAO {
      * Reset failed operations back to PENDING so they can be retried.
      */
     public void resetFailedOperations() {
-        String sql = "UPDATE sync_queue SET sync_status = 'PENDING', retry_count = 0 WHERE sync_status = 'FAILED'";
+        String sql = "UPDATE sync_queue SET sync_status = 'PENDING', retry_count = 0, " +
+                "next_attempt_at = CURRENT_TIMESTAMP, last_error = NULL WHERE sync_status = 'FAILED'";
         int updated = dbService.executeUpdate(sql, null);
         System.out.println("Reset " + updated + " failed operations back to PENDING");
     }
 
     /**
      * Mark an operation as synced.
+     * Status updates are queued without waiting; the write queue applies them in
+     * order and group-commits them with the rest of the sync run.
      */
-    public void markAsSynced(Long queueId) {
-        String sql = "UPDATE sync_queue SET sync_status = 'SYNCED', synced_at = datetime('now') WHERE id = ?";
-        dbService.executeUpdate(sql, new Object[] { queueId });
+    public CompletableFuture<Integer> markAsSynced(Long queueId) {
+        String sql = "UPDATE sync_queue SET sync_status = 'SYNCED', synced_at = datetime('now'), last_error = NULL " +
+                "WHERE id = ?";
+        return logFailure(dbService.submitUpdate(sql, new Object[] { queueId }), "synced", queueId);
     }
 
     /**
-     * Mark an operation as failed and increment retry count.
+     * Mark an operation as failed, increment its retry count and hold it back
+     * for 30s, doubling with every retry (30s, 1, 2, then 4 minutes). After
+     * the fifth failure it is no longer retried (see {@link #UNSENT}).
      */
-    public void markAsFailed(Long queueId) {
-        String sql = "UPDATE sync_queue SET sync_status = 'FAILED', retry_count = retry_count + 1 WHERE id = ?";
-        dbService.executeUpdate(sql, new Object[] { queueId });
+    public CompletableFuture<Integer> markAsFailed(Long queueId, String error) {
+        String sql = "UPDATE sync_queue SET sync_status = 'FAILED', retry_count = retry_count + 1, " +
+                "next_attempt_at = datetime('now', '+' || (30 << retry_count) || ' seconds'), " +
+                "last_error = ? WHERE id = ?";
+        return logFailure(dbService.submitUpdate(sql, new Object[] { error, queueId }), "failed", queueId);
     }
 
     /**
-     * Mark an operation as syncing.
+     * Log a status update that could not be written; the entry then stays
+     * SYNCING until {@link #resetInterruptedOperations()} runs at startup.
      */
-    public void markAsSyncing(Long queueId) {
-        String sql = "UPDATE sync_queue SET sync_status = 'SYNCING' WHERE id = ?";
-        dbService.executeUpdate(sql, new Object[] { queueId });
+    private static CompletableFuture<Integer> logFailure(CompletableFuture<Integer> update, String status,
+            Long queueId) {
+        return update.whenComplete((rows, e) -> {
+            if (e != null) {
+                System.err.println("Could not mark sync operation " + queueId + " as " + status + ": "
+                        + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -137,7 +297,7 @@ public class SyncQueueDAO {
      */
     public void cleanupOldSyncedOperations() {
         String sql = "DELETE FROM sync_queue WHERE sync_status = 'SYNCED' AND " +
-                "datetime(synced_at) < datetime('now', '-30 days')";
+                "synced_at < datetime('now', '-30 days')";
         dbService.executeUpdate(sql, null);
     }
 
@@ -154,12 +314,24 @@ public class SyncQueueDAO {
     private SyncOperation mapResultSet(ResultSet rs) throws SQLException {
         SyncOperation op = new SyncOperation();
         op.setId(rs.getLong("id"));
+        op.setUserId(rs.getString("user_id"));
         op.setTableName(rs.getString("table_name"));
         op.setOperation(rs.getString("operation"));
         op.setRecordId(rs.getLong("record_id"));
         op.setData(rs.getString("data"));
         op.setCreatedAt(rs.getString("created_at"));
         op.setRetryCount(rs.getInt("retry_count"));
+        op.setSyncStatus(SyncStatus.valueOf(rs.getString("sync_status")));
+        op.setNextAttemptAt(rs.getString("next_attempt_at"));
+        op.setLastError(rs.getString("last_error"));
         return op;
     }
+
+    private SyncOperation mapOrThrow(ResultSet rs) {
+        try {
+            return mapResultSet(rs);
+        } catch (SQLException e) {
+            throw new com.mahal.database.UncheckedSQLException("Reading sync queue failed", e);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package com.mahal.sync;
+
+/**
+ * State of a sync_queue entry.
+ */
+public enum SyncStatus {
+    /** Queued, not attempted yet. */
+    PENDING,
+    /** Claimed by the running sync. */
+    SYNCING,
+    /** Pushed to Supabase. */
+    SYNCED,
+    /** Last attempt failed; retried after next_attempt_at until retries run out. */
+    FAILED
+}
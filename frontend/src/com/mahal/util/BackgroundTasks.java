@@ -0,0 +1,294 @@
+package com.mahal.util;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+
+/**
+ * Shared, bounded pool for the UI's background work (table loads, saves,
+ * deletes), replacing a raw thread per call.
+ *
+ * Interactive work (user actions) runs before background work (refreshes),
+ * first come first served within a priority. Loads are keyed per owner
+ * (usually a controller): a newer load for the same key supersedes an older
+ * one, which is dropped if still queued and whose result is discarded if it
+ * already ran, so a burst of EventBus refreshes costs one query per table.
+ * {@link #cancelAll(Object)} drops every pending load of an owner, e.g. when
+ * its view is discarded.
+ *
+ * Back-pressure: while more than {@link #MAX_QUEUED} tasks wait, background
+ * loads are parked (latest per key) and submitted as the queue drains.
+ */
+public class BackgroundTasks {
+    private static final int MAX_QUEUED = 32;
+    /** Tasks running longer than this are logged. */
+    private static final long SLOW_TASK_MS = 2000;
+
+    private static BackgroundTasks instance;
+
+    public enum Priority {
+        INTERACTIVE, BACKGROUND
+    }
+
+    /**
+     * Cancellation token of one keyed load.
+     */
+    private static final class Token {
+        volatile boolean cancelled;
+        Future<?> future;
+    }
+
+    private final class PrioritizedTask extends FutureTask<Void> implements Comparable<PrioritizedTask> {
+        final Priority priority;
+        final long sequence;
+        final String name;
+        final long queuedAt = System.nanoTime();
+
+        PrioritizedTask(Priority priority, String name, Runnable work) {
+            super(work, null);
+            this.priority = priority;
+            this.sequence = sequenceCounter.incrementAndGet();
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            totalWaitNanos.addAndGet(started - queuedAt);
+            super.run();
+            long runNanos = System.nanoTime() - started;
+            totalRunNanos.addAndGet(runNanos);
+            long runMs = TimeUnit.NANOSECONDS.toMillis(runNanos);
+            if (runMs > SLOW_TASK_MS) {
+                System.out.println("BackgroundTasks: slow task '" + name + "' took " + runMs + " ms");
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                cancelled.incrementAndGet();
+                return;
+            }
+            try {
+                get();
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.err.println("BackgroundTasks: task '" + name + "' failed: " + cause.getMessage());
+                cause.printStackTrace();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final AtomicLong sequenceCounter = new AtomicLong();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    private final ThreadPoolExecutor executor;
+    /** Owner -> load key -> token of its latest load. */
+    private final Map<Object, Map<String, Token>> tokens = new IdentityHashMap<>();
+    /** Background loads waiting for the queue to drain, latest per (owner, key). */
+    private final Map<Object, Map<String, Runnable>> parked = new IdentityHashMap<>();
+
+    private BackgroundTasks() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "mahal-bg-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }) {
+            @Override
+            protected void afterExecute(Runnable r, Throwable t) {
+                submitParked();
+            }
+        };
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized BackgroundTasks getInstance() {
+        if (instance == null) {
+            instance = new BackgroundTasks();
+        }
+        return instance;
+    }
+
+    /**
+     * Run a user-initiated task (save, delete, one-off lookup).
+     */
+    public Future<?> run(Runnable work) {
+        return run(Priority.INTERACTIVE, describe(work), work);
+    }
+
+    /**
+     * Run a task at the given priority; failures are logged.
+     */
+    public Future<?> run(Priority priority, String name, Runnable work) {
+        PrioritizedTask task = new PrioritizedTask(priority, name, work);
+        submitted.incrementAndGet();
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Load data for an owner at background priority and hand it to
+     * {@code onLoaded} on the JavaFX thread, unless a newer load with the
+     * same key, or {@link #cancelAll}, superseded it in the meantime.
+     */
+    public <T> void load(Object owner, String key, Callable<T> loader, Consumer<T> onLoaded) {
+        load(owner, key, Priority.BACKGROUND, loader, onLoaded, null);
+    }
+
+    /**
+     * As {@link #load(Object, String, Callable, Consumer)}, with an explicit
+     * priority and an optional error handler, also called on the JavaFX thread.
+     */
+    public <T> void load(Object owner, String key, Priority priority, Callable<T> loader, Consumer<T> onLoaded,
+            Consumer<Exception> onError) {
+        Token token = new Token();
+        String name = owner.getClass().getSimpleName() + "." + key;
+        Runnable work = () -> {
+            if (token.cancelled) {
+                return;
+            }
+            T result;
+            try {
+                result = loader.call();
+            } catch (Exception e) {
+                System.err.println("BackgroundTasks: load '" + name + "' failed: " + e.getMessage());
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    if (finish(owner, key, token) && onError != null) {
+                        onError.accept(e);
+                    }
+                });
+                return;
+            }
+            Platform.runLater(() -> {
+                if (finish(owner, key, token)) {
+                    onLoaded.accept(result);
+                }
+            });
+        };
+
+        synchronized (this) {
+            Token previous = tokens.computeIfAbsent(owner, k -> new HashMap<>()).put(key, token);
+            if (previous != null) {
+                cancel(previous);
+                superseded.incrementAndGet();
+            }
+            if (priority == Priority.BACKGROUND && executor.getQueue().size() >= MAX_QUEUED) {
+                Map<String, Runnable> ownerParked = parked.computeIfAbsent(owner, k -> new LinkedHashMap<>());
+                ownerParked.put(key, () -> token.future = run(priority, name, work));
+                deferred.incrementAndGet();
+                return;
+            }
+            token.future = run(priority, name, work);
+        }
+    }
+
+    /**
+     * Cancel every pending load of an owner; results still in flight are
+     * discarded.
+     */
+    public synchronized void cancelAll(Object owner) {
+        Map<String, Token> ownerTokens = tokens.remove(owner);
+        if (ownerTokens != null) {
+            ownerTokens.values().forEach(this::cancel);
+        }
+        parked.remove(owner);
+    }
+
+    /**
+     * Number of tasks waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Clear a completed load's token; false if it was superseded or cancelled.
+     */
+    private synchronized boolean finish(Object owner, String key, Token token) {
+        if (token.cancelled) {
+            return false;
+        }
+        Map<String, Token> ownerTokens = tokens.get(owner);
+        if (ownerTokens != null && ownerTokens.get(key) == token) {
+            ownerTokens.remove(key);
+            if (ownerTokens.isEmpty()) {
+                tokens.remove(owner);
+            }
+        }
+        return true;
+    }
+
+    private void cancel(Token token) {
+        token.cancelled = true;
+        if (token.future != null) {
+            token.future.cancel(false);
+            if (token.future instanceof Runnable) {
+                executor.remove((Runnable) token.future);
+            }
+        }
+    }
+
+    private synchronized void submitParked() {
+        Iterator<Map<String, Runnable>> owners = parked.values().iterator();
+        while (owners.hasNext() && executor.getQueue().size() < MAX_QUEUED) {
+            Map<String, Runnable> ownerParked = owners.next();
+            Iterator<Runnable> loads = ownerParked.values().iterator();
+            while (loads.hasNext() && executor.getQueue().size() < MAX_QUEUED) {
+                loads.next().run();
+                loads.remove();
+            }
+            if (ownerParked.isEmpty()) {
+                owners.remove();
+            }
+        }
+    }
+
+    private static String describe(Runnable work) {
+        String name = work.getClass().getName();
+        int lambda = name.indexOf("$$Lambda");
+        return lambda > 0 ? name.substring(name.lastIndexOf('.', lambda) + 1, lambda) : name;
+    }
+
+    @Override
+    public String toString() {
+        long done = Math.max(1, completed.get() + failed.get());
+        return "BackgroundTasks{submitted=" + submitted.get() + ", completed=" + completed.get()
+                + ", failed=" + failed.get() + ", cancelled=" + cancelled.get()
+                + ", superseded=" + superseded.get() + ", deferred=" + deferred.get()
+                + ", queued=" + executor.getQueue().size() + ", active=" + executor.getActiveCount()
+                + ", avgWaitMs=" + TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / done)
+                + ", avgRunMs=" + TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / done) + "}";
+    }
+}
@@ -2,6 +2,7 @@ package com.mahal.util;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -15,9 +16,12 @@ import javafx.application.Platform;
 public class EventBus {
     private static EventBus instance;
     private final Map<String, List<Consumer<String>>> subscribers;
+    /** Owner -> (topic, subscriber) pairs registered on its behalf. */
+    private final Map<Object, List<Map.Entry<String, Consumer<String>>>> owned;
 
     private EventBus() {
         this.subscribers = new HashMap<>();
+        this.owned = new IdentityHashMap<>();
     }
 
     public static synchronized EventBus getInstance() {
@@ -37,6 +41,28 @@ public class EventBus {
         subscribers.computeIfAbsent(topic, k -> new ArrayList<>()).add(subscriber);
     }
 
+    /**
+     * Subscribe on behalf of an owner (e.g. a controller), so that all of the
+     * owner's subscriptions can be dropped at once with
+     * {@link #unsubscribeAll(Object)} when it is discarded.
+     */
+    public synchronized void subscribe(String topic, Object owner, Consumer<String> subscriber) {
+        subscribe(topic, subscriber);
+        owned.computeIfAbsent(owner, k -> new ArrayList<>()).add(Map.entry(topic, subscriber));
+    }
+
+    /**
+     * Unsubscribe everything registered for the given owner.
+     */
+    public synchronized void unsubscribeAll(Object owner) {
+        List<Map.Entry<String, Consumer<String>>> subscriptions = owned.remove(owner);
+        if (subscriptions != null) {
+            for (Map.Entry<String, Consumer<String>> subscription : subscriptions) {
+                unsubscribe(subscription.getKey(), subscription.getValue());
+            }
+        }
+    }
+
     /**
      * Unsubscribe a listener from a topic.
      * 
@@ -0,0 +1,281 @@
+package com.mahal.util;
+
+import com.mahal.database.PageKey;
+import com.mahal.database.PageSort;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+/**
+ * Feeds a TableView from a keyset-paginated DAO query instead of loading the
+ * whole table up front. The first page is fetched on {@link #reset()}, further
+ * pages are fetched in the background as the user scrolls (or arrow-keys)
+ * towards the end of what is loaded.
+ *
+ * Search text and column sorting are pushed down to SQL: {@link #setFilter}
+ * and header clicks restart paging from the top. Only columns registered with
+ * {@link #mapSortColumn} stay sortable.
+ *
+ * All methods must be called on the JavaFX Application Thread.
+ */
+public class LazyTableLoader<T> {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int LOOKAHEAD_ROWS = 10;
+
+    /**
+     * Fetches one page; matches the signature of the DAOs' getPage methods.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetchPage(PageKey afterKey, int limit, PageSort<T> sort, String filter);
+    }
+
+    private final TableView<T> table;
+    private final ObservableList<T> items;
+    private final int pageSize;
+    private final PageSort<T> defaultSort;
+    private final Function<T, Long> idOf;
+    private final PageFetcher<T> fetcher;
+    private final Map<TableColumn<T, ?>, PageSort.Field<T>> sortColumns = new HashMap<>();
+
+    private PageSort<T> sort;
+    private String filter;
+    private int generation;
+    private boolean loading;
+    private boolean exhausted;
+    private boolean fixedList;
+    private ScrollBar verticalBar;
+    private Runnable onPageLoaded;
+    private Consumer<Exception> onError;
+
+    /**
+     * @param table       table to feed; its items are replaced by {@code items}
+     * @param items       list the loaded rows are kept in
+     * @param defaultSort order used while no mapped column is sorted
+     * @param idOf        row id, used as keyset tie-breaker
+     */
+    public LazyTableLoader(TableView<T> table, ObservableList<T> items, int pageSize, PageSort<T> defaultSort,
+            Function<T, Long> idOf, PageFetcher<T> fetcher) {
+        this.table = table;
+        this.items = items;
+        this.pageSize = pageSize;
+        this.defaultSort = Objects.requireNonNull(defaultSort);
+        this.sort = defaultSort;
+        this.idOf = idOf;
+        this.fetcher = fetcher;
+
+        table.setItems(items);
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(false);
+        }
+        table.setSortPolicy(t -> applySortOrder());
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(this::hookScrollBar));
+        if (table.getSkin() != null) {
+            hookScrollBar();
+        }
+        table.getSelectionModel().selectedIndexProperty().addListener((obs, oldIndex, newIndex) -> {
+            if (newIndex.intValue() >= items.size() - LOOKAHEAD_ROWS) {
+                loadNextPage();
+            }
+        });
+    }
+
+    /**
+     * Make a column sortable, ordering by the given DAO sort field.
+     */
+    public void mapSortColumn(TableColumn<T, ?> column, PageSort.Field<T> field) {
+        sortColumns.put(column, field);
+        column.setSortable(true);
+    }
+
+    public void setOnPageLoaded(Runnable onPageLoaded) {
+        this.onPageLoaded = onPageLoaded;
+    }
+
+    /**
+     * Called on the FX thread when a page could not be loaded.
+     */
+    public void setOnError(Consumer<Exception> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Set the search text and reload from the first page if it changed.
+     */
+    public void setFilter(String filter) {
+        String normalized = filter == null || filter.trim().isEmpty() ? null : filter;
+        if (Objects.equals(normalized, this.filter) && !fixedList) {
+            return;
+        }
+        this.filter = normalized;
+        reset();
+    }
+
+    /**
+     * Drop what is loaded and fetch the first page again, scrolled to the top.
+     */
+    public void reset() {
+        reload(pageSize, true);
+    }
+
+    /**
+     * Re-read the rows after a data change, keeping as many rows loaded as the
+     * user has already scrolled through.
+     */
+    public void refresh() {
+        reload(fixedList ? pageSize : Math.max(pageSize, items.size()), fixedList);
+    }
+
+    /**
+     * Show a precomputed list (e.g. a filtered report) instead of paging.
+     * Sorting then happens in memory. Paging resumes on the next reset or
+     * filter change.
+     */
+    public void showFixedList(List<T> rows) {
+        generation++;
+        fixedList = true;
+        loading = false;
+        exhausted = true;
+        items.setAll(rows);
+        Comparator<T> comparator = table.getComparator();
+        if (comparator != null) {
+            FXCollections.sort(items, comparator);
+        }
+    }
+
+    public boolean isFullyLoaded() {
+        return exhausted;
+    }
+
+    /**
+     * Fetch the page after the last loaded row, unless one is already on the
+     * way or everything is loaded.
+     */
+    public void loadNextPage() {
+        if (loading || exhausted || fixedList) {
+            return;
+        }
+        PageKey afterKey = null;
+        if (!items.isEmpty()) {
+            T last = items.get(items.size() - 1);
+            afterKey = sort.keyOf(last, idOf.apply(last));
+        }
+        fetch(afterKey, pageSize, false, false);
+    }
+
+    private void reload(int limit, boolean scrollToTop) {
+        generation++;
+        fixedList = false;
+        exhausted = false;
+        fetch(null, limit, true, scrollToTop);
+    }
+
+    private void fetch(PageKey afterKey, int limit, boolean replace, boolean scrollToTop) {
+        loading = true;
+        final int requestGeneration = generation;
+        final PageSort<T> requestSort = sort;
+        final String requestFilter = filter;
+        BackgroundTasks.getInstance().run(BackgroundTasks.Priority.INTERACTIVE, "LazyTableLoader.fetch", () -> {
+            List<T> page = null;
+            Exception error = null;
+            try {
+                page = fetcher.fetchPage(afterKey, limit, requestSort, requestFilter);
+            } catch (Exception e) {
+                System.err.println("LazyTableLoader: error loading page: " + e.getMessage());
+                e.printStackTrace();
+                error = e;
+            }
+            final List<T> result = page;
+            final Exception failure = error;
+            Platform.runLater(() -> {
+                if (requestGeneration != generation) {
+                    // Superseded by a reset, filter or sort change
+                    return;
+                }
+                loading = false;
+                if (failure != null) {
+                    exhausted = true;
+                    if (onError != null) {
+                        onError.accept(failure);
+                    }
+                    return;
+                }
+                if (replace) {
+                    items.setAll(result);
+                    if (scrollToTop && !items.isEmpty()) {
+                        table.scrollTo(0);
+                    }
+                } else {
+                    items.addAll(result);
+                }
+                exhausted = result.size() < limit;
+                if (onPageLoaded != null) {
+                    onPageLoaded.run();
+                }
+            });
+        });
+    }
+
+    private boolean applySortOrder() {
+        if (fixedList) {
+            Comparator<T> comparator = table.getComparator();
+            if (comparator != null) {
+                FXCollections.sort(items, comparator);
+            }
+            return true;
+        }
+        PageSort<T> requested = defaultSort;
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            PageSort.Field<T> field = sortColumns.get(column);
+            if (field != null) {
+                requested = new PageSort<>(field, column.getSortType() == TableColumn.SortType.ASCENDING);
+                break;
+            }
+        }
+        if (!requested.equals(sort)) {
+            sort = requested;
+            reset();
+        }
+        return true;
+    }
+
+    private void hookScrollBar() {
+        if (verticalBar != null) {
+            return;
+        }
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                verticalBar = (ScrollBar) node;
+                verticalBar.valueProperty().addListener((obs, oldValue, newValue) -> checkNearEnd());
+                verticalBar.visibleProperty().addListener((obs, oldValue, newValue) -> checkNearEnd());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Load more when the user is within the last tenth of the scroll range, or
+     * when the loaded rows do not even fill the table.
+     */
+    private void checkNearEnd() {
+        if (verticalBar == null || loading || exhausted) {
+            return;
+        }
+        double range = verticalBar.getMax() - verticalBar.getMin();
+        if (!verticalBar.isVisible() || verticalBar.getValue() >= verticalBar.getMax() - range * 0.1) {
+            loadNextPage();
+        }
+    }
+}
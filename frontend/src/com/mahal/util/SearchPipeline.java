@@ -0,0 +1,167 @@
+package com.mahal.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.animation.PauseTransition;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+/**
+ * Search-as-you-type for a text field, in one of two modes:
+ *
+ * <ul>
+ * <li>{@link #forList}: filters a FilteredList in memory. Each row's search
+ * text is lower-cased once and cached until the list changes, and when the
+ * query only grows only the rows that matched the previous query are
+ * rescanned.</li>
+ * <li>{@link #forQuery}: runs a database query on {@link BackgroundTasks}. A
+ * newer search cancels a queued one, and results are versioned so a slow
+ * query finishing after a newer one is discarded.</li>
+ * </ul>
+ *
+ * Keystrokes are debounced; clearing the field applies at once. All methods
+ * must be called on the JavaFX Application Thread.
+ */
+public final class SearchPipeline<T> {
+    private static final Duration LIST_DEBOUNCE = Duration.millis(120);
+    private static final Duration QUERY_DEBOUNCE = Duration.millis(250);
+
+    private final TextField field;
+    private final PauseTransition debounce;
+
+    // Query mode
+    private Consumer<String> search;
+    private long version;
+
+    // In-memory mode
+    private FilteredList<T> list;
+    private Function<T, String> searchText;
+    private final Map<T, String> keys = new IdentityHashMap<>();
+    private String lastQuery;
+    private Set<T> lastMatches;
+    private Runnable onFiltered;
+
+    private SearchPipeline(TextField field, Duration delay) {
+        this.field = field;
+        this.debounce = new PauseTransition(delay);
+        this.debounce.setOnFinished(e -> apply(field.getText()));
+        field.textProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue == null || newValue.trim().isEmpty()) {
+                debounce.stop();
+                apply(newValue);
+            } else {
+                debounce.playFromStart();
+            }
+        });
+    }
+
+    /**
+     * Filter {@code list} by the field's text: a row matches when the text
+     * returned by {@code searchText} (e.g. from {@link #keyOf}) contains the
+     * query, ignoring case. {@code onFiltered} runs after each change, e.g.
+     * to update a count label.
+     */
+    public static <T> SearchPipeline<T> forList(TextField field, FilteredList<T> list,
+            Function<T, String> searchText, Runnable onFiltered) {
+        SearchPipeline<T> pipeline = new SearchPipeline<>(field, LIST_DEBOUNCE);
+        pipeline.list = list;
+        pipeline.searchText = searchText;
+        pipeline.onFiltered = onFiltered;
+        list.getSource().addListener((ListChangeListener<T>) change -> {
+            // Rows were replaced or edited: recompute from the whole list
+            pipeline.keys.clear();
+            pipeline.lastMatches = null;
+            if (pipeline.lastQuery != null) {
+                pipeline.filter(pipeline.field.getText());
+            }
+        });
+        return pipeline;
+    }
+
+    /**
+     * Run {@code query} with the field's text on a background thread and pass
+     * the rows to {@code onResults} on the JavaFX thread. {@code owner} and
+     * {@code key} identify the load for {@link BackgroundTasks}.
+     */
+    public static <T> SearchPipeline<T> forQuery(TextField field, Object owner, String key,
+            Function<String, List<T>> query, Consumer<List<T>> onResults) {
+        SearchPipeline<T> pipeline = new SearchPipeline<>(field, QUERY_DEBOUNCE);
+        pipeline.search = text -> {
+            long requested = ++pipeline.version;
+            BackgroundTasks.getInstance().load(owner, key, BackgroundTasks.Priority.INTERACTIVE,
+                    () -> query.apply(text), rows -> {
+                        if (requested == pipeline.version) {
+                            onResults.accept(rows);
+                        }
+                    }, null);
+        };
+        return pipeline;
+    }
+
+    /**
+     * Search text of a row from its fields: the non-null values, lower-cased
+     * and separated so a query cannot match across two fields.
+     */
+    public static String keyOf(String... values) {
+        StringBuilder key = new StringBuilder();
+        for (String value : values) {
+            if (value != null) {
+                key.append(value.toLowerCase(Locale.ROOT)).append('\n');
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Apply the field's current text now, e.g. after the data changed.
+     */
+    public void refresh() {
+        debounce.stop();
+        if (list != null) {
+            keys.clear();
+            lastMatches = null;
+        }
+        apply(field.getText());
+    }
+
+    private void apply(String text) {
+        if (list != null) {
+            filter(text);
+        } else {
+            search.accept(text);
+        }
+    }
+
+    private void filter(String text) {
+        String query = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            lastQuery = null;
+            lastMatches = null;
+            list.setPredicate(null);
+        } else {
+            Iterable<? extends T> candidates = lastMatches != null && lastQuery != null && query.startsWith(lastQuery)
+                    ? lastMatches
+                    : list.getSource();
+            Set<T> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (T row : candidates) {
+                if (keys.computeIfAbsent(row, searchText).contains(query)) {
+                    matches.add(row);
+                }
+            }
+            lastQuery = query;
+            lastMatches = matches;
+            list.setPredicate(matches::contains);
+        }
+        if (onFiltered != null) {
+            onFiltered.run();
+        }
+    }
+}
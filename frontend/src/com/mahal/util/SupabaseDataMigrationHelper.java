@@ -1,10 +1,6 @@
 package com.mahal.util;
 
 import com.mahal.database.DataMigrationHelper;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Properties;
 import java.io.FileInputStream;
 